@@ -336,6 +336,8 @@ public class DefaultSoapUICore implements SoapUICore {
         setIfNotSet(UISettings.SHOW_STARTUP_PAGE, true);
         setIfNotSet(UISettings.GC_INTERVAL, "60");
         setIfNotSet(WsdlSettings.CACHE_WSDLS, true);
+        setIfNotSet(WsdlSettings.CACHE_SCHEMAS, true);
+        setIfNotSet(WsdlSettings.LOAD_DEFINITIONS_ON_OPEN, true);
         setIfNotSet(WsdlSettings.PRETTY_PRINT_RESPONSE_MESSAGES, true);
         setIfNotSet(HttpSettings.RESPONSE_COMPRESSION, true);
         setIfNotSet(HttpSettings.INCLUDE_REQUEST_IN_TIME_TAKEN, true);
@@ -54,6 +54,7 @@ public class SoapUIPreferencesAction extends AbstractAction implements SoapUIFac
     public static final String WSA_SETTINGS = "WS-A Settings";
     public static final String GLOBAL_SENSITIVE_INFORMATION_TOKENS = "Global Sensitive Information Tokens";
     public static final String VERSIONUPDATE_SETTINGS = "Version Update Settings";
+    public static final String JDBC_SETTINGS = "JDBC Settings";
     private SwingConfigurationDialogImpl dialog;
     private List<Prefs> prefs = new ArrayList<Prefs>();
     private Map<PrefsFactory, Prefs> prefsFactories = new HashMap<PrefsFactory, Prefs>();
@@ -82,6 +83,7 @@ public class SoapUIPreferencesAction extends AbstractAction implements SoapUIFac
         addPrefs(new AnnotatedSettingsPrefs(WsaSettings.class, WSA_SETTINGS));
         addPrefs(new SecurityScansPrefs(GLOBAL_SENSITIVE_INFORMATION_TOKENS));
         addPrefs(new AnnotatedSettingsPrefs(VersionUpdateSettings.class, VERSIONUPDATE_SETTINGS));
+        addPrefs(new AnnotatedSettingsPrefs(JdbcSettings.class, JDBC_SETTINGS));
 
         for (PrefsFactory factory : SoapUI.getFactoryRegistry().getFactories(PrefsFactory.class)) {
             addPrefsFactory(factory);
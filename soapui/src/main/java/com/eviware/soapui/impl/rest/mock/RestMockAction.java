@@ -163,6 +163,7 @@ public class RestMockAction extends AbstractMockOperation<RESTMockActionConfig,
     public void setMethod(RestRequestInterface.HttpMethod method) {
         getConfig().setMethod(method.name());
         setIcon(UISupport.createImageIcon(getIconName(method.name())));
+        getMockService().invalidateRouteIndex();
 
         notifyPropertyChanged("httpMethod", null, this);
     }
@@ -173,6 +174,7 @@ public class RestMockAction extends AbstractMockOperation<RESTMockActionConfig,
 
     public void setResourcePath(String path) {
         getConfig().setResourcePath(path);
+        getMockService().invalidateRouteIndex();
         notifyPropertyChanged("resourcePath", null, this);
     }
 
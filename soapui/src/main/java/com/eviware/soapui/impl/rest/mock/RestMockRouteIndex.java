@@ -0,0 +1,244 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.impl.rest.mock;
+
+import com.eviware.soapui.model.mock.MockOperation;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.eviware.soapui.impl.rest.RestRequestInterface.HttpMethod;
+
+/**
+ * Compiled routes of the actions of a RestMockService; a trie of path segments
+ * per HTTP method, where a segment of a resource path is either a literal, a
+ * {param} template matching any single segment, or a * wildcard matching any
+ * single segment.
+ * <p/>
+ * Lookups return, in order of preference
+ * <ol>
+ * <li>the first action with exactly the requested path</li>
+ * <li>the action fully matching the requested path, preferring literal over
+ * template over wildcard segments from left to right</li>
+ * <li>the action whose path is the longest prefix of the requested path</li>
+ * </ol>
+ * Among equal matches the action added to the service first wins.
+ */
+
+public class RestMockRouteIndex {
+    private final static String WILDCARD = "*";
+
+    private final Map<HttpMethod, Map<String, RestMockAction>> exactRoutes = new EnumMap<HttpMethod, Map<String, RestMockAction>>(
+            HttpMethod.class);
+    private final Map<HttpMethod, Node> routes = new EnumMap<HttpMethod, Node>(HttpMethod.class);
+
+    public RestMockRouteIndex(List<? extends MockOperation> mockActions) {
+        for (int c = 0; c < mockActions.size(); c++) {
+            addRoute((RestMockAction) mockActions.get(c), c);
+        }
+    }
+
+    private void addRoute(RestMockAction mockAction, int order) {
+        HttpMethod method = mockAction.getMethod();
+        String path = mockAction.getResourcePath();
+        if (path == null) {
+            return;
+        }
+
+        Map<String, RestMockAction> exact = exactRoutes.get(method);
+        if (exact == null) {
+            exact = new HashMap<String, RestMockAction>();
+            exactRoutes.put(method, exact);
+        }
+
+        if (!exact.containsKey(path)) {
+            exact.put(path, mockAction);
+        }
+
+        Node node = routes.get(method);
+        if (node == null) {
+            node = new Node();
+            routes.put(method, node);
+        }
+
+        for (String segment : split(path)) {
+            node = node.getOrCreateChild(segment);
+        }
+
+        if (node.route == null) {
+            node.route = new Route(mockAction, order, path.length());
+        }
+    }
+
+    public RestMockAction findExactMatch(String path, HttpMethod method) {
+        Map<String, RestMockAction> exact = exactRoutes.get(method);
+        return exact == null ? null : exact.get(path);
+    }
+
+    public RestMockAction findBestMatch(String path, HttpMethod method) {
+        RestMockAction result = findExactMatch(path, method);
+        if (result != null) {
+            return result;
+        }
+
+        Node root = routes.get(method);
+        if (root == null) {
+            return null;
+        }
+
+        String[] segments = split(path);
+        Route route = findFullMatch(root, segments, 0);
+        if (route == null) {
+            PartialMatch match = new PartialMatch();
+            findPartialMatches(root, segments, 0, match);
+            route = match.route;
+        }
+
+        return route == null ? null : route.mockAction;
+    }
+
+    private static Route findFullMatch(Node node, String[] segments, int index) {
+        if (index == segments.length) {
+            return node.route;
+        }
+
+        String segment = segments[index];
+        Route result = null;
+
+        if (node.literals != null && node.literals.containsKey(segment)) {
+            result = findFullMatch(node.literals.get(segment), segments, index + 1);
+        }
+
+        if (result == null && node.template != null && segment.length() > 0) {
+            result = findFullMatch(node.template, segments, index + 1);
+        }
+
+        if (result == null && node.wildcard != null && segment.length() > 0) {
+            result = findFullMatch(node.wildcard, segments, index + 1);
+        }
+
+        return result;
+    }
+
+    private static void findPartialMatches(Node node, String[] segments, int index, PartialMatch match) {
+        if (index == segments.length) {
+            return;
+        }
+
+        // path of this node is a prefix of the requested path
+        if (node.route != null) {
+            match.offer(node.route, index);
+        }
+
+        String segment = segments[index];
+
+        if (node.literals != null) {
+            // last segment of a path may be a prefix of the requested segment
+            for (Map.Entry<String, Node> entry : node.literals.entrySet()) {
+                Node child = entry.getValue();
+                if (child.route != null && entry.getKey().length() < segment.length()
+                        && segment.startsWith(entry.getKey())) {
+                    match.offer(child.route, index + 1);
+                }
+            }
+
+            Node child = node.literals.get(segment);
+            if (child != null) {
+                findPartialMatches(child, segments, index + 1, match);
+            }
+        }
+
+        if (node.template != null && segment.length() > 0) {
+            findPartialMatches(node.template, segments, index + 1, match);
+        }
+
+        if (node.wildcard != null && segment.length() > 0) {
+            findPartialMatches(node.wildcard, segments, index + 1, match);
+        }
+    }
+
+    private static String[] split(String path) {
+        return path.split("/", -1);
+    }
+
+    private static boolean isTemplate(String segment) {
+        return segment.length() > 1 && segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}';
+    }
+
+    private static class Node {
+        private Map<String, Node> literals;
+        private Node template;
+        private Node wildcard;
+        private Route route;
+
+        private Node getOrCreateChild(String segment) {
+            if (isTemplate(segment)) {
+                if (template == null) {
+                    template = new Node();
+                }
+                return template;
+            }
+
+            if (WILDCARD.equals(segment)) {
+                if (wildcard == null) {
+                    wildcard = new Node();
+                }
+                return wildcard;
+            }
+
+            if (literals == null) {
+                literals = new HashMap<String, Node>();
+            }
+
+            Node child = literals.get(segment);
+            if (child == null) {
+                child = new Node();
+                literals.put(segment, child);
+            }
+
+            return child;
+        }
+    }
+
+    private static class Route {
+        private final RestMockAction mockAction;
+        private final int order;
+        private final int length;
+
+        private Route(RestMockAction mockAction, int order, int length) {
+            this.mockAction = mockAction;
+            this.order = order;
+            this.length = length;
+        }
+    }
+
+    private static class PartialMatch {
+        private Route route;
+        private int segmentCount;
+
+        private void offer(Route candidate, int candidateSegmentCount) {
+            if (route == null || candidateSegmentCount > segmentCount
+                    || (candidateSegmentCount == segmentCount && (candidate.length > route.length
+                    || (candidate.length == route.length && candidate.order < route.order)))) {
+                route = candidate;
+                segmentCount = candidateSegmentCount;
+            }
+        }
+    }
+}
@@ -41,6 +41,9 @@ public class RestMockService extends AbstractMockService<RestMockAction, RESTMoc
     public final static String ICON_NAME = "/rest_virt.png";
     public static final String STRING_ID = "REST";
 
+    private volatile RestMockRouteIndex routeIndex;
+    private volatile int routeModificationCount;
+
     public String getStringID() {
         return STRING_ID;
     }
@@ -126,37 +129,47 @@ public class RestMockService extends AbstractMockService<RestMockAction, RESTMoc
     }
 
     private MockOperation findMatchedOperation(String pathToFind, HttpMethod verbToFind, boolean includePartialMatch) {
-        MockOperation bestMatchedOperation = null;
+        RestMockRouteIndex index = getRouteIndex();
 
-        for (MockOperation operation : getMockOperationList()) {
-            String operationPath = ((RestMockAction) operation).getResourcePath();
-            HttpMethod operationVerb = ((RestMockAction) operation).getMethod();
+        return includePartialMatch ? index.findBestMatch(pathToFind, verbToFind) : index.findExactMatch(pathToFind,
+                verbToFind);
+    }
 
-            boolean matchesPath = operationPath.equals(pathToFind);
-            boolean matchesVerb = verbToFind == operationVerb;
-            boolean matchesPathPartially = pathToFind.startsWith(operationPath);
+    private RestMockRouteIndex getRouteIndex() {
+        RestMockRouteIndex index = routeIndex;
+        if (index == null) {
+            int startCount = routeModificationCount;
+            index = new RestMockRouteIndex(getMockOperationList());
 
-            if (matchesPath && matchesVerb) {
-                return operation;
-            } else if (includePartialMatch && matchesPathPartially && matchesVerb) {
-                bestMatchedOperation = getBestMatchedOperation(bestMatchedOperation, operation, operationPath);
+            // keep the routes only if no action changed while compiling them
+            if (startCount == routeModificationCount) {
+                routeIndex = index;
             }
         }
 
-        return bestMatchedOperation;
+        return index;
     }
 
-    private MockOperation getBestMatchedOperation(MockOperation currentBestMatchedOperation, MockOperation operation, String operationPath) {
-        MockOperation bestMatchedOperation = currentBestMatchedOperation;
+    /**
+     * Discards the compiled routes after actions are added, removed or change
+     * their path or method
+     */
 
-        if (bestMatchedOperation == null || foundBetterMatch((RestMockAction) bestMatchedOperation, operationPath)) {
-            bestMatchedOperation = operation;
-        }
-        return bestMatchedOperation;
+    void invalidateRouteIndex() {
+        routeModificationCount++;
+        routeIndex = null;
     }
 
-    private boolean foundBetterMatch(RestMockAction bestMatchedOperation, String operationPath) {
-        return bestMatchedOperation.getResourcePath().length() < operationPath.length();
+    @Override
+    public void addMockOperation(RestMockAction mockOperation) {
+        super.addMockOperation(mockOperation);
+        invalidateRouteIndex();
+    }
+
+    @Override
+    public void removeMockOperation(MockOperation mockOperation) {
+        super.removeMockOperation(mockOperation);
+        invalidateRouteIndex();
     }
 
     public boolean canIAddAMockOperation(RestMockAction mockOperation) {
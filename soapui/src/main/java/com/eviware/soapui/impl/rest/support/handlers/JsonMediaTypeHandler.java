@@ -33,6 +33,7 @@ import net.sf.json.JSONException;
 import java.net.URL;
 
 public class JsonMediaTypeHandler implements MediaTypeHandler {
+    private final static String NULL_ESCAPE = "\\u0000";
 
     public boolean canHandle(String contentType) {
         return JsonUtil.seemsToBeJsonContentType(contentType);
@@ -48,9 +49,7 @@ public class JsonMediaTypeHandler implements MediaTypeHandler {
             if (!StringUtils.hasContent(content)) {
                 return null;
             }
-            // remove nulls - workaround for bug in xmlserializer!?
-            content = content.replaceAll("\\\\u0000", "");
-            JSON json = new JsonUtil().parseTrimmedText(content);
+            JSON json = new JsonUtil().parseTrimmedText(removeNulls(content));
             JsonXmlSerializer serializer = new JsonXmlSerializer();
             serializer.setTypeHintsEnabled(false);
             serializer.setRootName(HttpUtils.isErrorStatus(response.getStatusCode()) ? "Fault" : "Response");
@@ -77,9 +76,7 @@ public class JsonMediaTypeHandler implements MediaTypeHandler {
             if (!StringUtils.hasContent(content)) {
                 return null;
             }
-            // remove nulls - workaround for bug in xmlserializer!?
-            content = content.replaceAll("\\\\u0000", "");
-            JSON json = new JsonUtil().parseTrimmedText(content);
+            JSON json = new JsonUtil().parseTrimmedText(removeNulls(content));
             JsonXmlSerializer serializer = new JsonXmlSerializer();
             serializer.setTypeHintsEnabled(false);
             serializer.setRootName("Response");
@@ -96,6 +93,11 @@ public class JsonMediaTypeHandler implements MediaTypeHandler {
         return "<xml/>";
     }
 
+    // remove nulls - workaround for bug in xmlserializer!?
+    private static String removeNulls(String content) {
+        return content.contains(NULL_ESCAPE) ? content.replace(NULL_ESCAPE, "") : content;
+    }
+
     private String readOriginalUriFrom(AbstractHttpRequestInterface<?> request) {
         if (request instanceof RestRequest) {
             AbstractRequestConfig config = ((RestRequest) request).getConfig();
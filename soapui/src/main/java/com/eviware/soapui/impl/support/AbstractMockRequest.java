@@ -28,6 +28,7 @@ import com.eviware.soapui.model.iface.Attachment;
 import com.eviware.soapui.model.mock.MockRequest;
 import com.eviware.soapui.model.settings.Settings;
 import com.eviware.soapui.settings.WsdlSettings;
+import com.eviware.soapui.support.CaptureStore;
 import com.eviware.soapui.support.StringUtils;
 import com.eviware.soapui.support.Tools;
 import com.eviware.soapui.support.types.StringToStringMap;
@@ -58,6 +59,8 @@ public abstract class AbstractMockRequest implements MockRequest {
     private String actualRequestContent;
     private boolean responseMessage;
     private XmlObject requestXmlObject;
+    private CaptureStore.Record storedRequestContent;
+    private CaptureStore.Record storedActualRequestContent;
 
     public AbstractMockRequest(HttpServletRequest request, HttpServletResponse response, WsdlMockRunContext context) throws Exception {
         this.request = request;
@@ -211,7 +214,7 @@ public abstract class AbstractMockRequest implements MockRequest {
     }
 
     public String getRequestContent() {
-        return multipartMessageSupport == null ? requestContent : multipartMessageSupport.getContentAsString();
+        return multipartMessageSupport == null ? getPlainRequestContent() : multipartMessageSupport.getContentAsString();
     }
 
     public StringToStringsMap getRequestHeaders() {
@@ -250,7 +253,8 @@ public abstract class AbstractMockRequest implements MockRequest {
     }
 
     public byte[] getRawRequestData() {
-        return mockRequestDataSource == null ? actualRequestContent == null ? requestContent.getBytes()
+        String actualRequestContent = getActualRequestContent();
+        return mockRequestDataSource == null ? actualRequestContent == null ? getPlainRequestContent().getBytes()
                 : actualRequestContent.getBytes() : mockRequestDataSource.getData();
     }
 
@@ -258,8 +262,9 @@ public abstract class AbstractMockRequest implements MockRequest {
         return request;
     }
 
-    public void setActualRequestContent(String actualRequestContent) {
+    public synchronized void setActualRequestContent(String actualRequestContent) {
         this.actualRequestContent = actualRequestContent;
+        storedActualRequestContent = null;
     }
 
     public void setMultipartMessageSupport(MultipartMessageSupport multipartMessageSupport) {
@@ -270,8 +275,9 @@ public abstract class AbstractMockRequest implements MockRequest {
         return multipartMessageSupport;
     }
 
-    public void setRequestContent(String requestContent) {
+    public synchronized void setRequestContent(String requestContent) {
         this.requestContent = requestContent;
+        storedRequestContent = null;
     }
 
     public void setMockRequestDataSource(MockRequestDataSource mockRequestDataSource) {
@@ -286,6 +292,36 @@ public abstract class AbstractMockRequest implements MockRequest {
         return responseMessage;
     }
 
+    /**
+     * Moves the request content to the store once the request has been handled
+     * and is only kept for the MockService log; the parsed request is dropped and
+     * created again if needed
+     */
+
+    public synchronized void storeBodies(CaptureStore store) {
+        if (requestContent != null && (storedRequestContent = store.append(requestContent)) != null) {
+            requestContent = null;
+        }
+
+        if (actualRequestContent != null
+                && (storedActualRequestContent = store.append(actualRequestContent)) != null) {
+            actualRequestContent = null;
+        }
+
+        requestXmlObject = null;
+    }
+
+    private synchronized String getPlainRequestContent() {
+        String content = requestContent;
+        return content != null || storedRequestContent == null ? content : storedRequestContent.getString();
+    }
+
+    private synchronized String getActualRequestContent() {
+        String content = actualRequestContent;
+        return content != null || storedActualRequestContent == null ? content : storedActualRequestContent
+                .getString();
+    }
+
     public void setRequestXmlObject(XmlObject requestXmlObject) {
         this.requestXmlObject = requestXmlObject;
     }
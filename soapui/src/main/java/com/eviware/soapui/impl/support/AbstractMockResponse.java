@@ -48,6 +48,7 @@ import com.eviware.soapui.model.propertyexpansion.PropertyExpander;
 import com.eviware.soapui.model.propertyexpansion.PropertyExpansionContainer;
 import com.eviware.soapui.model.testsuite.TestProperty;
 import com.eviware.soapui.model.testsuite.TestPropertyListener;
+import com.eviware.soapui.monitor.MockResponseDelay;
 import com.eviware.soapui.settings.CommonSettings;
 import com.eviware.soapui.support.scripting.ScriptEnginePool;
 import com.eviware.soapui.support.scripting.SoapUIScriptEngine;
@@ -65,9 +66,11 @@ import javax.mail.internet.MimeMultipart;
 import javax.mail.internet.PreencodedMimeBodyPart;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.UnsupportedEncodingException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public abstract class AbstractMockResponse<MockResponseConfigType extends BaseMockResponseConfig>
         extends AbstractWsdlModelItem<MockResponseConfigType>
@@ -79,6 +82,7 @@ public abstract class AbstractMockResponse<MockResponseConfigType extends BaseMo
     private String responseContent;
     private MockResult mockResult;
     private ScriptEnginePool scriptEnginePool;
+    private volatile RenderedContent renderedContent;
 
 
     public AbstractMockResponse(MockResponseConfigType config, MockOperation operation, String icon) {
@@ -97,6 +101,7 @@ public abstract class AbstractMockResponse<MockResponseConfigType extends BaseMo
     @Override
     public void setConfig(MockResponseConfigType config) {
         super.setConfig(config);
+        renderedContent = null;
 
         if (scriptEnginePool != null) {
             scriptEnginePool.setScript(getScript());
@@ -229,6 +234,7 @@ public abstract class AbstractMockResponse<MockResponseConfigType extends BaseMo
     public void release() {
         super.release();
         scriptEnginePool.release();
+        renderedContent = null;
     }
 
     public MockResult execute(MockRequest request, MockResult result) throws DispatchException {
@@ -236,7 +242,8 @@ public abstract class AbstractMockResponse<MockResponseConfigType extends BaseMo
             getProperty("Request").setValue(request.getRequestContent());
 
             long delay = getResponseDelay();
-            if (delay > 0) {
+            // a deferred delay is waited for by the mock engine after the script below has run
+            if (delay > 0 && !MockResponseDelay.defer(request.getHttpRequest(), request.getHttpResponse(), delay)) {
                 Thread.sleep(delay);
             }
 
@@ -315,47 +322,48 @@ public abstract class AbstractMockResponse<MockResponseConfigType extends BaseMo
                     SoapUI.logError(e);
                 }
             }
-
-            responseContent = removeEmptyContent(responseContent);
         }
 
-        if (isStripWhitespaces()) {
-            responseContent = XmlUtils.stripWhitespaces(responseContent);
-        }
+        RenderedContent rendered = renderContent(responseContent, operation instanceof WsdlOperation);
+        responseContent = rendered.content;
 
         MockRequest request = result.getMockRequest();
         request.getHttpResponse().setStatus(this.getResponseHttpStatus());
 
-        ByteArrayOutputStream outData = new ByteArrayOutputStream();
+        String encoding = getEncoding();
 
         // non-multipart request?
         String responseCompression = getResponseCompression();
         if (!isXOP && (mp == null || mp.getCount() == 0) && getAttachmentCount() == 0) {
-            String encoding = getEncoding();
             if (responseContent == null) {
                 responseContent = "";
             }
 
-            byte[] content = encoding == null ? responseContent.getBytes() : responseContent.getBytes(encoding);
-
             if (!result.getResponseHeaders().containsKeyIgnoreCase("Content-Type")) {
                 result.setContentType(getContentType());
             }
 
+            // the bytes are shared with previous and later results of the same content and written as they are
+            byte[] data;
             String acceptEncoding = result.getMockRequest().getRequestHeaders().get("Accept-Encoding", "");
             if (AUTO_RESPONSE_COMPRESSION.equals(responseCompression) && acceptEncoding != null
                     && acceptEncoding.toUpperCase().contains("GZIP")) {
                 if (!headerExists("Content-Encoding", "gzip", result)) {
                     result.addHeader("Content-Encoding", "gzip");
                 }
-                outData.write(CompressionSupport.compress(CompressionSupport.ALG_GZIP, content));
+                data = rendered.getCompressed(encoding, CompressionSupport.ALG_GZIP);
             } else if (AUTO_RESPONSE_COMPRESSION.equals(responseCompression) && acceptEncoding != null
                     && acceptEncoding.toUpperCase().contains("DEFLATE")) {
                 result.addHeader("Content-Encoding", "deflate");
-                outData.write(CompressionSupport.compress(CompressionSupport.ALG_DEFLATE, content));
+                data = rendered.getCompressed(encoding, CompressionSupport.ALG_DEFLATE);
+            } else if (rendered.getBytes(encoding).length > 0 && isCompressed(responseCompression)) {
+                result.addHeader("Content-Encoding", responseCompression);
+                data = rendered.getCompressed(encoding, responseCompression);
             } else {
-                outData.write(content);
+                data = rendered.getBytes(encoding);
             }
+
+            writeResponseData(result, data);
         } else // won't get here if rest at the moment...
         {
             // make sure..
@@ -378,25 +386,61 @@ public abstract class AbstractMockResponse<MockResponseConfigType extends BaseMo
 
             result.addHeader("Content-Type", mimeMessageRequestEntity.getContentType().getValue());
             result.addHeader("MIME-Version", "1.0");
+
+            ByteArrayOutputStream outData = new ByteArrayOutputStream();
             mimeMessageRequestEntity.writeTo(outData);
-        }
 
-        if (outData.size() > 0) {
             byte[] data = outData.toByteArray();
-
-            if (responseCompression.equals(CompressionSupport.ALG_DEFLATE)
-                    || responseCompression.equals(CompressionSupport.ALG_GZIP)) {
+            if (data.length > 0 && isCompressed(responseCompression)) {
                 result.addHeader("Content-Encoding", responseCompression);
                 data = CompressionSupport.compress(responseCompression, data);
             }
+
+            writeResponseData(result, data);
+        }
+
+
+        return responseContent;
+    }
+
+    /**
+     * Returns the response content with empty content and whitespaces removed
+     * as configured, reusing the content and its encoded and compressed bytes
+     * from the previous response if the content is the same; responses without
+     * dynamic content are thus only processed once.
+     */
+
+    private RenderedContent renderContent(String content, boolean wsdl) {
+        boolean removeEmptyContent = wsdl && isRemoveEmptyContent();
+        boolean stripWhitespaces = isStripWhitespaces();
+
+        RenderedContent rendered = renderedContent;
+        if (rendered != null && rendered.matches(content, removeEmptyContent, stripWhitespaces)) {
+            return rendered;
+        }
+
+        String renderedText = wsdl ? removeEmptyContent(content) : content;
+        if (stripWhitespaces) {
+            renderedText = XmlUtils.stripWhitespaces(renderedText);
+        }
+
+        rendered = new RenderedContent(content, removeEmptyContent, stripWhitespaces, renderedText);
+        renderedContent = rendered;
+        return rendered;
+    }
+
+    private static boolean isCompressed(String responseCompression) {
+        return responseCompression.equals(CompressionSupport.ALG_DEFLATE)
+                || responseCompression.equals(CompressionSupport.ALG_GZIP);
+    }
+
+    private static void writeResponseData(MockResult result, byte[] data) throws IOException {
+        if (data.length > 0) {
             if (result.getResponseHeaders().get("Transfer-Encoding") == null) {
                 result.addHeader("Content-Length", "" + data.length);
             }
             result.writeRawResponseData(data);
         }
-
-
-        return responseContent;
     }
 
     private boolean headerExists(String headerName, String headerValue, MockResult result) {
@@ -430,6 +474,10 @@ public abstract class AbstractMockResponse<MockResponseConfigType extends BaseMo
 
     protected abstract String removeEmptyContent(String responseContent);
 
+    public boolean isRemoveEmptyContent() {
+        return false;
+    }
+
     public void setResponseHeaders(StringToStringsMap headers) {
         StringToStringsMap oldHeaders = getResponseHeaders();
 
@@ -514,4 +562,54 @@ public abstract class AbstractMockResponse<MockResponseConfigType extends BaseMo
     public void setEncoding(String encoding) {
         getConfig().setEncoding(encoding);
     }
+
+    /**
+     * Response content rendered from a specific content, with its bytes
+     * encoded and compressed on first use; shared by concurrent mock requests
+     */
+
+    private final static class RenderedContent {
+        private final String source;
+        private final boolean removeEmptyContent;
+        private final boolean stripWhitespaces;
+        private final String content;
+
+        private final Map<String, byte[]> encodedBytes = new ConcurrentHashMap<String, byte[]>();
+        private final Map<String, byte[]> compressedBytes = new ConcurrentHashMap<String, byte[]>();
+
+        private RenderedContent(String source, boolean removeEmptyContent, boolean stripWhitespaces, String content) {
+            this.source = source;
+            this.removeEmptyContent = removeEmptyContent;
+            this.stripWhitespaces = stripWhitespaces;
+            this.content = content;
+        }
+
+        private boolean matches(String source, boolean removeEmptyContent, boolean stripWhitespaces) {
+            return this.removeEmptyContent == removeEmptyContent && this.stripWhitespaces == stripWhitespaces
+                    && (this.source == source || (this.source != null && this.source.equals(source)));
+        }
+
+        private byte[] getBytes(String encoding) throws UnsupportedEncodingException {
+            String key = String.valueOf(encoding);
+            byte[] result = encodedBytes.get(key);
+            if (result == null) {
+                String text = content == null ? "" : content;
+                result = encoding == null ? text.getBytes() : text.getBytes(encoding);
+                encodedBytes.put(key, result);
+            }
+
+            return result;
+        }
+
+        private byte[] getCompressed(String encoding, String alg) throws Exception {
+            String key = encoding + "@" + alg;
+            byte[] result = compressedBytes.get(key);
+            if (result == null) {
+                result = CompressionSupport.compress(alg, getBytes(encoding));
+                compressedBytes.put(key, result);
+            }
+
+            return result;
+        }
+    }
 }
@@ -20,6 +20,7 @@ import com.eviware.soapui.model.mock.MockOperation;
 import com.eviware.soapui.model.mock.MockRequest;
 import com.eviware.soapui.model.mock.MockResponse;
 import com.eviware.soapui.model.mock.MockResult;
+import com.eviware.soapui.support.CaptureStore;
 import com.eviware.soapui.support.DateUtil;
 import com.eviware.soapui.support.action.swing.ActionList;
 import com.eviware.soapui.support.action.swing.DefaultActionList;
@@ -43,6 +44,8 @@ public class BaseMockResult<MockRequestType extends MockRequest, MockOperationTy
     private byte[] rawResponseData;
     private MockOperationType mockOperation;
     private String responseContentType;
+    private CaptureStore.Record storedResponseContent;
+    private CaptureStore.Record storedRawResponseData;
 
     public BaseMockResult(MockRequestType request) {
         timestamp = System.currentTimeMillis();
@@ -65,8 +68,9 @@ public class BaseMockResult<MockRequestType extends MockRequest, MockOperationTy
         return mockResponse;
     }
 
-    public String getResponseContent() {
-        return responseContent;
+    public synchronized String getResponseContent() {
+        String content = responseContent;
+        return content != null || storedResponseContent == null ? content : storedResponseContent.getString();
     }
 
     public long getTimeTaken() {
@@ -94,8 +98,9 @@ public class BaseMockResult<MockRequestType extends MockRequest, MockOperationTy
         mockRequest.getRequestContext().setMockResponse(mockResponse);
     }
 
-    public void setResponseContent(String responseContent) {
+    public synchronized void setResponseContent(String responseContent) {
         this.responseContent = responseContent;
+        storedResponseContent = null;
     }
 
     @SuppressWarnings("unchecked")
@@ -137,12 +142,33 @@ public class BaseMockResult<MockRequestType extends MockRequest, MockOperationTy
         return false;
     }
 
-    public byte[] getRawResponseData() {
-        return rawResponseData;
+    public synchronized byte[] getRawResponseData() {
+        byte[] data = rawResponseData;
+        return data != null || storedRawResponseData == null ? data : storedRawResponseData.getData();
     }
 
-    public void setRawResponseData(byte[] rawResponseData) {
+    public synchronized void setRawResponseData(byte[] rawResponseData) {
         this.rawResponseData = rawResponseData;
+        storedRawResponseData = null;
+    }
+
+    /**
+     * Moves the request and response bodies to the store when the result is
+     * kept in the MockService log
+     */
+
+    public synchronized void storeBodies(CaptureStore store) {
+        if (responseContent != null && (storedResponseContent = store.append(responseContent)) != null) {
+            responseContent = null;
+        }
+
+        if (rawResponseData != null && (storedRawResponseData = store.append(rawResponseData)) != null) {
+            rawResponseData = null;
+        }
+
+        if (mockRequest instanceof AbstractMockRequest) {
+            ((AbstractMockRequest) mockRequest).storeBodies(store);
+        }
     }
 
     public void writeRawResponseData(byte[] bs) throws IOException {
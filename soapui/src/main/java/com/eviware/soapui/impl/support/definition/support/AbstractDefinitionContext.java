@@ -34,9 +34,12 @@ import org.apache.xmlbeans.SchemaTypeLoader;
 import org.apache.xmlbeans.SchemaTypeSystem;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
 
 /**
  * Holder for InterfaceDefinitions and related SchemaTypeLoader types
@@ -47,8 +50,10 @@ import java.util.Map;
 public abstract class AbstractDefinitionContext<T extends AbstractInterface<?>, T2 extends DefinitionLoader, T3 extends AbstractInterfaceDefinition<T>>
         implements DefinitionContext<T> {
     private String url;
-    private T3 definition;
-    private boolean loaded;
+    private volatile T3 definition;
+    private volatile boolean loaded;
+    private volatile FutureTask<Boolean> backgroundLoad;
+    private boolean released;
     private SchemaException schemaException;
 
     private final static Logger log = Logger.getLogger(AbstractDefinitionContext.class);
@@ -56,7 +61,8 @@ public abstract class AbstractDefinitionContext<T extends AbstractInterface<?>,
     private T2 currentLoader;
     private T iface;
 
-    private static Map<String, InterfaceDefinition<?>> definitionCache = new HashMap<String, InterfaceDefinition<?>>();
+    private static Map<String, InterfaceDefinition<?>> definitionCache = Collections
+            .synchronizedMap(new HashMap<String, InterfaceDefinition<?>>());
     private static Map<String, Integer> urlReferences = new HashMap<String, Integer>();
 
     public AbstractDefinitionContext(String url, T iface) {
@@ -82,14 +88,19 @@ public abstract class AbstractDefinitionContext<T extends AbstractInterface<?>,
         return loaded;
     }
 
-    public synchronized boolean loadIfNecessary() throws Exception {
-        if (!loaded) {
+    public boolean loadIfNecessary() throws Exception {
+        if (!isLoaded()) {
             load();
         }
-        return loaded;
+        return isLoaded();
     }
 
-    public synchronized void setDefinition(String url, boolean updateCache) throws Exception {
+    public void setDefinition(String url, boolean updateCache) throws Exception {
+        awaitBackgroundLoad();
+        setDefinitionUrl(url, updateCache);
+    }
+
+    private synchronized void setDefinitionUrl(String url, boolean updateCache) throws Exception {
         if (!url.equals(this.url)) {
             this.url = url;
 
@@ -104,13 +115,20 @@ public abstract class AbstractDefinitionContext<T extends AbstractInterface<?>,
         }
     }
 
-    public synchronized boolean load() throws Exception {
+    public boolean load() throws Exception {
         return load(null);
     }
 
     private static XProgressDialog progressDialog = null;
 
-    public synchronized boolean load(T2 wsdlLoader) throws Exception {
+    public boolean load(T2 wsdlLoader) throws Exception {
+        // waits without holding the lock of this context, which a background
+        // load takes to publish its definition
+        awaitBackgroundLoad();
+        return doLoad(wsdlLoader);
+    }
+
+    private synchronized boolean doLoad(T2 wsdlLoader) throws Exception {
         // only use cache if iface has been specified
         if (!loaded && iface != null) {
             // FIXME Refactoring: loaded = (definition != null) ?
@@ -122,16 +140,7 @@ public abstract class AbstractDefinitionContext<T extends AbstractInterface<?>,
         }
 
         Loader loader = new Loader(wsdlLoader);
-
-        if (progressDialog != null) {
-            progressDialog.run(loader);
-        } else {
-            // always use progressDialog since files can import http urls
-            progressDialog = UISupport.getDialogs().createProgressDialog("Loading Definition", 3, "Loading definition..",
-                    true);
-
-            progressDialog.run(loader);
-        }
+        runWithProgress(loader);
 
         // Get the value. It is the responsibility of the progressDialog to
         // wait for the other thread to finish.
@@ -163,6 +172,106 @@ public abstract class AbstractDefinitionContext<T extends AbstractInterface<?>,
         return loaded;
     }
 
+    private static void runWithProgress(Worker worker) throws Exception {
+        if (progressDialog == null) {
+            // always use progressDialog since files can import http urls
+            progressDialog = UISupport.getDialogs().createProgressDialog("Loading Definition", 3, "Loading definition..",
+                    true);
+        }
+
+        progressDialog.run(worker);
+    }
+
+    /**
+     * Starts loading the definition cached in the interface on the
+     * DefinitionLoadPool, so that it is available when first used. Definitions
+     * that are not cached are left to be loaded on demand, since fetching them
+     * may require user interaction.
+     */
+
+    public synchronized void loadInBackground() {
+        if (loaded || backgroundLoad != null || iface == null || !iface.getConfig().isSetDefinitionCache()
+                || !new InterfaceConfigDefinitionCache<T>(iface).validate()) {
+            return;
+        }
+
+        final String loadUrl = url;
+        final T loadIface = iface;
+        backgroundLoad = new FutureTask<Boolean>(new Callable<Boolean>() {
+            public Boolean call() throws Exception {
+                if (isLoaded() || definitionCache.containsKey(loadUrl)) {
+                    return true;
+                }
+
+                // uses its own loader without progress monitor and leaves the
+                // fields of this context to publishDefinition
+                try {
+                    DefinitionCache cache = new InterfaceConfigDefinitionCache<T>(loadIface);
+                    T3 result = loadDefinition(createDefinitionLoader(cache));
+                    if (result == null) {
+                        return false;
+                    }
+
+                    result.setDefinitionCache(cache);
+                    publishDefinition(loadUrl, result);
+                    return true;
+                } catch (Exception e) {
+                    if (!isReleased()) {
+                        log.warn("Background load of [" + loadUrl + "] failed: " + e);
+                    }
+                    return false;
+                }
+            }
+        });
+
+        DefinitionLoadPool.execute(backgroundLoad);
+    }
+
+    private synchronized void publishDefinition(String loadUrl, T3 result) {
+        // a released context must not add references to the definition cache
+        if (released || loaded || !loadUrl.equals(url) || iface == null) {
+            return;
+        }
+
+        definition = result;
+        if (iface.isDefinitionShareble()) {
+            addToDefinitionCache(url, definition);
+        }
+
+        loaded = true;
+    }
+
+    private static void addToDefinitionCache(String url, InterfaceDefinition<?> definition) {
+        synchronized (urlReferences) {
+            definitionCache.put(url, definition);
+            if (urlReferences.containsKey(url)) {
+                urlReferences.put(url, urlReferences.get(url) + 1);
+            } else {
+                urlReferences.put(url, 1);
+            }
+        }
+    }
+
+    private void awaitBackgroundLoad() throws Exception {
+        final FutureTask<Boolean> pending = backgroundLoad;
+        if (pending == null || pending.isDone()) {
+            return;
+        }
+
+        // errors are logged by the background loader and reported by the load that follows
+        runWithProgress(new Worker.WorkerAdapter() {
+            public Object construct(XProgressMonitor monitor) {
+                monitor.setProgress(1, "Loading Definition from cache");
+                try {
+                    DefinitionLoadPool.await(pending);
+                } catch (Exception e) {
+                    log.debug("Background load of [" + url + "] failed: " + e);
+                }
+                return null;
+            }
+        });
+    }
+
     public SchemaTypeLoader getSchemaTypeLoader() throws Exception {
         loadIfNecessary();
         return iface != null && definitionCache.containsKey(url) ? definitionCache.get(url).getSchemaTypeLoader()
@@ -250,12 +359,7 @@ public abstract class AbstractDefinitionContext<T extends AbstractInterface<?>,
         log.debug("Loaded Definition: " + (definition != null ? "ok" : "null"));
 
         if (!currentLoader.isAborted() && iface != null && iface.isDefinitionShareble()) {
-            definitionCache.put(url, definition);
-            if (urlReferences.containsKey(url)) {
-                urlReferences.put(url, urlReferences.get(url) + 1);
-            } else {
-                urlReferences.put(url, 1);
-            }
+            addToDefinitionCache(url, definition);
         }
 
         if (currentLoader.isAborted()) {
@@ -271,14 +375,30 @@ public abstract class AbstractDefinitionContext<T extends AbstractInterface<?>,
 
     protected abstract T3 loadDefinition(T2 loader) throws Exception;
 
+    private synchronized boolean isReleased() {
+        return released;
+    }
+
     public void release() {
-        if (iface != null && urlReferences.containsKey(url)) {
-            Integer i = urlReferences.get(url);
-            if (i.intValue() <= 1) {
-                urlReferences.remove(url);
-                definitionCache.remove(url);
-            } else {
-                urlReferences.put(url, i - 1);
+        // loads still queued do not run anymore; a running load does not publish its definition
+        FutureTask<Boolean> pending = backgroundLoad;
+        if (pending != null) {
+            pending.cancel(false);
+        }
+
+        synchronized (this) {
+            released = true;
+        }
+
+        synchronized (urlReferences) {
+            if (iface != null && urlReferences.containsKey(url)) {
+                Integer i = urlReferences.get(url);
+                if (i.intValue() <= 1) {
+                    urlReferences.remove(url);
+                    definitionCache.remove(url);
+                } else {
+                    urlReferences.put(url, i - 1);
+                }
             }
         }
     }
@@ -336,8 +456,10 @@ public abstract class AbstractDefinitionContext<T extends AbstractInterface<?>,
     }
 
     public static void uncache(String url) {
-        definitionCache.remove(url);
-        urlReferences.remove(url);
+        synchronized (urlReferences) {
+            definitionCache.remove(url);
+            urlReferences.remove(url);
+        }
     }
 
     public void reload() throws Exception {
@@ -0,0 +1,97 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.impl.support.definition.support;
+
+import com.eviware.soapui.SoapUI;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool of daemon threads on which interface definitions and their
+ * imported parts are loaded in the background.
+ * <p/>
+ * Tasks are FutureTasks that a caller needing the result takes over with
+ * await, running them on its own thread if no pool thread has started them
+ * yet, so that callers waiting for parts never starve the pool.
+ */
+
+public class DefinitionLoadPool {
+    private static ExecutorService executor;
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(getPoolSize(), new LoaderThreadFactory());
+        }
+
+        return executor;
+    }
+
+    private static int getPoolSize() {
+        try {
+            return Math.max(1, Integer.parseInt(System.getProperty("soapui.definition.loaders")));
+        } catch (Exception e) {
+            return Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+        }
+    }
+
+    public static void execute(FutureTask<?> task) {
+        getExecutor().execute(task);
+    }
+
+    /**
+     * Returns the result of the specified task, running it on the calling
+     * thread if it has not been started yet and waiting for it otherwise
+     */
+
+    public static <V> V await(FutureTask<V> task) throws Exception {
+        task.run();
+
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+
+            throw e;
+        }
+    }
+
+    private final static class LoaderThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "Definition Loader " + threadNumber.getAndIncrement());
+
+            thread.setDaemon(true);
+            if (SoapUI.getSoapUICore() != null) {
+                thread.setContextClassLoader(SoapUI.getSoapUICore().getExtensionClassLoader());
+            }
+
+            return thread;
+        }
+    }
+}
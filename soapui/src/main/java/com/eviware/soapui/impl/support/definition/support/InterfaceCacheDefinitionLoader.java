@@ -87,6 +87,17 @@ public class InterfaceCacheDefinitionLoader extends AbstractWsdlDefinitionLoader
         return null;
     }
 
+    /**
+     * Returns a loader for the same parts without progress monitor, so that
+     * parts can be loaded on other threads while this loader is in use
+     */
+
+    public InterfaceCacheDefinitionLoader createPartLoader() {
+        InterfaceCacheDefinitionLoader loader = new InterfaceCacheDefinitionLoader(config);
+        loader.rootInConfig = rootInConfig;
+        return loader;
+    }
+
     public static XmlObject getPartContent(InterfaceDefinitionPart part) throws XmlException {
         // return XmlObject.Factory.parse( part.getContent(), new
         // XmlOptions().setLoadLineNumbers() );
@@ -83,6 +83,7 @@ import com.eviware.soapui.support.SoapUIException;
 import com.eviware.soapui.support.StringUtils;
 import com.eviware.soapui.support.Tools;
 import com.eviware.soapui.support.UISupport;
+import com.eviware.soapui.support.jdbc.JdbcConnectionPool;
 import com.eviware.soapui.support.resolver.ResolveContext;
 import com.eviware.soapui.support.resolver.ResolveDialog;
 import com.eviware.soapui.support.scripting.SoapUIScriptEngine;
@@ -429,10 +430,34 @@ public class WsdlProject extends AbstractTestPropertyHolderWsdlModelItem<Project
         }
 
         afterLoad();
+        loadDefinitionsInBackground();
 
         return projectDocument;
     }
 
+    /**
+     * Starts loading the cached definitions of all WSDL interfaces in parallel,
+     * so that each interface is ready as soon as its own definition has been
+     * loaded. REST services are left out since their WADL may be generated from
+     * the model.
+     */
+
+    private void loadDefinitionsInBackground() {
+        if (!getSettings().getBoolean(WsdlSettings.LOAD_DEFINITIONS_ON_OPEN)) {
+            return;
+        }
+
+        for (AbstractInterface<?> iface : interfaces) {
+            try {
+                if (iface instanceof WsdlInterface) {
+                    ((WsdlInterface) iface).getWsdlContext().loadInBackground();
+                }
+            } catch (Exception e) {
+                SoapUI.logError(e);
+            }
+        }
+    }
+
     public Environment getActiveEnvironment() {
         return environment;
     }
@@ -1206,6 +1231,8 @@ public class WsdlProject extends AbstractTestPropertyHolderWsdlModelItem<Project
         if (beforeSaveScriptEngine != null) {
             beforeSaveScriptEngine.release();
         }
+
+        JdbcConnectionPool.closePools(this);
     }
 
     public WsdlMockService addNewMockService(String name) {
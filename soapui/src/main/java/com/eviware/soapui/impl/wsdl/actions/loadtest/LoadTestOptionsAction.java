@@ -16,6 +16,7 @@
 
 package com.eviware.soapui.impl.wsdl.actions.loadtest;
 
+import com.eviware.soapui.impl.wsdl.loadtest.LoadTestExecutors;
 import com.eviware.soapui.impl.wsdl.loadtest.WsdlLoadTest;
 import com.eviware.soapui.impl.wsdl.support.HelpUrls;
 import com.eviware.soapui.model.settings.Settings;
@@ -60,6 +61,7 @@ public class LoadTestOptionsAction extends AbstractSoapUIAction<WsdlLoadTest> {
         dialog.setIntValue(SettingsForm.STRATEGY_INTERVAL, (int) loadTest.getStrategyInterval());
         dialog.setBooleanValue(SettingsForm.CANCEL_EXCESSIVE, loadTest.getCancelExcessiveThreads());
         dialog.setBooleanValue(SettingsForm.TESTSTEP_STATISTICS, loadTest.getUpdateStatisticsPerTestStep());
+        dialog.setValue(SettingsForm.EXECUTION_ENGINE, loadTest.getExecutionEngine());
 
         Settings settings = loadTest.getSettings();
 
@@ -87,6 +89,7 @@ public class LoadTestOptionsAction extends AbstractSoapUIAction<WsdlLoadTest> {
                         WsdlLoadTest.DEFAULT_STRATEGY_INTERVAL));
                 loadTest.setCancelExcessiveThreads(dialog.getBooleanValue(SettingsForm.CANCEL_EXCESSIVE));
                 loadTest.setUpdateStatisticsPerTestStep(dialog.getBooleanValue(SettingsForm.TESTSTEP_STATISTICS));
+                loadTest.setExecutionEngine(dialog.getValue(SettingsForm.EXECUTION_ENGINE));
 
                 settings.setBoolean(HttpSettings.INCLUDE_REQUEST_IN_TIME_TAKEN,
                         dialog.getBooleanValue(SettingsForm.INCLUDE_REQUEST));
@@ -164,6 +167,10 @@ public class LoadTestOptionsAction extends AbstractSoapUIAction<WsdlLoadTest> {
         @AField(name = "Strategy Interval", description = "LoadTest Strategy application interval in milliseconds", type = AFieldType.INT)
         public final static String STRATEGY_INTERVAL = "Strategy Interval";
 
+        @AField(name = "Execution Engine", description = "Runs virtual users on the shared thread pool or on lightweight threads", type = AFieldType.ENUMERATION, values = {
+                LoadTestExecutors.THREAD_POOL, LoadTestExecutors.LIGHTWEIGHT_THREADS})
+        public final static String EXECUTION_ENGINE = "Execution Engine";
+
     }
 
     @AForm(name = "Logging", description = "", helpUrl = HelpUrls.LOADTESTOPTIONS_HELP_URL, icon = UISupport.OPTIONS_ICON_PATH)
@@ -0,0 +1,144 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest;
+
+import com.eviware.soapui.SoapUI;
+import org.apache.log4j.Logger;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Execution engines for the virtual users of a LoadTest.
+ * <p/>
+ * The default engine runs virtual users on the shared SoapUI thread pool,
+ * which limits the number of concurrently running virtual users to its size.
+ * The lightweight engine runs them on an unbounded executor of its own, using
+ * virtual threads when the JVM supports them and platform threads with a small
+ * stack otherwise, so that thousands of virtual users blocking on I/O do not
+ * need thousands of full-sized thread stacks.
+ */
+
+public final class LoadTestExecutors {
+    public final static String THREAD_POOL = "Thread Pool";
+    public final static String LIGHTWEIGHT_THREADS = "Lightweight Threads";
+
+    private final static Logger log = Logger.getLogger(LoadTestExecutors.class);
+
+    private final static long DEFAULT_STACK_SIZE = 256 * 1024;
+    private final static Method virtualThreadBuilder = findVirtualThreadBuilder();
+    private final static boolean virtualThreadsSupported = createVirtualThreadFactory("") != null;
+
+    private LoadTestExecutors() {
+    }
+
+    /**
+     * Returns true if the lightweight engine runs virtual users on virtual
+     * threads instead of platform threads
+     */
+
+    public static boolean isVirtualThreadsSupported() {
+        return virtualThreadsSupported;
+    }
+
+    /**
+     * Creates the executor for the specified engine, or returns null if virtual
+     * users should run on the shared SoapUI thread pool. Executors created here
+     * are owned by the caller and must be shut down when the LoadTest ends.
+     */
+
+    public static ExecutorService createExecutor(String engine, String name) {
+        if (!LIGHTWEIGHT_THREADS.equals(engine)) {
+            return null;
+        }
+
+        ThreadFactory threadFactory = virtualThreadsSupported ? createVirtualThreadFactory(name) : null;
+        if (threadFactory == null) {
+            threadFactory = new SmallStackThreadFactory(name, getStackSize());
+        }
+
+        return Executors.newCachedThreadPool(threadFactory);
+    }
+
+    private static Method findVirtualThreadBuilder() {
+        try {
+            return Thread.class.getMethod("ofVirtual");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory createVirtualThreadFactory(String name) {
+        if (virtualThreadBuilder == null) {
+            return null;
+        }
+
+        try {
+            // Thread.ofVirtual().name(name, 0).factory() through the public builder interface
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = virtualThreadBuilder.invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, name + " ", 0L);
+            final ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+
+            return new ThreadFactory() {
+                public Thread newThread(Runnable r) {
+                    Thread thread = factory.newThread(r);
+                    setContextClassLoader(thread);
+                    return thread;
+                }
+            };
+        } catch (Exception e) {
+            log.debug("Virtual threads not available, using platform threads: " + e);
+            return null;
+        }
+    }
+
+    private static long getStackSize() {
+        try {
+            return Long.parseLong(System.getProperty("soapui.loadtest.stacksize"));
+        } catch (Exception e) {
+            return DEFAULT_STACK_SIZE;
+        }
+    }
+
+    private static void setContextClassLoader(Thread thread) {
+        if (SoapUI.getSoapUICore() != null) {
+            thread.setContextClassLoader(SoapUI.getSoapUICore().getExtensionClassLoader());
+        }
+    }
+
+    private final static class SmallStackThreadFactory implements ThreadFactory {
+        private final String name;
+        private final long stackSize;
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        private SmallStackThreadFactory(String name, long stackSize) {
+            this.name = name;
+            this.stackSize = stackSize;
+        }
+
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(null, r, name + " " + threadNumber.getAndIncrement(), stackSize);
+            thread.setDaemon(true);
+            setContextClassLoader(thread);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest;
+
+import com.eviware.soapui.impl.wsdl.MutableTestPropertyHolder;
+import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
+import com.eviware.soapui.impl.wsdl.teststeps.WsdlGroovyScriptTestStep;
+import com.eviware.soapui.impl.wsdl.teststeps.WsdlTestStep;
+import com.eviware.soapui.model.TestPropertyHolder;
+import com.eviware.soapui.model.testsuite.TestProperty;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writable property values of a TestCase copy and its TestSteps as built from
+ * the blueprint config of a LoadTest.
+ * <p/>
+ * WsdlLoadTestRunner takes a snapshot of the first copy it builds and restores
+ * it into copies of finished virtual users before handing them to the next
+ * virtual user, so values set by scripts or property transfers of a previous
+ * virtual user are not seen by the next one. Only values that differ are set,
+ * so unchanged request content is not parsed again.
+ */
+
+final class TestCaseSnapshot {
+    private final Map<String, String> testCaseValues;
+    private final List<Map<String, String>> testStepValues = new ArrayList<Map<String, String>>();
+
+    TestCaseSnapshot(WsdlTestCase testCase) {
+        testCaseValues = getValues(testCase);
+
+        for (int c = 0; c < testCase.getTestStepCount(); c++) {
+            testStepValues.add(getValues(testCase.getTestStepAt(c)));
+        }
+    }
+
+    /**
+     * Resets the specified copy to the values of this snapshot and resets the
+     * script engines of its setup and teardown scripts and Groovy Script
+     * TestSteps
+     */
+
+    void restore(WsdlTestCase testCase) {
+        restoreValues(testCase, testCaseValues);
+
+        for (int c = 0; c < testCase.getTestStepCount() && c < testStepValues.size(); c++) {
+            WsdlTestStep testStep = testCase.getTestStepAt(c);
+            restoreValues(testStep, testStepValues.get(c));
+
+            if (testStep instanceof WsdlGroovyScriptTestStep) {
+                ((WsdlGroovyScriptTestStep) testStep).resetScriptEngine();
+            }
+        }
+
+        testCase.resetScriptEngines();
+    }
+
+    private static Map<String, String> getValues(TestPropertyHolder holder) {
+        Map<String, String> values = new LinkedHashMap<String, String>();
+        for (TestProperty property : holder.getPropertyList()) {
+            if (!property.isReadOnly()) {
+                values.put(property.getName(), property.getValue());
+            }
+        }
+
+        return values;
+    }
+
+    private static void restoreValues(TestPropertyHolder holder, Map<String, String> values) {
+        if (holder instanceof MutableTestPropertyHolder) {
+            MutableTestPropertyHolder mutableHolder = (MutableTestPropertyHolder) holder;
+
+            // remove properties added by the previous virtual user
+            for (String name : holder.getPropertyNames()) {
+                TestProperty property = holder.getProperty(name);
+                if (!values.containsKey(name) && property != null && !property.isReadOnly()) {
+                    mutableHolder.removeProperty(name);
+                }
+            }
+
+            for (String name : values.keySet()) {
+                if (!holder.hasProperty(name)) {
+                    mutableHolder.addProperty(name);
+                }
+            }
+        }
+
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            TestProperty property = holder.getProperty(entry.getKey());
+            if (property != null && !equals(property.getValue(), entry.getValue())) {
+                property.setValue(entry.getValue());
+            }
+        }
+    }
+
+    private static boolean equals(String value, String other) {
+        return value == null ? other == null : value.equals(other);
+    }
+}
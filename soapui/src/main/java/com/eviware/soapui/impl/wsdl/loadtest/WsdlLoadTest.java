@@ -726,7 +726,7 @@ public class WsdlLoadTest extends AbstractWsdlModelItem<LoadTestConfig> implemen
         }
 
         private void addHeaders(PrintWriter writer) {
-            writer.print("date,threads,elapsed,min,max,avg,last,cnt,tps,bytes,bps,err,reason\n");
+            writer.print("date,threads,elapsed,min,max,avg,last,cnt,tps,bytes,bps,err,rat,p50,p90,p99,p99.9,reason\n");
         }
 
         public void finish() {
@@ -860,6 +860,19 @@ public class WsdlLoadTest extends AbstractWsdlModelItem<LoadTestConfig> implemen
         getConfig().setUpdateStatisticsPerTestStep(updateStatisticsPerTestStep);
     }
 
+    /**
+     * Returns the engine running the virtual users, one of the engines in
+     * LoadTestExecutors
+     */
+
+    public String getExecutionEngine() {
+        return getConfig().isSetExecutionEngine() ? getConfig().getExecutionEngine() : LoadTestExecutors.THREAD_POOL;
+    }
+
+    public void setExecutionEngine(String executionEngine) {
+        getConfig().setExecutionEngine(executionEngine);
+    }
+
     public TestRunner run(StringToObjectMap context, boolean async) {
         // TODO Auto-generated method stub
         return null;
@@ -21,7 +21,11 @@ import com.eviware.soapui.config.LoadTestConfig;
 import com.eviware.soapui.config.LoadTestLimitTypesConfig;
 import com.eviware.soapui.config.SecurityTestConfig;
 import com.eviware.soapui.config.TestCaseConfig;
+import com.eviware.soapui.impl.wsdl.loadtest.data.LoadTestStatistics;
+import com.eviware.soapui.impl.wsdl.loadtest.data.LoadTestStatisticsStripe;
 import com.eviware.soapui.impl.wsdl.loadtest.log.LoadTestLogMessageEntry;
+import com.eviware.soapui.impl.wsdl.loadtest.strategy.LoadStrategy;
+import com.eviware.soapui.impl.wsdl.loadtest.strategy.PacedLoadStrategy;
 import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
 import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCaseRunner;
 import com.eviware.soapui.model.settings.Settings;
@@ -37,6 +41,7 @@ import com.eviware.soapui.model.testsuite.TestStepResult;
 import com.eviware.soapui.settings.HttpSettings;
 import com.eviware.soapui.settings.WsdlSettings;
 import com.eviware.soapui.support.UISupport;
+import com.eviware.soapui.support.jdbc.JdbcConnectionPool;
 import com.eviware.soapui.support.types.StringToObjectMap;
 import com.eviware.x.dialogs.Worker;
 import com.eviware.x.dialogs.XProgressDialog;
@@ -51,6 +56,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 /**
  * TestRunner for load-tests.
@@ -77,6 +83,9 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
     private TestCaseStarter testCaseStarter;
     private boolean stopped;
     private TestCaseConfig blueprintConfig;
+    private final List<WsdlTestCase> idleTestCases = new ArrayList<WsdlTestCase>();
+    private TestCaseSnapshot testCaseSnapshot;
+    private ExecutorService executor;
 
     public WsdlLoadTestRunner(WsdlLoadTest test) {
         this.loadTest = test;
@@ -96,6 +105,13 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
         threadsWaitingToStart = 0;
         startedCount = 0;
         context = new WsdlLoadTestContext(this);
+        executor = LoadTestExecutors.createExecutor(loadTest.getExecutionEngine(), loadTest.getName());
+
+        if (executor != null) {
+            loadTest.getLoadTestLog().addEntry(
+                    new LoadTestLogMessageEntry("Running virtual users on "
+                            + (LoadTestExecutors.isVirtualThreadsSupported() ? "virtual" : "platform") + " threads"));
+        }
 
         try {
             loadTest.runSetupScript(context, this);
@@ -163,7 +179,12 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
     private InternalTestCaseRunner startTestCase(WsdlTestCase testCase) {
         InternalTestCaseRunner testCaseRunner = new InternalTestCaseRunner(testCase, threadCount++);
 
-        SoapUI.getThreadPool().submit(testCaseRunner);
+        if (executor == null) {
+            SoapUI.getThreadPool().submit(testCaseRunner);
+        } else {
+            executor.submit(testCaseRunner);
+        }
+
         runners.add(testCaseRunner);
         return testCaseRunner;
     }
@@ -307,6 +328,10 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
         loadTest.getLoadTestLog().addEntry(
                 new LoadTestLogMessageEntry("LoadTest ended at " + new Date(System.currentTimeMillis())));
 
+        for (JdbcConnectionPool pool : JdbcConnectionPool.getPools(loadTest.getTestCase().getTestSuite().getProject())) {
+            loadTest.getLoadTestLog().addEntry(new LoadTestLogMessageEntry(pool.toString()));
+        }
+
         try {
             tearDown();
         } catch (Throwable e) {
@@ -321,9 +346,58 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
             }
         }
 
+        releaseIdleTestCases();
+
+        // lets running virtual users finish; their threads end once idle
+        if (executor != null) {
+            executor.shutdown();
+        }
+
         context.clear();
         stopped = true;
         blueprintConfig = null;
+        testCaseSnapshot = null;
+    }
+
+    /**
+     * Keeps the TestCase of a finished virtual user for reuse by the next virtual
+     * user that is started, so changing the thread count does not require
+     * building new TestCase copies. The copy is reset to the property values it
+     * was built with and gets new setup and teardown script engines first.
+     */
+
+    private void recycleTestCase(WsdlTestCase testCase) {
+        TestCaseSnapshot snapshot = getTestCaseSnapshot();
+        if (snapshot != null) {
+            try {
+                snapshot.restore(testCase);
+
+                synchronized (this) {
+                    if (status == Status.RUNNING && !stopped) {
+                        idleTestCases.add(testCase);
+                        return;
+                    }
+                }
+            } catch (Throwable e) {
+                SoapUI.logError(e);
+            }
+        }
+
+        testCase.release();
+        testCase.removeTestRunListener(testRunListener);
+    }
+
+    private synchronized TestCaseSnapshot getTestCaseSnapshot() {
+        return status == Status.RUNNING && !stopped ? testCaseSnapshot : null;
+    }
+
+    private synchronized void releaseIdleTestCases() {
+        for (WsdlTestCase testCase : idleTestCases) {
+            testCase.release();
+            testCase.removeTestRunListener(testRunListener);
+        }
+
+        idleTestCases.clear();
     }
 
     public boolean hasStopped() {
@@ -460,10 +534,12 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
         private long runCount;
         private WsdlTestCaseRunner runner;
         private final int threadIndex;
+        private final LoadTestStatisticsStripe statisticsStripe;
 
         public InternalTestCaseRunner(WsdlTestCase testCase, int threadIndex) {
             this.testCase = testCase;
             this.threadIndex = threadIndex;
+            this.statisticsStripe = loadTest.getStatisticsModel().createStripe();
         }
 
         public void run() {
@@ -482,6 +558,16 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
                         runner.getRunContext().setProperty(TestCaseRunContext.RUN_COUNT, runCount);
                         runner.getRunContext().setProperty(TestCaseRunContext.LOAD_TEST_RUNNER, WsdlLoadTestRunner.this);
                         runner.getRunContext().setProperty(TestCaseRunContext.LOAD_TEST_CONTEXT, context);
+                        runner.getRunContext().setProperty(LoadTestStatistics.STATISTICS_STRIPE, statisticsStripe);
+
+                        // wait for paced starts before starting the runner so the wait is not part of the run
+                        LoadStrategy loadStrategy = loadTest.getLoadStrategy();
+                        if (loadStrategy instanceof PacedLoadStrategy
+                                && (!((PacedLoadStrategy) loadStrategy).awaitStart(WsdlLoadTestRunner.this, context,
+                                runner.getRunContext()) || canceled)) {
+                            break;
+                        }
+
                         synchronized (this) {
                             runner.getRunContext().setProperty(TestCaseRunContext.TOTAL_RUN_COUNT, startedCount++);
                         }
@@ -499,9 +585,9 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
                     }
                 }
             } finally {
+                loadTest.getStatisticsModel().releaseStripe(statisticsStripe);
                 finishRunner(this);
-                testCase.release();
-                testCase.removeTestRunListener(testRunListener);
+                recycleTestCase(testCase);
             }
         }
 
@@ -587,10 +673,15 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
 
     /**
      * Creates a copy of the underlying WsdlTestCase with all LoadTests removed
-     * and configured for LoadTesting
+     * and configured for LoadTesting, reusing the copy of a finished virtual user
+     * if available
      */
 
     private synchronized WsdlTestCase createTestCase() {
+        if (!idleTestCases.isEmpty()) {
+            return idleTestCases.remove(idleTestCases.size() - 1);
+        }
+
         WsdlTestCase testCase = loadTest.getTestCase();
         TestCaseConfig config = null;
 
@@ -625,6 +716,11 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
         // asserting..
         tc.setDiscardOkResults(false);
         tc.setMaxResults(0);
+
+        if (testCaseSnapshot == null) {
+            testCaseSnapshot = new TestCaseSnapshot(tc);
+        }
+
         return tc;
     }
 
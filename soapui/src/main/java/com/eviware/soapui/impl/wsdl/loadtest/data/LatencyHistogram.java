@@ -0,0 +1,220 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * High-dynamic-range histogram of measured times in milliseconds.
+ * <p/>
+ * Values below 128 are counted exactly; larger values are counted in buckets
+ * where every power of two is split into 64 linear sub-buckets, giving a
+ * relative error below 1.6%. The number of buckets is fixed, so memory usage
+ * does not depend on the number of recorded values or on how long a LoadTest
+ * runs.
+ * <p/>
+ * Recording is lock-free and may be done from any thread. Counts are kept in a
+ * fixed number of stripes selected by the recording thread, created when first
+ * used, so concurrent virtual users rarely update the same counters; the
+ * stripes are merged when the histogram is read.
+ */
+
+public final class LatencyHistogram {
+    private final static int SUB_BUCKET_BITS = 7;
+    private final static int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private final static int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+    private final static int MAX_EXPONENT = 40;
+    private final static int BUCKET_COUNT = SUB_BUCKET_COUNT + (MAX_EXPONENT - SUB_BUCKET_BITS + 1)
+            * SUB_BUCKET_HALF_COUNT;
+    private final static int MAX_STRIPES = 64;
+    private final static int STRIPE_COUNT = getStripeCount();
+
+    private final AtomicReferenceArray<Stripe> stripes = new AtomicReferenceArray<Stripe>(STRIPE_COUNT);
+
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+
+        int index = (int) Thread.currentThread().getId() & (STRIPE_COUNT - 1);
+        Stripe stripe = stripes.get(index);
+        if (stripe == null) {
+            stripes.compareAndSet(index, null, new Stripe());
+            stripe = stripes.get(index);
+        }
+
+        stripe.record(value);
+    }
+
+    public void reset() {
+        for (int c = 0; c < STRIPE_COUNT; c++) {
+            stripes.set(c, null);
+        }
+    }
+
+    public long getMaxValue() {
+        long max = 0;
+        for (int c = 0; c < STRIPE_COUNT; c++) {
+            Stripe stripe = stripes.get(c);
+            if (stripe != null) {
+                max = Math.max(max, stripe.maxValue.get());
+            }
+        }
+
+        return max;
+    }
+
+    public long getTotalCount() {
+        long total = 0;
+        for (long count : getCounts()) {
+            total += count;
+        }
+
+        return total;
+    }
+
+    /**
+     * Returns a copy of the merged bucket counts, which can be passed to
+     * getValuesAtPercentiles after subtracting an earlier copy to get the
+     * percentiles of the values recorded in between
+     */
+
+    public long[] getCounts() {
+        long[] counts = new long[BUCKET_COUNT];
+        for (int c = 0; c < STRIPE_COUNT; c++) {
+            Stripe stripe = stripes.get(c);
+            if (stripe != null) {
+                for (int i = 0; i < BUCKET_COUNT; i++) {
+                    counts[i] += stripe.counts.get(i);
+                }
+            }
+        }
+
+        return counts;
+    }
+
+    public long getValueAtPercentile(double percentile) {
+        long[] result = new long[1];
+        getValuesAtPercentiles(new double[]{percentile}, result);
+        return result[0];
+    }
+
+    /**
+     * Calculates the values for several percentiles in a single pass over the
+     * buckets
+     *
+     * @param percentiles ascending percentiles in the range 0-100
+     * @param result      array receiving the value for each percentile
+     */
+
+    public void getValuesAtPercentiles(double[] percentiles, long[] result) {
+        getValuesAtPercentiles(getCounts(), getMaxValue(), percentiles, result);
+    }
+
+    /**
+     * Calculates the values for several percentiles from bucket counts returned
+     * by getCounts
+     *
+     * @param counts      bucket counts
+     * @param maxValue    upper limit for the returned values
+     * @param percentiles ascending percentiles in the range 0-100
+     * @param result      array receiving the value for each percentile
+     */
+
+    public static void getValuesAtPercentiles(long[] counts, long maxValue, double[] percentiles, long[] result) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+
+        if (total == 0) {
+            for (int c = 0; c < percentiles.length; c++) {
+                result[c] = 0;
+            }
+            return;
+        }
+
+        long cumulative = 0;
+        int bucket = 0;
+
+        for (int c = 0; c < percentiles.length; c++) {
+            double percentile = Math.min(Math.max(percentiles[c], 0), 100);
+            long countAtPercentile = Math.max(1, (long) Math.ceil((percentile / 100) * total));
+
+            while (cumulative < countAtPercentile && bucket < BUCKET_COUNT) {
+                cumulative += counts[bucket++];
+            }
+
+            result[c] = Math.min(highestEquivalentValue(bucket - 1), maxValue);
+        }
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+
+        int shift = exponent - SUB_BUCKET_BITS + 1;
+        int subBucket = (int) (value >>> shift);
+
+        return SUB_BUCKET_COUNT + (exponent - SUB_BUCKET_BITS) * SUB_BUCKET_HALF_COUNT
+                + (subBucket - SUB_BUCKET_HALF_COUNT);
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        int offset = index - SUB_BUCKET_COUNT;
+        int exponent = offset / SUB_BUCKET_HALF_COUNT + SUB_BUCKET_BITS;
+        int subBucket = offset % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+        int shift = exponent - SUB_BUCKET_BITS + 1;
+
+        return (((long) subBucket + 1) << shift) - 1;
+    }
+
+    private static int getStripeCount() {
+        int count = 1;
+        while (count < MAX_STRIPES && count < Runtime.getRuntime().availableProcessors() * 2) {
+            count <<= 1;
+        }
+
+        return count;
+    }
+
+    private final static class Stripe {
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+        private final AtomicLong maxValue = new AtomicLong();
+
+        private void record(long value) {
+            counts.incrementAndGet(indexOf(value));
+
+            long max = maxValue.get();
+            while (value > max && !maxValue.compareAndSet(max, value)) {
+                max = maxValue.get();
+            }
+        }
+    }
+}
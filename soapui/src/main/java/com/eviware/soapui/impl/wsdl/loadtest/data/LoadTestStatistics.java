@@ -37,26 +37,31 @@ import javax.swing.table.AbstractTableModel;
 import java.awt.Color;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
-import java.util.EmptyStackException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Model holding statistics.. should be refactored into interface for different
  * statistic models
+ * <p/>
+ * Samples are recorded by each virtual user into its own
+ * LoadTestStatisticsStripe; stripes are merged into the table data only when
+ * the statistics are read, so recording never blocks the running threads.
  *
  * @author Ole.Matzura
  */
 
-public final class LoadTestStatistics extends AbstractTableModel implements Runnable {
+public final class LoadTestStatistics extends AbstractTableModel {
     public final static String NO_STATS_TESTCASE_CANCEL_REASON = "NO_STATS_TESTCASE_CANCEL_REASON";
+    public final static String STATISTICS_STRIPE = "LoadTestStatisticsStripe";
+    public final static String START_DELAY = "LoadTestStartDelay";
     private final static Logger log = Logger.getLogger(LoadTestStatistics.class);
 
     private final WsdlLoadTest loadTest;
-    private long[][] data;
+    private volatile long[][] data;
 
     private final static int MIN_COLUMN = 0;
     private final static int MAX_COLUMN = 1;
@@ -70,10 +75,18 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
     private final static int SUM_COLUMN = 9;
     private final static int CURRENT_CNT_COLUMN = 10;
     private final static int RATIO_COLUMN = 11;
+    private final static int P50_COLUMN = 12;
+    private final static int P90_COLUMN = 13;
+    private final static int P99_COLUMN = 14;
+    private final static int P999_COLUMN = 15;
+    private final static int DATA_COLUMNS = 16;
+
+    final static double[] PERCENTILES = {50, 90, 99, 99.9};
 
     public static final int TOTAL = -1;
 
     public static final int DEFAULT_SAMPLE_INTERVAL = 250;
+    private static final int MIN_UPDATE_INTERVAL = 50;
 
     private InternalTestRunListener testRunListener;
     private InternalTestSuiteListener testSuiteListener;
@@ -81,14 +94,20 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
 
     private StatisticsHistory history;
 
-    private boolean changed;
+    private volatile boolean changed;
     private long updateFrequency = DEFAULT_SAMPLE_INTERVAL;
-    private Queue<SamplesHolder> samplesStack = new ConcurrentLinkedQueue<SamplesHolder>();
-    private long currentThreadCountStartTime;
-    private long totalAverageSum;
-    private boolean resetStatistics;
-    private boolean running;
-    private boolean adding;
+    private final List<LoadTestStatisticsStripe> stripes = new CopyOnWriteArrayList<LoadTestStatisticsStripe>();
+    private LoadTestStatisticsStripe sharedStripe;
+    private long[] retired;
+    private int retiredEpoch;
+    private long retiredSequence;
+    private long lastSequence = -1;
+    private volatile AtomicLongArray errors;
+    private volatile LatencyHistogram[] histograms;
+    private volatile long currentThreadCountStartTime;
+    private volatile int epoch;
+    private volatile int resetEpoch;
+    private volatile boolean running;
 
     public LoadTestStatistics(WsdlLoadTest loadTest) {
         this.loadTest = loadTest;
@@ -111,8 +130,29 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
         init();
     }
 
-    private void init() {
-        data = new long[getRowCount()][11];
+    private synchronized void init() {
+        data = new long[getRowCount()][DATA_COLUMNS];
+        errors = new AtomicLongArray(data.length);
+        retired = new long[data.length * DATA_COLUMNS];
+
+        // stripes of running threads stay registered and clear their values on their next sample
+        resetEpoch++;
+        epoch++;
+        retiredEpoch = epoch;
+        retiredSequence = 0;
+        lastSequence = -1;
+
+        if (sharedStripe != null && sharedStripe.getStepCount() != getStepCount()) {
+            stripes.remove(sharedStripe);
+            sharedStripe = null;
+        }
+
+        LatencyHistogram[] histograms = new LatencyHistogram[data.length];
+        for (int c = 0; c < histograms.length; c++) {
+            histograms[c] = new LatencyHistogram();
+        }
+
+        this.histograms = histograms;
     }
 
     public StatisticsHistory getHistory() {
@@ -128,7 +168,7 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
     }
 
     public int getColumnCount() {
-        return 12;
+        return 16;
     }
 
     public String getColumnName(int columnIndex) {
@@ -157,6 +197,14 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                 return Statistic.ERRORS.getName();
             case 11:
                 return Statistic.ERRORRATIO.getName();
+            case 12:
+                return Statistic.P50.getName();
+            case 13:
+                return Statistic.P90.getName();
+            case 14:
+                return Statistic.P99.getName();
+            case 15:
+                return Statistic.P999.getName();
         }
         return null;
     }
@@ -218,192 +266,292 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                 return data[rowIndex][Statistic.COUNT.getIndex()] == 0 ? 0
                         : (long) (((float) data[rowIndex][Statistic.ERRORS.getIndex()] / (float) data[rowIndex][Statistic.COUNT
                         .getIndex()]) * 100);
+            case 12:
+            case 13:
+            case 14:
+            case 15:
+                return new Long(data[rowIndex][columnIndex]);
             default: {
                 return data == null || rowIndex >= data.length ? new Long(0) : new Long(data[rowIndex][columnIndex - 2]);
             }
         }
     }
 
-    public void pushSamples(long[] samples, long[] sizes, long[] sampleCounts, long startTime, long timeTaken,
-                            boolean complete) {
-        if (!running || samples.length == 0 || sizes.length == 0) {
-            return;
-        }
+    /**
+     * Creates a stripe for a virtual user; the returned stripe must only be
+     * written by a single thread and be handed back with releaseStripe when the
+     * thread is done
+     */
 
-        samplesStack.add(new SamplesHolder(samples, sizes, sampleCounts, startTime, timeTaken, complete));
+    public LoadTestStatisticsStripe createStripe() {
+        LoadTestStatisticsStripe stripe = new LoadTestStatisticsStripe(this, getStepCount());
+        stripes.add(stripe);
+        return stripe;
     }
 
-    public void run() {
-        Thread.currentThread().setName(loadTest.getName() + " LoadTestStatistics");
+    /**
+     * Folds the values of a finished stripe into the retired totals so the list
+     * of active stripes does not grow with every started thread
+     */
 
-        while (running || !samplesStack.isEmpty()) {
-            try {
-                while (!samplesStack.isEmpty()) {
-                    SamplesHolder holder = samplesStack.poll();
-                    if (holder != null) {
-                        addSamples(holder);
-                    }
-                }
+    public synchronized void releaseStripe(LoadTestStatisticsStripe stripe) {
+        if (!stripes.remove(stripe)) {
+            return;
+        }
 
-                Thread.sleep(200);
-            } catch (EmptyStackException e) {
-            } catch (Exception e) {
-                SoapUI.logError(e);
-            }
+        checkRetiredEpoch();
+        if (stripe.getStepCount() == data.length - 1 && stripe.isRecordedSince(resetEpoch)) {
+            mergeStripe(stripe, retired, stripe.isCurrent(epoch));
         }
+
+        retiredSequence += stripe.getSequence();
     }
 
-    private synchronized void addSamples(SamplesHolder holder) {
-        if (adding) {
-            throw new RuntimeException("Already adding!");
+    private void checkRetiredEpoch() {
+        if (retiredEpoch != epoch) {
+            for (int offset = 0; offset < retired.length; offset += DATA_COLUMNS) {
+                retired[offset + CURRENT_CNT_COLUMN] = 0;
+                retired[offset + SUM_COLUMN] = 0;
+                retired[offset + BYTES_COLUMN] = 0;
+            }
+
+            retiredEpoch = epoch;
         }
+    }
 
-        adding = true;
+    /**
+     * Records a measured time in the histogram for the specified row, use
+     * getStepCount() for the testcase total
+     */
 
-        int totalIndex = data.length - 1;
-        if (holder.samples.length != totalIndex || holder.sizes.length != totalIndex) {
-            adding = false;
-            throw new RuntimeException("Unexpected number of samples: " + holder.samples.length + ", exptected "
-                    + (totalIndex));
+    void recordLatency(int rowIndex, long timeTaken) {
+        LatencyHistogram[] histograms = this.histograms;
+        if (rowIndex >= 0 && rowIndex < histograms.length) {
+            histograms[rowIndex].record(timeTaken);
         }
+    }
 
-        // discard "old" results
-        if (holder.startTime < currentThreadCountStartTime) {
-            adding = false;
-            return;
-        }
+    /**
+     * Returns the histogram of measured times for the specified step
+     */
+
+    public LatencyHistogram getHistogram(int stepIndex) {
+        LatencyHistogram[] histograms = this.histograms;
+        return histograms[stepIndex == TOTAL ? histograms.length - 1 : stepIndex];
+    }
+
+    int getEpoch() {
+        return epoch;
+    }
+
+    int getResetEpoch() {
+        return resetEpoch;
+    }
+
+    long getCurrentThreadCountStartTime() {
+        return currentThreadCountStartTime;
+    }
+
+    boolean isRunning() {
+        return running;
+    }
 
-        // first check that this is not a
-        long timePassed = (holder.startTime + holder.timeTaken) - currentThreadCountStartTime;
+    private static void mergeStripe(LoadTestStatisticsStripe stripe, long[] values, boolean current) {
+        for (int c = 0; c <= stripe.getStepCount(); c++) {
+            int offset = c * DATA_COLUMNS;
 
-        if (resetStatistics) {
-            for (int c = 0; c < data.length; c++) {
-                data[c][CURRENT_CNT_COLUMN] = 0;
-                data[c][AVG_COLUMN] = 0;
-                data[c][SUM_COLUMN] = 0;
-                data[c][TPS_COLUMN] = 0;
-                data[c][BYTES_COLUMN] = 0;
+            values[offset + CNT_COLUMN] += stripe.get(c, LoadTestStatisticsStripe.CNT);
+            if (current) {
+                values[offset + CURRENT_CNT_COLUMN] += stripe.get(c, LoadTestStatisticsStripe.CURRENT_CNT);
+                values[offset + SUM_COLUMN] += stripe.get(c, LoadTestStatisticsStripe.SUM);
+                values[offset + BYTES_COLUMN] += stripe.get(c, LoadTestStatisticsStripe.BYTES);
             }
 
-            totalAverageSum = 0;
-            resetStatistics = false;
-        }
+            long min = stripe.get(c, LoadTestStatisticsStripe.MIN);
+            if (min > 0 && (min < values[offset + MIN_COLUMN] || values[offset + MIN_COLUMN] == 0)) {
+                values[offset + MIN_COLUMN] = min;
+            }
 
-        long totalMin = 0;
-        long totalMax = 0;
-        long totalBytes = 0;
-        long totalAvg = 0;
-        long totalSum = 0;
-        long totalLast = 0;
+            values[offset + MAX_COLUMN] = Math.max(values[offset + MAX_COLUMN], stripe.get(c, LoadTestStatisticsStripe.MAX));
 
-        long threadCount = loadTest.getThreadCount();
+            // the LAST_COLUMN is used to hold the timestamp of the last value during merge
+            long lastTime = stripe.get(c, LoadTestStatisticsStripe.LAST_TIME);
+            if (lastTime > values[offset + LAST_COLUMN]) {
+                values[offset + LAST_COLUMN] = lastTime;
+                values[offset + AVG_COLUMN] = stripe.get(c, LoadTestStatisticsStripe.LAST);
+            }
+        }
+    }
 
-        for (int c = 0; c < holder.samples.length; c++) {
-            if (holder.sampleCounts[c] > 0) {
-                // only update when appropriate
-                if (holder.complete != loadTest.getUpdateStatisticsPerTestStep()) {
-                    long sampleAvg = holder.samples[c] / holder.sampleCounts[c];
+    /**
+     * Merges all stripes into the table data if any of them has changed since the
+     * last call
+     *
+     * @return true if the data was updated
+     */
 
-                    data[c][LAST_COLUMN] = sampleAvg;
-                    data[c][CNT_COLUMN] += holder.sampleCounts[c];
-                    data[c][CURRENT_CNT_COLUMN] += holder.sampleCounts[c];
-                    data[c][SUM_COLUMN] += holder.samples[c];
+    public synchronized boolean refresh() {
+        long sequence = retiredSequence;
+        for (LoadTestStatisticsStripe stripe : stripes) {
+            sequence += stripe.getSequence();
+        }
 
-                    if (sampleAvg > 0 && (sampleAvg < data[c][MIN_COLUMN] || data[c][MIN_COLUMN] == 0)) {
-                        data[c][MIN_COLUMN] = sampleAvg;
-                    }
+        if (sequence == lastSequence && !changed) {
+            return false;
+        }
 
-                    if (sampleAvg > data[c][MAX_COLUMN]) {
-                        data[c][MAX_COLUMN] = sampleAvg;
-                    }
+        lastSequence = sequence;
+        changed = false;
+        checkRetiredEpoch();
 
-                    float average = (float) data[c][SUM_COLUMN] / (float) data[c][CURRENT_CNT_COLUMN];
+        int totalIndex = data.length - 1;
+        long[] merged = retired.clone();
+        int currentEpoch = epoch;
+        int currentResetEpoch = resetEpoch;
 
-                    data[c][AVG_COLUMN] = (long) (average * 100);
-                    data[c][BYTES_COLUMN] += holder.sizes[c];
+        for (LoadTestStatisticsStripe stripe : stripes) {
+            if (stripe.getStepCount() == totalIndex && stripe.isRecordedSince(currentResetEpoch)) {
+                mergeStripe(stripe, merged, stripe.isCurrent(currentEpoch));
+            }
+        }
 
-                    if (timePassed > 0) {
-                        if (loadTest.getCalculateTPSOnTimePassed()) {
-                            data[c][TPS_COLUMN] = (data[c][CURRENT_CNT_COLUMN] * 100000) / timePassed;
-                            data[c][BPS_COLUMN] = (data[c][BYTES_COLUMN] * 1000) / timePassed;
-                        } else {
-                            data[c][TPS_COLUMN] = (long) (data[c][AVG_COLUMN] > 0 ? (100000F / average) * threadCount : 0);
+        long threadCount = loadTest.getThreadCount();
+        long timePassed = merged[totalIndex * DATA_COLUMNS + LAST_COLUMN] - currentThreadCountStartTime;
+        long[][] values = new long[data.length][DATA_COLUMNS];
 
-                            long avgBytes = data[c][CNT_COLUMN] == 0 ? 0 : data[c][BYTES_COLUMN] / data[c][CNT_COLUMN];
-                            data[c][BPS_COLUMN] = (avgBytes * data[c][TPS_COLUMN]) / 100;
-                        }
+        long totalMin = 0;
+        long totalMax = 0;
+        long totalBytes = 0;
+        long[] percentiles = new long[PERCENTILES.length];
+
+        for (int c = 0; c < totalIndex; c++) {
+            long[] row = values[c];
+            System.arraycopy(merged, c * DATA_COLUMNS, row, 0, DATA_COLUMNS);
+
+            // move last value back from the AVG_COLUMN used during merge
+            row[LAST_COLUMN] = row[AVG_COLUMN];
+            row[AVG_COLUMN] = 0;
+            row[TPS_COLUMN] = 0;
+            row[BPS_COLUMN] = 0;
+
+            if (row[CURRENT_CNT_COLUMN] > 0) {
+                float average = (float) row[SUM_COLUMN] / (float) row[CURRENT_CNT_COLUMN];
+                row[AVG_COLUMN] = (long) (average * 100);
+
+                if (timePassed > 0) {
+                    if (loadTest.getCalculateTPSOnTimePassed()) {
+                        row[TPS_COLUMN] = (row[CURRENT_CNT_COLUMN] * 100000) / timePassed;
+                        row[BPS_COLUMN] = (row[BYTES_COLUMN] * 1000) / timePassed;
+                    } else {
+                        row[TPS_COLUMN] = (long) (row[AVG_COLUMN] > 0 ? (100000F / average) * threadCount : 0);
+
+                        long avgBytes = row[CNT_COLUMN] == 0 ? 0 : row[BYTES_COLUMN] / row[CNT_COLUMN];
+                        row[BPS_COLUMN] = (avgBytes * row[TPS_COLUMN]) / 100;
                     }
                 }
-
-                totalMin += data[c][MIN_COLUMN] * holder.sampleCounts[c];
-                totalMax += data[c][MAX_COLUMN] * holder.sampleCounts[c];
-                totalBytes += data[c][BYTES_COLUMN] * holder.sampleCounts[c];
-                totalAvg += data[c][AVG_COLUMN] * holder.sampleCounts[c];
-                totalSum += data[c][SUM_COLUMN] * holder.sampleCounts[c];
-                totalLast += data[c][LAST_COLUMN] * holder.sampleCounts[c];
-            } else {
-                totalMin += data[c][MIN_COLUMN];
-                totalMax += data[c][MAX_COLUMN];
-                totalBytes += data[c][BYTES_COLUMN];
             }
+
+            row[ERR_COLUMN] = errors.get(c);
+            setPercentiles(row, c, percentiles);
+
+            totalMin += row[MIN_COLUMN];
+            totalMax += row[MAX_COLUMN];
+            totalBytes += row[BYTES_COLUMN];
         }
 
-        if (holder.complete) {
-            data[totalIndex][CNT_COLUMN]++;
-            data[totalIndex][CURRENT_CNT_COLUMN]++;
+        long[] total = values[totalIndex];
+        int offset = totalIndex * DATA_COLUMNS;
+
+        total[CNT_COLUMN] = merged[offset + CNT_COLUMN];
+        total[CURRENT_CNT_COLUMN] = merged[offset + CURRENT_CNT_COLUMN];
+        total[SUM_COLUMN] = merged[offset + SUM_COLUMN];
+        total[LAST_COLUMN] = merged[offset + AVG_COLUMN];
+        total[MIN_COLUMN] = totalMin;
+        total[MAX_COLUMN] = totalMax;
+        total[BYTES_COLUMN] = totalBytes;
+        total[ERR_COLUMN] = errors.get(totalIndex);
+        setPercentiles(total, totalIndex, percentiles);
 
-            totalAverageSum += totalLast * 100;
-            data[totalIndex][AVG_COLUMN] = (long) ((float) totalAverageSum / (float) data[totalIndex][CURRENT_CNT_COLUMN]);
-            data[totalIndex][BYTES_COLUMN] = totalBytes;
+        if (total[CURRENT_CNT_COLUMN] > 0) {
+            total[AVG_COLUMN] = (long) ((float) (total[SUM_COLUMN] * 100) / (float) total[CURRENT_CNT_COLUMN]);
 
             if (timePassed > 0) {
                 if (loadTest.getCalculateTPSOnTimePassed()) {
-                    data[totalIndex][TPS_COLUMN] = (data[totalIndex][CURRENT_CNT_COLUMN] * 100000) / timePassed;
-                    data[totalIndex][BPS_COLUMN] = (data[totalIndex][BYTES_COLUMN] * 1000) / timePassed;
+                    total[TPS_COLUMN] = (total[CURRENT_CNT_COLUMN] * 100000) / timePassed;
+                    total[BPS_COLUMN] = (total[BYTES_COLUMN] * 1000) / timePassed;
                 } else {
-                    data[totalIndex][TPS_COLUMN] = (long) (data[totalIndex][AVG_COLUMN] > 0 ? (10000000F / data[totalIndex][AVG_COLUMN])
-                            * threadCount
+                    total[TPS_COLUMN] = (long) (total[AVG_COLUMN] > 0 ? (10000000F / total[AVG_COLUMN]) * threadCount
                             : 0);
 
-                    long avgBytes = data[totalIndex][CNT_COLUMN] == 0 ? 0 : data[totalIndex][BYTES_COLUMN]
-                            / data[totalIndex][CNT_COLUMN];
-
-                    data[totalIndex][BPS_COLUMN] = (avgBytes * data[totalIndex][TPS_COLUMN]) / 100;
+                    long avgBytes = total[CNT_COLUMN] == 0 ? 0 : total[BYTES_COLUMN] / total[CNT_COLUMN];
+                    total[BPS_COLUMN] = (avgBytes * total[TPS_COLUMN]) / 100;
                 }
             }
+        }
 
-            data[totalIndex][MIN_COLUMN] = totalMin;
-            data[totalIndex][MAX_COLUMN] = totalMax;
-            data[totalIndex][SUM_COLUMN] = totalSum;
-            data[totalIndex][LAST_COLUMN] = totalLast;
+        data = values;
+        return true;
+    }
+
+    private void setPercentiles(long[] row, int rowIndex, long[] percentiles) {
+        LatencyHistogram[] histograms = this.histograms;
+        if (rowIndex >= histograms.length) {
+            return;
         }
 
-        if (updateFrequency == 0) {
-            fireTableDataChanged();
-        } else {
-            changed = true;
+        histograms[rowIndex].getValuesAtPercentiles(PERCENTILES, percentiles);
+        row[P50_COLUMN] = percentiles[0];
+        row[P90_COLUMN] = percentiles[1];
+        row[P99_COLUMN] = percentiles[2];
+        row[P999_COLUMN] = percentiles[3];
+    }
+
+    private LoadTestStatisticsStripe getStripe(TestCaseRunContext runContext) {
+        Object stripe = runContext == null ? null : runContext.getProperty(STATISTICS_STRIPE);
+        if (stripe instanceof LoadTestStatisticsStripe) {
+            return (LoadTestStatisticsStripe) stripe;
         }
 
-        adding = false;
+        return null;
+    }
+
+    /**
+     * Fallback for runners that do not provide their own stripe
+     */
+
+    private synchronized LoadTestStatisticsStripe getSharedStripe() {
+        if (sharedStripe == null) {
+            sharedStripe = createStripe();
+        }
+
+        return sharedStripe;
     }
 
     private final class Updater implements Runnable {
         public void run() {
             Thread.currentThread().setName(loadTest.getName() + " LoadTestStatistics Updater");
 
-            // check all these for catching threading issues
-            while (running || changed || !samplesStack.isEmpty()) {
-                if (changed) {
-                    fireTableDataChanged();
-                    changed = false;
+            long[][] lastFired = null;
+
+            while (true) {
+                boolean wasRunning = running;
+
+                try {
+                    refresh();
+                    if (data != lastFired) {
+                        lastFired = data;
+                        fireTableDataChanged();
+                    }
+                } catch (Exception e) {
+                    SoapUI.logError(e);
                 }
 
-                if (!running && samplesStack.isEmpty()) {
+                if (!wasRunning) {
                     break;
                 }
 
                 try {
-                    Thread.sleep(updateFrequency < 1 ? 1000 : updateFrequency);
+                    Thread.sleep(updateFrequency < 1 ? MIN_UPDATE_INTERVAL : updateFrequency);
                 } catch (InterruptedException e) {
                     SoapUI.logError(e);
                 }
@@ -411,7 +559,13 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
         }
     }
 
-    private void stop() {
+    void start() {
+        currentThreadCountStartTime = System.currentTimeMillis();
+        running = true;
+        SoapUI.getThreadPool().submit(updater);
+    }
+
+    void stop() {
         running = false;
     }
 
@@ -423,14 +577,7 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
 
     private class InternalTestRunListener extends LoadTestRunListenerAdapter {
         public void beforeLoadTest(LoadTestRunner loadTestRunner, LoadTestRunContext context) {
-            samplesStack.clear();
-
-            running = true;
-            SoapUI.getThreadPool().submit(updater);
-            SoapUI.getThreadPool().submit(LoadTestStatistics.this);
-
-            currentThreadCountStartTime = System.currentTimeMillis();
-            totalAverageSum = 0;
+            start();
         }
 
         @Override
@@ -444,17 +591,17 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                     return;
                 }
 
-                long[] samples = new long[testCase.getTestStepCount()];
-                long[] sizes = new long[samples.length];
-                long[] sampleCounts = new long[samples.length];
-
-                int index = testCase.getIndexOfTestStep(testStepResult.getTestStep());
-                sampleCounts[index]++;
-
-                samples[index] += testStepResult.getTimeTaken();
-                sizes[index] += testStepResult.getSize();
-
-                pushSamples(samples, sizes, sampleCounts, testRunner.getStartTime(), testRunner.getTimeTaken(), false);
+                LoadTestStatisticsStripe stripe = getStripe(runContext);
+                if (stripe == null) {
+                    stripe = getSharedStripe();
+                    synchronized (stripe) {
+                        stripe.addStepSample(testCase.getIndexOfTestStep(testStepResult.getTestStep()),
+                                testStepResult.getTimeTaken(), testStepResult.getSize(), testRunner.getStartTime());
+                    }
+                } else {
+                    stripe.addStepSample(testCase.getIndexOfTestStep(testStepResult.getTestStep()),
+                            testStepResult.getTimeTaken(), testStepResult.getSize(), testRunner.getStartTime());
+                }
             }
         }
 
@@ -465,13 +612,22 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                 return;
             }
 
+            LoadTestStatisticsStripe stripe = getStripe(runContext);
+            if (stripe == null) {
+                stripe = getSharedStripe();
+                synchronized (stripe) {
+                    addRunSamples(stripe, testRunner, runContext);
+                }
+            } else {
+                addRunSamples(stripe, testRunner, runContext);
+            }
+        }
+
+        private void addRunSamples(LoadTestStatisticsStripe stripe, TestCaseRunner testRunner,
+                                   TestCaseRunContext runContext) {
             List<TestStepResult> results = testRunner.getResults();
             TestCase testCase = testRunner.getTestCase();
 
-            long[] samples = new long[testCase.getTestStepCount()];
-            long[] sizes = new long[samples.length];
-            long[] sampleCounts = new long[samples.length];
-
             for (int c = 0; c < results.size(); c++) {
                 TestStepResult testStepResult = results.get(c);
                 if (testStepResult == null) {
@@ -481,14 +637,14 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
 
                 int index = testCase.getIndexOfTestStep(testStepResult.getTestStep());
                 if (index >= 0) {
-                    sampleCounts[index]++;
-
-                    samples[index] += testStepResult.getTimeTaken();
-                    sizes[index] += testStepResult.getSize();
+                    stripe.addRunSample(index, testStepResult.getTimeTaken(), testStepResult.getSize(),
+                            testRunner.getStartTime());
                 }
             }
 
-            pushSamples(samples, sizes, sampleCounts, testRunner.getStartTime(), testRunner.getTimeTaken(), true);
+            Object startDelay = runContext == null ? null : runContext.getProperty(START_DELAY);
+            stripe.completeRun(!loadTest.getUpdateStatisticsPerTestStep(), testRunner.getStartTime(),
+                    testRunner.getTimeTaken(), startDelay instanceof Long ? (Long) startDelay : 0);
         }
 
         @Override
@@ -543,8 +699,14 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
         public void propertyChange(PropertyChangeEvent evt) {
             if (evt.getSource() == loadTest && evt.getPropertyName().equals(WsdlLoadTest.THREADCOUNT_PROPERTY)) {
                 if (loadTest.getResetStatisticsOnThreadCountChange()) {
-                    resetStatistics = true;
                     currentThreadCountStartTime = System.currentTimeMillis();
+                    epoch++;
+
+                    for (LatencyHistogram histogram : histograms) {
+                        histogram.reset();
+                    }
+
+                    changed = true;
                 }
             } else if (evt.getPropertyName().equals(TestStep.NAME_PROPERTY)
                     || evt.getPropertyName().equals(TestStep.DISABLED_PROPERTY)) {
@@ -576,16 +738,18 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
     }
 
     public void addError(int stepIndex) {
+        AtomicLongArray errors = this.errors;
         if (stepIndex != -1) {
-            data[stepIndex][ERR_COLUMN]++;
+            errors.incrementAndGet(stepIndex);
         }
 
-        data[data.length - 1][ERR_COLUMN]++;
+        errors.incrementAndGet(errors.length() - 1);
         changed = true;
     }
 
     public synchronized StringList[] getSnapshot() {
-        long[][] clone = data.clone();
+        refresh();
+        long[][] clone = data;
 
         StringList[] result = new StringList[getRowCount()];
 
@@ -596,10 +760,19 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                 switch (columnIndex) {
                     case 4:
                     case 7:
-                        values.add(String.valueOf((float) data[c][columnIndex - 2] / 100));
+                        values.add(String.valueOf((float) clone[c][columnIndex - 2] / 100));
+                        break;
+                    case 11:
+                        values.add(String.valueOf(getValueAt(c, columnIndex)));
+                        break;
+                    case 12:
+                    case 13:
+                    case 14:
+                    case 15:
+                        values.add(String.valueOf(clone[c][columnIndex]));
                         break;
                     default:
-                        values.add(String.valueOf(data[c][columnIndex - 2]));
+                        values.add(String.valueOf(clone[c][columnIndex - 2]));
                 }
             }
 
@@ -623,7 +796,11 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                 "the number of bytes per second returned by this teststep"), ERRORS(ERR_COLUMN, "err",
                 "the total number of assertion errors for this teststep"), SUM(SUM_COLUMN, "sum", "internal sum"), CURRENT_CNT(
                 CURRENT_CNT_COLUMN, "ccnt", "internal cnt"), ERRORRATIO(RATIO_COLUMN, "rat",
-                "the ratio between exections and failures");
+                "the ratio between exections and failures"), P50(P50_COLUMN, "p50",
+                "the median measured teststep time"), P90(P90_COLUMN, "p90",
+                "the 90th percentile of measured teststep times"), P99(P99_COLUMN, "p99",
+                "the 99th percentile of measured teststep times"), P999(P999_COLUMN, "p99.9",
+                "the 99.9th percentile of measured teststep times");
 
         private final String description;
         private final String name;
@@ -654,39 +831,9 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
         }
     }
 
-    /**
-     * Holds all sample values for a testcase run
-     *
-     * @author ole.matzura
-     */
-
-    private static final class SamplesHolder {
-        private final long[] samples;
-        private final long[] sizes;
-        private final long[] sampleCounts;
-
-        private final long startTime;
-        private final long timeTaken;
-        private final boolean complete;
-
-        public SamplesHolder(long[] samples, long[] sizes, long[] sampleCounts, long startTime, long timeTaken,
-                             boolean complete) {
-            this.samples = samples;
-            this.sizes = sizes;
-            this.startTime = startTime;
-            this.timeTaken = timeTaken;
-            this.sampleCounts = sampleCounts;
-            this.complete = complete;
-        }
-    }
-
-    public synchronized void finish() {
-        // push leftover samples
-        while (!samplesStack.isEmpty()) {
-            SamplesHolder holder = samplesStack.poll();
-            if (holder != null) {
-                addSamples(holder);
-            }
+    public void finish() {
+        if (refresh()) {
+            fireTableDataChanged();
         }
     }
 }
@@ -0,0 +1,253 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-thread accumulator of LoadTest samples. Each stripe is written by a single
+ * virtual user only, so recording a sample never takes a shared lock or allocates;
+ * the values are merged into the statistics table by LoadTestStatistics when it is
+ * read.
+ * <p/>
+ * Values are kept in a single padded array where every teststep occupies its own
+ * cache line, so stripes written by different threads do not share cache lines.
+ */
+
+public final class LoadTestStatisticsStripe {
+    final static int CNT = 0;
+    final static int CURRENT_CNT = 1;
+    final static int SUM = 2;
+    final static int BYTES = 3;
+    final static int MIN = 4;
+    final static int MAX = 5;
+    final static int LAST = 6;
+    final static int LAST_TIME = 7;
+
+    private final static int FIELDS = 8;
+    private final static int PADDING = 8;
+    private final static int SEQUENCE = PADDING;
+    private final static int EPOCH = PADDING + 1;
+    private final static int RESET_EPOCH = PADDING + 2;
+    private final static int FIRST_SLOT = PADDING + FIELDS;
+
+    private final LoadTestStatistics statistics;
+    private final int stepCount;
+    private final AtomicLongArray values;
+
+    // only touched by the owning thread
+    private final long[] runSamples;
+    private final long[] runSizes;
+    private final long[] runCounts;
+    private long sequence;
+    private int epoch;
+    private int resetEpoch;
+
+    LoadTestStatisticsStripe(LoadTestStatistics statistics, int stepCount) {
+        this.statistics = statistics;
+        this.stepCount = stepCount;
+
+        // one slot per step plus one for the testcase total
+        values = new AtomicLongArray(FIRST_SLOT + (stepCount + 1) * FIELDS + PADDING);
+        runSamples = new long[stepCount];
+        runSizes = new long[stepCount];
+        runCounts = new long[stepCount];
+        epoch = statistics.getEpoch();
+        resetEpoch = statistics.getResetEpoch();
+        values.set(EPOCH, epoch);
+        values.set(RESET_EPOCH, resetEpoch);
+    }
+
+    public int getStepCount() {
+        return stepCount;
+    }
+
+    /**
+     * Adds a single teststep sample directly to the step statistics, used when
+     * statistics are updated per teststep
+     */
+
+    public void addStepSample(int index, long timeTaken, long size, long startTime) {
+        if (index < 0 || index >= stepCount || !accept(startTime)) {
+            return;
+        }
+
+        updateStep(index, timeTaken, size, 1, System.currentTimeMillis());
+        publish();
+    }
+
+    /**
+     * Adds a teststep sample to the current testcase run; values are accumulated
+     * until completeRun is called while the sample itself is recorded in the
+     * histogram of the step
+     */
+
+    public void addRunSample(int index, long timeTaken, long size, long startTime) {
+        if (index < 0 || index >= stepCount || !accept(startTime)) {
+            return;
+        }
+
+        statistics.recordLatency(index, timeTaken);
+
+        runSamples[index] += timeTaken;
+        runSizes[index] += size;
+        runCounts[index]++;
+    }
+
+    /**
+     * Completes the current testcase run and updates the total row and, if
+     * updateSteps is true, the step statistics with the average of each step
+     * during the run. The startDelay is the time the run started after its
+     * intended start and is added to the total, so that the total is measured
+     * from the intended start
+     */
+
+    public void completeRun(boolean updateSteps, long startTime, long timeTaken, long startDelay) {
+        if (accept(startTime)) {
+            long now = System.currentTimeMillis();
+            long total = Math.max(0, startDelay);
+
+            for (int c = 0; c < stepCount; c++) {
+                if (runCounts[c] > 0) {
+                    if (updateSteps) {
+                        updateStep(c, runSamples[c], runSizes[c], runCounts[c], now);
+                    }
+
+                    total += runSamples[c];
+                }
+            }
+
+            statistics.recordLatency(stepCount, total);
+
+            int slot = slot(stepCount);
+            increment(slot + CNT, 1);
+            increment(slot + CURRENT_CNT, 1);
+            increment(slot + SUM, total);
+            values.lazySet(slot + LAST, total);
+            values.lazySet(slot + LAST_TIME, startTime + timeTaken);
+            publish();
+        }
+
+        for (int c = 0; c < stepCount; c++) {
+            runSamples[c] = 0;
+            runSizes[c] = 0;
+            runCounts[c] = 0;
+        }
+    }
+
+    private boolean accept(long startTime) {
+        if (!statistics.isRunning() || startTime < statistics.getCurrentThreadCountStartTime()) {
+            return false;
+        }
+
+        // statistics were reset; clear all values recorded before
+        int currentResetEpoch = statistics.getResetEpoch();
+        if (resetEpoch != currentResetEpoch) {
+            for (int c = FIRST_SLOT; c < FIRST_SLOT + (stepCount + 1) * FIELDS; c++) {
+                values.lazySet(c, 0);
+            }
+
+            resetEpoch = currentResetEpoch;
+            values.set(RESET_EPOCH, resetEpoch);
+        }
+
+        // statistics were reset on thread count change; clear current values
+        int currentEpoch = statistics.getEpoch();
+        if (epoch != currentEpoch) {
+            for (int c = 0; c <= stepCount; c++) {
+                int slot = slot(c);
+                values.lazySet(slot + CURRENT_CNT, 0);
+                values.lazySet(slot + SUM, 0);
+                values.lazySet(slot + BYTES, 0);
+            }
+
+            epoch = currentEpoch;
+            values.lazySet(EPOCH, epoch);
+        }
+
+        return true;
+    }
+
+    private void updateStep(int index, long samples, long size, long count, long timestamp) {
+        int slot = slot(index);
+        long sampleAvg = samples / count;
+
+        increment(slot + CNT, count);
+        increment(slot + CURRENT_CNT, count);
+        increment(slot + SUM, samples);
+        increment(slot + BYTES, size);
+
+        long min = values.get(slot + MIN);
+        if (sampleAvg > 0 && (sampleAvg < min || min == 0)) {
+            values.lazySet(slot + MIN, sampleAvg);
+        }
+
+        if (sampleAvg > values.get(slot + MAX)) {
+            values.lazySet(slot + MAX, sampleAvg);
+        }
+
+        values.lazySet(slot + LAST, sampleAvg);
+        values.lazySet(slot + LAST_TIME, timestamp);
+    }
+
+    private void increment(int index, long value) {
+        values.lazySet(index, values.get(index) + value);
+    }
+
+    private void publish() {
+        values.set(SEQUENCE, ++sequence);
+    }
+
+    /**
+     * Returns the number of updates published by the owning thread, used by readers
+     * to detect changes
+     */
+
+    long getSequence() {
+        return values.get(SEQUENCE);
+    }
+
+    /**
+     * Returns true if current values belong to the specified reset epoch
+     */
+
+    boolean isCurrent(int currentEpoch) {
+        return values.get(EPOCH) == currentEpoch;
+    }
+
+    /**
+     * Returns true if the values have been recorded since the specified reset
+     * of the statistics; older values are left out when merging
+     */
+
+    boolean isRecordedSince(int currentResetEpoch) {
+        return values.get(RESET_EPOCH) == currentResetEpoch;
+    }
+
+    /**
+     * Reads a value for the specified step; use getStepCount() as index for the
+     * testcase total
+     */
+
+    long get(int index, int field) {
+        return values.get(slot(index) + field);
+    }
+
+    private static int slot(int index) {
+        return FIRST_SLOT + index * FIELDS;
+    }
+}
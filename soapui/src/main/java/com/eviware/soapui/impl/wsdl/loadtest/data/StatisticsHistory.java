@@ -40,8 +40,12 @@ import java.util.Map;
  */
 
 public class StatisticsHistory {
+    private final static Statistic[] PERCENTILE_STATISTICS = {Statistic.P50, Statistic.P90, Statistic.P99,
+            Statistic.P999};
+
     private final LoadTestStatistics statistics;
     private List<long[][]> data = new ArrayList<long[][]>();
+    private long[][] lastCounts;
     private List<Long> threadCounts = new ArrayList<Long>();
     private Map<Integer, TestStepStatisticsHistory> testStepStatisticHistories = new HashMap<Integer, TestStepStatisticsHistory>();
     private EnumMap<Statistic, StatisticsValueHistory> statisticsValueHistories = new EnumMap<Statistic, StatisticsValueHistory>(
@@ -116,6 +120,7 @@ public class StatisticsHistory {
     public void reset() {
         data.clear();
         threadCounts.clear();
+        lastCounts = null;
 
         for (StatisticsValueHistory history : statisticsValueHistories.values()) {
             history.fireTableDataChanged();
@@ -129,6 +134,8 @@ public class StatisticsHistory {
     }
 
     private synchronized void updateHistory() {
+        statistics.refresh();
+
         if (statistics.getStatistic(LoadTestStatistics.TOTAL, Statistic.COUNT) == 0) {
             reset();
         } else {
@@ -147,6 +154,7 @@ public class StatisticsHistory {
                 }
             }
 
+            setIntervalPercentiles(values);
             data.add(values);
             threadCounts.add(statistics.getLoadTest().getThreadCount());
 
@@ -162,6 +170,72 @@ public class StatisticsHistory {
         }
     }
 
+    /**
+     * Replaces the percentiles of the whole run in the specified values with the
+     * percentiles of the times measured since the previous history entry
+     */
+
+    private void setIntervalPercentiles(long[][] values) {
+        int[] columns = new int[PERCENTILE_STATISTICS.length];
+        for (int c = 0; c < columns.length; c++) {
+            columns[c] = getColumnIndex(PERCENTILE_STATISTICS[c]) - 2;
+        }
+
+        long[][] counts = new long[values.length][];
+        long[] percentiles = new long[LoadTestStatistics.PERCENTILES.length];
+
+        for (int c = 0; c < values.length; c++) {
+            LatencyHistogram histogram = statistics.getHistogram(c);
+            counts[c] = histogram.getCounts();
+
+            long[] intervalCounts = counts[c];
+            if (lastCounts != null && c < lastCounts.length) {
+                intervalCounts = subtract(counts[c], lastCounts[c]);
+            }
+
+            LatencyHistogram.getValuesAtPercentiles(intervalCounts, histogram.getMaxValue(),
+                    LoadTestStatistics.PERCENTILES, percentiles);
+
+            for (int i = 0; i < columns.length; i++) {
+                values[c][columns[i]] = percentiles[i];
+            }
+        }
+
+        lastCounts = counts;
+    }
+
+    /**
+     * Returns the counts recorded since the previous counts were read, or all
+     * counts if the histogram has been reset in between
+     */
+
+    private static long[] subtract(long[] counts, long[] previousCounts) {
+        long[] result = new long[counts.length];
+        for (int c = 0; c < counts.length; c++) {
+            result[c] = counts[c] - previousCounts[c];
+            if (result[c] < 0) {
+                return counts;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the column of the statistics table showing the specified
+     * statistic, or -1 if it is not shown
+     */
+
+    private int getColumnIndex(Statistic statistic) {
+        for (int c = 2; c < statistics.getColumnCount(); c++) {
+            if (statistic.getName().equals(statistics.getColumnName(c))) {
+                return c;
+            }
+        }
+
+        return -1;
+    }
+
     public abstract class StatisticsHistoryModel extends AbstractTableModel {
         public abstract void release();
     }
@@ -203,7 +277,7 @@ public class StatisticsHistory {
         }
 
         public String getColumnName(int column) {
-            return column == 0 ? "ThreadCount" : Statistic.forIndex(column - 1).getName();
+            return column == 0 ? "ThreadCount" : statistics.getColumnName(column + 1);
         }
 
         public void release() {
@@ -213,9 +287,11 @@ public class StatisticsHistory {
 
     private class StatisticsValueHistory extends StatisticsHistoryModel {
         private final Statistic statistic;
+        private final int dataColumn;
 
         public StatisticsValueHistory(Statistic statistic) {
             this.statistic = statistic;
+            dataColumn = getColumnIndex(statistic) - 2;
         }
 
         @SuppressWarnings("unused")
@@ -236,7 +312,7 @@ public class StatisticsHistory {
                 return threadCounts.get(rowIndex);
             }
 
-            return data.get(rowIndex)[columnIndex - 1][statistic.getIndex()];
+            return dataColumn < 0 ? new Long(0) : data.get(rowIndex)[columnIndex - 1][dataColumn];
         }
 
         public Class<?> getColumnClass(int columnIndex) {
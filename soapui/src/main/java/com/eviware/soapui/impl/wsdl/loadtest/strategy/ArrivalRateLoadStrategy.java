@@ -0,0 +1,354 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.strategy;
+
+import com.eviware.soapui.impl.wsdl.loadtest.WsdlLoadTest;
+import com.eviware.soapui.impl.wsdl.loadtest.data.LoadTestStatistics;
+import com.eviware.soapui.impl.wsdl.loadtest.log.LoadTestLogMessageEntry;
+import com.eviware.soapui.model.testsuite.LoadTestRunContext;
+import com.eviware.soapui.model.testsuite.LoadTestRunner;
+import com.eviware.soapui.model.testsuite.TestCaseRunContext;
+import com.eviware.soapui.model.testsuite.TestRunner.Status;
+import com.eviware.soapui.support.DocumentListenerAdapter;
+import com.eviware.soapui.support.UISupport;
+import com.eviware.soapui.support.swing.ComponentBag;
+import com.eviware.soapui.support.xml.XmlObjectConfigurationBuilder;
+import com.eviware.soapui.support.xml.XmlObjectConfigurationReader;
+import com.jgoodies.forms.builder.ButtonBarBuilder;
+import org.apache.xmlbeans.XmlObject;
+
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
+import javax.swing.text.Document;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Open-model LoadStrategy that starts TestCase runs at a configured arrival
+ * rate, optionally ramped from a start rate, instead of starting a new run
+ * whenever a thread finishes the previous one. The thread count limits the
+ * number of concurrent runs.
+ * <p/>
+ * Runs that start after their intended start time because all threads were
+ * busy are counted as late, and the delay is added to their TestCase time so
+ * that latency is measured from the intended start. Runs that would start more
+ * than the configured maximum delay late are dropped.
+ */
+
+public class ArrivalRateLoadStrategy extends AbstractLoadStrategy implements PacedLoadStrategy {
+    public static final String STRATEGY_TYPE = "Arrival Rate";
+    private static final String START_RATE_ELEMENT = "startRate";
+    private static final String TARGET_RATE_ELEMENT = "targetRate";
+    private static final String RAMP_DURATION_ELEMENT = "rampDuration";
+    private static final String MAX_START_DELAY_ELEMENT = "maxStartDelay";
+    private static final float DEFAULT_START_RATE = 10F;
+    private static final float DEFAULT_TARGET_RATE = 10F;
+    private static final int DEFAULT_RAMP_DURATION = 0;
+    private static final int DEFAULT_MAX_START_DELAY = 0;
+    private static final long MAX_SLEEP = 100;
+
+    private float startRate = DEFAULT_START_RATE;
+    private float targetRate = DEFAULT_TARGET_RATE;
+    private int rampDuration = DEFAULT_RAMP_DURATION;
+    private int maxStartDelay = DEFAULT_MAX_START_DELAY;
+
+    private volatile ArrivalRateSchedule schedule;
+    private volatile long startTime;
+    private final AtomicLong nextArrival = new AtomicLong();
+    private final AtomicLong startedCount = new AtomicLong();
+    private final AtomicLong lateCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong maxDelay = new AtomicLong();
+
+    private JPanel configPanel;
+    private JTextField startRateField;
+    private JTextField targetRateField;
+    private JTextField rampDurationField;
+    private JTextField maxStartDelayField;
+    private JLabel infoLabel;
+    private ComponentBag stateDependantComponents = new ComponentBag();
+
+    public ArrivalRateLoadStrategy(XmlObject config, WsdlLoadTest loadTest) {
+        super(STRATEGY_TYPE, loadTest);
+
+        if (config != null) {
+            XmlObjectConfigurationReader reader = new XmlObjectConfigurationReader(config);
+            startRate = reader.readFloat(START_RATE_ELEMENT, DEFAULT_START_RATE);
+            targetRate = reader.readFloat(TARGET_RATE_ELEMENT, DEFAULT_TARGET_RATE);
+            rampDuration = reader.readInt(RAMP_DURATION_ELEMENT, DEFAULT_RAMP_DURATION);
+            maxStartDelay = reader.readInt(MAX_START_DELAY_ELEMENT, DEFAULT_MAX_START_DELAY);
+        }
+    }
+
+    public XmlObject getConfig() {
+        XmlObjectConfigurationBuilder builder = new XmlObjectConfigurationBuilder();
+        builder.add(START_RATE_ELEMENT, startRate);
+        builder.add(TARGET_RATE_ELEMENT, targetRate);
+        builder.add(RAMP_DURATION_ELEMENT, rampDuration);
+        builder.add(MAX_START_DELAY_ELEMENT, maxStartDelay);
+        return builder.finish();
+    }
+
+    public void beforeLoadTest(LoadTestRunner loadTestRunner, LoadTestRunContext context) {
+        super.beforeLoadTest(loadTestRunner, context);
+
+        schedule = new ArrivalRateSchedule(startRate, targetRate, rampDuration * 1000L);
+        nextArrival.set(0);
+        startedCount.set(0);
+        lateCount.set(0);
+        droppedCount.set(0);
+        maxDelay.set(0);
+        startTime = System.currentTimeMillis();
+
+        if (infoLabel != null) {
+            infoLabel.setText("starting..");
+        }
+
+        stateDependantComponents.setEnabled(false);
+    }
+
+    /**
+     * Waits for the next intended start time, skipping start times that are
+     * more than the maximum start delay in the past
+     */
+
+    public boolean awaitStart(LoadTestRunner loadTestRunner, LoadTestRunContext context, TestCaseRunContext runContext) {
+        ArrivalRateSchedule schedule = this.schedule;
+        if (schedule == null) {
+            return loadTestRunner.getStatus() == Status.RUNNING;
+        }
+
+        while (loadTestRunner.getStatus() == Status.RUNNING) {
+            long arrivalTime = schedule.getArrivalTime(nextArrival.getAndIncrement());
+            if (arrivalTime == ArrivalRateSchedule.NEVER) {
+                nextArrival.decrementAndGet();
+                if (!sleep(MAX_SLEEP)) {
+                    return false;
+                }
+
+                continue;
+            }
+
+            long intendedStart = startTime + arrivalTime;
+            long delay = System.currentTimeMillis() - intendedStart;
+
+            if (delay <= 0) {
+                while (delay < 0) {
+                    if (loadTestRunner.getStatus() != Status.RUNNING || !sleep(Math.min(-delay, MAX_SLEEP))) {
+                        return false;
+                    }
+
+                    delay = System.currentTimeMillis() - intendedStart;
+                }
+
+                if (loadTestRunner.getStatus() != Status.RUNNING) {
+                    return false;
+                }
+
+                startedCount.incrementAndGet();
+                return true;
+            }
+
+            if (maxStartDelay > 0 && delay > maxStartDelay) {
+                droppedCount.incrementAndGet();
+                continue;
+            }
+
+            startedCount.incrementAndGet();
+            lateCount.incrementAndGet();
+            updateMaxDelay(delay);
+            runContext.setProperty(LoadTestStatistics.START_DELAY, delay);
+            return true;
+        }
+
+        return false;
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void updateMaxDelay(long delay) {
+        long current = maxDelay.get();
+        while (delay > current && !maxDelay.compareAndSet(current, delay)) {
+            current = maxDelay.get();
+        }
+    }
+
+    public void recalculate(LoadTestRunner loadTestRunner, LoadTestRunContext context) {
+        ArrivalRateSchedule schedule = this.schedule;
+        if (schedule != null && infoLabel != null && loadTestRunner.getStatus() == Status.RUNNING) {
+            String label = String.format("%.1f/s, %d late, %d dropped", schedule.getRate(System.currentTimeMillis()
+                    - startTime), getLateCount(), getDroppedCount());
+            if (!infoLabel.getText().equals(label)) {
+                infoLabel.setText(label);
+            }
+        }
+    }
+
+    public void afterLoadTest(LoadTestRunner loadTestRunner, LoadTestRunContext context) {
+        if (schedule != null) {
+            getLoadTest().getLoadTestLog().addEntry(
+                    new LoadTestLogMessageEntry("Arrival rate: started " + getStartedCount() + ", late "
+                            + getLateCount() + " (max " + getMaxStartDelay() + "ms), dropped " + getDroppedCount()));
+        }
+
+        schedule = null;
+        stateDependantComponents.setEnabled(true);
+    }
+
+    public JComponent getConfigurationPanel() {
+        if (configPanel == null) {
+            ButtonBarBuilder builder = new ButtonBarBuilder();
+
+            startRateField = createField(String.valueOf(startRate), "Sets the arrival rate per second at the start of the ramp");
+            builder.addFixed(new JLabel("Start Rate"));
+            builder.addRelatedGap();
+            builder.addFixed(startRateField);
+            builder.addRelatedGap();
+
+            targetRateField = createField(String.valueOf(targetRate), "Sets the arrival rate per second after the ramp");
+            builder.addFixed(new JLabel("Target Rate"));
+            builder.addRelatedGap();
+            builder.addFixed(targetRateField);
+            builder.addRelatedGap();
+
+            rampDurationField = createField(String.valueOf(rampDuration),
+                    "Sets the time in seconds to change from the start rate to the target rate");
+            builder.addFixed(new JLabel("Ramp"));
+            builder.addRelatedGap();
+            builder.addFixed(rampDurationField);
+            builder.addRelatedGap();
+
+            maxStartDelayField = createField(String.valueOf(maxStartDelay),
+                    "Sets the time in milliseconds after which a late start is dropped (0 = never drop)");
+            builder.addFixed(new JLabel("Max Delay"));
+            builder.addRelatedGap();
+            builder.addFixed(maxStartDelayField);
+            builder.addRelatedGap();
+
+            infoLabel = new JLabel();
+            builder.addFixed(infoLabel);
+
+            configPanel = builder.getPanel();
+
+            stateDependantComponents.add(startRateField);
+            stateDependantComponents.add(targetRateField);
+            stateDependantComponents.add(rampDurationField);
+            stateDependantComponents.add(maxStartDelayField);
+        }
+
+        return configPanel;
+    }
+
+    private JTextField createField(String value, String toolTip) {
+        JTextField field = new JTextField(4);
+        UISupport.setPreferredHeight(field, 18);
+        field.setHorizontalAlignment(JTextField.RIGHT);
+        field.setText(value);
+        field.setToolTipText(toolTip);
+        field.getDocument().addDocumentListener(new ConfigDocumentListener());
+        return field;
+    }
+
+    private final class ConfigDocumentListener extends DocumentListenerAdapter {
+        public void update(Document document) {
+            try {
+                if (document == startRateField.getDocument()) {
+                    startRate = Float.parseFloat(startRateField.getText().replace(',', '.'));
+                }
+                if (document == targetRateField.getDocument()) {
+                    targetRate = Float.parseFloat(targetRateField.getText().replace(',', '.'));
+                }
+                if (document == rampDurationField.getDocument()) {
+                    rampDuration = Integer.parseInt(rampDurationField.getText());
+                }
+                if (document == maxStartDelayField.getDocument()) {
+                    maxStartDelay = Integer.parseInt(maxStartDelayField.getText());
+                }
+
+                notifyConfigurationChanged();
+            } catch (NumberFormatException e) {
+            }
+        }
+    }
+
+    public float getStartRate() {
+        return startRate;
+    }
+
+    public float getTargetRate() {
+        return targetRate;
+    }
+
+    public int getRampDuration() {
+        return rampDuration;
+    }
+
+    public int getMaxStartDelayLimit() {
+        return maxStartDelay;
+    }
+
+    public long getStartedCount() {
+        return startedCount.get();
+    }
+
+    /**
+     * Returns the number of runs started after their intended start time
+     */
+
+    public long getLateCount() {
+        return lateCount.get();
+    }
+
+    /**
+     * Returns the number of runs dropped for exceeding the maximum start delay
+     */
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getMaxStartDelay() {
+        return maxDelay.get();
+    }
+
+    /**
+     * Factory for ArrivalRateLoadStrategy class
+     */
+
+    public static class Factory implements LoadStrategyFactory {
+        public String getType() {
+            return STRATEGY_TYPE;
+        }
+
+        public LoadStrategy build(XmlObject config, WsdlLoadTest loadTest) {
+            return new ArrivalRateLoadStrategy(config, loadTest);
+        }
+
+        public LoadStrategy create(WsdlLoadTest loadTest) {
+            return new ArrivalRateLoadStrategy(null, loadTest);
+        }
+    }
+}
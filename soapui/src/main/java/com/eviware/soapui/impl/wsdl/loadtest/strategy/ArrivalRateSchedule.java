@@ -0,0 +1,84 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.strategy;
+
+/**
+ * Intended start times of TestCase runs for an arrival rate that changes
+ * linearly from a start rate to a target rate during a ramp, and stays at the
+ * target rate afterwards. Start times only depend on the index of the run, not
+ * on when earlier runs finished.
+ */
+
+public class ArrivalRateSchedule {
+    public final static long NEVER = Long.MAX_VALUE;
+
+    private final double startRate;
+    private final double targetRate;
+    private final double rampDuration;
+    private final double rampArrivals;
+
+    /**
+     * @param startRate    arrivals per second at the start of the ramp
+     * @param targetRate   arrivals per second at the end of the ramp
+     * @param rampDuration duration of the ramp in milliseconds
+     */
+
+    public ArrivalRateSchedule(double startRate, double targetRate, long rampDuration) {
+        this.startRate = Math.max(0, startRate) / 1000;
+        this.targetRate = Math.max(0, targetRate) / 1000;
+        this.rampDuration = Math.max(0, rampDuration);
+
+        rampArrivals = (this.startRate + this.targetRate) * this.rampDuration / 2;
+    }
+
+    /**
+     * Returns the intended start of the specified run in milliseconds after the
+     * start of the schedule, or NEVER if the rate drops to zero before it
+     */
+
+    public long getArrivalTime(long index) {
+        if (index < rampArrivals) {
+            double a = (targetRate - startRate) / (2 * rampDuration);
+            if (a == 0) {
+                return (long) (index / startRate);
+            }
+
+            // solve a * t^2 + startRate * t = index for the first t
+            double discriminant = Math.max(0, startRate * startRate + 4 * a * index);
+            return (long) ((Math.sqrt(discriminant) - startRate) / (2 * a));
+        }
+
+        if (targetRate == 0) {
+            return NEVER;
+        }
+
+        return (long) (rampDuration + (index - rampArrivals) / targetRate);
+    }
+
+    /**
+     * Returns the arrival rate in arrivals per second at the specified time
+     * after the start of the schedule
+     */
+
+    public double getRate(long time) {
+        if (time >= rampDuration) {
+            return targetRate * 1000;
+        }
+
+        return (startRate + (targetRate - startRate) * time / rampDuration) * 1000;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.strategy;
+
+import com.eviware.soapui.model.testsuite.LoadTestRunContext;
+import com.eviware.soapui.model.testsuite.LoadTestRunner;
+import com.eviware.soapui.model.testsuite.TestCaseRunContext;
+
+/**
+ * LoadStrategy deciding when each TestCase run of a LoadTest thread starts.
+ * <p/>
+ * WsdlLoadTestRunner calls awaitStart from the thread before starting the
+ * TestCase runner, so the time spent waiting counts neither against the
+ * TestCase timeout nor towards its start time and time taken.
+ */
+
+public interface PacedLoadStrategy extends LoadStrategy {
+    /**
+     * Waits until the next TestCase run of the calling thread may start
+     *
+     * @return false if the LoadTest was stopped or the thread interrupted
+     *         before the run could start
+     */
+
+    public boolean awaitStart(LoadTestRunner loadTestRunner, LoadTestRunContext context, TestCaseRunContext runContext);
+}
@@ -30,12 +30,14 @@ import com.eviware.soapui.model.mock.MockResult;
 import com.eviware.soapui.model.propertyexpansion.PropertyExpander;
 import com.eviware.soapui.model.support.AbstractMockDispatcher;
 import com.eviware.soapui.model.support.ModelSupport;
+import com.eviware.soapui.monitor.MockResponseDelay;
 import com.eviware.soapui.support.StringUtils;
 import com.eviware.soapui.support.Tools;
 import com.eviware.soapui.support.editor.inspectors.attachments.ContentTypeHandler;
 import com.eviware.soapui.support.types.StringToStringMap;
 import com.eviware.soapui.support.xml.XmlUtils;
 import org.apache.log4j.Logger;
+import org.apache.xmlbeans.XmlObject;
 import org.xml.sax.InputSource;
 
 import javax.servlet.http.HttpServletRequest;
@@ -51,12 +53,14 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringReader;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class WsdlMockDispatcher extends AbstractMockDispatcher {
 
     private WsdlMockService mockService;
     private WsdlMockRunContext mockContext;
+    private final WsdlMockOperationIndex operationIndex;
 
     private final Map<String, StringToStringMap> wsdlCache = new HashMap<String, StringToStringMap>();
     private final static Logger log = Logger.getLogger(WsdlMockDispatcher.class);
@@ -66,6 +70,9 @@ public class WsdlMockDispatcher extends AbstractMockDispatcher {
         this.mockService = mockService;
         this.mockContext = mockContext;
         initWsdlCache();
+
+        operationIndex = new WsdlMockOperationIndex(mockService);
+        operationIndex.getOperations();
     }
 
     private void initWsdlCache() {
@@ -189,15 +196,19 @@ public class WsdlMockDispatcher extends AbstractMockDispatcher {
                 }
             } else {
                 try {
-                    operation = SoapUtils.findOperationForRequest(soapVersion, soapAction,
-                            mockRequest.getRequestXmlObject(), mockService.getMockedOperations(),
-                            mockService.isRequireSoapVersion(), mockService.isRequireSoapAction(),
+                    // only match operations with the same body element unless there is none
+                    XmlObject contentElm = mockRequest.getContentElement();
+                    List<WsdlOperation> operations = contentElm == null ? operationIndex.getOperations()
+                            : operationIndex.getOperations(XmlUtils.getQName(contentElm.getDomNode()));
+
+                    operation = SoapUtils.findOperationForContentElement(soapVersion, soapAction, contentElm,
+                            operations, mockService.isRequireSoapVersion(), mockService.isRequireSoapAction(),
                             mockRequest.getRequestAttachments());
                 } catch (Exception e) {
                     if (mockService.isDispatchResponseMessages()) {
                         try {
                             operation = SoapUtils.findOperationForResponse(soapVersion, soapAction,
-                                    mockRequest.getRequestXmlObject(), mockService.getMockedOperations(),
+                                    mockRequest.getRequestXmlObject(), operationIndex.getOperations(),
                                     mockService.isRequireSoapVersion(), mockService.isRequireSoapAction());
 
                             if (operation != null) {
@@ -213,7 +224,7 @@ public class WsdlMockDispatcher extends AbstractMockDispatcher {
             }
 
             if (operation != null) {
-                WsdlMockOperation mockOperation = mockService.getMockOperation(operation);
+                WsdlMockOperation mockOperation = operationIndex.getMockOperation(operation);
                 if (mockOperation != null) {
                     long startTime = System.nanoTime();
                     result = mockOperation.dispatchRequest(mockRequest);
@@ -222,7 +233,9 @@ public class WsdlMockDispatcher extends AbstractMockDispatcher {
                         ((org.mortbay.jetty.Request) mockRequest.getHttpRequest()).setHandled(true);
                     }
 
-                    result.setTimeTaken((System.nanoTime() - startTime) / 1000000);
+                    // a delay deferred to the mock engine is waited for after the result has been dispatched
+                    result.setTimeTaken((System.nanoTime() - startTime) / 1000000
+                            + MockResponseDelay.getDeferredDelay(mockRequest.getHttpRequest()));
                     result.setTimestamp(timestamp);
                     addMockResult(result);
                     return result;
@@ -280,6 +293,7 @@ public class WsdlMockDispatcher extends AbstractMockDispatcher {
     public void release() {
         clearResults();
         mockContext.clear();
+        operationIndex.release();
     }
 
     public void printWsdl(HttpServletResponse response) throws IOException {
@@ -0,0 +1,226 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.impl.wsdl.mock;
+
+import com.eviware.soapui.impl.wsdl.WsdlInterface;
+import com.eviware.soapui.impl.wsdl.WsdlOperation;
+import com.eviware.soapui.model.iface.Operation;
+import com.eviware.soapui.model.mock.MockOperation;
+import com.eviware.soapui.model.support.InterfaceListenerAdapter;
+import com.eviware.soapui.model.support.MockServiceListenerAdapter;
+import org.apache.log4j.Logger;
+
+import javax.xml.namespace.QName;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of the operations mocked by a WsdlMockService by the QName of their
+ * request body element, used by the WsdlMockDispatcher to narrow down the
+ * operations that have to be matched against an incoming request.
+ * <p/>
+ * The index is rebuilt on the next lookup after mock operations are added,
+ * removed or pointed to another operation, or operations of the mocked
+ * interfaces change.
+ */
+
+public class WsdlMockOperationIndex {
+    private final static Logger log = Logger.getLogger(WsdlMockOperationIndex.class);
+
+    private final WsdlMockService mockService;
+    private final InternalMockServiceListener mockServiceListener = new InternalMockServiceListener();
+    private final InternalInterfaceListener interfaceListener = new InternalInterfaceListener();
+    private final InternalPropertyChangeListener propertyChangeListener = new InternalPropertyChangeListener();
+    private final Set<WsdlInterface> interfaces = new HashSet<WsdlInterface>();
+    private final Set<WsdlMockOperation> mockOperations = new HashSet<WsdlMockOperation>();
+    private volatile Index index;
+    private volatile int modificationCount;
+
+    public WsdlMockOperationIndex(WsdlMockService mockService) {
+        this.mockService = mockService;
+        mockService.addMockServiceListener(mockServiceListener);
+    }
+
+    /**
+     * Returns all mocked operations in the order of their mock operations
+     */
+
+    public List<WsdlOperation> getOperations() {
+        return getIndex().operations;
+    }
+
+    /**
+     * Returns the mocked operations that may accept a request with the specified
+     * body element, in the order of their mock operations
+     */
+
+    public List<WsdlOperation> getOperations(QName bodyElementQName) {
+        Index index = getIndex();
+        List<WsdlOperation> result = index.operationsByBodyElement.get(bodyElementQName);
+        return result == null ? index.unindexedOperations : result;
+    }
+
+    /**
+     * Returns the first mock operation for the specified operation
+     */
+
+    public WsdlMockOperation getMockOperation(WsdlOperation operation) {
+        return getIndex().mockOperations.get(operation);
+    }
+
+    public void invalidate() {
+        modificationCount++;
+        index = null;
+    }
+
+    public synchronized void release() {
+        mockService.removeMockServiceListener(mockServiceListener);
+
+        for (WsdlInterface iface : interfaces) {
+            iface.removeInterfaceListener(interfaceListener);
+        }
+
+        for (WsdlMockOperation mockOperation : mockOperations) {
+            mockOperation.removePropertyChangeListener(WsdlMockOperation.OPERATION_PROPERTY, propertyChangeListener);
+        }
+
+        interfaces.clear();
+        mockOperations.clear();
+        index = null;
+    }
+
+    private Index getIndex() {
+        Index result = index;
+        if (result == null) {
+            result = buildIndex();
+        }
+
+        return result;
+    }
+
+    private synchronized Index buildIndex() {
+        if (index != null) {
+            return index;
+        }
+
+        int startCount = modificationCount;
+        Index result = new Index();
+        List<WsdlOperation> unindexed = new ArrayList<WsdlOperation>();
+
+        for (int c = 0; c < mockService.getMockOperationCount(); c++) {
+            WsdlMockOperation mockOperation = mockService.getMockOperationAt(c);
+            if (mockOperations.add(mockOperation)) {
+                mockOperation.addPropertyChangeListener(WsdlMockOperation.OPERATION_PROPERTY, propertyChangeListener);
+            }
+
+            WsdlOperation operation = mockOperation.getOperation();
+            if (operation == null) {
+                continue;
+            }
+
+            WsdlInterface iface = operation.getInterface();
+            if (interfaces.add(iface)) {
+                iface.addInterfaceListener(interfaceListener);
+            }
+
+            result.operations.add(operation);
+            if (!result.mockOperations.containsKey(operation)) {
+                result.mockOperations.put(operation, mockOperation);
+            }
+
+            try {
+                QName qname = operation.getRequestBodyElementQName();
+                if (qname != null) {
+                    List<WsdlOperation> operations = result.operationsByBodyElement.get(qname);
+                    if (operations == null) {
+                        operations = new ArrayList<WsdlOperation>();
+                        result.operationsByBodyElement.put(qname, operations);
+                    }
+
+                    operations.add(operation);
+                }
+            } catch (Exception e) {
+                // operation will be matched against all requests
+                log.debug("Failed to get request body element for operation [" + operation.getName() + "]", e);
+                unindexed.add(operation);
+            }
+        }
+
+        // unindexed operations are candidates for every request
+        for (List<WsdlOperation> operations : result.operationsByBodyElement.values()) {
+            operations.addAll(unindexed);
+        }
+
+        result.unindexedOperations = Collections.unmodifiableList(unindexed);
+
+        // keep the result only if nothing changed while building it
+        if (startCount == modificationCount) {
+            index = result;
+        }
+
+        return result;
+    }
+
+    private static class Index {
+        private final List<WsdlOperation> operations = new ArrayList<WsdlOperation>();
+        private final Map<WsdlOperation, WsdlMockOperation> mockOperations = new HashMap<WsdlOperation, WsdlMockOperation>();
+        private final Map<QName, List<WsdlOperation>> operationsByBodyElement = new HashMap<QName, List<WsdlOperation>>();
+        private List<WsdlOperation> unindexedOperations;
+    }
+
+    private class InternalMockServiceListener extends MockServiceListenerAdapter {
+        @Override
+        public void mockOperationAdded(MockOperation operation) {
+            invalidate();
+        }
+
+        @Override
+        public void mockOperationRemoved(MockOperation operation) {
+            invalidate();
+        }
+    }
+
+    private class InternalPropertyChangeListener implements PropertyChangeListener {
+        public void propertyChange(PropertyChangeEvent evt) {
+            invalidate();
+        }
+    }
+
+    private class InternalInterfaceListener extends InterfaceListenerAdapter {
+        @Override
+        public void operationAdded(Operation operation) {
+            invalidate();
+        }
+
+        @Override
+        public void operationRemoved(Operation operation) {
+            invalidate();
+        }
+
+        @Override
+        public void operationUpdated(Operation operation) {
+            invalidate();
+        }
+    }
+}
@@ -106,6 +106,11 @@ public class WsdlMockRunner implements MockRunner {
 
     public void release() {
         mockContext.clear();
+
+        if (dispatcher instanceof WsdlMockDispatcher) {
+            ((WsdlMockDispatcher) dispatcher).release();
+        }
+
         dispatcher = null;
 
     }
@@ -30,6 +30,7 @@ import com.eviware.soapui.model.iface.Operation;
 import com.eviware.soapui.model.iface.Response;
 import com.eviware.soapui.model.propertyexpansion.DefaultPropertyExpansionContext;
 import com.eviware.soapui.model.support.ModelSupport;
+import com.eviware.soapui.support.CaptureStore;
 import com.eviware.soapui.support.Tools;
 import com.eviware.soapui.support.types.StringToStringMap;
 import com.eviware.soapui.support.types.StringToStringsMap;
@@ -81,6 +82,10 @@ public class JProxyServletWsdlMonitorMessageExchange extends WsdlMonitorMessageE
     private int statusCode;
     private String responseStatusLine;
     private String queryParameters;
+    private CaptureStore.Record storedRequest;
+    private CaptureStore.Record storedResponse;
+    private CaptureStore.Record storedRequestRaw;
+    private CaptureStore.Record storedResponseRaw;
 
     public JProxyServletWsdlMonitorMessageExchange(WsdlProject project) {
         super(null);
@@ -110,6 +115,12 @@ public class JProxyServletWsdlMonitorMessageExchange extends WsdlMonitorMessageE
 
         response = null;
         request = null;
+        requestRaw = null;
+        responseRaw = null;
+        storedRequest = null;
+        storedResponse = null;
+        storedRequestRaw = null;
+        storedResponseRaw = null;
         capture = false;
         queryParameters = null;
 
@@ -123,8 +134,8 @@ public class JProxyServletWsdlMonitorMessageExchange extends WsdlMonitorMessageE
     }
 
     @Override
-    public long getRequestContentLength() {
-        return request == null ? -1 : request.length;
+    public synchronized long getRequestContentLength() {
+        return request != null ? request.length : storedRequest != null ? storedRequest.getLength() : -1;
     }
 
     @Override
@@ -133,8 +144,8 @@ public class JProxyServletWsdlMonitorMessageExchange extends WsdlMonitorMessageE
     }
 
     @Override
-    public long getResponseContentLength() {
-        return response == null ? -1 : response.length;
+    public synchronized long getResponseContentLength() {
+        return response != null ? response.length : storedResponse != null ? storedResponse.getLength() : -1;
     }
 
     @Override
@@ -142,6 +153,45 @@ public class JProxyServletWsdlMonitorMessageExchange extends WsdlMonitorMessageE
         return this.targetURL;
     }
 
+    /**
+     * Moves the captured request and response bodies to the store
+     */
+
+    @Override
+    public synchronized void storeBodies(CaptureStore store) {
+        if (discarded) {
+            return;
+        }
+
+        if (request != null && (storedRequest = store.append(request)) != null) {
+            if (requestRaw == request) {
+                storedRequestRaw = storedRequest;
+                requestRaw = null;
+            }
+            request = null;
+        }
+
+        if (requestRaw != null && (storedRequestRaw = store.append(requestRaw)) != null) {
+            requestRaw = null;
+        }
+
+        if (response != null && (storedResponse = store.append(response)) != null) {
+            if (responseRaw == response) {
+                storedResponseRaw = storedResponse;
+                responseRaw = null;
+            }
+            response = null;
+        }
+
+        if (responseRaw != null && (storedResponseRaw = store.append(responseRaw)) != null) {
+            responseRaw = null;
+        }
+    }
+
+    private static byte[] getData(byte[] data, CaptureStore.Record record) {
+        return data != null || record == null ? data : record.getData();
+    }
+
     @Override
     public void prepare(IncomingWss incomingRequestWss, IncomingWss incomingResponseWss) {
         parseRequestData(incomingRequestWss);
@@ -149,6 +199,7 @@ public class JProxyServletWsdlMonitorMessageExchange extends WsdlMonitorMessageE
     }
 
     private void parseResponseData(IncomingWss incomingResponseWss) {
+        byte[] response = getRawResponseBody();
         ByteArrayInputStream in = new ByteArrayInputStream(response == null ? new byte[0] : response);
         try {
             responseContentType = responseHeaders.get("Content-Type", "");
@@ -209,6 +260,7 @@ public class JProxyServletWsdlMonitorMessageExchange extends WsdlMonitorMessageE
     }
 
     private void parseRequestData(IncomingWss incomingRequestWss) {
+        byte[] request = getRawRequestBody();
         ByteArrayInputStream in = request == null ? new ByteArrayInputStream(new byte[0]) : new ByteArrayInputStream(
                 request);
         try {
@@ -339,28 +391,32 @@ public class JProxyServletWsdlMonitorMessageExchange extends WsdlMonitorMessageE
         return requestMmSupport == null ? requestContent : requestMmSupport.getContentAsString();
     }
 
-    public byte[] getRawRequestData() {
-        if (requestRaw != null) {
-            return requestRaw;
+    public synchronized byte[] getRawRequestData() {
+        byte[] data = getData(requestRaw, storedRequestRaw);
+        if (data != null) {
+            return data;
         } else {
-            return request;
+            return getRawRequestBody();
         }
     }
 
-    public void setRawRequestData(byte[] data) {
+    public synchronized void setRawRequestData(byte[] data) {
         requestRaw = data;
+        storedRequestRaw = null;
     }
 
-    public byte[] getRawResponseData() {
-        if (responseRaw == null) {
-            return response;
+    public synchronized byte[] getRawResponseData() {
+        byte[] data = getData(responseRaw, storedResponseRaw);
+        if (data == null) {
+            return getRawResponseBody();
         } else {
-            return responseRaw;
+            return data;
         }
     }
 
-    public void setRawResponseData(byte[] data) {
+    public synchronized void setRawResponseData(byte[] data) {
         responseRaw = data;
+        storedResponseRaw = null;
     }
 
     public StringToStringsMap getRequestHeaders() {
@@ -400,20 +456,22 @@ public class JProxyServletWsdlMonitorMessageExchange extends WsdlMonitorMessageE
         return capture;
     }
 
-    public byte[] getRawRequestBody() {
-        return request;
+    public synchronized byte[] getRawRequestBody() {
+        return getData(request, storedRequest);
     }
 
-    public void setRequest(byte[] request) {
+    public synchronized void setRequest(byte[] request) {
         this.request = request;
+        storedRequest = null;
     }
 
-    public byte[] getRawResponseBody() {
-        return response;
+    public synchronized byte[] getRawResponseBody() {
+        return getData(response, storedResponse);
     }
 
-    public void setRawResponseBody(byte[] response) {
+    public synchronized void setRawResponseBody(byte[] response) {
         this.response = response;
+        storedResponse = null;
     }
 
     public void setResponseHeader(String name, String value) {
@@ -0,0 +1,210 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.impl.wsdl.monitor;
+
+import com.eviware.soapui.SoapUI;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded queue between the proxy/tunnel servlets capturing message exchanges
+ * and the SoapMonitor log. Exchanges are handed to the BatchHandler in the
+ * order they were captured, in batches of all exchanges waiting at that time,
+ * by a single processing thread.
+ * <p/>
+ * When the queue is full, the OverflowPolicy decides whether the oldest
+ * waiting exchange or the new exchange is dropped, or whether the capturing
+ * thread waits until there is room again.
+ */
+
+public class MonitorCaptureQueue {
+    public final static int DEFAULT_CAPACITY = 1000;
+    public final static int DEFAULT_MAX_BATCH_SIZE = 100;
+
+    private final static long POLL_TIMEOUT = 200;
+
+    public enum OverflowPolicy {
+        DROP_OLDEST("Drop Oldest"), DROP_NEWEST("Drop Newest"), BLOCK("Wait");
+
+        private final String description;
+
+        OverflowPolicy(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public static OverflowPolicy fromDescription(String description) {
+            for (OverflowPolicy policy : values()) {
+                if (policy.description.equals(description)) {
+                    return policy;
+                }
+            }
+
+            return DROP_OLDEST;
+        }
+
+        public static String[] getDescriptions() {
+            OverflowPolicy[] policies = values();
+            String[] result = new String[policies.length];
+            for (int c = 0; c < policies.length; c++) {
+                result[c] = policies[c].description;
+            }
+
+            return result;
+        }
+    }
+
+    public interface BatchHandler {
+        public void handleBatch(List<WsdlMonitorMessageExchange> exchanges);
+    }
+
+    private final BlockingQueue<WsdlMonitorMessageExchange> queue;
+    private final int maxBatchSize;
+    private final OverflowPolicy overflowPolicy;
+    private final BatchHandler handler;
+    private final AtomicLong droppedCount = new AtomicLong();
+    private volatile boolean running;
+    private Thread processor;
+
+    public MonitorCaptureQueue(int capacity, int maxBatchSize, OverflowPolicy overflowPolicy, BatchHandler handler) {
+        this.queue = new ArrayBlockingQueue<WsdlMonitorMessageExchange>(Math.max(1, capacity));
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.overflowPolicy = overflowPolicy;
+        this.handler = handler;
+    }
+
+    public synchronized void start(String name) {
+        if (running) {
+            return;
+        }
+
+        running = true;
+        processor = new Thread(new Processor(), name);
+        processor.setDaemon(true);
+        processor.start();
+    }
+
+    /**
+     * Stops the processing thread; exchanges still waiting are discarded
+     */
+
+    public synchronized void stop() {
+        running = false;
+
+        if (processor != null) {
+            processor.interrupt();
+            processor = null;
+        }
+
+        WsdlMonitorMessageExchange exchange;
+        while ((exchange = queue.poll()) != null) {
+            exchange.discard();
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Adds a captured exchange; returns false if it was dropped
+     */
+
+    public boolean add(WsdlMonitorMessageExchange exchange) {
+        if (!running) {
+            exchange.discard();
+            return false;
+        }
+
+        switch (overflowPolicy) {
+            case BLOCK:
+                try {
+                    while (running) {
+                        if (queue.offer(exchange, POLL_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                            return true;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                break;
+            case DROP_OLDEST:
+                while (!queue.offer(exchange)) {
+                    WsdlMonitorMessageExchange oldest = queue.poll();
+                    if (oldest != null) {
+                        oldest.discard();
+                        droppedCount.incrementAndGet();
+                    }
+                }
+                return true;
+            default:
+                if (queue.offer(exchange)) {
+                    return true;
+                }
+        }
+
+        exchange.discard();
+        droppedCount.incrementAndGet();
+        return false;
+    }
+
+    public int getSize() {
+        return queue.size();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    private class Processor implements Runnable {
+        public void run() {
+            List<WsdlMonitorMessageExchange> batch = new ArrayList<WsdlMonitorMessageExchange>(maxBatchSize);
+
+            while (running) {
+                try {
+                    WsdlMonitorMessageExchange exchange = queue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+                    if (exchange == null) {
+                        continue;
+                    }
+
+                    batch.add(exchange);
+                    queue.drainTo(batch, maxBatchSize - 1);
+
+                    handler.handleBatch(new ArrayList<WsdlMonitorMessageExchange>(batch));
+                } catch (InterruptedException e) {
+                    break;
+                } catch (Throwable e) {
+                    SoapUI.logError(e);
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+    }
+}
@@ -44,6 +44,7 @@ import com.eviware.soapui.model.settings.Settings;
 import com.eviware.soapui.model.support.ModelSupport;
 import com.eviware.soapui.model.testsuite.TestSuite;
 import com.eviware.soapui.settings.ProxySettings;
+import com.eviware.soapui.support.CaptureStore;
 import com.eviware.soapui.support.DateUtil;
 import com.eviware.soapui.support.StringUtils;
 import com.eviware.soapui.support.UISupport;
@@ -78,6 +79,7 @@ import javax.swing.JPanel;
 import javax.swing.JProgressBar;
 import javax.swing.JScrollPane;
 import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 import javax.swing.table.AbstractTableModel;
@@ -87,12 +89,15 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
+import java.lang.reflect.InvocationTargetException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Stack;
+import java.util.Set;
 
 /**
  * A SOAP Monitor..
@@ -101,6 +106,8 @@ import java.util.Stack;
 @SuppressWarnings("serial")
 public class SoapMonitor extends JPanel {
     private static final String ALL_FILTER_OPTION = "- all -";
+    // logged exchanges keep their bodies in the CaptureStore, so a row costs a few hundred bytes of heap
+    public static final int DEFAULT_MAX_ROWS = 10000;
     private JProgressBar progressBar;
     private JButton stopButton = null;
 
@@ -125,8 +132,7 @@ public class SoapMonitor extends JPanel {
     // private JButton addToRestTestCaseButton;
     private JButton createRequestButton;
     private JButton addToMockServiceButton;
-    private Stack<WsdlMonitorMessageExchange> messageExchangeStack = new Stack<WsdlMonitorMessageExchange>();
-    private StackProcessor stackProcessor = new StackProcessor();
+    private MonitorCaptureQueue captureQueue;
     private PatternFilter operationFilter;
     private PatternFilter interfaceFilter;
     private PatternFilter targetHostFilter;
@@ -163,7 +169,7 @@ public class SoapMonitor extends JPanel {
         this.incomingRequestWss = incomingRequestWss;
         this.incomingResponseWss = incomingResponseWss;
         this.setAsProxy = setAsProxy;
-        this.maxRows = 100;
+        this.maxRows = (int) project.getSettings().getLong(OptionsForm.MAXROWS, DEFAULT_MAX_ROWS);
         this.sslEndpoint = sslEndpoint;
 
         // set the slow link to the passed down link
@@ -221,7 +227,7 @@ public class SoapMonitor extends JPanel {
                     requestModelItem.setMessageExchange(null);
                 } else {
                     WsdlMonitorMessageExchange exchange = tableModel.getMessageExchangeAt(row);
-                    requestModelItem.setMessageExchange(exchange);
+                    requestModelItem.setMessageExchange(tableModel.prepareLater(exchange) ? exchange : null);
                 }
 
                 addToMockServiceButton.setEnabled(row != -1);
@@ -463,6 +469,8 @@ public class SoapMonitor extends JPanel {
                 addMessageExchange(messageExchange);
             }
         };
+        startCaptureQueue();
+
         monitorEngine = new SoapMonitorEngineImpl(sslEndpoint);
         monitorEngine.setIncludedContentTypes(ContentTypes.of(project.getSettings()
                 .getString(SoapMonitorAction.LaunchForm.SET_CONTENT_TYPES, SoapMonitorAction.defaultContentTypes().toString())));
@@ -512,6 +520,8 @@ public class SoapMonitor extends JPanel {
      */
     public void stop() {
         monitorEngine.stop();
+        stopCaptureQueue();
+
         if (addedEndpoints != null) {
             for (Interface iface : addedEndpoints.keySet()) {
                 iface.removeEndpoint(addedEndpoints.get(iface));
@@ -563,7 +573,7 @@ public class SoapMonitor extends JPanel {
             if (dialog.show()) {
                 int withoutOperation = 0;
                 for (int row : rows) {
-                    WsdlMonitorMessageExchange me = tableModel.getMessageExchangeAt(row);
+                    WsdlMonitorMessageExchange me = tableModel.getPreparedMessageExchangeAt(row);
                     if (me.getOperation() == null) {
                         withoutOperation++;
                     }
@@ -587,7 +597,7 @@ public class SoapMonitor extends JPanel {
 
                 int cnt = 0;
                 for (int row : rows) {
-                    WsdlMonitorMessageExchange me = tableModel.getMessageExchangeAt(row);
+                    WsdlMonitorMessageExchange me = tableModel.getPreparedMessageExchangeAt(row);
                     if (me.getOperation() == null) {
                         continue;
                     }
@@ -695,7 +705,7 @@ public class SoapMonitor extends JPanel {
                 }
 
                 for (int row : rows) {
-                    WsdlMonitorMessageExchange me = tableModel.getMessageExchangeAt(row);
+                    WsdlMonitorMessageExchange me = tableModel.getPreparedMessageExchangeAt(row);
                     if (me.getOperation() != null) {
                         WsdlTestRequestStep test = (WsdlTestRequestStep) testCase.insertTestStep(
                                 WsdlTestRequestStepFactory.createConfig(me.getOperation(), "Monitor Request " + (row + 1)),
@@ -762,7 +772,7 @@ public class SoapMonitor extends JPanel {
             if (UISupport.confirm("Create " + rows.length + " requests", "Create Request")) {
                 int withoutOperation = 0;
                 for (int row : rows) {
-                    WsdlMonitorMessageExchange me = tableModel.getMessageExchangeAt(row);
+                    WsdlMonitorMessageExchange me = tableModel.getPreparedMessageExchangeAt(row);
                     if (me.getOperation() == null) {
                         withoutOperation++;
                         continue;
@@ -809,6 +819,7 @@ public class SoapMonitor extends JPanel {
     @SuppressWarnings("unchecked")
     public class MonitorLogTableModel extends AbstractTableModel {
         private List<WsdlMonitorMessageExchange> exchanges = new TreeList();
+        private final Set<WsdlMonitorMessageExchange> preparing = new HashSet<WsdlMonitorMessageExchange>();
 
         public MonitorLogTableModel() {
         }
@@ -851,6 +862,64 @@ public class SoapMonitor extends JPanel {
             return exchanges.get(logTable.convertRowIndexToModel(tableRow));
         }
 
+        /**
+         * Returns the exchange at the specified row, prepared for actions that
+         * need its operation
+         */
+
+        public WsdlMonitorMessageExchange getPreparedMessageExchangeAt(int tableRow) {
+            WsdlMonitorMessageExchange exchange = getMessageExchangeAt(tableRow);
+            exchange.ensurePrepared();
+            return exchange;
+        }
+
+        /**
+         * Returns true if the specified exchange has been prepared, otherwise
+         * prepares it on a worker thread and updates its row and the inspected
+         * exchange when done. Must be called on the event dispatch thread.
+         */
+
+        public boolean prepareLater(final WsdlMonitorMessageExchange exchange) {
+            if (!exchange.isPreparePending()) {
+                return true;
+            }
+
+            if (preparing.add(exchange)) {
+                SoapUI.getThreadPool().submit(new Runnable() {
+                    public void run() {
+                        try {
+                            exchange.ensurePrepared();
+                        } catch (Throwable e) {
+                            SoapUI.logError(e);
+                        }
+
+                        SwingUtilities.invokeLater(new Runnable() {
+                            public void run() {
+                                preparing.remove(exchange);
+                                exchangePrepared(exchange);
+                            }
+                        });
+                    }
+                });
+            }
+
+            return false;
+        }
+
+        private void exchangePrepared(WsdlMonitorMessageExchange exchange) {
+            int index = exchanges.indexOf(exchange);
+            if (index == -1) {
+                return;
+            }
+
+            fireTableRowsUpdated(index, index);
+
+            int row = logTable.getSelectedRow();
+            if (row != -1 && getMessageExchangeAt(row) == exchange) {
+                requestModelItem.setMessageExchange(exchange);
+            }
+        }
+
         @Override
         public String getColumnName(int column) {
             switch (column) {
@@ -907,8 +976,14 @@ public class SoapMonitor extends JPanel {
                 case 3:
                     return exchange.getTargetUrl().getHost();
                 case 4:
+                    if (exchange.isPreparePending()) {
+                        return null;
+                    }
                     return exchange.getOperation() == null ? "- unknown -" : exchange.getOperation().getInterface().getName();
                 case 5:
+                    if (exchange.isPreparePending()) {
+                        return null;
+                    }
                     return exchange.getOperation() == null ? "- unknown -" : exchange.getOperation().getName();
                 case 6:
                     return String.valueOf(exchange.getTimeTaken());
@@ -921,6 +996,9 @@ public class SoapMonitor extends JPanel {
                 case 10:
                     return exchange.getTargetUrl().getPath();
                 case 11:
+                    if (exchange.isPreparePending()) {
+                        return null;
+                    }
                     return String.valueOf(exchange.getResponseContentType());
             }
 
@@ -928,20 +1006,34 @@ public class SoapMonitor extends JPanel {
         }
 
         public synchronized void addMessageExchange(WsdlMonitorMessageExchange exchange) {
-            exchanges.add(exchange);
-            int size = exchanges.size();
-            fireTableRowsInserted(size - 1, size - 1);
+            addMessageExchanges(Collections.singletonList(exchange));
+        }
 
-            fitSizeToMaxRows();
+        /**
+         * Adds a batch of exchanges with a single table update
+         */
 
-            String requestHost = exchange.getRequestHost();
-            if (requestFilterModel.getIndexOf(requestHost) == -1) {
-                requestFilterModel.addElement(requestHost);
+        public synchronized void addMessageExchanges(List<WsdlMonitorMessageExchange> batch) {
+            if (batch.isEmpty()) {
+                return;
             }
 
-            String host = exchange.getTargetUrl().getHost();
-            if (targetHostFilterModel.getIndexOf(host) == -1) {
-                targetHostFilterModel.addElement(host);
+            int firstRow = exchanges.size();
+            exchanges.addAll(batch);
+            fireTableRowsInserted(firstRow, exchanges.size() - 1);
+
+            fitSizeToMaxRows();
+
+            for (WsdlMonitorMessageExchange exchange : batch) {
+                String requestHost = exchange.getRequestHost();
+                if (requestFilterModel.getIndexOf(requestHost) == -1) {
+                    requestFilterModel.addElement(requestHost);
+                }
+
+                String host = exchange.getTargetUrl().getHost();
+                if (targetHostFilterModel.getIndexOf(host) == -1) {
+                    targetHostFilterModel.addElement(host);
+                }
             }
 
             updateRowCountLabel();
@@ -1028,58 +1120,81 @@ public class SoapMonitor extends JPanel {
         return listenPort;
     }
 
-    public synchronized void addMessageExchange(WsdlMonitorMessageExchange messageExchange) {
-        messageExchangeStack.push(messageExchange);
+    /**
+     * Queues a captured exchange for the log; called by the capturing threads
+     */
 
-        if (!stackProcessor.isRunning()) {
-            new Thread(stackProcessor, "SoapMonitor StackProcessor for project [" + getProject().getName() + "]")
-                    .start();
+    public void addMessageExchange(WsdlMonitorMessageExchange messageExchange) {
+        MonitorCaptureQueue queue = captureQueue;
+        if (queue == null) {
+            messageExchange.discard();
+        } else {
+            queue.add(messageExchange);
         }
     }
 
-    private class StackProcessor implements Runnable {
-        private boolean canceled;
-        private boolean running;
-
-        public void run() {
-            running = true;
-            SoapUI.log.info("Started stackprocessor for soapmonitor in project [" + getProject().getName() + "]");
-            while (!canceled && messageExchangeStack.size() > 0) {
-                WsdlMonitorMessageExchange messageExchange = messageExchangeStack.pop();
-                if (messageExchange != null) {
-                    processMessage(messageExchange);
-                }
+    private void startCaptureQueue() {
+        Settings settings = project.getSettings();
+        int capacity = (int) settings.getLong(SoapMonitorOptionsAction.OptionsForm.CAPTURE_QUEUE,
+                MonitorCaptureQueue.DEFAULT_CAPACITY);
+        MonitorCaptureQueue.OverflowPolicy overflowPolicy = MonitorCaptureQueue.OverflowPolicy.fromDescription(settings
+                .getString(SoapMonitorOptionsAction.OptionsForm.QUEUE_FULL, null));
 
-                try {
-                    Thread.sleep(100);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-            }
-            running = false;
-        }
+        captureQueue = new MonitorCaptureQueue(capacity, MonitorCaptureQueue.DEFAULT_MAX_BATCH_SIZE, overflowPolicy,
+                new CaptureBatchHandler());
+        captureQueue.start("SoapMonitor capture for project [" + getProject().getName() + "]");
+    }
 
-        private synchronized void processMessage(WsdlMonitorMessageExchange messageExchange) {
-            messageExchange.prepare(project.getWssContainer().getIncomingWssByName(incomingRequestWss), project
-                    .getWssContainer().getIncomingWssByName(incomingResponseWss));
+    private void stopCaptureQueue() {
+        MonitorCaptureQueue queue = captureQueue;
+        captureQueue = null;
 
-            tableModel.addMessageExchange(messageExchange);
+        if (queue != null) {
+            queue.stop();
 
-            listenerCallBack.fireOnMessageExchange(messageExchange);
+            if (queue.getDroppedCount() > 0) {
+                SoapUI.log.warn("HTTP Monitor dropped " + queue.getDroppedCount()
+                        + " exchanges because the capture queue was full");
+            }
         }
+    }
 
-        @SuppressWarnings("unused")
-        public void cancel() {
-            canceled = true;
-        }
+    /**
+     * Adds captured exchanges to the log in batches. Exchanges are only
+     * prepared on the processing thread when monitor listeners need them,
+     * otherwise when a row is inspected. The thread waits until the event
+     * dispatch thread has added them, so the capture queue fills up and its
+     * overflow policy applies when the log cannot keep up.
+     */
 
-        @SuppressWarnings("unused")
-        protected boolean isCanceled() {
-            return canceled;
-        }
+    private class CaptureBatchHandler implements MonitorCaptureQueue.BatchHandler {
+        public void handleBatch(final List<WsdlMonitorMessageExchange> exchanges) {
+            boolean hasListeners = listenerCallBack.hasListeners();
+            for (WsdlMonitorMessageExchange messageExchange : exchanges) {
+                messageExchange.storeBodies(CaptureStore.getStore(CaptureStore.MONITOR_STORE));
+                messageExchange.prepareOnDemand(project.getWssContainer().getIncomingWssByName(incomingRequestWss),
+                        project.getWssContainer().getIncomingWssByName(incomingResponseWss));
+                if (hasListeners) {
+                    messageExchange.ensurePrepared();
+                }
+            }
 
-        protected boolean isRunning() {
-            return running;
+            try {
+                SwingUtilities.invokeAndWait(new Runnable() {
+                    public void run() {
+                        tableModel.addMessageExchanges(exchanges);
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (InvocationTargetException e) {
+                SoapUI.logError(e.getCause());
+            }
+
+            for (WsdlMonitorMessageExchange messageExchange : exchanges) {
+                listenerCallBack.fireOnMessageExchange(messageExchange);
+            }
         }
     }
 
@@ -1119,6 +1234,11 @@ public class SoapMonitor extends JPanel {
 
             optionsDialog.setIntValue(OptionsForm.PORT, listenPort);
             optionsDialog.setIntValue(OptionsForm.MAXROWS, maxRows);
+            optionsDialog.setIntValue(OptionsForm.CAPTURE_QUEUE, (int) getProject().getSettings().getLong(
+                    OptionsForm.CAPTURE_QUEUE, MonitorCaptureQueue.DEFAULT_CAPACITY));
+            optionsDialog.setOptions(OptionsForm.QUEUE_FULL, MonitorCaptureQueue.OverflowPolicy.getDescriptions());
+            optionsDialog.setValue(OptionsForm.QUEUE_FULL, MonitorCaptureQueue.OverflowPolicy.fromDescription(
+                    getProject().getSettings().getString(OptionsForm.QUEUE_FULL, null)).getDescription());
 
             optionsDialog.setOptions(OptionsForm.REQUEST_WSS,
                     StringUtils.merge(project.getWssContainer().getIncomingWssNames(), "<none>"));
@@ -1138,6 +1258,9 @@ public class SoapMonitor extends JPanel {
 
                 settings.setLong(OptionsForm.PORT, listenPort = optionsDialog.getIntValue(OptionsForm.PORT, listenPort));
                 settings.setLong(OptionsForm.MAXROWS, maxRows = optionsDialog.getIntValue(OptionsForm.MAXROWS, maxRows));
+                settings.setLong(OptionsForm.CAPTURE_QUEUE, optionsDialog.getIntValue(OptionsForm.CAPTURE_QUEUE,
+                        MonitorCaptureQueue.DEFAULT_CAPACITY));
+                settings.setString(OptionsForm.QUEUE_FULL, optionsDialog.getValue(OptionsForm.QUEUE_FULL));
                 settings.setString(LaunchForm.SET_CONTENT_TYPES, optionsDialog.getValue(LaunchForm.SET_CONTENT_TYPES));
 
                 incomingRequestWss = optionsDialog.getValue(OptionsForm.REQUEST_WSS);
@@ -1155,6 +1278,12 @@ public class SoapMonitor extends JPanel {
             @AField(description = "The maximum number of exchanges to log", name = "Max Log", type = AFieldType.INT)
             public final static String MAXROWS = "Max Log";
 
+            @AField(description = "The maximum number of captured exchanges waiting to be logged", name = "Capture Queue", type = AFieldType.INT)
+            public final static String CAPTURE_QUEUE = "Capture Queue";
+
+            @AField(description = "What to do with new exchanges when the capture queue is full", name = "When Queue Full", type = AFieldType.ENUMERATION)
+            public final static String QUEUE_FULL = "When Queue Full";
+
             @AField(description = "The Incoming WSS configuration to use for processing requests", name = "Incoming Request WSS", type = AFieldType.ENUMERATION)
             public final static String REQUEST_WSS = "Incoming Request WSS";
 
@@ -19,11 +19,16 @@ package com.eviware.soapui.impl.wsdl.monitor;
 import com.eviware.soapui.impl.wsdl.submit.AbstractWsdlMessageExchange;
 import com.eviware.soapui.impl.wsdl.support.wss.IncomingWss;
 import com.eviware.soapui.model.iface.Operation;
+import com.eviware.soapui.support.CaptureStore;
 
 import java.net.URL;
 import java.util.Map;
 
 public abstract class WsdlMonitorMessageExchange extends AbstractWsdlMessageExchange<Operation> {
+    private boolean preparePending;
+    private IncomingWss pendingRequestWss;
+    private IncomingWss pendingResponseWss;
+
     public WsdlMonitorMessageExchange(Operation modelItem) {
         super(modelItem);
     }
@@ -40,6 +45,51 @@ public abstract class WsdlMonitorMessageExchange extends AbstractWsdlMessageExch
 
     public abstract void prepare(IncomingWss incomingRequestWss, IncomingWss incomingResponseWss);
 
+    /**
+     * Moves captured message bodies to the specified store, so that they are
+     * only read into memory when needed; does nothing by default
+     */
+
+    public void storeBodies(CaptureStore store) {
+    }
+
+    /**
+     * Defers prepare with the specified WSS configurations until
+     * ensurePrepared is called, so that exchanges are only parsed and matched
+     * to an operation when they are actually looked at
+     */
+
+    public synchronized void prepareOnDemand(IncomingWss incomingRequestWss, IncomingWss incomingResponseWss) {
+        pendingRequestWss = incomingRequestWss;
+        pendingResponseWss = incomingResponseWss;
+        preparePending = true;
+    }
+
+    /**
+     * Calls the prepare deferred by prepareOnDemand, if it has not been called
+     * yet
+     */
+
+    public synchronized void ensurePrepared() {
+        if (!preparePending) {
+            return;
+        }
+
+        preparePending = false;
+        IncomingWss requestWss = pendingRequestWss;
+        IncomingWss responseWss = pendingResponseWss;
+        pendingRequestWss = null;
+        pendingResponseWss = null;
+
+        if (!isDiscarded()) {
+            prepare(requestWss, responseWss);
+        }
+    }
+
+    public synchronized boolean isPreparePending() {
+        return preparePending;
+    }
+
     public abstract String getRequestMethod();
 
     public abstract Map<String, String> getHttpRequestParameters();
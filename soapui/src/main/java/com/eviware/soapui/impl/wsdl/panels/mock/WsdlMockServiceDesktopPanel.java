@@ -39,6 +39,7 @@ import com.eviware.soapui.model.mock.MockResult;
 import com.eviware.soapui.model.mock.MockRunner;
 import com.eviware.soapui.model.mock.MockService;
 import com.eviware.soapui.model.mock.MockServiceListener;
+import com.eviware.soapui.model.support.AbstractMockDispatcher;
 import com.eviware.soapui.model.support.MockRunListenerAdapter;
 import com.eviware.soapui.settings.UISettings;
 import com.eviware.soapui.support.DocumentListenerAdapter;
@@ -608,7 +609,8 @@ public class WsdlMockServiceDesktopPanel<MockServiceType extends MockService>
     }
 
     private long getDefaultMaxSize() {
-        return getModelItem().getSettings().getLong(LogListModel.class.getName() + "@maxSize", 100);
+        return getModelItem().getSettings().getLong(LogListModel.class.getName() + "@maxSize",
+                AbstractMockDispatcher.DEFAULT_MAX_RESULTS);
     }
 
     protected long getMaxLogSize() {
@@ -29,8 +29,8 @@ import com.eviware.soapui.model.testsuite.TestProperty;
 import com.eviware.soapui.support.SoapUIException;
 import com.eviware.soapui.support.StringUtils;
 import com.eviware.soapui.support.jdbc.JdbcUtils;
+import com.eviware.soapui.support.jdbc.PooledJdbcConnection;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -48,7 +48,7 @@ public class JdbcSubmit implements Submit, Runnable {
     private long timestamp;
     protected ResultSet resultSet;
     protected PreparedStatement statement;
-    private Connection connection;
+    private PooledJdbcConnection connection;
     private long timeTaken;
     private final JdbcRequest request;
     private JdbcResponse response;
@@ -170,9 +170,13 @@ public class JdbcSubmit implements Submit, Runnable {
     }
 
     private void runQuery() throws Exception {
-        prepare();
-        load();
-        createResponse();
+        try {
+            prepare();
+            load();
+            createResponse();
+        } finally {
+            releaseConnection();
+        }
     }
 
     public void cancelQuery() {
@@ -187,7 +191,7 @@ public class JdbcSubmit implements Submit, Runnable {
 
     private void getDatabaseConnection() throws SQLException, SoapUIException {
         JdbcRequestTestStep testStep = request.getTestStep();
-        connection = JdbcUtils.initConnection(context, testStep.getDriver(), testStep.getConnectionString(),
+        connection = JdbcUtils.initPooledConnection(context, testStep.getDriver(), testStep.getConnectionString(),
                 testStep.getPassword());
         // IMPORTANT: setting as readOnly raises an exception in calling stored
         // procedures!
@@ -278,20 +282,26 @@ public class JdbcSubmit implements Submit, Runnable {
             response.setTimeTaken(timeTaken);
         } catch (Exception e) {
             SoapUI.logError(e);
-        } finally {
-            try {
-                if (connection != null) {
-                    connection.close();
-                }
-                if (statement != null) {
-                    statement.close();
-                }
-                if (resultSet != null) {
-                    resultSet.close();
-                }
-            } catch (Exception e) {
-            }
         }
         return null;
     }
+
+    private void releaseConnection() {
+        try {
+            if (resultSet != null) {
+                resultSet.close();
+            }
+        } catch (Exception e) {
+        }
+
+        if (connection != null) {
+            if (statement != null) {
+                connection.releaseStatement(statement);
+                statement = null;
+            }
+
+            connection.release();
+            connection = null;
+        }
+    }
 }
@@ -16,6 +16,8 @@
 
 package com.eviware.soapui.impl.wsdl.panels.teststeps.support;
 
+import com.eviware.soapui.support.jdbc.PooledJdbcConnection;
+
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -53,6 +55,12 @@ public class NamedParameterStatement {
         statement = connection.prepareStatement(parsedQuery);
     }
 
+    public NamedParameterStatement(PooledJdbcConnection connection, String query) throws SQLException {
+        indexMap = new HashMap();
+        String parsedQuery = parse(query, indexMap);
+        statement = connection.prepareStatement(parsedQuery);
+    }
+
     /**
      * Parses a query with named parameters. The parameter-index mappings are put
      * into the map, and the parsed query is returned. DO NOT CALL FROM CLIENT
@@ -0,0 +1,177 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.impl.wsdl.submit.filters;
+
+import com.eviware.soapui.SoapUI;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.BaseHttpRequestTransport;
+import com.eviware.soapui.model.iface.SubmitContext;
+import com.eviware.soapui.support.xml.XmlUtils;
+import org.apache.xmlbeans.XmlException;
+import org.apache.xmlbeans.XmlObject;
+import org.apache.xmlbeans.XmlOptions;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+/**
+ * Parsed forms of the request content shared by the RequestFilters of a
+ * request, so that filters working on the content as an XmlObject or as a DOM
+ * Document do not each parse and serialize it again.
+ * <p/>
+ * A parsed form is stored in the SubmitContext together with the content
+ * String it was parsed from or serialized to, and is only handed out while
+ * that same String is the request content; filters that set the request
+ * content in any other way invalidate it. Filters that modify a parsed form
+ * must publish it with setXmlObject or setDocument, or call clear if they fail
+ * halfway.
+ */
+
+public class ParsedRequestContent {
+    private static final String PARSED_CONTENT = ParsedRequestContent.class.getSimpleName() + "@Content";
+
+    private static final ThreadLocal<DocumentBuilder> documentBuilders = new ThreadLocal<DocumentBuilder>() {
+        @Override
+        protected DocumentBuilder initialValue() {
+            DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+            dbf.setValidating(false);
+            dbf.setNamespaceAware(true);
+            try {
+                return dbf.newDocumentBuilder();
+            } catch (ParserConfigurationException e) {
+                SoapUI.logError(e);
+                return null;
+            }
+        }
+    };
+
+    private final String content;
+    private final Object parsed;
+    private final boolean whitespaceStripped;
+
+    private ParsedRequestContent(String content, Object parsed, boolean whitespaceStripped) {
+        this.content = content;
+        this.parsed = parsed;
+        this.whitespaceStripped = whitespaceStripped;
+    }
+
+    private static ParsedRequestContent getCurrent(SubmitContext context) {
+        ParsedRequestContent current = (ParsedRequestContent) context.getProperty(PARSED_CONTENT);
+        if (current != null && current.content != context.getProperty(BaseHttpRequestTransport.REQUEST_CONTENT)) {
+            context.removeProperty(PARSED_CONTENT);
+            return null;
+        }
+
+        return current;
+    }
+
+    public static XmlObject getXmlObject(SubmitContext context) throws XmlException {
+        return getXmlObject(context, false);
+    }
+
+    /**
+     * Returns the request content as an XmlObject, parsing it with whitespace
+     * and comments stripped if specified and the content has not been stripped
+     * already
+     */
+
+    public static XmlObject getXmlObject(SubmitContext context, boolean stripWhitespace) throws XmlException {
+        ParsedRequestContent current = getCurrent(context);
+        if (current != null && current.parsed instanceof XmlObject && (current.whitespaceStripped || !stripWhitespace)) {
+            return (XmlObject) current.parsed;
+        }
+
+        String content = (String) context.getProperty(BaseHttpRequestTransport.REQUEST_CONTENT);
+        XmlObject xmlObject = stripWhitespace ? XmlUtils.createXmlObject(content, new XmlOptions()
+                .setLoadStripWhitespace().setLoadStripComments()) : XmlUtils.createXmlObject(content);
+
+        context.setProperty(PARSED_CONTENT, new ParsedRequestContent(content, xmlObject, stripWhitespace));
+        return xmlObject;
+    }
+
+    /**
+     * Sets the request content to the specified XmlObject, returning its text
+     */
+
+    public static String setXmlObject(SubmitContext context, XmlObject xmlObject, boolean whitespaceStripped) {
+        return setXmlObject(context, xmlObject, xmlObject.xmlText(), whitespaceStripped);
+    }
+
+    /**
+     * Sets the request content to the specified text of the specified
+     * XmlObject, returning the text
+     */
+
+    public static String setXmlObject(SubmitContext context, XmlObject xmlObject, String content,
+                                      boolean whitespaceStripped) {
+        context.setProperty(BaseHttpRequestTransport.REQUEST_CONTENT, content);
+        context.setProperty(PARSED_CONTENT, new ParsedRequestContent(content, xmlObject, whitespaceStripped));
+        return content;
+    }
+
+    /**
+     * Returns true if the request content has been parsed with whitespace and
+     * comments stripped and serialized since
+     */
+
+    public static boolean isWhitespaceStripped(SubmitContext context) {
+        ParsedRequestContent current = getCurrent(context);
+        return current != null && current.whitespaceStripped;
+    }
+
+    /**
+     * Returns the request content as a DOM Document
+     */
+
+    public static Document getDocument(SubmitContext context) throws SAXException, IOException {
+        ParsedRequestContent current = getCurrent(context);
+        if (current != null && current.parsed instanceof Document) {
+            return (Document) current.parsed;
+        }
+
+        String content = (String) context.getProperty(BaseHttpRequestTransport.REQUEST_CONTENT);
+        Document document = documentBuilders.get().parse(new InputSource(new StringReader(content)));
+
+        context.setProperty(PARSED_CONTENT, new ParsedRequestContent(content, document, false));
+        return document;
+    }
+
+    /**
+     * Sets the request content to the serialized form of the specified DOM
+     * Document, returning it
+     */
+
+    public static String setDocument(SubmitContext context, Document document) throws IOException {
+        StringWriter writer = new StringWriter();
+        XmlUtils.serialize(document, writer);
+        String content = writer.toString();
+
+        context.setProperty(BaseHttpRequestTransport.REQUEST_CONTENT, content);
+        context.setProperty(PARSED_CONTENT, new ParsedRequestContent(content, document, false));
+        return content;
+    }
+
+    public static void clear(SubmitContext context) {
+        context.removeProperty(PARSED_CONTENT);
+    }
+}
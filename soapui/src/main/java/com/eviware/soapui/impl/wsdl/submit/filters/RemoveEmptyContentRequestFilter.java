@@ -51,36 +51,60 @@ public class RemoveEmptyContentRequestFilter extends AbstractRequestFilter {
         }
 
         String soapNamespace = null;
-        String newContent = null;
 
         if (wsdlRequest instanceof WsdlRequest) {
             soapNamespace = ((WsdlRequest) wsdlRequest).getOperation().getInterface().getSoapVersion()
                     .getEnvelopeNamespace();
         }
 
-        while (!content.equals(newContent)) {
-            if (newContent != null) {
-                content = newContent;
-            }
+        // strip whitespaces while parsing if the StripWhitespacesRequestFilter will do so anyway,
+        // so that it can use the result without parsing the content again
+        boolean stripWhitespaces = wsdlRequest != null && wsdlRequest.isStripWhitespaces();
+        boolean stripped = ParsedRequestContent.isWhitespaceStripped(context);
+
+        try {
+            XmlObject xmlObject = ParsedRequestContent.getXmlObject(context, stripWhitespaces);
+            boolean removed = false;
 
-            newContent = removeEmptyContent(content, soapNamespace, context.hasProperty("RemoveEmptyXsiNil"));
-            if (!context.hasProperty("RemoveEmptyRecursive")) {
-                break;
+            while (removeEmptyContent(xmlObject, soapNamespace, context.hasProperty("RemoveEmptyXsiNil"))) {
+                removed = true;
+                if (!context.hasProperty("RemoveEmptyRecursive")) {
+                    break;
+                }
             }
-        }
 
-        if (newContent != null) {
-            context.setProperty(BaseHttpRequestTransport.REQUEST_CONTENT, newContent);
+            if (removed || (stripWhitespaces && !stripped)) {
+                ParsedRequestContent.setXmlObject(context, xmlObject, stripWhitespaces || stripped);
+            }
+        } catch (Exception e) {
+            SoapUI.logError(e);
+            ParsedRequestContent.clear(context);
         }
     }
 
     public static String removeEmptyContent(String content, String soapNamespace, boolean removeXsiNil) {
-        XmlCursor cursor = null;
-
         try {
             // XmlObject xmlObject = XmlObject.Factory.parse( content );
             XmlObject xmlObject = XmlUtils.createXmlObject(content);
-            cursor = xmlObject.newCursor();
+            if (removeEmptyContent(xmlObject, soapNamespace, removeXsiNil)) {
+                return xmlObject.xmlText();
+            }
+        } catch (Exception e) {
+            SoapUI.logError(e);
+        }
+
+        return content;
+    }
+
+    /**
+     * Removes empty elements and attributes from the specified XmlObject,
+     * returning true if anything was removed
+     */
+
+    public static boolean removeEmptyContent(XmlObject xmlObject, String soapNamespace, boolean removeXsiNil) {
+        XmlCursor cursor = xmlObject.newCursor();
+
+        try {
 
             cursor.toNextToken();
 
@@ -128,17 +152,9 @@ public class RemoveEmptyContentRequestFilter extends AbstractRequestFilter {
                 }
             }
 
-            if (removed) {
-                return xmlObject.xmlText();
-            }
-        } catch (Exception e) {
-            SoapUI.logError(e);
+            return removed;
         } finally {
-            if (cursor != null) {
-                cursor.dispose();
-            }
+            cursor.dispose();
         }
-
-        return content;
     }
 }
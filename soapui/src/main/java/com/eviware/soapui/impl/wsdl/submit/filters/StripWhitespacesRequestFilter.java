@@ -16,10 +16,10 @@
 
 package com.eviware.soapui.impl.wsdl.submit.filters;
 
+import com.eviware.soapui.SoapUI;
 import com.eviware.soapui.impl.support.AbstractHttpRequest;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.BaseHttpRequestTransport;
 import com.eviware.soapui.model.iface.SubmitContext;
-import com.eviware.soapui.support.xml.XmlUtils;
 import org.apache.log4j.Logger;
 
 /**
@@ -39,9 +39,12 @@ public class StripWhitespacesRequestFilter extends AbstractRequestFilter {
         String content = (String) context.getProperty(BaseHttpRequestTransport.REQUEST_CONTENT);
         if (content == null) {
             log.warn("Missing request content in context, skipping stripWhitespaces");
-        } else {
-            content = XmlUtils.stripWhitespaces(content);
-            context.setProperty(BaseHttpRequestTransport.REQUEST_CONTENT, content);
+        } else if (!ParsedRequestContent.isWhitespaceStripped(context)) {
+            try {
+                ParsedRequestContent.setXmlObject(context, ParsedRequestContent.getXmlObject(context, true), true);
+            } catch (Exception e) {
+                SoapUI.logError(e);
+            }
         }
     }
 }
@@ -51,8 +51,18 @@ public class WsaRequestFilter extends AbstractRequestFilter {
             // request
             // ((WsdlRequest)wsdlRequest).getEndpoint();
             SoapVersion soapVersion = operation.getInterface().getSoapVersion();
-            content = new WsaUtils(content, soapVersion, operation, context).addWSAddressingRequest(
-                    (WsdlRequest) wsdlRequest, httpMethod);
+            WsaUtils wsaUtils;
+            try {
+                wsaUtils = new WsaUtils(ParsedRequestContent.getXmlObject(context), content, soapVersion, operation,
+                        context);
+            } catch (Exception e) {
+                // reports the error while parsing the content again
+                wsaUtils = new WsaUtils(content, soapVersion, operation, context);
+            }
+
+            // the parsed content is modified in place
+            ParsedRequestContent.clear(context);
+            content = wsaUtils.addWSAddressingRequest((WsdlRequest) wsdlRequest, httpMethod);
             if (content != null) {
                 context.setProperty(BaseHttpRequestTransport.REQUEST_CONTENT, content);
             }
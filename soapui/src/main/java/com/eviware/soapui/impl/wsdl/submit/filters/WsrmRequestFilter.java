@@ -50,8 +50,18 @@ public class WsrmRequestFilter extends AbstractRequestFilter {
             String identifier = ((WsdlRequest) wsdlRequest).getWsrmConfig().getSequenceIdentifier();
             long msgNumber = ((WsdlRequest) wsdlRequest).getWsrmConfig().getLastMessageId();
 
-            content = new WsrmUtils(content, soapVersion).createNewWSReliableMessagingRequest(
-                    (WsdlRequest) wsdlRequest, identifier, msgNumber, wsdlRequest.getEndpoint());
+            WsrmUtils wsrmUtils;
+            try {
+                wsrmUtils = new WsrmUtils(ParsedRequestContent.getXmlObject(context), content, soapVersion);
+            } catch (Exception e) {
+                // reports the error while parsing the content again
+                wsrmUtils = new WsrmUtils(content, soapVersion);
+            }
+
+            // the parsed content is modified in place
+            ParsedRequestContent.clear(context);
+            content = wsrmUtils.createNewWSReliableMessagingRequest((WsdlRequest) wsdlRequest, identifier, msgNumber,
+                    wsdlRequest.getEndpoint());
             if (content != null) {
                 context.setProperty(BaseHttpRequestTransport.REQUEST_CONTENT, content);
             }
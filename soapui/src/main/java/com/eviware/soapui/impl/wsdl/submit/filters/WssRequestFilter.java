@@ -59,6 +59,7 @@ public class WssRequestFilter extends AbstractWssRequestFilter implements Reques
                 updateWssDocument(context, wssDocument);
             } catch (Exception e) {
                 e.printStackTrace();
+                ParsedRequestContent.clear(context);
             }
         }
 
@@ -196,6 +196,19 @@ public class SoapUtils {
                                                         XmlObject requestContent, List<WsdlOperation> operations, boolean requireSoapVersionMatch,
                                                         boolean requireSoapActionMatch, Attachment[] attachments) throws Exception {
         XmlObject contentElm = getContentElement(requestContent, soapVersion);
+        return findOperationForContentElement(soapVersion, soapAction, contentElm, operations, requireSoapVersionMatch,
+                requireSoapActionMatch, attachments);
+    }
+
+    /**
+     * Same as findOperationForRequest for a content element that has already
+     * been extracted from the request with getContentElement
+     */
+
+    @SuppressWarnings("unchecked")
+    public static WsdlOperation findOperationForContentElement(SoapVersion soapVersion, String soapAction,
+                                                               XmlObject contentElm, List<WsdlOperation> operations, boolean requireSoapVersionMatch,
+                                                               boolean requireSoapActionMatch, Attachment[] attachments) throws Exception {
         if (contentElm == null) {
             for (WsdlOperation operation : operations) {
                 if (operation.getAction().equals(soapAction)
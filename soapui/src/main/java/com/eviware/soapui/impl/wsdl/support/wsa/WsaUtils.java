@@ -110,6 +110,19 @@ public class WsaUtils {
         }
     }
 
+    /**
+     * Creates a WsaUtils that modifies the specified already parsed content
+     */
+
+    public WsaUtils(XmlObject xmlContentObject, String content, SoapVersion soapVersion, WsdlOperation operation,
+                    PropertyExpansionContext context) {
+        this.soapVersion = soapVersion;
+        this.operation = operation;
+        this.content = content;
+        this.context = context;
+        this.xmlContentObject = xmlContentObject;
+    }
+
     private Element getHeader(WsaContainer wsaContainer) throws XmlException {
 
         // version="2005/08" is default
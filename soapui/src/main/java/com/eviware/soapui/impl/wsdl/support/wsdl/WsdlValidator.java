@@ -23,6 +23,7 @@ import com.eviware.soapui.model.iface.Attachment;
 import com.eviware.soapui.model.testsuite.AssertionError;
 import com.eviware.soapui.settings.WsdlSettings;
 import com.eviware.soapui.support.StringUtils;
+import com.eviware.soapui.support.xml.XmlObjectCache;
 import com.eviware.soapui.support.xml.XmlUtils;
 import org.apache.log4j.Logger;
 import org.apache.xmlbeans.SchemaGlobalElement;
@@ -273,7 +274,7 @@ public class WsdlValidator {
         }
 
         // XmlObject msgXml = XmlObject.Factory.parse( messageContent );
-        XmlObject msgXml = XmlUtils.createXmlObject(messageContent);
+        XmlObject msgXml = XmlObjectCache.getXmlObject(messageContent);
         Part[] parts = isResponse ? WsdlUtils.getOutputParts(bindingOperation) : WsdlUtils
                 .getInputParts(bindingOperation);
         if (parts == null || parts.length == 0) {
@@ -423,12 +424,9 @@ public class WsdlValidator {
                 errors.add(XmlError.forMessage("Missing schema types for message"));
             } else {
                 if (!WsdlUtils.isOutputSoapEncoded(bindingOperation)) {
-                    XmlOptions xmlOptions = new XmlOptions();
-                    xmlOptions.setLoadLineNumbers();
-                    xmlOptions.setLoadLineNumbers(XmlOptions.LOAD_LINE_NUMBERS_END_ELEMENT);
                     // XmlObject xml = XmlObject.Factory.parse( message, xmlOptions
                     // );
-                    XmlObject xml = XmlUtils.createXmlObject(message, xmlOptions);
+                    XmlObject xml = XmlObjectCache.getXmlObjectWithLineNumbers(message);
 
                     XmlObject[] paths = xml.selectPath("declare namespace env='"
                             + wsdlContext.getSoapVersion().getEnvelopeNamespace() + "';"
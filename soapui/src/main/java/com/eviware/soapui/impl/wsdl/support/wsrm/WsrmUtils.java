@@ -85,6 +85,16 @@ public class WsrmUtils {
         }
     }
 
+    /**
+     * Creates a WsrmUtils that modifies the specified already parsed content
+     */
+
+    public WsrmUtils(XmlObject xmlContentObject, String content, SoapVersion soapVersion) {
+        this.soapVersion = soapVersion;
+        this.content = content;
+        this.xmlContentObject = xmlContentObject;
+    }
+
     public String createNewWSReliableMessagingRequest(WsdlRequest wsrmContainer,
                                                       String identifier, long msgNumber, String endpoint) {
 
@@ -120,8 +130,8 @@ public class WsrmUtils {
             wsrmContainer.getWsaConfig().setTo(endpoint);
             wsrmContainer.getWsaConfig().setGenerateMessageId(true);
 
-            WsaUtils wsaUtils = new WsaUtils(content, wsrmContainer.getOperation().getInterface().getSoapVersion(), null,
-                    new DefaultPropertyExpansionContext(wsrmContainer));
+            WsaUtils wsaUtils = new WsaUtils(xmlContentObject, content, wsrmContainer.getOperation().getInterface()
+                    .getSoapVersion(), null, new DefaultPropertyExpansionContext(wsrmContainer));
             content = wsaUtils.addWSAddressingRequest(wsrmContainer);
 
         } catch (Exception e) {
@@ -0,0 +1,409 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.impl.wsdl.support.xsd;
+
+import com.eviware.soapui.SoapUI;
+import com.eviware.soapui.impl.wsdl.support.Constants;
+import com.eviware.soapui.model.settings.Settings;
+import com.eviware.soapui.settings.WsdlSettings;
+import com.eviware.soapui.support.StringUtils;
+import com.eviware.soapui.support.Tools;
+import org.apache.commons.io.FileUtils;
+import org.apache.log4j.Logger;
+import org.apache.xmlbeans.SchemaTypeSystem;
+import org.apache.xmlbeans.SimpleValue;
+import org.apache.xmlbeans.XmlBeans;
+import org.apache.xmlbeans.XmlObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * On-disk cache of compiled SchemaTypeSystems, so that the schemas of a
+ * definition are compiled once instead of in every session.
+ * <p/>
+ * Entries are keyed by a hash of the content and source URL of all compiled
+ * schemas, the resolved URLs of their imports and the settings affecting
+ * compilation, and are saved in the XmlBeans binary format
+ * in a folder per key. Loaded type systems are read into memory, so entries
+ * can be evicted while in use. After each save, entries unused for longer
+ * than the maximum age are deleted, followed by the least recently used
+ * entries until the cache is within its maximum size.
+ * <p/>
+ * Loaded type systems have no parse objects; SchemaUtils.getParseObject
+ * compiles the source schemas for callers that need them.
+ */
+
+public class SchemaCache {
+    private final static Logger log = Logger.getLogger(SchemaCache.class);
+    private final static Charset UTF8 = Charset.forName("UTF-8");
+
+    public final static long DEFAULT_MAX_SIZE = 256L * 1024 * 1024;
+    public final static long DEFAULT_MAX_AGE = TimeUnit.DAYS.toMillis(30);
+    public final static String DEFAULT_DIRECTORY_NAME = ".soapui-schema-cache";
+
+    private final static String FORMAT_VERSION = "1";
+    private final static String ENTRY_FILE = "entry.properties";
+    private final static String TEMP_SUFFIX = ".tmp";
+    private final static long MAX_TEMP_AGE = TimeUnit.HOURS.toMillis(1);
+    private final static String[] LOCATION_REFERENCES = {"import", "include", "redefine"};
+
+    private final File directory;
+    private final long maxSize;
+    private final long maxAge;
+
+    public SchemaCache(File directory, long maxSize, long maxAge) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Returns the cache configured in the WSDL settings, or null if compiled
+     * schemas should not be cached
+     */
+
+    public static SchemaCache getDefault() {
+        Settings settings = SoapUI.getSettings();
+        if (!settings.getBoolean(WsdlSettings.CACHE_SCHEMAS)) {
+            return null;
+        }
+
+        String dir = settings.getString(WsdlSettings.SCHEMA_CACHE_DIRECTORY, null);
+        File directory = StringUtils.hasContent(dir) ? new File(dir) : new File(System.getProperty("user.home", "."),
+                DEFAULT_DIRECTORY_NAME);
+        long maxSize = settings.getLong(WsdlSettings.SCHEMA_CACHE_SIZE, DEFAULT_MAX_SIZE / (1024 * 1024)) * 1024 * 1024;
+
+        return new SchemaCache(directory, maxSize, DEFAULT_MAX_AGE);
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Creates the key for a type system compiled from the specified schemas,
+     * independent of their order
+     */
+
+    public static String createKey(Collection<XmlObject> schemas, Collection<XmlObject> defaultSchemas,
+                                   boolean strictSchemaTypes) {
+        StringBuilder key = new StringBuilder();
+        key.append(FORMAT_VERSION).append(';').append(XmlBeans.getVersion()).append(';').append(strictSchemaTypes);
+
+        appendDigests(key, schemas);
+        key.append(';');
+        appendDigests(key, defaultSchemas);
+
+        return digest(key.toString());
+    }
+
+    private static void appendDigests(StringBuilder key, Collection<XmlObject> schemas) {
+        List<String> digests = new ArrayList<String>();
+        for (XmlObject schema : schemas) {
+            digests.add(digest(getLocations(schema) + schema.xmlText()));
+        }
+
+        Collections.sort(digests);
+        for (String digest : digests) {
+            key.append(';').append(digest);
+        }
+    }
+
+    /**
+     * Returns the source URL of the schema followed by the resolved URLs of its
+     * imports, includes and redefines
+     */
+
+    private static String getLocations(XmlObject schema) {
+        String sourceName = schema.documentProperties().getSourceName();
+        StringBuilder result = new StringBuilder();
+        result.append(sourceName).append('\n');
+
+        for (String reference : LOCATION_REFERENCES) {
+            XmlObject[] locations = schema.selectPath("declare namespace s='" + Constants.XSD_NS + "' .//s:"
+                    + reference + "/@schemaLocation");
+            for (XmlObject location : locations) {
+                String url = ((SimpleValue) location).getStringValue();
+                if (sourceName != null && !url.startsWith("file:") && url.indexOf("://") == -1) {
+                    url = Tools.joinRelativeUrl(sourceName, url);
+                }
+
+                result.append(reference).append(' ').append(url).append('\n');
+            }
+        }
+
+        return result.toString();
+    }
+
+    private static String digest(String content) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(content.getBytes(UTF8));
+
+            StringBuilder result = new StringBuilder();
+            for (byte b : hash) {
+                result.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+
+            return result.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the cached type system for the specified key, or null if it is
+     * not cached or the entry could not be read
+     */
+
+    public SchemaTypeSystem load(String key) {
+        File entry = new File(directory, key);
+        File entryFile = new File(entry, ENTRY_FILE);
+        if (!entryFile.exists()) {
+            return null;
+        }
+
+        try {
+            Properties properties = readProperties(entryFile);
+            if (!key.equals(properties.getProperty("key"))
+                    || !XmlBeans.getVersion().equals(properties.getProperty("xmlbeans"))) {
+                log.info("Discarding outdated schema cache entry [" + key + "]");
+                FileUtils.deleteQuietly(entry);
+                return null;
+            }
+
+            Map<String, byte[]> resources = new HashMap<String, byte[]>();
+            readResources(entry, "", resources);
+
+            ClassLoader loader = new ResourceClassLoader(resources, SchemaCache.class.getClassLoader());
+            SchemaTypeSystem schemaTypes = XmlBeans.typeSystemForClassLoader(loader, properties.getProperty("name"));
+
+            // read the index now, so that broken entries are detected here
+            schemaTypes.globalElements();
+
+            entryFile.setLastModified(System.currentTimeMillis());
+            log.info("Loaded schema types from cache [" + key + "]");
+            return schemaTypes;
+        } catch (Throwable e) {
+            log.warn("Failed to load cached schema types [" + key + "]: " + e);
+            FileUtils.deleteQuietly(entry);
+            return null;
+        }
+    }
+
+    /**
+     * Saves the specified type system for the specified key and evicts old
+     * entries; failures are logged and ignored
+     */
+
+    public void save(String key, SchemaTypeSystem schemaTypes) {
+        File entry = new File(directory, key);
+        File temp = new File(directory, key + "-" + Long.toHexString(System.nanoTime()) + TEMP_SUFFIX);
+
+        try {
+            if (!directory.exists() && !directory.mkdirs()) {
+                throw new IOException("Could not create folder " + directory);
+            }
+
+            schemaTypes.saveToDirectory(temp);
+
+            Properties properties = new Properties();
+            properties.setProperty("key", key);
+            properties.setProperty("name", schemaTypes.getName());
+            properties.setProperty("xmlbeans", XmlBeans.getVersion());
+
+            OutputStream out = new FileOutputStream(new File(temp, ENTRY_FILE));
+            try {
+                properties.store(out, null);
+            } finally {
+                out.close();
+            }
+
+            // another process may have saved the same schemas in the meantime
+            if (!entry.exists() && temp.renameTo(entry)) {
+                log.info("Saved schema types to cache [" + key + "]");
+            }
+        } catch (Throwable e) {
+            log.warn("Failed to save schema types to cache in " + directory + ": " + e);
+        } finally {
+            FileUtils.deleteQuietly(temp);
+        }
+
+        evict();
+    }
+
+    void evict() {
+        File[] entries = directory.listFiles();
+        if (entries == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        final Map<File, Long> lastUsed = new HashMap<File, Long>();
+        List<File> remaining = new ArrayList<File>();
+        long size = 0;
+
+        for (File entry : entries) {
+            if (!entry.isDirectory()) {
+                continue;
+            }
+
+            if (entry.getName().endsWith(TEMP_SUFFIX)) {
+                // left by a process that was stopped while saving
+                if (now - entry.lastModified() > MAX_TEMP_AGE) {
+                    FileUtils.deleteQuietly(entry);
+                }
+                continue;
+            }
+
+            File entryFile = new File(entry, ENTRY_FILE);
+            long used = entryFile.exists() ? entryFile.lastModified() : entry.lastModified();
+
+            if (now - used > maxAge) {
+                FileUtils.deleteQuietly(entry);
+            } else {
+                lastUsed.put(entry, used);
+                remaining.add(entry);
+                size += FileUtils.sizeOfDirectory(entry);
+            }
+        }
+
+        Collections.sort(remaining, new Comparator<File>() {
+            public int compare(File o1, File o2) {
+                return lastUsed.get(o1).compareTo(lastUsed.get(o2));
+            }
+        });
+
+        for (int c = 0; c < remaining.size() && size > maxSize; c++) {
+            File entry = remaining.get(c);
+            size -= FileUtils.sizeOfDirectory(entry);
+            FileUtils.deleteQuietly(entry);
+        }
+    }
+
+    private static Properties readProperties(File file) throws IOException {
+        Properties properties = new Properties();
+        InputStream in = new FileInputStream(file);
+        try {
+            properties.load(in);
+        } finally {
+            in.close();
+        }
+
+        return properties;
+    }
+
+    private static void readResources(File dir, String path, Map<String, byte[]> resources) throws IOException {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        for (File file : files) {
+            if (file.isDirectory()) {
+                readResources(file, path + file.getName() + "/", resources);
+            } else {
+                resources.put(path + file.getName(), FileUtils.readFileToByteArray(file));
+            }
+        }
+    }
+
+    /**
+     * Serves the classes and resources of a cached type system from memory,
+     * in preference to those of the parent ClassLoader
+     */
+
+    private final static class ResourceClassLoader extends ClassLoader {
+        private final Map<String, byte[]> resources;
+
+        private ResourceClassLoader(Map<String, byte[]> resources, ClassLoader parent) {
+            super(parent);
+            this.resources = resources;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] data = resources.get(name.replace('.', '/') + ".class");
+            if (data == null) {
+                throw new ClassNotFoundException(name);
+            }
+
+            return defineClass(name, data, 0, data.length);
+        }
+
+        @Override
+        public URL getResource(String name) {
+            URL url = findResource(name);
+            return url == null ? super.getResource(name) : url;
+        }
+
+        @Override
+        public InputStream getResourceAsStream(String name) {
+            byte[] data = resources.get(name);
+            return data == null ? super.getResourceAsStream(name) : new ByteArrayInputStream(data);
+        }
+
+        @Override
+        protected URL findResource(final String name) {
+            final byte[] data = resources.get(name);
+            if (data == null) {
+                return null;
+            }
+
+            try {
+                return new URL(null, "schemacache:" + name, new URLStreamHandler() {
+                    @Override
+                    protected URLConnection openConnection(URL url) {
+                        return new URLConnection(url) {
+                            @Override
+                            public void connect() {
+                            }
+
+                            @Override
+                            public InputStream getInputStream() {
+                                return new ByteArrayInputStream(data);
+                            }
+                        };
+                    }
+                });
+            } catch (MalformedURLException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -19,7 +19,10 @@ package com.eviware.soapui.impl.wsdl.support.xsd;
 import com.eviware.soapui.SoapUI;
 import com.eviware.soapui.SoapUIExtensionClassLoader;
 import com.eviware.soapui.SoapUIExtensionClassLoader.SoapUIClassLoaderState;
+import com.eviware.soapui.impl.support.definition.support.DefinitionLoadPool;
+import com.eviware.soapui.impl.support.definition.support.InterfaceCacheDefinitionLoader;
 import com.eviware.soapui.impl.wsdl.support.Constants;
+import com.eviware.soapui.impl.wsdl.support.UrlSchemaLoader;
 import com.eviware.soapui.model.settings.SettingsListener;
 import com.eviware.soapui.settings.WsdlSettings;
 import com.eviware.soapui.support.StringUtils;
@@ -53,12 +56,16 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
 
 /**
  * XML-Schema related tools
@@ -68,7 +75,17 @@ import java.util.Set;
 
 public class SchemaUtils {
     private final static Logger log = Logger.getLogger(SchemaUtils.class);
+
+    private final static String[] DEFINITION_PART_PATHS = {
+            "declare namespace s='" + Constants.WSDL11_NS + "' .//s:import/@location",
+            "declare namespace s='" + Constants.WADL10_NS + "' .//s:grammars/s:include/@href",
+            "declare namespace s='" + Constants.WADL11_NS + "' .//s:grammars/s:include/@href",
+            "declare namespace s='" + Constants.XSD_NS + "' .//s:import/@schemaLocation",
+            "declare namespace s='" + Constants.XSD_NS + "' .//s:include/@schemaLocation"};
+
     private static Map<String, XmlObject> defaultSchemas = new HashMap<String, XmlObject>();
+    private final static Map<SchemaTypeSystem, SourceSchemas> sourceSchemas = Collections
+            .synchronizedMap(new WeakHashMap<SchemaTypeSystem, SourceSchemas>());
 
     static {
         initDefaultSchemas();
@@ -187,14 +204,13 @@ public class SchemaUtils {
         }
     }
 
-    public static SchemaTypeSystem buildSchemaTypes(List<XmlObject> schemas) throws SchemaException {
-        XmlOptions options = new XmlOptions();
-        options.setCompileNoValidation();
-        options.setCompileNoPvrRule();
-        options.setCompileDownloadUrls();
-        options.setCompileNoUpaRule();
-        options.setValidateTreatLaxAsSkip();
+    /**
+     * Compiles the specified schemas together with the default schemas, or
+     * loads the type system compiled from the same schemas from the
+     * SchemaCache
+     */
 
+    public static SchemaTypeSystem buildSchemaTypes(List<XmlObject> schemas) throws SchemaException {
         for (int c = 0; c < schemas.size(); c++) {
             XmlObject xmlObject = schemas.get(c);
             if (xmlObject == null
@@ -206,6 +222,36 @@ public class SchemaUtils {
         }
 
         boolean strictSchemaTypes = SoapUI.getSettings().getBoolean(WsdlSettings.STRICT_SCHEMA_TYPES);
+
+        SchemaCache schemaCache = SchemaCache.getDefault();
+        String cacheKey = null;
+        if (schemaCache != null) {
+            cacheKey = SchemaCache.createKey(schemas, defaultSchemas.values(), strictSchemaTypes);
+            SchemaTypeSystem sts = schemaCache.load(cacheKey);
+            if (sts != null) {
+                // loaded types have no parse objects, see getParseObject
+                sourceSchemas.put(sts, new SourceSchemas(schemas, strictSchemaTypes));
+                return sts;
+            }
+        }
+
+        SchemaTypeSystem sts = compileSchemaTypes(schemas, strictSchemaTypes);
+        if (schemaCache != null) {
+            schemaCache.save(cacheKey, sts);
+        }
+
+        return sts;
+    }
+
+    private static SchemaTypeSystem compileSchemaTypes(List<XmlObject> schemas, boolean strictSchemaTypes)
+            throws SchemaException {
+        XmlOptions options = new XmlOptions();
+        options.setCompileNoValidation();
+        options.setCompileNoPvrRule();
+        options.setCompileDownloadUrls();
+        options.setCompileNoUpaRule();
+        options.setValidateTreatLaxAsSkip();
+
         if (!strictSchemaTypes) {
             Set<String> mdefNamespaces = new HashSet<String>();
 
@@ -255,10 +301,8 @@ public class SchemaUtils {
             // schemas.add( soapVersion.getSoapEnvelopeSchema());
             schemas.addAll(defaultSchemas.values());
 
-            SchemaTypeSystem sts = XmlBeans.compileXsd(schemas.toArray(new XmlObject[schemas.size()]),
+            return XmlBeans.compileXsd(schemas.toArray(new XmlObject[schemas.size()]),
                     XmlBeans.getBuiltinTypeSystem(), options);
-
-            return sts;
             // return XmlBeans.typeLoaderUnion(new SchemaTypeLoader[] { sts,
             // XmlBeans.getBuiltinTypeSystem() });
         } catch (Exception e) {
@@ -275,6 +319,89 @@ public class SchemaUtils {
         }
     }
 
+    /**
+     * Returns the schema component defining the specified type. Types loaded
+     * from the SchemaCache have no parse objects, so their source schemas are
+     * compiled again on first use and the parse object of the matching type is
+     * returned.
+     */
+
+    public static XmlObject getParseObject(SchemaType type) {
+        if (type == null) {
+            return null;
+        } else if (type.getParseObject() != null) {
+            return type.getParseObject();
+        }
+
+        SourceSchemas sources = sourceSchemas.get(type.getTypeSystem());
+        if (sources == null) {
+            return null;
+        }
+
+        try {
+            SchemaType compiledType = findType(sources.getCompiledTypes(), type);
+            return compiledType == null ? null : compiledType.getParseObject();
+        } catch (SchemaException e) {
+            log.warn("Failed to compile schemas of cached schema types: " + e);
+            return null;
+        }
+    }
+
+    private static SchemaType findType(SchemaTypeSystem sts, SchemaType type) {
+        if (type.getName() != null) {
+            return sts.findType(type.getName());
+        } else if (type.isDocumentType()) {
+            return sts.findDocumentType(type.getDocumentElementName());
+        } else if (type.isAttributeType()) {
+            return sts.findAttributeType(type.getAttributeTypeAttributeName());
+        } else if (type.getOuterType() == null) {
+            return null;
+        }
+
+        // anonymous types are compiled in the same order from the same schemas
+        SchemaType outerType = findType(sts, type.getOuterType());
+        if (outerType == null) {
+            return null;
+        }
+
+        SchemaType[] anonymousTypes = type.getOuterType().getAnonymousTypes();
+        SchemaType[] compiledTypes = outerType.getAnonymousTypes();
+        for (int c = 0; c < anonymousTypes.length && c < compiledTypes.length; c++) {
+            if (anonymousTypes[c] == type) {
+                return compiledTypes[c];
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Schemas of a type system loaded from the SchemaCache, compiled when parse
+     * objects are needed
+     */
+
+    private final static class SourceSchemas {
+        private final List<XmlObject> schemas = new ArrayList<XmlObject>();
+        private final boolean strictSchemaTypes;
+        private SchemaTypeSystem compiledTypes;
+
+        private SourceSchemas(List<XmlObject> schemas, boolean strictSchemaTypes) {
+            // copies, since compiling removes the imports of the schemas
+            for (XmlObject schema : schemas) {
+                this.schemas.add(schema.copy());
+            }
+            this.strictSchemaTypes = strictSchemaTypes;
+        }
+
+        private synchronized SchemaTypeSystem getCompiledTypes() throws SchemaException {
+            if (compiledTypes == null) {
+                compiledTypes = compileSchemaTypes(new ArrayList<XmlObject>(schemas), strictSchemaTypes);
+            }
+
+            return compiledTypes;
+        }
+    }
+
     public static boolean toNextContainer(XmlCursor cursor) {
         while (!cursor.isContainer() && !cursor.isEnddoc()) {
             cursor.toNextToken();
@@ -300,6 +427,11 @@ public class SchemaUtils {
 
     public static void getSchemas(String wsdlUrl, Map<String, XmlObject> existing, SchemaLoader loader, String tns)
             throws SchemaException {
+        getSchemas(wsdlUrl, existing, new PartFetcher(loader), tns);
+    }
+
+    private static void getSchemas(String wsdlUrl, Map<String, XmlObject> existing, PartFetcher fetcher, String tns)
+            throws SchemaException {
 
         if (existing.containsKey(wsdlUrl)) {
             return;
@@ -310,24 +442,22 @@ public class SchemaUtils {
 
         log.info("Getting schema " + wsdlUrl);
 
-        ArrayList<?> errorList = new ArrayList<Object>();
+        ArrayList<Object> errorList = new ArrayList<Object>();
 
         Map<String, XmlObject> result = new HashMap<String, XmlObject>();
 
         boolean common = false;
 
         try {
-            XmlOptions options = new XmlOptions();
-            options.setCompileNoValidation();
-            options.setSaveUseOpenFrag();
-            options.setErrorListener(errorList);
-            options.setSaveSyntheticDocumentElement(new QName(Constants.XSD_NS, "schema"));
+            XmlOptions options = createSchemaOptions(errorList);
 
-            XmlObject xmlObject = loader.loadXmlObject(wsdlUrl, options);
+            XmlObject xmlObject = fetcher.load(wsdlUrl, options, errorList);
             if (xmlObject == null) {
                 throw new Exception("Failed to load schema from [" + wsdlUrl + "]");
             }
 
+            prefetchSchemas(wsdlUrl, existing, fetcher, xmlObject);
+
             Document dom = (Document) xmlObject.getDomNode();
             Node domNode = dom.getDocumentElement();
 
@@ -390,7 +520,7 @@ public class SchemaUtils {
                             location = Tools.joinRelativeUrl(wsdlUrl, location);
                         }
 
-                        getSchemas(location, existing, loader, null);
+                        getSchemas(location, existing, fetcher, null);
                     }
                 }
 
@@ -403,7 +533,7 @@ public class SchemaUtils {
                             location = Tools.joinRelativeUrl(wsdlUrl, location);
                         }
 
-                        getSchemas(location, existing, loader, null);
+                        getSchemas(location, existing, fetcher, null);
                     }
                 }
 
@@ -416,7 +546,7 @@ public class SchemaUtils {
                             location = Tools.joinRelativeUrl(wsdlUrl, location);
                         }
 
-                        getSchemas(location, existing, loader, null);
+                        getSchemas(location, existing, fetcher, null);
                     }
                 }
 
@@ -440,7 +570,7 @@ public class SchemaUtils {
                             location = Tools.joinRelativeUrl(wsdlUrl, location);
                         }
 
-                        getSchemas(location, existing, loader, null);
+                        getSchemas(location, existing, fetcher, null);
                     }
                 }
 
@@ -455,7 +585,7 @@ public class SchemaUtils {
                             location = Tools.joinRelativeUrl(wsdlUrl, location);
                         }
 
-                        getSchemas(location, existing, loader, targetNS);
+                        getSchemas(location, existing, fetcher, targetNS);
                     }
                 }
             }
@@ -465,6 +595,42 @@ public class SchemaUtils {
         }
     }
 
+    private static XmlOptions createSchemaOptions(List<Object> errorList) {
+        XmlOptions options = new XmlOptions();
+        options.setCompileNoValidation();
+        options.setSaveUseOpenFrag();
+        options.setErrorListener(errorList);
+        options.setSaveSyntheticDocumentElement(new QName(Constants.XSD_NS, "schema"));
+        return options;
+    }
+
+    /**
+     * Starts loading the definitions and schemas imported or included by the
+     * specified part, using the same locations as getSchemas
+     */
+
+    private static void prefetchSchemas(String wsdlUrl, Map<String, XmlObject> existing, PartFetcher fetcher,
+                                        XmlObject xmlObject) {
+        for (String path : DEFINITION_PART_PATHS) {
+            XmlObject[] imports = xmlObject.selectPath(path);
+            for (int i = 0; i < imports.length; i++) {
+                String location = ((SimpleValue) imports[i]).getStringValue();
+                Element elm = ((Attr) imports[i].getDomNode()).getOwnerElement();
+
+                if (StringUtils.hasContent(location) && !defaultSchemas.containsKey(elm.getAttribute("namespace"))) {
+                    if (!location.startsWith("file:") && location.indexOf("://") == -1) {
+                        location = Tools.joinRelativeUrl(wsdlUrl, location);
+                    }
+
+                    if (!existing.containsKey(location)) {
+                        ArrayList<Object> prefetchErrors = new ArrayList<Object>();
+                        fetcher.prefetch(location, createSchemaOptions(prefetchErrors), prefetchErrors);
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * Returns a map mapping urls to corresponding XmlObjects for the specified
      * wsdlUrl
@@ -478,28 +644,51 @@ public class SchemaUtils {
 
     public static void getDefinitionParts(String origWsdlUrl, Map<String, XmlObject> existing, SchemaLoader loader)
             throws Exception {
+        getDefinitionParts(origWsdlUrl, existing, new PartFetcher(loader));
+    }
+
+    private static void getDefinitionParts(String origWsdlUrl, Map<String, XmlObject> existing, PartFetcher fetcher)
+            throws Exception {
         String wsdlUrl = origWsdlUrl;
         if (existing.containsKey(wsdlUrl)) {
             return;
         }
 
-        XmlObject xmlObject = loader.loadXmlObject(wsdlUrl, null);
+        XmlObject xmlObject = fetcher.load(wsdlUrl, null, null);
         existing.put(wsdlUrl, xmlObject);
         // wsdlUrl = loader.getBaseURI();
 
-        selectDefinitionParts(wsdlUrl, existing, loader, xmlObject, "declare namespace s='" + Constants.WSDL11_NS
-                + "' .//s:import/@location");
-        selectDefinitionParts(wsdlUrl, existing, loader, xmlObject, "declare namespace s='" + Constants.WADL10_NS
-                + "' .//s:grammars/s:include/@href");
-        selectDefinitionParts(wsdlUrl, existing, loader, xmlObject, "declare namespace s='" + Constants.WADL11_NS
-                + "' .//s:grammars/s:include/@href");
-        selectDefinitionParts(wsdlUrl, existing, loader, xmlObject, "declare namespace s='" + Constants.XSD_NS
-                + "' .//s:import/@schemaLocation");
-        selectDefinitionParts(wsdlUrl, existing, loader, xmlObject, "declare namespace s='" + Constants.XSD_NS
-                + "' .//s:include/@schemaLocation");
+        for (String path : DEFINITION_PART_PATHS) {
+            for (String location : getDefinitionPartLocations(wsdlUrl, xmlObject, path)) {
+                if (!existing.containsKey(location)) {
+                    fetcher.prefetch(location, null, null);
+                }
+            }
+        }
+
+        for (String path : DEFINITION_PART_PATHS) {
+            selectDefinitionParts(wsdlUrl, existing, fetcher, xmlObject, path);
+        }
     }
 
-    private static void selectDefinitionParts(String wsdlUrl, Map<String, XmlObject> existing, SchemaLoader loader,
+    private static List<String> getDefinitionPartLocations(String wsdlUrl, XmlObject xmlObject, String path) {
+        List<String> result = new ArrayList<String>();
+        XmlObject[] wsdlImports = xmlObject.selectPath(path);
+        for (int i = 0; i < wsdlImports.length; i++) {
+            String location = ((SimpleValue) wsdlImports[i]).getStringValue();
+            if (StringUtils.hasContent(location)) {
+                if (!location.startsWith("file:") && location.indexOf("://") == -1) {
+                    location = Tools.joinRelativeUrl(wsdlUrl, location);
+                }
+
+                result.add(location);
+            }
+        }
+
+        return result;
+    }
+
+    private static void selectDefinitionParts(String wsdlUrl, Map<String, XmlObject> existing, PartFetcher fetcher,
                                               XmlObject xmlObject, String path) throws Exception {
         XmlObject[] wsdlImports = xmlObject.selectPath(path);
         for (int i = 0; i < wsdlImports.length; i++) {
@@ -510,7 +699,7 @@ public class SchemaUtils {
                         location = Tools.joinRelativeUrl(wsdlUrl, location);
                     }
 
-                    getDefinitionParts(location, existing, loader);
+                    getDefinitionParts(location, existing, fetcher);
                 } else {
                     Node domNode = ((Attr) wsdlImports[i].getDomNode()).getOwnerElement();
                     domNode.getParentNode().removeChild(domNode);
@@ -677,4 +866,84 @@ public class SchemaUtils {
                 && (schemaType.getBuiltinTypeCode() == SchemaType.BTC_ANY_TYPE || (schemaType.getBaseType() != null && schemaType
                 .getBaseType().getBuiltinTypeCode() == SchemaType.BTC_ANY_TYPE));
     }
+
+    /**
+     * Loads the parts of a definition for a single traversal. Parts referenced
+     * by the part being processed are prefetched on the DefinitionLoadPool, each
+     * prefetched part is handed out once and later requests for the same url
+     * load it again, since the traversal may modify the loaded parts.
+     * <p/>
+     * Prefetching uses loaders without progress monitor or other state shared
+     * with the loader of the traversal, so only loaders that can provide one
+     * are prefetched from; a part that fails to prefetch is loaded again by the
+     * traversal, which reports its errors.
+     */
+
+    private static class PartFetcher {
+        private final SchemaLoader loader;
+        private final Map<String, Prefetch> prefetched = new HashMap<String, Prefetch>();
+
+        private PartFetcher(SchemaLoader loader) {
+            this.loader = loader;
+        }
+
+        private SchemaLoader createPrefetchLoader() {
+            if (loader instanceof UrlSchemaLoader) {
+                return loader;
+            } else if (loader instanceof InterfaceCacheDefinitionLoader) {
+                return ((InterfaceCacheDefinitionLoader) loader).createPartLoader();
+            }
+
+            return null;
+        }
+
+        private void prefetch(String url, XmlOptions options, List<Object> errorList) {
+            if (prefetched.containsKey(url)) {
+                return;
+            }
+
+            SchemaLoader prefetchLoader = createPrefetchLoader();
+            if (prefetchLoader == null) {
+                return;
+            }
+
+            Prefetch prefetch = new Prefetch(prefetchLoader, url, options, errorList);
+            prefetched.put(url, prefetch);
+            DefinitionLoadPool.execute(prefetch);
+        }
+
+        private XmlObject load(String url, XmlOptions options, List<Object> errorList) throws Exception {
+            Prefetch prefetch = prefetched.remove(url);
+            if (prefetch != null) {
+                try {
+                    XmlObject result = DefinitionLoadPool.await(prefetch);
+                    if (result != null) {
+                        if (errorList != null && prefetch.errorList != null) {
+                            errorList.addAll(prefetch.errorList);
+                        }
+                        return result;
+                    }
+                } catch (Exception e) {
+                    log.debug("Prefetching [" + url + "] failed: " + e);
+                }
+            }
+
+            return loader.loadXmlObject(url, options);
+        }
+    }
+
+    private static class Prefetch extends FutureTask<XmlObject> {
+        private final List<Object> errorList;
+
+        private Prefetch(final SchemaLoader loader, final String url, final XmlOptions options,
+                         List<Object> errorList) {
+            super(new Callable<XmlObject>() {
+                public XmlObject call() throws Exception {
+                    return loader.loadXmlObject(url, options);
+                }
+            });
+
+            this.errorList = errorList;
+        }
+    }
 }
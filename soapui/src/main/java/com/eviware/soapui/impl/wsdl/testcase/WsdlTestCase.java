@@ -822,6 +822,23 @@ public class WsdlTestCase extends AbstractTestPropertyHolderWsdlModelItem<TestCa
         }
     }
 
+    /**
+     * Releases the engines of the setup and teardown scripts so that the next
+     * run starts with new script instances and variables
+     */
+
+    public void resetScriptEngines() {
+        if (setupScriptEngine != null) {
+            setupScriptEngine.release();
+            setupScriptEngine = null;
+        }
+
+        if (tearDownScriptEngine != null) {
+            tearDownScriptEngine.release();
+            tearDownScriptEngine = null;
+        }
+    }
+
     public ActionList getCreateActions() {
         return createActions;
     }
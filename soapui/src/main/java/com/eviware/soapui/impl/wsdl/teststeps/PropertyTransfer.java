@@ -39,6 +39,7 @@ import com.eviware.soapui.support.resolver.CreateMissingPropertyResolver;
 import com.eviware.soapui.support.resolver.DisablePropertyTransferResolver;
 import com.eviware.soapui.support.resolver.ResolveContext;
 import com.eviware.soapui.support.resolver.ResolveContext.PathToResolve;
+import com.eviware.soapui.support.xml.XmlObjectCache;
 import com.eviware.soapui.support.xml.XmlUtils;
 import org.apache.log4j.Logger;
 import org.apache.xmlbeans.XmlCursor;
@@ -346,7 +347,7 @@ public class PropertyTransfer implements PropertyChangeNotifier {
         } else if (getSourcePathLanguage() == PathLanguage.JSONPATH) {
             return new JsonPathFacade(sourceValue).readObjectValue(getSourcePath());
         } else {
-            XmlObject sourceXml = XmlUtils.createXmlObject(sourceValue);
+            XmlObject sourceXml = XmlObjectCache.getXmlObject(sourceValue);
             XmlCursor sourceCursor = sourceXml.newCursor();
 
             try {
@@ -476,8 +477,8 @@ public class PropertyTransfer implements PropertyChangeNotifier {
             if (isResponseProperty(sourceProperty)) {
                 sourcePropertyValue = removeExpansions(sourceProperty.getValue());
             }
-            XmlObject sourceXmlObject = sourcePropertyValue == null ? null : XmlUtils
-                    .createXmlObject(sourcePropertyValue);
+            XmlObject sourceXmlObject = sourcePropertyValue == null ? null : XmlObjectCache
+                    .getXmlObject(sourcePropertyValue);
             sourceXml = sourceXmlObject == null ? null : sourceXmlObject.newCursor();
         } catch (XmlException e) {
             throw new Exception("Error parsing source property [" + e.getMessage() + "]");
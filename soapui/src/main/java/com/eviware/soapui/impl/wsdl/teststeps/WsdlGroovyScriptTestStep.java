@@ -82,9 +82,13 @@ public class WsdlGroovyScriptTestStep extends WsdlTestStepWithProperties impleme
 
         addProperty(new TestStepBeanProperty(SCRIPT_PROPERTY, false, this, SCRIPT_PROPERTY, this));
 
+        createScriptEngine();
+    }
+
+    private void createScriptEngine() {
         scriptEngine = SoapUIScriptEngineRegistry.create(this);
         scriptEngine.setScript(getScript());
-        if (forLoadTest && !isDisabled()) {
+        if (isForLoadTest() && !isDisabled()) {
             try {
                 scriptEngine.compile();
             } catch (Exception e) {
@@ -93,6 +97,16 @@ public class WsdlGroovyScriptTestStep extends WsdlTestStepWithProperties impleme
         }
     }
 
+    /**
+     * Replaces the script engine with a new one, so that no state of previous
+     * runs is kept by the script
+     */
+
+    public synchronized void resetScriptEngine() {
+        scriptEngine.release();
+        createScriptEngine();
+    }
+
     public Logger getLogger() {
         SoapUI.ensureGroovyLog();
         return logger;
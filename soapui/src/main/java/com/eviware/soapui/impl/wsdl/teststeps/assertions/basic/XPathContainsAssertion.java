@@ -35,12 +35,12 @@ import com.eviware.soapui.model.testsuite.AssertionException;
 import com.eviware.soapui.support.Tools;
 import com.eviware.soapui.support.UISupport;
 import com.eviware.soapui.support.types.StringList;
+import com.eviware.soapui.support.xml.XmlObjectCache;
 import com.eviware.soapui.support.xml.XmlUtils;
 import junit.framework.ComparisonFailure;
 import org.apache.xmlbeans.XmlAnySimpleType;
 import org.apache.xmlbeans.XmlCursor;
 import org.apache.xmlbeans.XmlObject;
-import org.apache.xmlbeans.XmlOptions;
 import org.apache.xmlbeans.XmlQName;
 import org.apache.xmlbeans.impl.values.XmlValueDisconnectedException;
 import org.custommonkey.xmlunit.Diff;
@@ -77,13 +77,7 @@ public class XPathContainsAssertion extends AbstractXmlContainsAssertion {
                 return "Missing content for XPath assertion";
             }
 
-            XmlOptions options = new XmlOptions();
-            if (ignoreComments) {
-                options.setLoadStripComments();
-            }
-
-            // XmlObject xml = XmlObject.Factory.parse( response, options );
-            XmlObject xml = XmlUtils.createXmlObject(response, options);
+            XmlObject xml = XmlObjectCache.getXmlObject(response, ignoreComments);
             String expandedPath = PropertyExpander.expandProperties(context, path);
             XmlObject[] items = xml.selectPath(expandedPath);
             AssertedXPathsContainer assertedXPathsContainer = (AssertedXPathsContainer) context
@@ -32,6 +32,7 @@ import com.eviware.soapui.model.testsuite.AssertionError;
 import com.eviware.soapui.model.testsuite.AssertionException;
 import com.eviware.soapui.support.Tools;
 import com.eviware.soapui.support.UISupport;
+import com.eviware.soapui.support.xml.XmlObjectCache;
 import com.eviware.soapui.support.xml.XmlUtils;
 import org.apache.xmlbeans.XmlAnySimpleType;
 import org.apache.xmlbeans.XmlObject;
@@ -70,13 +71,7 @@ public class XQueryContainsAssertion extends AbstractXmlContainsAssertion {
                 return "Missing content for XQuery Assertion";
             }
             
-            XmlOptions options = new XmlOptions();
-            if (ignoreComments) {
-                options.setLoadStripComments();
-            }
-
-            // XmlObject xml = XmlObject.Factory.parse( response, options );
-            XmlObject xml = XmlUtils.createXmlObject(response, options);
+            XmlObject xml = XmlObjectCache.getXmlObject(response, ignoreComments);
             String expandedPath = PropertyExpander.expandProperties(context, path);
             XmlObject[] items = xml.execQuery(expandedPath);
 
@@ -138,7 +138,7 @@ public abstract class JsonPathAssertionBase extends XPathContainsAssertion {
     }
 
     protected String readStringValue(String assertableContent, String expandedPath) {
-        Object result = new JsonPathFacade(assertableContent).readObjectValue(expandedPath);
+        Object result = new JsonPathFacade(assertableContent).readSharedObjectValue(expandedPath);
         return result == null ? null : result.toString();
     }
 
@@ -80,7 +80,7 @@ public class JsonPathCountAssertion extends JsonPathAssertionBase implements Req
                 contentArea.setText("");
             }
 
-            Object result = new JsonPathFacade(assertableContent).readObjectValue(expandedPath);
+            Object result = new JsonPathFacade(assertableContent).readSharedObjectValue(expandedPath);
             if (result == null) {
                 UISupport.showErrorMessage("No match in current response");
             } else {
@@ -119,7 +119,7 @@ public class JsonPathCountAssertion extends JsonPathAssertionBase implements Req
                 return "Missing content for JsonPath assertion";
             }
             String expandedPath = PropertyExpander.expandProperties(context, path);
-            Object result = new JsonPathFacade(assertableContent).readObjectValue(expandedPath);
+            Object result = new JsonPathFacade(assertableContent).readSharedObjectValue(expandedPath);
             String resultSize = getResultSize(result).toString();
 
             String expandedContent = PropertyExpander.expandProperties(context, getExpectedContent());
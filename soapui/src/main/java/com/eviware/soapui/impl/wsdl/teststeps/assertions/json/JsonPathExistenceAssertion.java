@@ -78,7 +78,7 @@ public class JsonPathExistenceAssertion extends JsonPathAssertionBase implements
                 contentArea.setText("");
             }
 
-            Object result = new JsonPathFacade(assertableContent).readObjectValue(expandedPath);
+            Object result = new JsonPathFacade(assertableContent).readSharedObjectValue(expandedPath);
             setExpectedValueFromSelectedNode(contentArea, Boolean.toString(result != null));
 
         } catch (Throwable e) {
@@ -107,7 +107,7 @@ public class JsonPathExistenceAssertion extends JsonPathAssertionBase implements
             }
             String expandedPath = PropertyExpander.expandProperties(context, path);
             JsonPathFacade jsonPathFacade = new JsonPathFacade(assertableContent);
-            Object result = jsonPathFacade.readObjectValue(expandedPath);
+            Object result = jsonPathFacade.readSharedObjectValue(expandedPath);
             String expandedExpectedValue = PropertyExpander.expandProperties(context, getExpectedContent());
             Assert.assertEquals(expandedExpectedValue, Boolean.toString(result != null));
         } catch (Throwable exception) {
@@ -29,6 +29,7 @@ import com.eviware.soapui.model.propertyexpansion.resolvers.MockRunPropertyResol
 import com.eviware.soapui.model.propertyexpansion.resolvers.ModelItemPropertyResolver;
 import com.eviware.soapui.model.propertyexpansion.resolvers.PropertyResolver;
 import com.eviware.soapui.model.propertyexpansion.resolvers.PropertyResolverFactory;
+import com.eviware.soapui.model.propertyexpansion.resolvers.SelectivePropertyResolver;
 import com.eviware.soapui.model.propertyexpansion.resolvers.SubmitPropertyResolver;
 import com.eviware.soapui.model.propertyexpansion.resolvers.TestRunPropertyResolver;
 import com.eviware.soapui.model.support.ModelSupport;
@@ -43,6 +44,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Class that can expand properties using property resolvers
@@ -51,7 +53,10 @@ import java.util.Map;
  */
 
 public class PropertyExpander implements SoapUIFactoryRegistryListener {
+    private final static int MAX_CACHED_RESOLVERS = 10000;
+
     private List<PropertyResolver> propertyResolvers = new ArrayList<PropertyResolver>();
+    private Map<String, PropertyResolver[]> resolverCache = new ConcurrentHashMap<String, PropertyResolver[]>();
     private static List<PropertyResolver> defaultResolvers = new ArrayList<PropertyResolver>();
     private static PropertyExpander defaultExpander;
     private static boolean debuggingMode;
@@ -101,6 +106,7 @@ public class PropertyExpander implements SoapUIFactoryRegistryListener {
 
     public void addResolver(PropertyResolver propertyResolver) {
         propertyResolvers.add(propertyResolver);
+        resolverCache.clear();
     }
 
     public void addResolverFactory( PropertyResolverFactory factory )
@@ -123,6 +129,7 @@ public class PropertyExpander implements SoapUIFactoryRegistryListener {
 
     private void removeResolver(PropertyResolver propertyResolver) {
         propertyResolvers.remove( propertyResolver );
+        resolverCache.clear();
     }
 
     public static String expandProperties(String content) {
@@ -146,101 +153,165 @@ public class PropertyExpander implements SoapUIFactoryRegistryListener {
     }
 
     public String expand(PropertyExpansionContext context, String content, boolean entitize) {
+        if (StringUtils.isNullOrEmpty(content) || content.indexOf("${") == -1) {
+            return content;
+        }
+
         SoapUIClassLoaderState clState = SoapUIExtensionClassLoader.ensure();
 
         try {
+            boolean globalOverrideEnabled = SoapUI.getSettings().getBoolean(GlobalPropertySettings.ENABLE_OVERRIDE);
 
-            if (StringUtils.isNullOrEmpty(content)) {
-                return content;
+            PropertyExpansionTemplate template = PropertyExpansionTemplate.getTemplate(content);
+            if (template.isDynamic()) {
+                return expandNested(context, content, entitize, globalOverrideEnabled);
             }
 
-            int ix = content.indexOf("${");
-            if (ix == -1) {
-                return content;
-            }
+            StringBuilder buf = new StringBuilder(content.length());
+            int propertyCount = template.getPropertyCount();
 
-            StringBuffer buf = new StringBuffer();
-            int lastIx = 0;
-            while (ix != -1) {
-                if (ix > lastIx && content.charAt(ix - 1) == '$') {
-                    buf.append(content.substring(lastIx, ix - 1));
-                    lastIx = ix;
-                    ix = content.indexOf("${", lastIx + 1);
-                    continue;
-                }
+            for (int c = 0; c < propertyCount; c++) {
+                buf.append(template.getLiteral(c));
 
-                if (ix > lastIx) {
-                    buf.append(content.substring(lastIx, ix));
+                String propertyName = template.getPropertyName(c);
+                String propertyValue = resolveProperty(context, propertyName, globalOverrideEnabled);
+                if (propertyValue != null) {
+                    buf.append(expandValue(context, content, propertyName, propertyValue, entitize));
                 }
+            }
 
-                int ix2 = content.indexOf('}', ix + 2);
-                if (ix2 == -1) {
-                    break;
-                }
+            buf.append(template.getLiteral(propertyCount));
+            return buf.toString();
+        } finally {
+            clState.restore();
+        }
+    }
 
-                // check for nesting
-                int ix3 = content.lastIndexOf("${", ix2);
-                if (ix3 != ix) {
-                    // buf.append( content.substring( ix, ix3 ));
-                    content = content.substring(0, ix3) + expand(context, content.substring(ix3, ix2 + 1))
-                            + content.substring(ix2 + 1);
+    /**
+     * Expands content containing nested property expansions, where the names of
+     * the expanded properties depend on the values of the inner expansions
+     */
+
+    private String expandNested(PropertyExpansionContext context, String content, boolean entitize,
+                                boolean globalOverrideEnabled) {
+        int ix = content.indexOf("${");
+
+        StringBuffer buf = new StringBuffer();
+        int lastIx = 0;
+        while (ix != -1) {
+            if (ix > lastIx && content.charAt(ix - 1) == '$') {
+                buf.append(content.substring(lastIx, ix - 1));
+                lastIx = ix;
+                ix = content.indexOf("${", lastIx + 1);
+                continue;
+            }
 
-                    lastIx = ix;
-                    continue;
-                }
+            if (ix > lastIx) {
+                buf.append(content.substring(lastIx, ix));
+            }
 
-                String propertyName = content.substring(ix + 2, ix2);
-                String propertyValue = null;
+            int ix2 = content.indexOf('}', ix + 2);
+            if (ix2 == -1) {
+                // keep the unterminated expansion; the content before it has been appended
+                lastIx = ix;
+                break;
+            }
 
-                if (StringUtils.hasContent(propertyName)) {
-                    boolean globalOverrideEnabled = SoapUI.getSettings().getBoolean(GlobalPropertySettings.ENABLE_OVERRIDE);
+            // check for nesting
+            int ix3 = content.lastIndexOf("${", ix2);
+            if (ix3 != ix) {
+                content = content.substring(0, ix3) + expand(context, content.substring(ix3, ix2 + 1))
+                        + content.substring(ix2 + 1);
 
-                    for (int c = 0; c < propertyResolvers.size() && propertyValue == null; c++) {
-                        propertyValue = propertyResolvers.get(c).resolveProperty(context, propertyName,
-                                globalOverrideEnabled);
-                    }
-                }
+                lastIx = ix;
+                continue;
+            }
 
-                // found a value?
-                if (propertyValue != null) {
-                    if (!content.equals(propertyValue)) {
-                        propertyValue = expand(context, propertyValue);
-                    }
-
-                    if (entitize) {
-                        propertyValue = XmlUtils.entitize(propertyValue);
-                    }
-
-                    TestCase testCase = ModelSupport.getModelItemTestCase(context.getModelItem());
-                    if (debuggingMode && testCase != null) {
-                        StringToStringMap props = debuggingExpandedProperties.get(testCase.getId());
-                        if (props == null) {
-                            props = new StringToStringMap();
-                        }
-                        props.put(propertyName, propertyValue);
-                        debuggingExpandedProperties.put(testCase.getId(), props);
-                    }
-                    buf.append(propertyValue);
-                } else {
-                    // if( log.isEnabledFor( Priority.WARN ))
-                    // log.warn( "Missing property value for [" + propertyName + "]"
-                    // );
-
-                    // buf.append( "${" ).append( propertyName ).append( '}' );
-                }
+            String propertyName = content.substring(ix + 2, ix2);
+            String propertyValue = resolveProperty(context, propertyName, globalOverrideEnabled);
 
-                lastIx = ix2 + 1;
-                ix = content.indexOf("${", lastIx);
+            // found a value?
+            if (propertyValue != null) {
+                buf.append(expandValue(context, content, propertyName, propertyValue, entitize));
             }
 
-            if (lastIx < content.length()) {
-                buf.append(content.substring(lastIx));
+            lastIx = ix2 + 1;
+            ix = content.indexOf("${", lastIx);
+        }
+
+        if (lastIx < content.length()) {
+            buf.append(content.substring(lastIx));
+        }
+
+        return buf.toString();
+    }
+
+    private String resolveProperty(PropertyExpansionContext context, String propertyName,
+                                   boolean globalOverrideEnabled) {
+        if (!StringUtils.hasContent(propertyName)) {
+            return null;
+        }
+
+        for (PropertyResolver resolver : getResolvers(propertyName)) {
+            String propertyValue = resolver.resolveProperty(context, propertyName, globalOverrideEnabled);
+            if (propertyValue != null) {
+                return propertyValue;
             }
+        }
 
-            return buf.toString();
-        } finally {
-            clState.restore();
+        return null;
+    }
+
+    /**
+     * Returns the resolvers that may resolve the specified property name, in the
+     * order they were added; the result is cached per name until the resolvers
+     * change
+     */
+
+    private PropertyResolver[] getResolvers(String propertyName) {
+        PropertyResolver[] resolvers = resolverCache.get(propertyName);
+        if (resolvers == null) {
+            List<PropertyResolver> result = new ArrayList<PropertyResolver>();
+            for (PropertyResolver resolver : propertyResolvers) {
+                if (!(resolver instanceof SelectivePropertyResolver)
+                        || ((SelectivePropertyResolver) resolver).canResolve(propertyName)) {
+                    result.add(resolver);
+                }
+            }
+
+            resolvers = result.toArray(new PropertyResolver[result.size()]);
+
+            if (resolverCache.size() >= MAX_CACHED_RESOLVERS) {
+                resolverCache.clear();
+            }
+
+            resolverCache.put(propertyName, resolvers);
+        }
+
+        return resolvers;
+    }
+
+    private String expandValue(PropertyExpansionContext context, String content, String propertyName,
+                               String propertyValue, boolean entitize) {
+        if (!content.equals(propertyValue)) {
+            propertyValue = expand(context, propertyValue);
         }
+
+        if (entitize) {
+            propertyValue = XmlUtils.entitize(propertyValue);
+        }
+
+        TestCase testCase = ModelSupport.getModelItemTestCase(context.getModelItem());
+        if (debuggingMode && testCase != null) {
+            StringToStringMap props = debuggingExpandedProperties.get(testCase.getId());
+            if (props == null) {
+                props = new StringToStringMap();
+            }
+            props.put(propertyName, propertyValue);
+            debuggingExpandedProperties.put(testCase.getId(), props);
+        }
+
+        return propertyValue;
     }
 
     public String expand(ModelItem contextModelItem, String content) {
@@ -0,0 +1,149 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.model.propertyexpansion;
+
+import com.eviware.soapui.support.BoundedCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Content string parsed into literal segments and property expansions, so the
+ * content does not have to be scanned for ${..} every time it is expanded.
+ * Compiled templates are cached by content; the least recently used templates
+ * are evicted when the total length of the cached contents exceeds its limit.
+ * Since a template holds about as many characters as its content, the limit
+ * also bounds the memory held by the templates. Larger contents are compiled
+ * every time.
+ * <p/>
+ * Content containing nested expansions such as ${${name}} is marked as dynamic
+ * since the name of the expanded property is not known until expansion time.
+ */
+
+public final class PropertyExpansionTemplate {
+    private final static int MAX_CACHED_TOTAL_LENGTH = 1024 * 1024;
+    private final static int MAX_CACHED_CONTENT_LENGTH = 16 * 1024;
+
+    private final static BoundedCache<String, PropertyExpansionTemplate> templates = BoundedCache
+            .createByKeyLength(MAX_CACHED_TOTAL_LENGTH);
+    private final static PropertyExpansionTemplate DYNAMIC = new PropertyExpansionTemplate(null, null);
+
+    private final String[] literals;
+    private final String[] propertyNames;
+
+    private PropertyExpansionTemplate(String[] literals, String[] propertyNames) {
+        this.literals = literals;
+        this.propertyNames = propertyNames;
+    }
+
+    /**
+     * Returns the compiled template for the specified content, compiling and
+     * caching it if needed
+     */
+
+    public static PropertyExpansionTemplate getTemplate(String content) {
+        PropertyExpansionTemplate template = templates.get(content);
+        if (template == null) {
+            template = compile(content);
+
+            if (content.length() <= MAX_CACHED_CONTENT_LENGTH) {
+                templates.put(content, template);
+            }
+        }
+
+        return template;
+    }
+
+    public static void clearCache() {
+        templates.clear();
+    }
+
+    /**
+     * Parses the content the same way as PropertyExpander does at expansion time
+     */
+
+    public static PropertyExpansionTemplate compile(String content) {
+        List<String> literals = new ArrayList<String>();
+        List<String> propertyNames = new ArrayList<String>();
+        StringBuilder literal = new StringBuilder();
+
+        int ix = content.indexOf("${");
+        int lastIx = 0;
+        while (ix != -1) {
+            // escaped with $${..}
+            if (ix > lastIx && content.charAt(ix - 1) == '$') {
+                literal.append(content, lastIx, ix - 1);
+                lastIx = ix;
+                ix = content.indexOf("${", lastIx + 1);
+                continue;
+            }
+
+            if (ix > lastIx) {
+                literal.append(content, lastIx, ix);
+            }
+
+            int ix2 = content.indexOf('}', ix + 2);
+            if (ix2 == -1) {
+                // keep the unterminated expansion; the content before it has been appended
+                lastIx = ix;
+                break;
+            }
+
+            // nested expansions can only be resolved at expansion time
+            if (content.lastIndexOf("${", ix2) != ix) {
+                return DYNAMIC;
+            }
+
+            literals.add(literal.toString());
+            literal.setLength(0);
+            propertyNames.add(content.substring(ix + 2, ix2));
+
+            lastIx = ix2 + 1;
+            ix = content.indexOf("${", lastIx);
+        }
+
+        if (lastIx < content.length()) {
+            literal.append(content.substring(lastIx));
+        }
+
+        literals.add(literal.toString());
+
+        return new PropertyExpansionTemplate(literals.toArray(new String[literals.size()]),
+                propertyNames.toArray(new String[propertyNames.size()]));
+    }
+
+    public boolean isDynamic() {
+        return this == DYNAMIC;
+    }
+
+    public int getPropertyCount() {
+        return propertyNames.length;
+    }
+
+    public String getPropertyName(int index) {
+        return propertyNames[index];
+    }
+
+    /**
+     * Returns the literal content preceding the property expansion at the
+     * specified index; the last literal follows the last property expansion
+     */
+
+    public String getLiteral(int index) {
+        return literals[index];
+    }
+}
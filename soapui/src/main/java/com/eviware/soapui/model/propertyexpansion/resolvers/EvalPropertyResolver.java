@@ -45,10 +45,14 @@ import org.apache.log4j.Logger;
 import java.util.HashMap;
 import java.util.Map;
 
-public class EvalPropertyResolver implements PropertyResolver {
+public class EvalPropertyResolver implements SelectivePropertyResolver {
     private Logger log = Logger.getLogger(EvalPropertyResolver.class);
     private Map<String, ScriptEnginePool> scriptEnginePools = new HashMap<String, ScriptEnginePool>();
 
+    public boolean canResolve(String name) {
+        return name.length() > 0 && name.charAt(0) == '=';
+    }
+
     public String resolveProperty(PropertyExpansionContext context, String name, boolean globalOverride) {
         if (name.length() == 0 || name.charAt(0) != '=') {
             return null;
@@ -20,7 +20,11 @@ import com.eviware.soapui.model.mock.MockRunContext;
 import com.eviware.soapui.model.propertyexpansion.PropertyExpansion;
 import com.eviware.soapui.model.propertyexpansion.PropertyExpansionContext;
 
-public class MockRunPropertyResolver implements PropertyResolver {
+public class MockRunPropertyResolver implements SelectivePropertyResolver {
+    public boolean canResolve(String name) {
+        return name.length() > 0 && name.charAt(0) == PropertyExpansion.SCOPE_PREFIX;
+    }
+
     public String resolveProperty(PropertyExpansionContext context, String propertyName, boolean globalOverride) {
         if (propertyName.charAt(0) != PropertyExpansion.SCOPE_PREFIX || !(context instanceof MockRunContext)) {
             return null;
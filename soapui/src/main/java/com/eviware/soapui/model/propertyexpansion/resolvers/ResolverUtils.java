@@ -24,6 +24,7 @@ import com.eviware.soapui.model.propertyexpansion.PropertyExpansionContext;
 import com.eviware.soapui.model.propertyexpansion.PropertyExpansionUtils;
 import com.eviware.soapui.model.testsuite.TestProperty;
 import com.eviware.soapui.support.JsonPathFacade;
+import com.eviware.soapui.support.xml.XmlObjectCache;
 import com.eviware.soapui.support.xml.XmlUtils;
 import org.apache.xmlbeans.XmlObject;
 import org.w3c.dom.Node;
@@ -88,8 +89,9 @@ public class ResolverUtils {
             if (pathExpression.startsWith("$")) {
                 return new JsonPathFacade(value).readStringValue(pathExpression);
             } else {
-                XmlObject xmlObject = XmlUtils.createXmlObject(value);
-                String ns = pathExpression.trim().startsWith("declare namespace") ? "" : XmlUtils.declareXPathNamespaces(xmlObject);
+                XmlObject xmlObject = XmlObjectCache.getXmlObject(value);
+                String ns = pathExpression.trim().startsWith("declare namespace") ? "" : XmlObjectCache
+                        .getXPathNamespaceDeclarations(value);
                 Node domNode = XmlUtils.selectFirstDomNode(xmlObject, ns + pathExpression);
                 return domNode == null ? null : XmlUtils.getValueForMatch(domNode, false);
             }
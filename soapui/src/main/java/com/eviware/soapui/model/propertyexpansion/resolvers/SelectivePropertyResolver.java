@@ -0,0 +1,26 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.model.propertyexpansion.resolvers;
+
+/**
+ * PropertyResolver that can tell from the name of a property alone if it will
+ * ever resolve it, allowing the PropertyExpander to skip it for other names
+ */
+
+public interface SelectivePropertyResolver extends PropertyResolver {
+    public boolean canResolve(String name);
+}
@@ -21,7 +21,11 @@ import com.eviware.soapui.impl.support.AbstractHttpRequestInterface;
 import com.eviware.soapui.model.propertyexpansion.PropertyExpansion;
 import com.eviware.soapui.model.propertyexpansion.PropertyExpansionContext;
 
-public class SubmitPropertyResolver implements PropertyResolver {
+public class SubmitPropertyResolver implements SelectivePropertyResolver {
+    public boolean canResolve(String name) {
+        return name.length() > 0 && name.charAt(0) == PropertyExpansion.SCOPE_PREFIX;
+    }
+
     public String resolveProperty(PropertyExpansionContext context, String propertyName, boolean globalOverride) {
         if (propertyName.charAt(0) == PropertyExpansion.SCOPE_PREFIX
                 && context.getModelItem() instanceof AbstractHttpRequestInterface<?>) {
@@ -18,7 +18,11 @@ package com.eviware.soapui.model.propertyexpansion.resolvers;
 
 import com.eviware.soapui.model.propertyexpansion.PropertyExpansionContext;
 
-public class TestRunPropertyResolver implements PropertyResolver {
+public class TestRunPropertyResolver implements SelectivePropertyResolver {
+    public boolean canResolve(String name) {
+        return false;
+    }
+
     public String resolveProperty(PropertyExpansionContext context, String propertyName, boolean globalOverride) {
         // if( !(context instanceof TestRunContext ))
         // return null;
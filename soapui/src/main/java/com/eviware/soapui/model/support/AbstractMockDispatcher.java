@@ -20,6 +20,7 @@ import com.eviware.soapui.impl.wsdl.mock.DispatchException;
 import com.eviware.soapui.impl.wsdl.mock.WsdlMockResult;
 import com.eviware.soapui.model.mock.MockDispatcher;
 import com.eviware.soapui.model.mock.MockResult;
+import com.eviware.soapui.support.CaptureStore;
 import org.apache.commons.collections.list.TreeList;
 
 import javax.servlet.http.HttpServletRequest;
@@ -28,9 +29,11 @@ import java.util.Collections;
 import java.util.List;
 
 public abstract class AbstractMockDispatcher implements MockDispatcher {
+    // logged results keep their bodies in the CaptureStore, so a result costs a few hundred bytes of heap
+    public final static long DEFAULT_MAX_RESULTS = 10000;
 
     private final List<WsdlMockResult> mockResults = Collections.synchronizedList(new TreeList());
-    private long maxResults = 100;
+    private long maxResults = DEFAULT_MAX_RESULTS;
     private int removed = 0;
     private boolean logEnabled = true;
 
@@ -88,6 +91,7 @@ public abstract class AbstractMockDispatcher implements MockDispatcher {
 
     public synchronized void addMockResult(WsdlMockResult mockResult) {
         if (maxResults > 0 && logEnabled) {
+            mockResult.storeBodies(CaptureStore.getStore(CaptureStore.MOCK_LOG_STORE));
             mockResults.add(mockResult);
         }
 
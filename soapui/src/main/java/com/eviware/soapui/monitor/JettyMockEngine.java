@@ -45,6 +45,8 @@ import org.mortbay.jetty.handler.AbstractHandler;
 import org.mortbay.jetty.handler.RequestLogHandler;
 import org.mortbay.jetty.nio.SelectChannelConnector;
 import org.mortbay.jetty.security.SslSocketConnector;
+import org.mortbay.util.ajax.Continuation;
+import org.mortbay.util.ajax.ContinuationSupport;
 
 import javax.servlet.ServletException;
 import javax.servlet.ServletInputStream;
@@ -76,6 +78,8 @@ import java.util.concurrent.CopyOnWriteArrayList;
 public class JettyMockEngine implements MockEngine {
     public final static Logger log = Logger.getLogger(JettyMockEngine.class);
 
+    private final static Object DELAYED_RESPONSE = new Object();
+
     private Server server;
     private Map<Integer, Map<String, List<MockRunner>>> runners = new HashMap<Integer, Map<String, List<MockRunner>>>();
     private Map<Integer, SoapUIConnector> connectors = new HashMap<Integer, SoapUIConnector>();
@@ -173,7 +177,7 @@ public class JettyMockEngine implements MockEngine {
 
     private void initServer() throws Exception {
         server = new Server();
-        server.setThreadPool(new SoapUIJettyThreadPool());
+        server.setThreadPool(new MockEngineThreadPool());
         server.setHandler(new ServerHandler());
 
         RequestLogHandler logHandler = new RequestLogHandler();
@@ -564,6 +568,17 @@ public class JettyMockEngine implements MockEngine {
     private class ServerHandler extends AbstractHandler {
         public void handle(String target, HttpServletRequest request, HttpServletResponse response, int dispatch)
                 throws IOException, ServletException {
+            Continuation continuation = ContinuationSupport.getContinuation(request, null);
+            if (continuation.getObject() == DELAYED_RESPONSE) {
+                // retried after the delay of the response created before suspending
+                continuation.setObject(null);
+                MockResponseDelay.clear(request);
+                response.flushBuffer();
+                return;
+            }
+
+            MockResponseDelay.allowDeferral(request);
+
             // find mockService
             Map<String, List<MockRunner>> map = runners.get(request.getLocalPort());
 
@@ -631,9 +646,35 @@ public class JettyMockEngine implements MockEngine {
                 printMockServiceList(response);
             }
 
+            waitForDeferredDelay(request, response, continuation);
+            MockResponseDelay.clear(request);
             response.flushBuffer();
         }
 
+        private void waitForDeferredDelay(HttpServletRequest request, HttpServletResponse response,
+                                          Continuation continuation) {
+            long delay = MockResponseDelay.getRemainingDelay(request);
+            if (delay <= 0) {
+                return;
+            }
+
+            // the response did not fit in the buffer and has already been partly sent
+            if (response.isCommitted()) {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return;
+            }
+
+            // with select channel connectors this throws a RetryRequest, releasing the thread until the request is
+            // handled again after the delay; other connectors wait here
+            continuation.setObject(DELAYED_RESPONSE);
+            continuation.suspend(delay);
+            continuation.setObject(null);
+        }
+
         private void printMockServiceList(HttpServletResponse response) throws IOException {
             response.setStatus(HttpServletResponse.SC_OK);
             response.setContentType("text/html");
@@ -0,0 +1,113 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+
+package com.eviware.soapui.monitor;
+
+import com.eviware.soapui.SoapUI;
+import org.mortbay.thread.ThreadPool;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dedicated thread pool of the JettyMockEngine, so that mock requests neither
+ * take threads from nor wait for the shared SoapUI thread pool used by test
+ * runners.
+ * <p/>
+ * The number of threads can be set with the soapui.mock.threadpool.max system
+ * property; the selector threads of the connectors run in this pool as well.
+ * Idle threads are stopped after a minute.
+ */
+
+public final class MockEngineThreadPool implements ThreadPool {
+    public final static int DEFAULT_MAX_THREADS = 200;
+
+    private final ThreadPoolExecutor executor;
+
+    public MockEngineThreadPool() {
+        this(getMaxThreadsFromSystemProperty());
+    }
+
+    public MockEngineThreadPool(int maxThreads) {
+        int threads = Math.max(2, maxThreads);
+
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                new MockThreadFactory());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    private static int getMaxThreadsFromSystemProperty() {
+        try {
+            return Integer.parseInt(System.getProperty("soapui.mock.threadpool.max"));
+        } catch (Exception e) {
+            return DEFAULT_MAX_THREADS;
+        }
+    }
+
+    public int getMaxThreads() {
+        return executor.getMaximumPoolSize();
+    }
+
+    @Override
+    public boolean dispatch(Runnable job) {
+        try {
+            executor.execute(job);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public int getIdleThreads() {
+        return Math.max(0, executor.getPoolSize() - executor.getActiveCount());
+    }
+
+    @Override
+    public int getThreads() {
+        return executor.getPoolSize();
+    }
+
+    @Override
+    public boolean isLowOnThreads() {
+        return executor.getActiveCount() >= executor.getMaximumPoolSize() && !executor.getQueue().isEmpty();
+    }
+
+    @Override
+    public void join() throws InterruptedException {
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private final static class MockThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "SoapUI Mock " + threadNumber.getAndIncrement());
+
+            thread.setDaemon(true);
+            if (SoapUI.getSoapUICore() != null) {
+                thread.setContextClassLoader(SoapUI.getSoapUICore().getExtensionClassLoader());
+            }
+
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+
+package com.eviware.soapui.monitor;
+
+import org.apache.log4j.Logger;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Response delays of mock requests handled by the JettyMockEngine.
+ * <p/>
+ * Instead of sleeping on the thread creating the response, mock responses
+ * defer their delay to the engine, which suspends the request on a Jetty
+ * continuation once the response has been created and sends it when the
+ * delay has passed. With the select channel connectors used for plain HTTP no
+ * thread is held during the delay. The response is kept in its buffer until
+ * then, so responses larger than the buffer start to be sent early.
+ * <p/>
+ * Since the response is created before the delay, the response script of a
+ * deferred response runs when the request arrives and not after the delay.
+ * Mocks relying on the script seeing the state after the delay have to be run
+ * with blocking delays.
+ * <p/>
+ * Requests not handled by the engine, and all requests if the
+ * soapui.mock.blockingdelays system property is true, wait for their delay as
+ * before.
+ */
+
+public final class MockResponseDelay {
+    public final static int DELAYED_RESPONSE_BUFFER_SIZE = 64 * 1024;
+
+    private final static String DEFERRABLE_ATTRIBUTE = MockResponseDelay.class.getName() + "@deferrable";
+    private final static String DEADLINE_ATTRIBUTE = MockResponseDelay.class.getName() + "@deadline";
+    private final static String DELAY_ATTRIBUTE = MockResponseDelay.class.getName() + "@delay";
+
+    private final static Logger log = Logger.getLogger(MockResponseDelay.class);
+    private static volatile boolean announced;
+
+    private MockResponseDelay() {
+    }
+
+    /**
+     * Marks the specified request as handled by an engine that waits for
+     * deferred delays
+     */
+
+    static void allowDeferral(HttpServletRequest request) {
+        if (!Boolean.getBoolean("soapui.mock.blockingdelays")) {
+            request.setAttribute(DEFERRABLE_ATTRIBUTE, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Defers the specified delay of the response to the mock engine
+     *
+     * @return false if the delay can not be deferred and has to be waited for
+     *         by the caller
+     */
+
+    public static boolean defer(HttpServletRequest request, HttpServletResponse response, long delay) {
+        if (request == null || response == null || request.getAttribute(DEFERRABLE_ATTRIBUTE) == null
+                || response.isCommitted()) {
+            return false;
+        }
+
+        try {
+            if (response.getBufferSize() < DELAYED_RESPONSE_BUFFER_SIZE) {
+                response.setBufferSize(DELAYED_RESPONSE_BUFFER_SIZE);
+            }
+        } catch (IllegalStateException e) {
+            // content has already been written
+            return false;
+        }
+
+        request.setAttribute(DEADLINE_ATTRIBUTE, System.currentTimeMillis() + delay);
+        request.setAttribute(DELAY_ATTRIBUTE, delay);
+
+        if (!announced) {
+            announced = true;
+            log.info("Mock response delays are waited for after the response script has run; "
+                    + "set -Dsoapui.mock.blockingdelays=true to run response scripts after the delay");
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the delay deferred for the specified request, 0 if none
+     */
+
+    public static long getDeferredDelay(HttpServletRequest request) {
+        Object delay = request == null ? null : request.getAttribute(DELAY_ATTRIBUTE);
+        return delay instanceof Long ? (Long) delay : 0;
+    }
+
+    /**
+     * Returns the number of milliseconds left of the delay deferred for the
+     * specified request, 0 if none
+     */
+
+    static long getRemainingDelay(HttpServletRequest request) {
+        Object deadline = request.getAttribute(DEADLINE_ATTRIBUTE);
+        if (!(deadline instanceof Long)) {
+            return 0;
+        }
+
+        return Math.max(0, (Long) deadline - System.currentTimeMillis());
+    }
+
+    static void clear(HttpServletRequest request) {
+        request.removeAttribute(DEFERRABLE_ATTRIBUTE);
+        request.removeAttribute(DEADLINE_ATTRIBUTE);
+        request.removeAttribute(DELAY_ATTRIBUTE);
+    }
+}
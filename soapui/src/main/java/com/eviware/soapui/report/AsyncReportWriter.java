@@ -0,0 +1,172 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.report;
+
+import org.apache.log4j.Logger;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Writes report files on a single background thread, so that the TestRunner
+ * does not wait for disk I/O after each TestStep.
+ * <p/>
+ * Tasks are written in the order they were submitted. The queue is bounded,
+ * so submitting blocks while the writer is behind. Pending tasks are written
+ * by flush, close and a shutdown hook, so no output is lost if the JVM exits
+ * before the writer is closed.
+ */
+
+public class AsyncReportWriter {
+    public final static int DEFAULT_QUEUE_SIZE = 256;
+
+    private final static Logger log = Logger.getLogger(AsyncReportWriter.class);
+
+    private final BlockingQueue<Task> queue;
+    private final Thread thread;
+    private final Thread shutdownHook;
+    private final Object lock = new Object();
+    private int pendingCount;
+    private volatile boolean closed;
+
+    public AsyncReportWriter() {
+        this(DEFAULT_QUEUE_SIZE);
+    }
+
+    public AsyncReportWriter(int queueSize) {
+        queue = new ArrayBlockingQueue<Task>(queueSize);
+
+        thread = new Thread(new Runnable() {
+            public void run() {
+                writeTasks();
+            }
+        }, "SoapUI Report Writer");
+        thread.setDaemon(true);
+        thread.start();
+
+        shutdownHook = new Thread(new Runnable() {
+            public void run() {
+                flush();
+            }
+        }, "SoapUI Report Writer Shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Queues the specified task, waiting for room in the queue if needed. Tasks
+     * submitted after close, or by a task, are written directly.
+     */
+
+    public void submit(Task task) {
+        if (closed || Thread.currentThread() == thread) {
+            write(task);
+            return;
+        }
+
+        synchronized (lock) {
+            pendingCount++;
+        }
+
+        try {
+            queue.put(task);
+        } catch (InterruptedException e) {
+            taskDone();
+            Thread.currentThread().interrupt();
+            write(task);
+        }
+    }
+
+    /**
+     * Waits until all submitted tasks have been written
+     */
+
+    public void flush() {
+        synchronized (lock) {
+            while (pendingCount > 0 && thread.isAlive()) {
+                try {
+                    lock.wait(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes all submitted tasks and stops the writer thread
+     */
+
+    public void close() {
+        if (closed) {
+            return;
+        }
+
+        flush();
+        closed = true;
+        thread.interrupt();
+
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // already shutting down
+        }
+    }
+
+    private void writeTasks() {
+        while (!closed) {
+            Task task;
+            try {
+                task = queue.take();
+            } catch (InterruptedException e) {
+                break;
+            }
+
+            write(task);
+            taskDone();
+        }
+
+        // tasks queued while closing
+        for (Task task = queue.poll(); task != null; task = queue.poll()) {
+            write(task);
+            taskDone();
+        }
+    }
+
+    private void taskDone() {
+        synchronized (lock) {
+            pendingCount--;
+            lock.notifyAll();
+        }
+    }
+
+    private static void write(Task task) {
+        try {
+            task.write();
+        } catch (Exception e) {
+            log.error("Error writing report: " + e, e);
+        }
+    }
+
+    /**
+     * A unit of report output, written on the writer thread
+     */
+
+    public interface Task {
+        public void write() throws Exception;
+    }
+}
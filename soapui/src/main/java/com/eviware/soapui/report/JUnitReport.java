@@ -24,17 +24,31 @@ import com.eviware.soapui.junit.Testsuite;
 import com.eviware.soapui.junit.TestsuiteDocument;
 import org.apache.xmlbeans.XmlOptions;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
 /**
  * Wrapper for a number of Test runs
+ * <p/>
+ * If an AsyncReportWriter is set, completed testcases are serialized and
+ * appended to a temporary file by the writer as new ones are added, instead
+ * of being kept in the TestsuiteDocument until the report is saved; save then
+ * merges them into the report file.
  */
 
 public class JUnitReport {
+    private final static String[] TESTSUITE_TRAILING_TAGS = {"<system-out", "<system-err", "</testsuite>"};
+    private final static Charset UTF8 = Charset.forName("UTF-8");
+
     TestsuiteDocument testsuiteDoc;
     int noofTestCases, noofFailures, noofErrors;
     double totalTime;
@@ -43,6 +57,9 @@ public class JUnitReport {
 
     boolean includeTestProperties;
 
+    private AsyncReportWriter reportWriter;
+    private File testCasesFile;
+
     public JUnitReport() {
         systemOut = new StringBuffer();
         systemErr = new StringBuffer();
@@ -57,6 +74,10 @@ public class JUnitReport {
         this.includeTestProperties = includeTestProperties;
     }
 
+    public void setReportWriter(AsyncReportWriter reportWriter) {
+        this.reportWriter = reportWriter;
+    }
+
     public void setTotalTime(double time) {
         testsuiteDoc.getTestsuite().setTime(Double.toString(Math.round(time * 1000) / 1000));
     }
@@ -94,6 +115,8 @@ public class JUnitReport {
     }
 
     public Testcase addTestCase(String name, double time, HashMap<String, String> testProperties) {
+        writeTestCases();
+
         Testcase testcase = testsuiteDoc.getTestsuite().addNewTestcase();
         testcase.setName(name);
         testcase.setTime(String.valueOf(time / 1000));
@@ -114,6 +137,8 @@ public class JUnitReport {
     }
 
     public Testcase addTestCaseWithFailure(String name, double time, String failure, String stacktrace, HashMap<String, String> testProperties) {
+        writeTestCases();
+
         Testcase testcase = testsuiteDoc.getTestsuite().addNewTestcase();
         testcase.setName(name);
         testcase.setTime(String.valueOf(time / 1000));
@@ -131,6 +156,8 @@ public class JUnitReport {
     }
 
     public Testcase addTestCaseWithError(String name, double time, String error, String stacktrace, HashMap<String, String> testProperties) {
+        writeTestCases();
+
         Testcase testcase = testsuiteDoc.getTestsuite().addNewTestcase();
         testcase.setName(name);
         testcase.setTime(String.valueOf(time / 1000));
@@ -166,16 +193,104 @@ public class JUnitReport {
         }
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Serializes the testcases added so far and removes them from the
+     * document, queueing them to be appended to the testcases file. Callers
+     * may still modify the last returned Testcase until the next one is added,
+     * so this is only done when adding a testcase or saving.
+     */
+
+    private void writeTestCases() {
+        Testsuite testsuite = testsuiteDoc.getTestsuite();
+        if (reportWriter == null || testsuite.sizeOfTestcaseArray() == 0) {
+            return;
+        }
+
+        if (testCasesFile == null) {
+            try {
+                testCasesFile = File.createTempFile("soapui-junit-", ".xml");
+                testCasesFile.deleteOnExit();
+            } catch (IOException e) {
+                // keep the testcases in the document instead
+                reportWriter = null;
+                return;
+            }
+        }
+
+        XmlOptions options = createSaveOptions();
+        StringBuilder xml = new StringBuilder();
+        for (Testcase testcase : testsuite.getTestcaseArray()) {
+            xml.append(testcase.xmlText(options));
+        }
+
+        for (int c = testsuite.sizeOfTestcaseArray() - 1; c >= 0; c--) {
+            testsuite.removeTestcase(c);
+        }
+
+        final File file = testCasesFile;
+        final byte[] data = xml.toString().getBytes(UTF8);
+        reportWriter.submit(new AsyncReportWriter.Task() {
+            public void write() throws IOException {
+                OutputStream out = new FileOutputStream(file, true);
+                try {
+                    out.write(data);
+                } finally {
+                    out.close();
+                }
+            }
+        });
+    }
+
     public void save(File file) throws IOException {
+        writeTestCases();
         finishReport();
 
+        if (testCasesFile == null) {
+            testsuiteDoc.save(file, createSaveOptions());
+            return;
+        }
+
+        reportWriter.flush();
+
+        // insert the written testcases where the schema places them, before
+        // any system-out/system-err elements
+        ByteArrayOutputStream document = new ByteArrayOutputStream();
+        testsuiteDoc.save(document, createSaveOptions());
+        String xml = new String(document.toByteArray(), UTF8);
+
+        int end = -1;
+        for (int c = 0; c < TESTSUITE_TRAILING_TAGS.length && end == -1; c++) {
+            end = xml.indexOf(TESTSUITE_TRAILING_TAGS[c]);
+        }
+
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(xml.substring(0, end).getBytes(UTF8));
+
+            InputStream in = new FileInputStream(testCasesFile);
+            try {
+                byte[] buffer = new byte[8192];
+                for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                    out.write(buffer, 0, read);
+                }
+            } finally {
+                in.close();
+            }
+
+            out.write(xml.substring(end).getBytes(UTF8));
+        } finally {
+            out.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static XmlOptions createSaveOptions() {
         @SuppressWarnings("rawtypes")
         Map prefixes = new HashMap();
         prefixes.put("", "http://eviware.com/soapui/junit");
 
-        testsuiteDoc.save(file, new XmlOptions().setSaveOuter().setCharacterEncoding("utf-8").setUseDefaultNamespace()
-                .setSaveImplicitNamespaces(prefixes));
+        return new XmlOptions().setSaveOuter().setCharacterEncoding("utf-8").setUseDefaultNamespace()
+                .setSaveImplicitNamespaces(prefixes);
     }
 
     public TestsuiteDocument finishReport() {
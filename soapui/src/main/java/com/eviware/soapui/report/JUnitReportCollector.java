@@ -59,6 +59,7 @@ public class JUnitReportCollector implements TestRunListener, TestSuiteRunListen
 
     protected boolean includeTestPropertiesInReport = false;
     private int maxErrors = 0;
+    private AsyncReportWriter reportWriter;
 
 
     public JUnitReportCollector() {
@@ -198,8 +199,7 @@ public class JUnitReportCollector implements TestRunListener, TestSuiteRunListen
         TestCase testCase = testRunner.getTestCase();
         TestSuite testSuite = testCase.getTestSuite();
         if (!reports.containsKey(testSuite.getName())) {
-            JUnitReport report = new JUnitReport();
-            report.setIncludeTestProperties(this.includeTestPropertiesInReport);
+            JUnitReport report = createReport();
             report.setTestSuiteName(testSuite.getProject().getName() + "." + testSuite.getName());
             reports.put(testSuite.getName(), report);
         }
@@ -273,4 +273,21 @@ public class JUnitReportCollector implements TestRunListener, TestSuiteRunListen
         this.includeTestPropertiesInReport = includeTestPropertiesInReport;
     }
 
+    /**
+     * Sets the writer used to stream the testcases of created reports to disk
+     * while running, or null to keep them in memory until the reports are
+     * saved
+     */
+
+    public void setReportWriter(AsyncReportWriter reportWriter) {
+        this.reportWriter = reportWriter;
+    }
+
+    protected JUnitReport createReport() {
+        JUnitReport report = new JUnitReport();
+        report.setIncludeTestProperties(includeTestPropertiesInReport);
+        report.setReportWriter(reportWriter);
+        return report;
+    }
+
 }
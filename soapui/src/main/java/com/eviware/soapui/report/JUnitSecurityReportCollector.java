@@ -53,8 +53,7 @@ public class JUnitSecurityReportCollector extends JUnitReportCollector implement
 
         SecurityTest securityTest = ((SecurityTestRunner) testRunner).getSecurityTest();
 
-        JUnitReport report = new JUnitReport();
-        report.setIncludeTestProperties(includeTestPropertiesInReport);
+        JUnitReport report = createReport();
 
         String reportName = securityTest.getName();
         report.setTestSuiteName(reportName);
@@ -74,13 +73,12 @@ public class JUnitSecurityReportCollector extends JUnitReportCollector implement
 
                     secTestCase.setPackage(testCase.getTestSuite().getProject().getName());
 
-                    for (int i = 0; i < resultList.size(); i++) {
-                        SecurityScanRequestResult scanRequestResult = resultList.get(i);
+                    for (SecurityScanRequestResult scanRequestResult : resultList) {
                         if (scanRequestResult.getStatus() == ResultStatus.FAILED) {
                             StringBuffer result = new StringBuffer();
                             result.append("<pre>")
-                                    .append(XmlUtils.entitize(scanRequestResult.getChangedParamsInfo(i + 1)))
-                                    .append("</pre>");
+                                    .append(XmlUtils.entitize(scanRequestResult.getChangedParamsInfo(scanRequestResult
+                                            .getRequestNumber()))).append("</pre>");
 
                             for (String message : scanRequestResult.getMessages()) {
                                 result.append("<pre>").append(XmlUtils.entitize(message)).append("</pre>");
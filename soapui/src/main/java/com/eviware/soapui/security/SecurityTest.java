@@ -62,6 +62,10 @@ public class SecurityTest extends AbstractTestPropertyHolderWsdlModelItem<Securi
     public final static String FAIL_ON_SCANS_ERRORS_PROPERTY = SecurityTest.class.getName() + "@failOnScansErrors";
     public final static String FAIL_ON_ERROR_PROPERTY = SecurityTest.class.getName() + "@failOnError";
     public final static String SKIP_DATASOURCE_LOOP_PROPERTY = SecurityTest.class.getName() + "@skipDataSourceLoop";
+    public final static String MAX_CONCURRENT_REQUESTS_PROPERTY = SecurityTest.class.getName()
+            + "@maxConcurrentRequests";
+    public final static String MAX_REQUESTS_PER_SECOND_PROPERTY = SecurityTest.class.getName()
+            + "@maxRequestsPerSecond";
     public static final String ICON_NAME = "/security_test.gif";
     private WsdlTestCase testCase;
     private Set<SecurityTestRunListener> securityTestRunListeners = Collections
@@ -636,6 +640,39 @@ public class SecurityTest extends AbstractTestPropertyHolderWsdlModelItem<Securi
         }
     }
 
+    /**
+     * Returns the number of security scan requests sent in parallel; 1 or less runs them one at a time
+     */
+
+    public int getMaxConcurrentRequests() {
+        return getConfig().isSetMaxConcurrentRequests() ? getConfig().getMaxConcurrentRequests() : 1;
+    }
+
+    public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+        int old = getMaxConcurrentRequests();
+        if (old != maxConcurrentRequests) {
+            getConfig().setMaxConcurrentRequests(maxConcurrentRequests);
+            notifyPropertyChanged(MAX_CONCURRENT_REQUESTS_PROPERTY, old, maxConcurrentRequests);
+        }
+    }
+
+    /**
+     * Returns the maximum number of parallel security scan requests started per second for each endpoint, or 0
+     * if unlimited
+     */
+
+    public int getMaxRequestsPerSecond() {
+        return getConfig().isSetMaxRequestsPerSecond() ? getConfig().getMaxRequestsPerSecond() : 0;
+    }
+
+    public void setMaxRequestsPerSecond(int maxRequestsPerSecond) {
+        int old = getMaxRequestsPerSecond();
+        if (old != maxRequestsPerSecond) {
+            getConfig().setMaxRequestsPerSecond(maxRequestsPerSecond);
+            notifyPropertyChanged(MAX_REQUESTS_PER_SECOND_PROPERTY, old, maxRequestsPerSecond);
+        }
+    }
+
     public void addTestStepRunListener(TestStep testStep, SecurityTestRunListener listener) {
         if (listener == null) {
             throw new RuntimeException("listener must not be null");
@@ -33,6 +33,7 @@ import com.eviware.soapui.security.result.SecurityResult.ResultStatus;
 import com.eviware.soapui.security.result.SecurityScanResult;
 import com.eviware.soapui.security.result.SecurityTestStepResult;
 import com.eviware.soapui.security.scan.AbstractSecurityScanWithProperties;
+import com.eviware.soapui.security.support.SecurityScanRequestDispatcher;
 import com.eviware.soapui.security.support.SecurityTestRunListener;
 import com.eviware.soapui.support.types.StringToObjectMap;
 
@@ -53,6 +54,7 @@ public class SecurityTestRunnerImpl extends AbstractTestCaseRunner<SecurityTest,
      * SecurityTest level used in main progress bar on SecurityTest
      */
     private int currentScanOnSecurityTestIndex;
+    private SecurityScanRequestDispatcher requestDispatcher;
 
     public SecurityTestRunnerImpl(SecurityTest test, StringToObjectMap properties) {
         super(test, properties);
@@ -89,6 +91,21 @@ public class SecurityTestRunnerImpl extends AbstractTestCaseRunner<SecurityTest,
         return stepResult;
     }
 
+    /**
+     * Returns the dispatcher sending security scan requests in parallel and
+     * limiting their rate, or null if the SecurityTest sends them one at a time
+     * without a rate limit
+     */
+    public synchronized SecurityScanRequestDispatcher getRequestDispatcher() {
+        if (requestDispatcher == null
+                && (securityTest.getMaxConcurrentRequests() > 1 || securityTest.getMaxRequestsPerSecond() > 0)) {
+            requestDispatcher = new SecurityScanRequestDispatcher(securityTest.getMaxConcurrentRequests(),
+                    securityTest.getMaxRequestsPerSecond(), securityTest.getName());
+        }
+
+        return requestDispatcher;
+    }
+
     /**
      * Clones original TestStep for security modification this does not alter the
      * original test step
@@ -360,6 +377,13 @@ public class SecurityTestRunnerImpl extends AbstractTestCaseRunner<SecurityTest,
         super.clear(runContext);
         securityTestListeners = null;
         securityTestStepListeners = null;
+
+        synchronized (this) {
+            if (requestDispatcher != null) {
+                requestDispatcher.shutdown();
+                requestDispatcher = null;
+            }
+        }
     }
 
     @Override
@@ -22,6 +22,7 @@ import com.eviware.soapui.support.UISupport;
 import com.eviware.soapui.support.action.support.AbstractSoapUIAction;
 import com.eviware.soapui.support.types.StringToStringMap;
 import com.eviware.x.form.XForm;
+import com.eviware.x.form.XForm.FieldType;
 import com.eviware.x.form.XFormDialog;
 import com.eviware.x.form.XFormDialogBuilder;
 import com.eviware.x.form.XFormFactory;
@@ -37,6 +38,8 @@ import com.eviware.x.form.XFormFieldListener;
 public class SecurityTestOptionsAction extends AbstractSoapUIAction<SecurityTest> {
     private static final String FAIL_ON_ERROR = "Abort on Error";
     private static final String FAIL_SECURITYTEST_ON_ERROR = "Fail SecurityTest on Error";
+    private static final String MAX_CONCURRENT_REQUESTS = "Concurrent Requests";
+    private static final String MAX_REQUESTS_PER_SECOND = "Max Requests/Second";
     public static final String SOAPUI_ACTION_ID = "SecurityTestOptionsAction";
 
     private XFormDialog dialog;
@@ -57,6 +60,11 @@ public class SecurityTestOptionsAction extends AbstractSoapUIAction<SecurityTest
                 }
             });
             form.addCheckBox(FAIL_SECURITYTEST_ON_ERROR, "Fail SecurityTest if it has failed TestSteps");
+            form.addTextField(MAX_CONCURRENT_REQUESTS, "Number of security scan requests to send in parallel",
+                    FieldType.TEXT);
+            form.addTextField(MAX_REQUESTS_PER_SECOND,
+                    "Maximum number of parallel requests started per second for each endpoint, 0 for no limit",
+                    FieldType.TEXT);
 
             dialog = builder.buildDialog(builder.buildOkCancelHelpActions(HelpUrls.SECURITYTESTEDITOR_HELP_URL),
                     "Specify general options for this SecurityTest", UISupport.OPTIONS_ICON);
@@ -66,6 +74,8 @@ public class SecurityTestOptionsAction extends AbstractSoapUIAction<SecurityTest
 
         values.put(FAIL_ON_ERROR, String.valueOf(securityTest.getFailOnError()));
         values.put(FAIL_SECURITYTEST_ON_ERROR, String.valueOf(securityTest.getFailSecurityTestOnScanErrors()));
+        values.put(MAX_CONCURRENT_REQUESTS, String.valueOf(securityTest.getMaxConcurrentRequests()));
+        values.put(MAX_REQUESTS_PER_SECOND, String.valueOf(securityTest.getMaxRequestsPerSecond()));
         values = dialog.show(values);
 
         if (dialog.getReturnValue() == XFormDialog.OK_OPTION) {
@@ -73,6 +83,10 @@ public class SecurityTestOptionsAction extends AbstractSoapUIAction<SecurityTest
                 securityTest.setFailOnError(Boolean.parseBoolean(values.get(FAIL_ON_ERROR)));
                 securityTest.setFailSecurityTestOnScanErrors(Boolean
                         .parseBoolean(values.get(FAIL_SECURITYTEST_ON_ERROR)));
+                securityTest.setMaxConcurrentRequests(Math.max(1, Integer.parseInt(values
+                        .get(MAX_CONCURRENT_REQUESTS))));
+                securityTest.setMaxRequestsPerSecond(Math.max(0, Integer.parseInt(values
+                        .get(MAX_REQUESTS_PER_SECOND))));
 
             } catch (Exception e1) {
                 UISupport.showErrorMessage(e1.getMessage());
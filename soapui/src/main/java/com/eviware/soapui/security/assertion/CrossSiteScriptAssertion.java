@@ -47,7 +47,7 @@ import com.eviware.soapui.security.SecurityTestRunContext;
 import com.eviware.soapui.security.SecurityTestRunner;
 import com.eviware.soapui.security.SecurityTestRunnerImpl;
 import com.eviware.soapui.security.scan.CrossSiteScriptingScan;
-import com.eviware.soapui.support.SecurityScanUtil;
+import com.eviware.soapui.support.SecurityTokenMatcher;
 import com.eviware.soapui.support.UISupport;
 import com.eviware.soapui.support.components.GroovyEditorComponent;
 import com.eviware.soapui.support.scripting.SoapUIScriptEngine;
@@ -69,7 +69,9 @@ import javax.swing.JScrollPane;
 import java.awt.Dimension;
 import java.awt.event.ActionEvent;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 public class CrossSiteScriptAssertion extends WsdlMessageAssertion implements ResponseAssertion {
     public static final String ID = "CrosSiteScript";
@@ -143,16 +145,17 @@ public class CrossSiteScriptAssertion extends WsdlMessageAssertion implements Re
                                       SecurityTestRunner securityTestRunner, List<String> urls,
                                       CrossSiteScriptingScanConfig parameterExposureCheckConfig, List<AssertionError> assertionErrorList) {
         boolean throwException = false;
+        List<String> values = expandExposureStrings(context, parameterExposureCheckConfig);
+        SecurityTokenMatcher matcher = SecurityTokenMatcher.getMatcher(values, Collections.<String>emptyList());
+
         for (String url : urls) {
             HttpTestRequestStep httpRequest = createHttpRequest((WsdlTestStep) testStep, url);
             MessageExchange messageExchange2 = (MessageExchange) httpRequest.run((TestCaseRunner) securityTestRunner,
                     (SecurityTestRunContext) context);
 
-            for (String value : parameterExposureCheckConfig.getParameterExposureStringsList()) {
-                value = context.expand(value);// property expansion support
-                String match = SecurityScanUtil.contains(context, new String(messageExchange2.getRawResponseData()),
-                        value, false);
-                if (match != null) {
+            Set<String> exposed = matcher.findLiterals(new String(messageExchange2.getRawResponseData()));
+            for (String value : values) {
+                if (exposed.contains(value)) {
                     String shortValue = value.length() > 25 ? value.substring(0, 22) + "... " : value;
                     String message = "XSS content sent in request '" + shortValue + "' is exposed in response on link "
                             + url + " . Possibility for XSS script attack in: " + messageExchange.getModelItem().getName();
@@ -167,11 +170,12 @@ public class CrossSiteScriptAssertion extends WsdlMessageAssertion implements Re
     private boolean checkResponse(MessageExchange messageExchange, SubmitContext context,
                                   CrossSiteScriptingScanConfig parameterExposureCheckConfig, List<AssertionError> assertionErrorList) {
         boolean throwException = false;
-        for (String value : parameterExposureCheckConfig.getParameterExposureStringsList()) {
-            value = context.expand(value);// property expansion support
-            String match = SecurityScanUtil.contains(context, new String(messageExchange.getRawResponseData()), value,
-                    false);
-            if (match != null) {
+        List<String> values = expandExposureStrings(context, parameterExposureCheckConfig);
+
+        Set<String> exposed = SecurityTokenMatcher.getMatcher(values, Collections.<String>emptyList()).findLiterals(
+                new String(messageExchange.getRawResponseData()));
+        for (String value : values) {
+            if (exposed.contains(value)) {
                 String shortValue = value.length() > 25 ? value.substring(0, 22) + "... " : value;
                 String message = "Content that is sent in request '" + shortValue
                         + "' is exposed in response. Possibility for XSS script attack in: "
@@ -183,6 +187,15 @@ public class CrossSiteScriptAssertion extends WsdlMessageAssertion implements Re
         return throwException;
     }
 
+    private List<String> expandExposureStrings(SubmitContext context,
+                                               CrossSiteScriptingScanConfig parameterExposureCheckConfig) {
+        List<String> values = new ArrayList<String>();
+        for (String value : parameterExposureCheckConfig.getParameterExposureStringsList()) {
+            values.add(context.expand(value));// property expansion support
+        }
+        return values;
+    }
+
     private List<String> submitScript(MessageExchange messageExchange, SubmitContext context) {
         List<String> urls = new ArrayList<String>();
         scriptEngine.setScript(script);
@@ -27,6 +27,7 @@ import com.eviware.soapui.impl.wsdl.teststeps.assertions.AbstractTestAssertionFa
 import com.eviware.soapui.model.TestPropertyHolder;
 import com.eviware.soapui.model.iface.MessageExchange;
 import com.eviware.soapui.model.iface.SubmitContext;
+import com.eviware.soapui.model.propertyexpansion.PropertyExpander;
 import com.eviware.soapui.model.security.SecurityScan;
 import com.eviware.soapui.model.security.SensitiveInformationTableModel;
 import com.eviware.soapui.model.testsuite.Assertable;
@@ -36,6 +37,7 @@ import com.eviware.soapui.model.testsuite.ResponseAssertion;
 import com.eviware.soapui.model.testsuite.TestProperty;
 import com.eviware.soapui.security.SensitiveInformationPropertyHolder;
 import com.eviware.soapui.support.SecurityScanUtil;
+import com.eviware.soapui.support.SecurityTokenMatcher;
 import com.eviware.soapui.support.StringUtils;
 import com.eviware.soapui.support.UISupport;
 import com.eviware.soapui.support.components.JXToolBar;
@@ -121,23 +123,7 @@ public class SensitiveInfoExposureAssertion extends WsdlMessageAssertion impleme
         Set<String> messages = new HashSet<String>();
 
         try {
-            for (Map.Entry<String, String> tokenEntry : checkMap.entrySet()) {
-                String token = tokenEntry.getKey();
-                boolean useRegexp = token.trim().startsWith(PREFIX);
-                String description = !tokenEntry.getValue().equals("") ? tokenEntry.getValue() : token;
-                if (useRegexp) {
-                    token = token.substring(token.indexOf(PREFIX) + 1);
-                }
-
-                String match = SecurityScanUtil.contains(context, response, token, useRegexp);
-                if (match != null) {
-                    String message = description + " - Token [" + token + "] found [" + match + "]";
-                    if (!messages.contains(message)) {
-                        assertionErrorList.add(new AssertionError(message));
-                        messages.add(message);
-                    }
-                }
-            }
+            checkTokens(checkMap, response, "", context, messages, assertionErrorList);
         } catch (Throwable e) {
             SoapUI.logError(e);
         }
@@ -159,24 +145,8 @@ public class SensitiveInfoExposureAssertion extends WsdlMessageAssertion impleme
         Set<String> messages = new HashSet<String>();
 
         try {
-            for (Map.Entry<String, String> tokenEntry : checkMap.entrySet()) {
-                String token = tokenEntry.getKey();
-                boolean useRegexp = token.trim().startsWith(PREFIX);
-                String description = !tokenEntry.getValue().equals("") ? tokenEntry.getValue() : token;
-                if (useRegexp) {
-                    token = token.substring(token.indexOf(PREFIX) + 1);
-                }
-
-                String match = SecurityScanUtil.contains(context, propertyValue, token, useRegexp);
-                if (match != null) {
-                    String message = description + " - Token [" + token + "] found [" + match + "] in property "
-                            + propertyName;
-                    if (!messages.contains(message)) {
-                        assertionErrorList.add(new AssertionError(message));
-                        messages.add(message);
-                    }
-                }
-            }
+            checkTokens(checkMap, propertyValue, " in property " + propertyName, context, messages,
+                    assertionErrorList);
         } catch (Throwable e) {
             SoapUI.logError(e);
         }
@@ -188,6 +158,52 @@ public class SensitiveInfoExposureAssertion extends WsdlMessageAssertion impleme
         return "OK";
     }
 
+    /**
+     * Searches the content for all tokens in a single pass of a shared SecurityTokenMatcher, with the same
+     * results as calling SecurityScanUtil.contains for each token
+     */
+
+    private void checkTokens(Map<String, String> checkMap, String content, String messageSuffix, SubmitContext context,
+                             Set<String> messages, List<AssertionError> assertionErrorList) {
+        Map<String, String> expandedTokens = new HashMap<String, String>();
+        List<String> regexTokens = new ArrayList<String>();
+        for (String token : checkMap.keySet()) {
+            if (token.trim().startsWith(PREFIX)) {
+                regexTokens.add(token.substring(token.indexOf(PREFIX) + 1));
+            } else {
+                expandedTokens.put(token, PropertyExpander.expandProperties(context, token));
+            }
+        }
+        List<String> literalTokens = new ArrayList<String>(expandedTokens.values());
+
+        SecurityTokenMatcher matcher = SecurityTokenMatcher.getMatcher(literalTokens, regexTokens);
+        Set<String> foundLiterals = matcher.findLiterals(content);
+        Map<String, String> regexMatches = matcher.findRegexMatches(content);
+
+        for (Map.Entry<String, String> tokenEntry : checkMap.entrySet()) {
+            String token = tokenEntry.getKey();
+            boolean useRegexp = token.trim().startsWith(PREFIX);
+            String description = !tokenEntry.getValue().equals("") ? tokenEntry.getValue() : token;
+
+            String match;
+            if (useRegexp) {
+                token = token.substring(token.indexOf(PREFIX) + 1);
+                match = regexMatches.get(token);
+            } else {
+                String expandedToken = expandedTokens.get(token);
+                match = foundLiterals.contains(expandedToken) ? expandedToken : null;
+            }
+
+            if (match != null) {
+                String message = description + " - Token [" + token + "] found [" + match + "]" + messageSuffix;
+                if (!messages.contains(message)) {
+                    assertionErrorList.add(new AssertionError(message));
+                    messages.add(message);
+                }
+            }
+        }
+    }
+
     private Map<String, String> createCheckMap(SubmitContext context) {
         Map<String, String> checkMap = new HashMap<String, String>();
         checkMap.putAll(createMapFromTable());
@@ -57,6 +57,7 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.HashSet;
 import java.util.Set;
@@ -68,6 +69,7 @@ import java.util.Set;
  */
 
 public class JSecurityTestRunLog extends JPanel {
+    private final SecurityTest securityTest;
     private SecurityTestLogModel logListModel;
     private JList testLogList;
     private boolean errorsOnly = false;
@@ -80,6 +82,7 @@ public class JSecurityTestRunLog extends JPanel {
 
     public JSecurityTestRunLog(SecurityTest securityTest) {
         super(new BorderLayout());
+        this.securityTest = securityTest;
         this.settings = securityTest.getSettings();
         logListModel = new SecurityTestLogModel();
         errorsOnly = settings.getBoolean(OptionsForm.class.getName() + "@errors_only");
@@ -288,7 +291,30 @@ public class JSecurityTestRunLog extends JPanel {
         }
     }
 
+    /**
+     * Prints the complete log of the last run, read from the results of its
+     * TestSteps, or the entries shown in this log if there are no results
+     */
+
     public void printLog(PrintWriter out) {
+        boolean printed = false;
+        for (TestStep testStep : securityTest.getTestCase().getTestStepList()) {
+            SecurityTestStepResult result = securityTest.getSecurityTestStepResultMap().get(testStep);
+            if (result != null && result.getOriginalTestStepResult() != null) {
+                try {
+                    result.writeSecurityTestLog(out);
+                } catch (IOException e) {
+                    log.error(e.getMessage());
+                }
+                out.println();
+                printed = true;
+            }
+        }
+
+        if (printed) {
+            return;
+        }
+
         for (int c = 0; c < logListModel.getSize(); c++) {
             Object value = logListModel.getElementAt(c);
             if (value instanceof String) {
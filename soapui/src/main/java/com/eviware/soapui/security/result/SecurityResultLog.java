@@ -0,0 +1,150 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.security.result;
+
+import com.eviware.soapui.support.CaptureStore;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Text log of the requests of a SecurityScan that is streamed to a
+ * CaptureStore in chunks as it grows, so that long scans only keep the chunk
+ * being written on the heap.
+ * <p/>
+ * Chunks that could not be stored are kept in memory; chunks whose segment
+ * has been deleted because the store exceeded its maximum size are replaced
+ * by CaptureStore.DISCARDED_CONTENT in the text. Logs of SecurityScans are
+ * linked into the log of their TestStep instead of being copied, and are read
+ * with writeTo so that a complete log is never held in memory.
+ */
+
+public class SecurityResultLog {
+    public final static int DEFAULT_CHUNK_SIZE = 16 * 1024;
+
+    private final CaptureStore store;
+    private final int chunkSize;
+    private final List<Object> chunks = new ArrayList<Object>();
+    private final StringBuilder buffer = new StringBuilder();
+    private long length;
+
+    public SecurityResultLog() {
+        this(CaptureStore.getStore(CaptureStore.SECURITY_LOG_STORE), DEFAULT_CHUNK_SIZE);
+    }
+
+    public SecurityResultLog(CaptureStore store, int chunkSize) {
+        this.store = store;
+        this.chunkSize = chunkSize;
+    }
+
+    public synchronized SecurityResultLog append(String text) {
+        buffer.append(text);
+        length += text.length();
+
+        if (buffer.length() >= chunkSize) {
+            flush();
+        }
+
+        return this;
+    }
+
+    /**
+     * Links the specified log at the current position of this log; text
+     * appended to it later is also part of this log
+     */
+
+    public synchronized SecurityResultLog append(SecurityResultLog log) {
+        if (buffer.length() > 0) {
+            chunks.add(buffer.toString());
+            buffer.setLength(0);
+        }
+
+        chunks.add(log);
+        return this;
+    }
+
+    private void flush() {
+        String chunk = buffer.toString();
+        buffer.setLength(0);
+
+        CaptureStore.Record record = store == null ? null : store.append(chunk);
+        chunks.add(record == null ? chunk : record);
+    }
+
+    /**
+     * Returns the number of characters appended to this log
+     */
+
+    public synchronized long length() {
+        long result = length;
+        for (Object chunk : chunks) {
+            if (chunk instanceof SecurityResultLog) {
+                result += ((SecurityResultLog) chunk).length();
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Writes the text of this log and its linked logs chunk by chunk
+     */
+
+    public synchronized void writeTo(Writer writer) throws IOException {
+        for (Object chunk : chunks) {
+            if (chunk instanceof CaptureStore.Record) {
+                writer.write(((CaptureStore.Record) chunk).getString());
+            } else if (chunk instanceof SecurityResultLog) {
+                ((SecurityResultLog) chunk).writeTo(writer);
+            } else {
+                writer.write((String) chunk);
+            }
+        }
+
+        writer.write(buffer.toString());
+    }
+
+    /**
+     * Returns the complete text of this log; use writeTo for logs that may be
+     * large
+     */
+
+    public String getText() {
+        StringWriter writer = new StringWriter();
+        try {
+            writeTo(writer);
+        } catch (IOException e) {
+            // not thrown by StringWriter
+        }
+
+        return writer.toString();
+    }
+
+    public synchronized void clear() {
+        chunks.clear();
+        buffer.setLength(0);
+        length = 0;
+    }
+
+    @Override
+    public String toString() {
+        return getText();
+    }
+}
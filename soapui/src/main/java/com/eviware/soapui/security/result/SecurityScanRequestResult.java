@@ -50,6 +50,7 @@ public class SecurityScanRequestResult implements SecurityResult {
     private MessageExchange messageExchange;
     private DefaultActionList actionList;
     private boolean addedAction;
+    private int requestNumber;
 
     public SecurityScanRequestResult(SecurityScan securityCheck) {
         this.securityCheck = securityCheck;
@@ -145,6 +146,19 @@ public class SecurityScanRequestResult implements SecurityResult {
         this.messageExchange = messageExchange;
     }
 
+    /**
+     * Returns the number of this request within its SecurityScanResult,
+     * starting at 1
+     */
+
+    public int getRequestNumber() {
+        return requestNumber;
+    }
+
+    public void setRequestNumber(int requestNumber) {
+        this.requestNumber = requestNumber;
+    }
+
     public void setTimeTaken(long timeTaken) {
         this.timeTaken = timeTaken;
     }
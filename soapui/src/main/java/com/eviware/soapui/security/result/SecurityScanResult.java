@@ -31,6 +31,9 @@ import java.util.List;
 /**
  * A SecurityScan result represents result of one request (modified by a
  * security scan and run)
+ * <p/>
+ * Only failed request results are kept, together with counts of all requests;
+ * the log lines of all requests are streamed to a SecurityResultLog.
  *
  * @author dragica.soldo
  */
@@ -52,7 +55,7 @@ public class SecurityScanResult implements SecurityResult {
     private List<SecurityScanRequestResult> securityRequestResultList;
     private long timeTaken = 0;
     private long timeStamp;
-    public StringBuffer testLog = new StringBuffer();
+    private final SecurityResultLog testLog = new SecurityResultLog();
     private DefaultActionList actionList;
     private boolean hasAddedRequests;
     // along with the status determines if canceled with or without warnings
@@ -60,6 +63,7 @@ public class SecurityScanResult implements SecurityResult {
     private ResultStatus executionProgressStatus;
     private ResultStatus logIconStatus;
     private int requestCount = 0;
+    private int failedRequestCount = 0;
     public final static int MAX_REQ_LOG_ENTRY_LENGTH = 100;
     public final static int MAX_SECURITY_CHANGED_PARAMETERS_LENGTH = 100;
 
@@ -73,10 +77,23 @@ public class SecurityScanResult implements SecurityResult {
         requestCount = 0;
     }
 
+    /**
+     * Returns the results of the failed requests of this scan; results of other
+     * requests are only available in the log
+     */
+
     public List<SecurityScanRequestResult> getSecurityRequestResultList() {
         return securityRequestResultList;
     }
 
+    public int getRequestCount() {
+        return requestCount;
+    }
+
+    public int getFailedRequestCount() {
+        return failedRequestCount;
+    }
+
     public ResultStatus getStatus() {
         return this.status;
     }
@@ -109,12 +126,16 @@ public class SecurityScanResult implements SecurityResult {
     }
 
     public void addSecurityRequestResult(SecurityScanRequestResult secReqResult) {
-        if (securityRequestResultList != null) {
-            securityRequestResultList.add(secReqResult);
-        }
-
         timeTaken += secReqResult.getTimeTaken();
         requestCount++;
+        secReqResult.setRequestNumber(requestCount);
+
+        if (secReqResult.getStatus() == ResultStatus.FAILED) {
+            failedRequestCount++;
+            if (securityRequestResultList != null) {
+                securityRequestResultList.add(secReqResult);
+            }
+        }
 
         if (!hasAddedRequests) {
             status = ResultStatus.UNKNOWN;
@@ -133,13 +154,15 @@ public class SecurityScanResult implements SecurityResult {
         logIconStatus = status;
         executionProgressStatus = status;
 
-        this.testLog.append("\n").append(secReqResult.getChangedParamsInfo(requestCount));
+        StringBuilder entry = new StringBuilder();
+        entry.append("\n").append(secReqResult.getChangedParamsInfo(requestCount));
         for (String s : secReqResult.getMessages()) {
             if (s.length() > MAX_REQ_LOG_ENTRY_LENGTH) {
                 s = s.substring(0, MAX_REQ_LOG_ENTRY_LENGTH);
             }
-            testLog.append("\n -> ").append(s);
+            entry.append("\n -> ").append(s);
         }
+        testLog.append(entry.toString());
 
         hasAddedRequests = true;
     }
@@ -191,13 +214,24 @@ public class SecurityScanResult implements SecurityResult {
      * Raturns Security Test Log
      */
     public String getSecurityTestLog() {
+        return getSecurityTestLogHeader() + testLog.getText();
+    }
+
+    String getSecurityTestLogHeader() {
         StringBuffer tl = new StringBuffer().append("\nSecurityScan ").append(" [").append(securityCheck.getName())
                 .append("] ").append(executionProgressStatus.toString()).append(": took ").append(timeTaken)
                 .append(" ms");
-        tl.append(testLog);
         return tl.toString();
     }
 
+    /**
+     * Returns the log of the requests of this scan; it replaces the public
+     * testLog StringBuffer of earlier versions
+     */
+    public SecurityResultLog getSecurityResultLog() {
+        return testLog;
+    }
+
     @Override
     public String getResultType() {
         return TYPE;
@@ -262,6 +296,7 @@ public class SecurityScanResult implements SecurityResult {
             securityRequestResultList.clear();
         }
 
+        // the log stays readable through the SecurityTestStepResult linking it
         securityCheck = null;
     }
 
@@ -24,7 +24,10 @@ import com.eviware.soapui.support.action.swing.DefaultActionList;
 
 import javax.swing.AbstractAction;
 import java.awt.event.ActionEvent;
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -44,7 +47,7 @@ public class SecurityTestStepResult implements SecurityResult {
     private boolean discarded;
     private long timeTaken = 0;
     private long timeStamp;
-    private StringBuffer testLog = new StringBuffer();
+    private final SecurityResultLog testLog = new SecurityResultLog();
     private TestStepResult originalTestStepResult;
     private DefaultActionList actionList;
     private boolean hasAddedRequests;
@@ -148,7 +151,8 @@ public class SecurityTestStepResult implements SecurityResult {
         // securityCheckResultList.indexOf( securityCheckResult ) ).append(
         // securityCheckResult.getStatus().toString() ).append( ": took " )
         // .append( securityCheckResult.getTimeTaken() ).append( " ms" );
-        this.testLog.append(securityScanResult.getSecurityTestLog());
+        this.testLog.append(securityScanResult.getSecurityTestLogHeader()).append(
+                securityScanResult.getSecurityResultLog());
 
         hasAddedRequests = true;
 
@@ -181,11 +185,10 @@ public class SecurityTestStepResult implements SecurityResult {
 
     public void writeTo(PrintWriter writer) {
         for (SecurityScanResult scanResult : securityScanResultList) {
-            int i = 0;
             for (SecurityScanRequestResult scanRequestResult : scanResult.getSecurityRequestResultList()) {
                 writer.println();
                 writer.println("----------------------------------------------------------------------------------");
-                writer.println(scanRequestResult.getChangedParamsInfo(i));
+                writer.println(scanRequestResult.getChangedParamsInfo(scanRequestResult.getRequestNumber()));
                 for (String message : scanRequestResult.getMessages()) {
                     writer.println("->" + message);
                 }
@@ -208,7 +211,6 @@ public class SecurityTestStepResult implements SecurityResult {
                 writer.println("-----------------------------------------------------------------------------------");
                 writer.println();
                 writer.println();
-                i++;
             }
 
         }
@@ -252,11 +254,24 @@ public class SecurityTestStepResult implements SecurityResult {
      * Raturns Security Test Log
      */
     public String getSecurityTestLog() {
+        StringWriter writer = new StringWriter();
+        try {
+            writeSecurityTestLog(writer);
+        } catch (IOException e) {
+            // not thrown by StringWriter
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Writes the Security Test Log without reading it into memory as a whole
+     */
+    public void writeSecurityTestLog(Writer writer) throws IOException {
         StringBuffer tl = new StringBuffer().append("Step ").append(" [").append(testStep.getName()).append("] ")
                 .append(getExecutionProgressStatus().toString()).append(": took ").append(
                         getOriginalTestStepResult().getTimeTaken()).append(" ms");
-        tl.append(testLog);
-        return tl.toString();
+        writer.write(tl.toString());
+        testLog.writeTo(writer);
     }
 
     @Override
@@ -294,6 +309,8 @@ public class SecurityTestStepResult implements SecurityResult {
         if (securityScanResultList != null) {
             securityScanResultList.clear();
         }
+
+        testLog.clear();
     }
 
 }
@@ -51,15 +51,21 @@ import com.eviware.soapui.security.result.SecurityResult.ResultStatus;
 import com.eviware.soapui.security.result.SecurityScanRequestResult;
 import com.eviware.soapui.security.result.SecurityScanResult;
 import com.eviware.soapui.security.support.FailedSecurityMessageExchange;
+import com.eviware.soapui.security.support.SecurityScanRequestDispatcher;
 import com.eviware.soapui.security.support.SecurityTestRunListener;
+import com.eviware.soapui.support.types.StringToStringMap;
+import org.apache.xmlbeans.XmlException;
 
 import javax.swing.JComponent;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * Implementation that is common for all security scans. Support for security
@@ -184,6 +190,11 @@ public abstract class AbstractSecurityScan extends AbstractWsdlModelItem<Securit
         securityScanResult = new SecurityScanResult(this);
         SecurityTestRunListener[] securityTestListeners = ((SecurityTest) getParent()).getSecurityTestRunListeners();
 
+        SecurityScanRequestDispatcher dispatcher = ((SecurityTestRunnerImpl) securityTestRunner).getRequestDispatcher();
+        if (dispatcher != null && dispatcher.getConcurrency() > 1 && this instanceof ParallelizableSecurityScan) {
+            return runParallel(testStep, context, securityTestRunner, securityTestListeners, dispatcher);
+        }
+
         PropertyChangeNotifier notifier = new PropertyChangeNotifier();
         boolean noMutations = true;
         while (hasNext(testStep, context)) {
@@ -193,6 +204,13 @@ public abstract class AbstractSecurityScan extends AbstractWsdlModelItem<Securit
                 clear();
                 return securityScanResult;
             }
+            if (dispatcher != null) {
+                try {
+                    dispatcher.acquire(this.testStep, context);
+                } catch (InterruptedException e) {
+                    SoapUI.logError(e, "Security Scan Request Delay Interrupted!");
+                }
+            }
             securityScanRequestResult = new SecurityScanRequestResult(this);
             securityScanRequestResult.startTimer();
             originalTestStepClone = ((SecurityTestRunnerImpl) securityTestRunner)
@@ -200,16 +218,7 @@ public abstract class AbstractSecurityScan extends AbstractWsdlModelItem<Securit
             execute(securityTestRunner, originalTestStepClone, context);
             notifier.notifyChange();
             securityScanRequestResult.stopTimer();
-            assertResponse(getSecurityScanRequestResult().getMessageExchange(), context);
-            // add to summary result
-            securityScanResult.addSecurityRequestResult(getSecurityScanRequestResult());
-            for (int i = 0; i < securityTestListeners.length; i++) {
-                if (Arrays.asList(((SecurityTest) getParent()).getSecurityTestRunListeners()).contains(
-                        securityTestListeners[i])) {
-                    securityTestListeners[i].afterSecurityScanRequest((SecurityTestRunnerImpl) securityTestRunner,
-                            context, securityScanRequestResult);
-                }
-            }
+            completeSecurityScanRequest(context, securityTestRunner, securityTestListeners);
 
             try {
                 Thread.sleep(getExecutionStrategy().getDelay());
@@ -224,6 +233,129 @@ public abstract class AbstractSecurityScan extends AbstractWsdlModelItem<Securit
         return securityScanResult;
     }
 
+    /**
+     * Prepares mutations one at a time like run, but sends up to the concurrency
+     * level of the dispatcher in parallel. Responses are asserted and added to
+     * the result in the order the mutations were made.
+     */
+    private SecurityScanResult runParallel(TestStep testStep, SecurityTestRunContext context,
+                                           SecurityTestRunner securityTestRunner, SecurityTestRunListener[] securityTestListeners,
+                                           SecurityScanRequestDispatcher dispatcher) {
+        PropertyChangeNotifier notifier = new PropertyChangeNotifier();
+        LinkedList<PendingRequest> pendingRequests = new LinkedList<PendingRequest>();
+        boolean noMutations = true;
+
+        while (hasNext(testStep, context)) {
+            noMutations = false;
+            if (((SecurityTestRunnerImpl) securityTestRunner).isCanceled()) {
+                for (PendingRequest pendingRequest : pendingRequests) {
+                    pendingRequest.cancel();
+                }
+                securityScanResult.setStatus(ResultStatus.CANCELED);
+                clear();
+                return securityScanResult;
+            }
+
+            PendingRequest pendingRequest = new PendingRequest(new SecurityScanRequestResult(this));
+            securityScanRequestResult = pendingRequest.requestResult;
+            originalTestStepClone = ((SecurityTestRunnerImpl) securityTestRunner)
+                    .cloneForSecurityScan((WsdlTestStep) this.testStep);
+
+            pendingRequest.updatedParams = prepareParallelMutation(originalTestStepClone, context);
+            if (pendingRequest.updatedParams != null) {
+                pendingRequest.response = dispatcher.submit(originalTestStepClone, securityTestRunner, context,
+                        pendingRequest.requestResult, getExecutionStrategy().getDelay());
+            }
+            pendingRequests.add(pendingRequest);
+
+            while (pendingRequests.size() >= dispatcher.getConcurrency()) {
+                completePendingRequest(pendingRequests.removeFirst(), context, securityTestRunner,
+                        securityTestListeners, notifier);
+            }
+        }
+
+        while (!pendingRequests.isEmpty()) {
+            completePendingRequest(pendingRequests.removeFirst(), context, securityTestRunner, securityTestListeners,
+                    notifier);
+        }
+
+        if (noMutations) {
+            securityScanResult.setStatus(ResultStatus.SKIPPED);
+        }
+        return securityScanResult;
+    }
+
+    private void completePendingRequest(PendingRequest pendingRequest, SecurityTestRunContext context,
+                                        SecurityTestRunner securityTestRunner, SecurityTestRunListener[] securityTestListeners,
+                                        PropertyChangeNotifier notifier) {
+        securityScanRequestResult = pendingRequest.requestResult;
+
+        if (pendingRequest.response != null) {
+            try {
+                ((ParallelizableSecurityScan) this).completeMutation(pendingRequest.updatedParams,
+                        pendingRequest.response.get(), context);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                reportSecurityScanException("Security Scan Request Interrupted!");
+            } catch (ExecutionException e) {
+                SoapUI.logError(e.getCause(), "[" + getType() + "]Security Scan Request failed!");
+                reportSecurityScanException("Security Scan Request failed: " + e.getCause());
+            }
+        }
+
+        notifier.notifyChange();
+        completeSecurityScanRequest(context, securityTestRunner, securityTestListeners);
+    }
+
+    private void completeSecurityScanRequest(SecurityTestRunContext context, SecurityTestRunner securityTestRunner,
+                                             SecurityTestRunListener[] securityTestListeners) {
+        assertResponse(getSecurityScanRequestResult().getMessageExchange(), context);
+        // add to summary result
+        securityScanResult.addSecurityRequestResult(getSecurityScanRequestResult());
+        for (int i = 0; i < securityTestListeners.length; i++) {
+            if (Arrays.asList(((SecurityTest) getParent()).getSecurityTestRunListeners()).contains(
+                    securityTestListeners[i])) {
+                securityTestListeners[i].afterSecurityScanRequest((SecurityTestRunnerImpl) securityTestRunner,
+                        context, securityScanRequestResult);
+            }
+        }
+    }
+
+    /**
+     * Applies the next mutation of a ParallelizableSecurityScan to the testStep
+     * clone; returns the changed parameters, or null if there is nothing to send
+     * or the mutation failed and has been reported with
+     * reportSecurityScanException
+     */
+    private StringToStringMap prepareParallelMutation(TestStep testStep, SecurityTestRunContext context) {
+        try {
+            return ((ParallelizableSecurityScan) this).prepareMutation(testStep, context);
+        } catch (XmlException e) {
+            SoapUI.logError(e, "[" + getType() + "]XPath seems to be invalid!");
+            reportSecurityScanException("Property value is not XML or XPath is wrong!");
+        } catch (Exception e) {
+            SoapUI.logError(e, "[" + getType() + "]Property value is not valid xml!");
+            reportSecurityScanException("Property value is not XML or XPath is wrong!");
+        }
+        return null;
+    }
+
+    private final static class PendingRequest {
+        private final SecurityScanRequestResult requestResult;
+        private StringToStringMap updatedParams;
+        private Future<MessageExchange> response;
+
+        private PendingRequest(SecurityScanRequestResult requestResult) {
+            this.requestResult = requestResult;
+        }
+
+        private void cancel() {
+            if (response != null) {
+                response.cancel(true);
+            }
+        }
+    }
+
     protected void clear() {
 
     }
@@ -138,6 +138,14 @@ public abstract class AbstractSecurityScanWithProperties extends AbstractSecurit
         getSecurityScanRequestResult().setMessageExchange(message);
     }
 
+    /**
+     * Completes a mutation prepared by a ParallelizableSecurityScan
+     */
+    public void completeMutation(StringToStringMap updatedParams, MessageExchange message,
+                                 SecurityTestRunContext context) {
+        createMessageExchange(updatedParams, message, context);
+    }
+
     @Override
     public void release() {
         if (parameterHolder != null) {
@@ -19,6 +19,7 @@ package com.eviware.soapui.security.scan;
 import com.eviware.soapui.SoapUI;
 import com.eviware.soapui.config.SecurityScanConfig;
 import com.eviware.soapui.config.StrategyTypeConfig;
+import com.eviware.soapui.impl.wsdl.support.xsd.SchemaUtils;
 import com.eviware.soapui.model.ModelItem;
 import com.eviware.soapui.model.iface.MessageExchange;
 import com.eviware.soapui.model.security.SecurityCheckedParameter;
@@ -36,6 +37,7 @@ import com.eviware.soapui.support.types.StringToStringMap;
 import com.eviware.soapui.support.xml.XmlObjectTreeModel;
 import com.eviware.soapui.support.xml.XmlObjectTreeModel.XmlTreeNode;
 import com.eviware.soapui.support.xml.XmlUtils;
+import org.apache.xmlbeans.SchemaType;
 import org.apache.xmlbeans.XmlAnySimpleType;
 import org.apache.xmlbeans.XmlException;
 import org.apache.xmlbeans.impl.schema.SchemaTypeImpl;
@@ -48,7 +50,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Stack;
 
-public class BoundarySecurityScan extends AbstractSecurityScanWithProperties {
+public class BoundarySecurityScan extends AbstractSecurityScanWithProperties implements ParallelizableSecurityScan {
 
     public static final String TYPE = "BoundaryScan";
     public static final String NAME = "Boundary Scan";
@@ -84,6 +86,16 @@ public class BoundarySecurityScan extends AbstractSecurityScanWithProperties {
         }
     }
 
+    public StringToStringMap prepareMutation(TestStep testStep, SecurityTestRunContext context) {
+        PropertyMutation mutation = popMutation(context);
+        if (mutation == null) {
+            return null;
+        }
+
+        updateRequestProperty(testStep, mutation);
+        return mutation.getMutatedParameters() == null ? new StringToStringMap() : mutation.getMutatedParameters();
+    }
+
     @SuppressWarnings("unchecked")
     private PropertyMutation popMutation(SecurityTestRunContext context) {
         Stack<PropertyMutation> requestMutationsStack = (Stack<PropertyMutation>) context.get(REQUEST_MUTATIONS_STACK);
@@ -136,9 +148,7 @@ public class BoundarySecurityScan extends AbstractSecurityScanWithProperties {
                                 addMutation(context, pm);
                             }
                         } else {
-                            SchemaTypeImpl simpleType = (SchemaTypeImpl) mynode.getSchemaType();
-                            XmlObjectTreeModel model2 = new XmlObjectTreeModel(simpleType.getTypeSystem(),
-                                    simpleType.getParseObject());
+                            XmlObjectTreeModel model2 = createRestrictionModel(mynode.getSchemaType());
                             extractRestrictions(model2, context, mynode, model, scp, stsmap);
                         }
                     }
@@ -155,6 +165,14 @@ public class BoundarySecurityScan extends AbstractSecurityScanWithProperties {
         }
     }
 
+    /**
+     * Returns a model of the schema definition of the specified type, read
+     * from its source schema if the type was loaded from the SchemaCache
+     */
+    static XmlObjectTreeModel createRestrictionModel(SchemaType schemaType) {
+        return new XmlObjectTreeModel(schemaType.getTypeSystem(), SchemaUtils.getParseObject(schemaType));
+    }
+
     @SuppressWarnings("unchecked")
     private void addMutation(SecurityTestRunContext context, PropertyMutation mutation) {
         Stack<PropertyMutation> stack = (Stack<PropertyMutation>) context.get(REQUEST_MUTATIONS_STACK);
@@ -349,8 +367,7 @@ public class BoundarySecurityScan extends AbstractSecurityScanWithProperties {
             } else {
                 SchemaTypeImpl simpleType = (SchemaTypeImpl) treeNodes[0].getSchemaType();
                 if (simpleType != null && !simpleType.isNoType()) {
-                    XmlObjectTreeModel model2 = new XmlObjectTreeModel(simpleType.getTypeSystem(),
-                            simpleType.getParseObject());
+                    XmlObjectTreeModel model2 = createRestrictionModel(simpleType);
                     list = BoundaryRestrictionUtill.getRestrictions(model2.getRootNode(), new ArrayList<String>());
                     if (list.isEmpty()) {
                         list.add("No restrictions in schema are specified for this parameter!");
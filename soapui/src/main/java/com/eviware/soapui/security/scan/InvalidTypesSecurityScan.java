@@ -21,6 +21,7 @@ import com.eviware.soapui.config.InvalidSecurityScanConfig;
 import com.eviware.soapui.config.SchemaTypeForSecurityScanConfig;
 import com.eviware.soapui.config.SecurityScanConfig;
 import com.eviware.soapui.config.StrategyTypeConfig;
+import com.eviware.soapui.impl.wsdl.support.xsd.SchemaUtils;
 import com.eviware.soapui.model.ModelItem;
 import com.eviware.soapui.model.iface.MessageExchange;
 import com.eviware.soapui.model.security.SecurityCheckedParameter;
@@ -49,7 +50,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-public class InvalidTypesSecurityScan extends AbstractSecurityScanWithProperties {
+public class InvalidTypesSecurityScan extends AbstractSecurityScanWithProperties implements ParallelizableSecurityScan {
 
     public final static String TYPE = "InvalidTypesSecurityScan";
     public final static String NAME = "Invalid Types";
@@ -146,6 +147,10 @@ public class InvalidTypesSecurityScan extends AbstractSecurityScanWithProperties
         }
     }
 
+    public StringToStringMap prepareMutation(TestStep testStep, SecurityTestRunContext context) throws Exception {
+        return updateRequestContent(testStep, context);
+    }
+
     /*
      * Set new value for request
      */
@@ -497,7 +502,8 @@ public class InvalidTypesSecurityScan extends AbstractSecurityScanWithProperties
 
             SchemaTypeImpl simpleType = (SchemaTypeImpl) treeNodes[0].getSchemaType();
             if (simpleType != null && !simpleType.isNoType()) {
-                XmlObjectTreeModel model2 = new XmlObjectTreeModel(simpleType.getTypeSystem(), simpleType.getParseObject());
+                XmlObjectTreeModel model2 = new XmlObjectTreeModel(simpleType.getTypeSystem(),
+                        SchemaUtils.getParseObject(simpleType));
                 List<String> list = BoundaryRestrictionUtill.getType(model2.getRootNode(), new ArrayList<String>());
                 if (list.isEmpty()) {
                     typeLabel.setJlabel("parameter has type [" + simpleType.getName() + "]");
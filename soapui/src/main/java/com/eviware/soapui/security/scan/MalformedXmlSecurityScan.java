@@ -45,7 +45,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
-public class MalformedXmlSecurityScan extends AbstractSecurityScanWithProperties {
+public class MalformedXmlSecurityScan extends AbstractSecurityScanWithProperties implements ParallelizableSecurityScan {
 
     public static final String TYPE = "MalformedXmlSecurityScan";
     public static final String NAME = "Malformed XML";
@@ -105,6 +105,10 @@ public class MalformedXmlSecurityScan extends AbstractSecurityScanWithProperties
         }
     }
 
+    public StringToStringMap prepareMutation(TestStep testStep, SecurityTestRunContext context) throws Exception {
+        return update(testStep, context);
+    }
+
     protected StringToStringMap update(TestStep testStep, SecurityTestRunContext context) throws XmlException,
             Exception {
         StringToStringMap params = new StringToStringMap();
@@ -0,0 +1,48 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.security.scan;
+
+import com.eviware.soapui.model.iface.MessageExchange;
+import com.eviware.soapui.model.testsuite.TestStep;
+import com.eviware.soapui.security.SecurityTestRunContext;
+import com.eviware.soapui.support.types.StringToStringMap;
+
+/**
+ * Implemented by SecurityScans that can apply a mutation without sending its
+ * request, so that AbstractSecurityScan can send the requests of several
+ * mutations in parallel through the SecurityScanRequestDispatcher.
+ */
+
+public interface ParallelizableSecurityScan {
+    /**
+     * Applies the next mutation to the testStep clone without sending its
+     * request
+     *
+     * @return the changed parameters, or null if there was nothing to send
+     * @throws Exception if the request content or an XPath of a parameter is not
+     *                   valid; it is reported by AbstractSecurityScan
+     */
+
+    StringToStringMap prepareMutation(TestStep testStep, SecurityTestRunContext context) throws Exception;
+
+    /**
+     * Adds the response to a prepared mutation to the current
+     * SecurityScanRequestResult
+     */
+
+    void completeMutation(StringToStringMap updatedParams, MessageExchange message, SecurityTestRunContext context);
+}
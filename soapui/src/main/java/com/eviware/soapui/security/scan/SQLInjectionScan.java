@@ -58,7 +58,7 @@ import java.util.Map;
  * @author soapui team
  */
 
-public class SQLInjectionScan extends AbstractSecurityScanWithProperties {
+public class SQLInjectionScan extends AbstractSecurityScanWithProperties implements ParallelizableSecurityScan {
 
     public static final String TYPE = "SQLInjectionScan";
     public static final String NAME = "SQL Injection";
@@ -127,6 +127,10 @@ public class SQLInjectionScan extends AbstractSecurityScanWithProperties {
         }
     }
 
+    public StringToStringMap prepareMutation(TestStep testStep, SecurityTestRunContext context) throws Exception {
+        return update(testStep, context);
+    }
+
     private StringToStringMap update(TestStep testStep, SecurityTestRunContext context) throws XmlException, Exception {
         StringToStringMap params = new StringToStringMap();
 
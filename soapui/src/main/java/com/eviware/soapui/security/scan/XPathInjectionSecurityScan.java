@@ -51,7 +51,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 
-public class XPathInjectionSecurityScan extends AbstractSecurityScanWithProperties {
+public class XPathInjectionSecurityScan extends AbstractSecurityScanWithProperties implements ParallelizableSecurityScan {
 
     public static final String TYPE = "XPathInjectionSecurityScan";
     public static final String NAME = "XPath Injection";
@@ -115,6 +115,10 @@ public class XPathInjectionSecurityScan extends AbstractSecurityScanWithProperti
         }
     }
 
+    public StringToStringMap prepareMutation(TestStep testStep, SecurityTestRunContext context) throws Exception {
+        return update(testStep, context);
+    }
+
     private StringToStringMap update(TestStep testStep, SecurityTestRunContext context) throws XmlException, Exception {
         StringToStringMap params = new StringToStringMap();
 
@@ -0,0 +1,206 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.security.support;
+
+import com.eviware.soapui.SoapUI;
+import com.eviware.soapui.model.iface.MessageExchange;
+import com.eviware.soapui.model.testsuite.SamplerTestStep;
+import com.eviware.soapui.model.testsuite.TestCaseRunner;
+import com.eviware.soapui.model.testsuite.TestStep;
+import com.eviware.soapui.security.SecurityTestRunContext;
+import com.eviware.soapui.security.SecurityTestRunner;
+import com.eviware.soapui.security.result.SecurityScanRequestResult;
+import com.eviware.soapui.support.types.StringToObjectMap;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends the mutated requests of security scans on a pool of worker threads,
+ * limiting the rate at which requests to the same host are started. Scans
+ * sending their requests one at a time apply the same rate limit through
+ * acquire.
+ * <p/>
+ * Each request runs on its own copy of the SecurityTestRunContext, since the
+ * transports store per-request state in the context. Results are returned as
+ * Futures so that scans can process them in the order the mutations were
+ * made.
+ */
+
+public class SecurityScanRequestDispatcher {
+    private final int concurrency;
+    private final long minInterval;
+    private final ExecutorService executor;
+    private final Map<String, Long> nextStartTimes = new HashMap<String, Long>();
+
+    /**
+     * @param concurrency          number of requests sent in parallel
+     * @param maxRequestsPerSecond maximum number of requests started per second
+     *                             for each scheme, host and port, or 0 if
+     *                             unlimited
+     * @param name                 name of the worker threads
+     */
+
+    public SecurityScanRequestDispatcher(int concurrency, int maxRequestsPerSecond, String name) {
+        this.concurrency = Math.max(1, concurrency);
+        this.minInterval = maxRequestsPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / maxRequestsPerSecond : 0;
+
+        executor = Executors.newFixedThreadPool(this.concurrency, new WorkerThreadFactory(name));
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Sends the request of the specified mutated TestStep clone, waiting for
+     * the specified delay in milliseconds afterwards before the worker takes
+     * the next request
+     */
+
+    public Future<MessageExchange> submit(final TestStep testStep, final SecurityTestRunner runner,
+                                          SecurityTestRunContext context, final SecurityScanRequestResult requestResult,
+                                          final long delay) {
+        final SecurityTestRunContext requestContext = createRequestContext(runner, context);
+
+        return executor.submit(new Callable<MessageExchange>() {
+            public MessageExchange call() throws Exception {
+                acquire(getEndpoint(testStep, requestContext));
+
+                requestResult.startTimer();
+                try {
+                    return (MessageExchange) testStep.run((TestCaseRunner) runner, requestContext);
+                } finally {
+                    requestResult.stopTimer();
+                    if (delay > 0) {
+                        Thread.sleep(delay);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Waits until the request of the specified TestStep can be started without
+     * exceeding the maximum rate, for requests sent on the calling thread
+     */
+
+    public void acquire(TestStep testStep, SecurityTestRunContext context) throws InterruptedException {
+        acquire(getEndpoint(testStep, context));
+    }
+
+    private SecurityTestRunContext createRequestContext(SecurityTestRunner runner, SecurityTestRunContext context) {
+        SecurityTestRunContext requestContext = new SecurityTestRunContext((TestCaseRunner) runner,
+                new StringToObjectMap(context.getProperties()));
+        requestContext.setCurrentStep(context.getCurrentStepIndex());
+        requestContext.setCurrentScanIndex(context.getCurrentScanIndex());
+        requestContext.setCurrentScanOnSecurityTestIndex(context.getCurrentScanOnSecurityTestIndex());
+        return requestContext;
+    }
+
+    private static String getEndpoint(TestStep testStep, SecurityTestRunContext context) {
+        if (testStep instanceof SamplerTestStep && ((SamplerTestStep) testStep).getTestRequest() != null) {
+            return context.expand(((SamplerTestStep) testStep).getTestRequest().getEndpoint());
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the scheme, host and port of the endpoint, so that requests to
+     * different paths or with different query strings on the same server share
+     * one rate limit
+     */
+
+    static String getHostKey(String endpoint) {
+        if (endpoint == null) {
+            return "";
+        }
+
+        try {
+            URL url = new URL(endpoint);
+            int port = url.getPort() == -1 ? url.getDefaultPort() : url.getPort();
+            return url.getProtocol().toLowerCase() + "://" + url.getHost().toLowerCase() + ":" + port;
+        } catch (MalformedURLException e) {
+            return endpoint;
+        }
+    }
+
+    /**
+     * Waits until a request to the host of the specified endpoint can be
+     * started without exceeding the maximum rate
+     */
+
+    void acquire(String endpoint) throws InterruptedException {
+        if (minInterval == 0) {
+            return;
+        }
+
+        String key = getHostKey(endpoint);
+        long wait;
+
+        synchronized (nextStartTimes) {
+            long now = System.nanoTime();
+            Long next = nextStartTimes.get(key);
+            long start = next == null ? now : Math.max(now, next);
+
+            nextStartTimes.put(key, start + minInterval);
+            wait = start - now;
+        }
+
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+     * Stops the worker threads, interrupting requests that are still running
+     */
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private final static class WorkerThreadFactory implements ThreadFactory {
+        private final String name;
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        private WorkerThreadFactory(String name) {
+            this.name = name;
+        }
+
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, name + " " + threadNumber.getAndIncrement());
+
+            thread.setDaemon(true);
+            if (SoapUI.getSoapUICore() != null) {
+                thread.setContextClassLoader(SoapUI.getSoapUICore().getExtensionClassLoader());
+            }
+
+            return thread;
+        }
+    }
+}
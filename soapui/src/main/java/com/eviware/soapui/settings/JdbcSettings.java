@@ -0,0 +1,48 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.settings;
+
+import com.eviware.soapui.settings.Setting.SettingType;
+
+/**
+ * JDBC related settings constants
+ */
+
+public interface JdbcSettings {
+    @Setting(name = "Disable Connection Pool", description = "opens a new database connection for every JDBC request", type = SettingType.BOOLEAN)
+    public final static String DISABLE_CONNECTION_POOL = JdbcSettings.class.getSimpleName() + "@"
+            + "disable-connection-pool";
+
+    @Setting(name = "Min Pool Size", description = "number of idle connections kept open per connection string", type = SettingType.INT, defaultValue = "0")
+    public final static String POOL_MIN_SIZE = JdbcSettings.class.getSimpleName() + "@" + "pool-min-size";
+
+    @Setting(name = "Max Pool Size", description = "maximum number of open connections per connection string", type = SettingType.INT, defaultValue = "20")
+    public final static String POOL_MAX_SIZE = JdbcSettings.class.getSimpleName() + "@" + "pool-max-size";
+
+    @Setting(name = "Idle Timeout", description = "time in milliseconds after which idle connections are closed", type = SettingType.INT, defaultValue = "60000")
+    public final static String POOL_IDLE_TIMEOUT = JdbcSettings.class.getSimpleName() + "@" + "pool-idle-timeout";
+
+    @Setting(name = "Borrow Timeout", description = "time in milliseconds to wait for a connection when the pool is exhausted", type = SettingType.INT, defaultValue = "30000")
+    public final static String POOL_BORROW_TIMEOUT = JdbcSettings.class.getSimpleName() + "@" + "pool-borrow-timeout";
+
+    @Setting(name = "Validation Timeout", description = "time in seconds to wait when validating a pooled connection", type = SettingType.INT, defaultValue = "5")
+    public final static String POOL_VALIDATION_TIMEOUT = JdbcSettings.class.getSimpleName() + "@"
+            + "pool-validation-timeout";
+
+    @Setting(name = "Statement Cache Size", description = "number of prepared statements cached per connection", type = SettingType.INT, defaultValue = "50")
+    public final static String STATEMENT_CACHE_SIZE = JdbcSettings.class.getSimpleName() + "@" + "statement-cache-size";
+}
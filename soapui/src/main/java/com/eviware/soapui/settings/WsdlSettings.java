@@ -56,6 +56,19 @@ public interface WsdlSettings {
     @Setting(name = "Schema Directory", description = "local directory containing schemas that should be added to loading/validation", type = SettingType.FOLDER)
     public static final String SCHEMA_DIRECTORY = WsdlSettings.class.getSimpleName() + "@" + "schema-directory";
 
+    @Setting(name = "Cache Schemas", description = "caches compiled schemas on disk for reuse in later sessions", type = SettingType.BOOLEAN)
+    public final static String CACHE_SCHEMAS = WsdlSettings.class.getSimpleName() + "@" + "cache-schemas";
+
+    @Setting(name = "Schema Cache Directory", description = "local directory for cached compiled schemas (defaults to .soapui-schema-cache in the user home)", type = SettingType.FOLDER)
+    public final static String SCHEMA_CACHE_DIRECTORY = WsdlSettings.class.getSimpleName() + "@" + "schema-cache-directory";
+
+    @Setting(name = "Schema Cache Size", description = "maximum size of the schema cache in MB", type = SettingType.INT)
+    public final static String SCHEMA_CACHE_SIZE = WsdlSettings.class.getSimpleName() + "@" + "schema-cache-size";
+
+    @Setting(name = "Load Definitions on Open", description = "loads cached interface definitions in the background when a project is opened", type = SettingType.BOOLEAN)
+    public final static String LOAD_DEFINITIONS_ON_OPEN = WsdlSettings.class.getSimpleName() + "@"
+            + "load-definitions-on-open";
+
     @Setting(name = "Name with Binding", description = "uses the WSDL binding name (instead of portType) for imported Interfaces", type = SettingType.BOOLEAN)
     public final static String NAME_WITH_BINDING = WsdlSettings.class.getSimpleName() + "@" + "name-with-binding";
 
@@ -0,0 +1,115 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.support;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
+
+/**
+ * Thread-safe cache holding a limited number of entries, used for compiled
+ * expressions, templates and parsed content shared between threads.
+ * <p/>
+ * Entries are kept in segments that are locked separately, so concurrent
+ * lookups do not wait for each other; when the cache is full the least
+ * recently used entries of a segment are evicted. Caches created by
+ * createWeakKeyed compare keys by identity and drop entries as soon as their
+ * key is no longer referenced elsewhere. Caches created by createByKeyLength
+ * are limited by the total length of their string keys instead of the number
+ * of entries.
+ */
+
+public final class BoundedCache<K, V> {
+    private final Cache<K, V> cache;
+
+    private BoundedCache(Cache<K, V> cache) {
+        this.cache = cache;
+    }
+
+    public static <K, V> BoundedCache<K, V> create(int maximumSize) {
+        return new BoundedCache<K, V>(CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats()
+                .<K, V>build());
+    }
+
+    public static <K, V> BoundedCache<K, V> createWeakKeyed(int maximumSize) {
+        return new BoundedCache<K, V>(CacheBuilder.newBuilder().maximumSize(maximumSize).weakKeys().recordStats()
+                .<K, V>build());
+    }
+
+    public static <V> BoundedCache<String, V> createByKeyLength(long maximumTotalLength) {
+        return new BoundedCache<String, V>(CacheBuilder.newBuilder().maximumWeight(maximumTotalLength)
+                .weigher(new Weigher<String, V>() {
+                    public int weigh(String key, V value) {
+                        return key.length();
+                    }
+                }).recordStats().<String, V>build());
+    }
+
+    public V get(K key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(K key, V value) {
+        cache.put(key, value);
+    }
+
+    /**
+     * Adds the value unless another thread has added a value for the key in the
+     * meantime
+     *
+     * @return the value held by the cache for the key
+     */
+
+    public V putIfAbsent(K key, V value) {
+        V existing = cache.asMap().putIfAbsent(key, value);
+        return existing == null ? value : existing;
+    }
+
+    public void remove(K key) {
+        cache.invalidate(key);
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    public long getSize() {
+        return cache.size();
+    }
+
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    /**
+     * Returns the share of lookups answered from the cache, between 0 and 1
+     */
+
+    public double getHitRate() {
+        CacheStats stats = cache.stats();
+        return stats.requestCount() == 0 ? 0 : stats.hitRate();
+    }
+}
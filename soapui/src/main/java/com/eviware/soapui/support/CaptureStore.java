@@ -0,0 +1,309 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.support;
+
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+/**
+ * Append-only store for the bodies of captured messages, so that logs of
+ * monitored and mocked traffic only keep small Records on the heap.
+ * <p/>
+ * Data is appended to segment files and read back when a Record is read. Records are never removed individually; when the
+ * store exceeds its maximum size the oldest segment is deleted and its Records
+ * return DISCARDED_CONTENT instead of their data.
+ */
+
+public class CaptureStore {
+    private final static Logger log = Logger.getLogger(CaptureStore.class);
+    private final static Charset UTF8 = Charset.forName("UTF-8");
+
+    public final static int DEFAULT_SEGMENT_SIZE = 32 * 1024 * 1024;
+    public final static long DEFAULT_MAX_SIZE = 1024L * 1024 * 1024;
+
+    public final static String MONITOR_STORE = "monitor";
+    public final static String MOCK_LOG_STORE = "mocklog";
+    public final static String SECURITY_LOG_STORE = "securitylog";
+
+    /**
+     * Returned by Records whose segment has been deleted to make room for newer
+     * data
+     */
+
+    public final static String DISCARDED_CONTENT = "[content discarded]";
+
+    private final static Map<String, CaptureStore> stores = new HashMap<String, CaptureStore>();
+    private static Thread cleanupHook;
+
+    private final File directory;
+    private final int segmentSize;
+    private final long maxSize;
+    private final LinkedList<Segment> segments = new LinkedList<Segment>();
+    private Segment currentSegment;
+    private int segmentCount;
+    private long size;
+    private boolean closed;
+
+    public CaptureStore(File directory, int segmentSize, long maxSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSize = Math.max(maxSize, segmentSize);
+    }
+
+    /**
+     * Returns the store with the specified name, in the soapui.capturestore.dir
+     * folder or a temporary folder, limited to soapui.capturestore.maxsize
+     * megabytes on disk. The HTTP Monitor, the MockService logs and the
+     * SecurityTest logs use separate stores, so that traffic in one does not
+     * discard the content held by the others.
+     */
+
+    public static synchronized CaptureStore getStore(String name) {
+        CaptureStore store = stores.get(name);
+        if (store == null) {
+            String dir = System.getProperty("soapui.capturestore.dir");
+            File directory = new File(dir == null ? System.getProperty("java.io.tmpdir") : dir, "soapui-capture-"
+                    + name + "-" + Long.toHexString(System.nanoTime()));
+
+            store = new CaptureStore(directory, DEFAULT_SEGMENT_SIZE, getMaxSize());
+            stores.put(name, store);
+
+            if (cleanupHook == null) {
+                cleanupHook = new Thread(new Runnable() {
+                    public void run() {
+                        closeStores();
+                    }
+                }, "CaptureStore cleanup");
+                Runtime.getRuntime().addShutdownHook(cleanupHook);
+            }
+        }
+
+        return store;
+    }
+
+    private static long getMaxSize() {
+        String maxSize = System.getProperty("soapui.capturestore.maxsize");
+        if (maxSize != null) {
+            try {
+                return Long.parseLong(maxSize.trim()) * 1024 * 1024;
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring invalid soapui.capturestore.maxsize [" + maxSize + "]");
+            }
+        }
+
+        return DEFAULT_MAX_SIZE;
+    }
+
+    private static synchronized void closeStores() {
+        for (CaptureStore store : stores.values()) {
+            store.close();
+        }
+
+        stores.clear();
+    }
+
+    /**
+     * Appends the specified data; returns null if data is null or could not be
+     * stored, in which case the caller should keep the data itself
+     */
+
+    public synchronized Record append(byte[] data) {
+        if (data == null || closed) {
+            return null;
+        }
+
+        try {
+            if (currentSegment == null || currentSegment.remaining() < data.length) {
+                currentSegment = createSegment(Math.max(segmentSize, data.length));
+            }
+
+            return currentSegment.append(data);
+        } catch (IOException e) {
+            log.warn("Failed to store captured data in " + directory + ": " + e);
+            return null;
+        }
+    }
+
+    public Record append(String content) {
+        return content == null ? null : append(content.getBytes(UTF8));
+    }
+
+    private Segment createSegment(int capacity) throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Could not create folder " + directory);
+        }
+
+        Segment segment = new Segment(new File(directory, "capture-" + (segmentCount++) + ".seg"), capacity);
+        segments.add(segment);
+        size += capacity;
+
+        while (size > maxSize && segments.size() > 1) {
+            Segment oldest = segments.removeFirst();
+            size -= oldest.capacity;
+            oldest.delete();
+        }
+
+        return segment;
+    }
+
+    /**
+     * Returns the number of bytes used on disk
+     */
+
+    public synchronized long getSize() {
+        return size;
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Deletes all segments; Records of this store return DISCARDED_CONTENT
+     * afterwards
+     */
+
+    public synchronized void clear() {
+        for (Segment segment : segments) {
+            segment.delete();
+        }
+
+        segments.clear();
+        currentSegment = null;
+        size = 0;
+    }
+
+    public synchronized void close() {
+        clear();
+        closed = true;
+        directory.delete();
+    }
+
+    private final static class Segment {
+        private final File file;
+        private final int capacity;
+        private final RandomAccessFile raf;
+        private volatile boolean deleted;
+        private int position;
+
+        private Segment(File file, int capacity) throws IOException {
+            this.file = file;
+            this.capacity = capacity;
+
+            raf = new RandomAccessFile(file, "rw");
+        }
+
+        private int remaining() {
+            return capacity - position;
+        }
+
+        private synchronized Record append(byte[] data) throws IOException {
+            raf.seek(position);
+            raf.write(data);
+
+            Record record = new Record(this, position, data.length);
+            position += data.length;
+            return record;
+        }
+
+        /**
+         * Reads through the RandomAccessFile rather than a FileChannel, since
+         * interrupting a thread reading from a channel would close it for all
+         * Records of the segment
+         */
+
+        private synchronized byte[] read(int offset, int length) {
+            if (deleted) {
+                return null;
+            }
+
+            try {
+                byte[] data = new byte[length];
+                raf.seek(offset);
+                raf.readFully(data);
+                return data;
+            } catch (IOException e) {
+                log.warn("Failed to read captured data from " + file + ": " + e);
+                return null;
+            }
+        }
+
+        private synchronized void delete() {
+            deleted = true;
+
+            try {
+                raf.close();
+            } catch (IOException e) {
+                log.warn("Failed to close " + file + ": " + e);
+            }
+
+            if (!file.delete()) {
+                file.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Location of data appended to a CaptureStore
+     */
+
+    public final static class Record {
+        private final Segment segment;
+        private final int offset;
+        private final int length;
+
+        private Record(Segment segment, int offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        /**
+         * Returns true if the segment holding the data has been deleted
+         */
+
+        public boolean isDiscarded() {
+            return segment.deleted;
+        }
+
+        /**
+         * Reads the data from the store, or returns DISCARDED_CONTENT if its
+         * segment has been deleted
+         */
+
+        public byte[] getData() {
+            byte[] data = segment.read(offset, length);
+            return data == null ? DISCARDED_CONTENT.getBytes(UTF8) : data;
+        }
+
+        public String getString() {
+            byte[] data = segment.read(offset, length);
+            return data == null ? DISCARDED_CONTENT : new String(data, UTF8);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+
+package com.eviware.soapui.support;
+
+import net.sf.json.JSON;
+import net.sf.json.JSONNull;
+import net.sf.json.groovy.JsonSlurper;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of parsed JSON message contents, so that the JsonPath assertions,
+ * property transfers and property expansions applied to the same response
+ * parse it only once.
+ * <p/>
+ * Like in XmlObjectCache, entries are held in a concurrent map with weak keys
+ * compared by identity of the content string, so the parsed tree lives as
+ * long as the message exchange or property holding the content. Invalid
+ * content is remembered as well, so it is not parsed again by every
+ * assertion.
+ * <p/>
+ * Returned objects are shared and must only be read; JsonPathFacade returns
+ * copies of the objects and arrays it reads from them.
+ */
+
+public final class JsonObjectCache {
+    private final static int MAX_CACHED_CONTENTS = 1024;
+
+    private final static Object INVALID = new Object();
+
+    private final static BoundedCache<String, Object> documents = BoundedCache.createWeakKeyed(MAX_CACHED_CONTENTS);
+
+    private final static AtomicLong hitCount = new AtomicLong();
+    private final static AtomicLong missCount = new AtomicLong();
+
+    private JsonObjectCache() {
+    }
+
+    /**
+     * Returns the content parsed by JsonSlurper
+     *
+     * @throws IllegalArgumentException if the content is not valid JSON
+     */
+
+    public static JSON getJsonObject(String content) {
+        if (content == null) {
+            return parse(content);
+        }
+
+        Object json = documents.get(content);
+        if (json != null) {
+            hitCount.incrementAndGet();
+            return checkValid(json, content);
+        }
+
+        missCount.incrementAndGet();
+
+        try {
+            json = parse(content);
+        } catch (IllegalArgumentException e) {
+            json = INVALID;
+        }
+
+        // keep the tree parsed first if another thread parsed the same content
+        return checkValid(documents.putIfAbsent(content, json), content);
+    }
+
+    private static JSON parse(String content) {
+        JSON json;
+        try {
+            json = new JsonSlurper().parseText(content);
+        } catch (Exception e) {
+            json = null;
+        }
+
+        if (json == null || json instanceof JSONNull) {
+            throw new IllegalArgumentException("Invalid JSON: " + content);
+        }
+
+        return json;
+    }
+
+    private static JSON checkValid(Object json, String content) {
+        if (json == INVALID) {
+            throw new IllegalArgumentException("Invalid JSON: " + content);
+        }
+
+        return (JSON) json;
+    }
+
+    public static void clear() {
+        documents.clear();
+    }
+
+    public static int getSize() {
+        return (int) documents.getSize();
+    }
+
+    public static long getHitCount() {
+        return hitCount.get();
+    }
+
+    public static long getMissCount() {
+        return missCount.get();
+    }
+}
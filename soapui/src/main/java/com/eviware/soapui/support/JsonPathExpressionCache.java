@@ -0,0 +1,69 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+
+package com.eviware.soapui.support;
+
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * Cache of compiled JsonPath expressions, keyed by the expanded expression
+ * text.
+ * <p/>
+ * Compiled paths are only read from when evaluated, so they are shared between
+ * threads. JsonPathFacade.writeValue changes the tokens of the path it
+ * evaluates and therefore compiles its own instead of using this cache.
+ * Expressions that fail to compile are not cached; the exception is thrown to
+ * the caller as by JsonPath.compile.
+ */
+
+public final class JsonPathExpressionCache {
+    private final static int MAX_CACHED_EXPRESSIONS = 1000;
+
+    private final static BoundedCache<String, JsonPath> expressions = BoundedCache.create(MAX_CACHED_EXPRESSIONS);
+
+    private JsonPathExpressionCache() {
+    }
+
+    public static JsonPath getCompiledPath(String expression) {
+        JsonPath compiled = expressions.get(expression);
+        if (compiled == null) {
+            compiled = expressions.putIfAbsent(expression, JsonPath.compile(expression));
+        }
+
+        return compiled;
+    }
+
+    public static void clear() {
+        expressions.clear();
+    }
+
+    public static int getSize() {
+        return (int) expressions.getSize();
+    }
+
+    public static long getHitCount() {
+        return expressions.getHitCount();
+    }
+
+    public static long getMissCount() {
+        return expressions.getMissCount();
+    }
+
+    public static long getEvictionCount() {
+        return expressions.getEvictionCount();
+    }
+}
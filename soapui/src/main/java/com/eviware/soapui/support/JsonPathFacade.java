@@ -27,27 +27,31 @@ import net.sf.json.JSONObject;
 import net.sf.json.groovy.JsonSlurper;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
-import static com.eviware.soapui.support.JsonUtil.isValidJson;
-
 public class JsonPathFacade {
 
     private String currentJson;
     private Object jsonObject;
 
+    /**
+     * Creates a facade for the specified JSON, sharing the parsed document with
+     * other facades created for the same content
+     *
+     * @throws IllegalArgumentException if the content is not valid JSON
+     */
+
     public JsonPathFacade(String targetJson) {
-        if (!isValidJson(targetJson)) {
-            throw new IllegalArgumentException("Invalid JSON: " + targetJson);
-        }
         this.currentJson = targetJson;
-        jsonObject = new JsonSlurper().parseText(targetJson);
+        jsonObject = JsonObjectCache.getJsonObject(targetJson);
     }
 
     public String readStringValue(String jsonPathExpression) {
-        Object data = readObjectValue(jsonPathExpression);
+        Object data = read(jsonPathExpression);
         return String.valueOf(data);
     }
 
@@ -55,6 +59,7 @@ public class JsonPathFacade {
         PlainJavaJsonProvider provider = new PlainJavaJsonProvider();
         Configuration configuration = Configuration.builder().jsonProvider(provider).build();
         jsonObject = provider.parse(currentJson);
+        // not taken from JsonPathExpressionCache since the write decorator is added to the tokens of the path
         JsonPath path = JsonPath.compile(jsonPathExpression);
         LinkedList<PathToken> pathTokens = getPathTokensFrom(path);
         PathToken endToken = pathTokens.removeLast();
@@ -135,13 +140,53 @@ public class JsonPathFacade {
         return currentJson;
     }
 
+    /**
+     * Reads the value at the specified path; objects and arrays are returned as
+     * copies, so callers may change them without affecting the parsed content
+     * shared through JsonObjectCache
+     */
+
     public <T> T readObjectValue(String jsonPathExpression) {
+        return (T) copyOf(read(jsonPathExpression));
+    }
+
+    /**
+     * Reads the value at the specified path without copying it; objects and
+     * arrays are part of the parsed content shared through JsonObjectCache and
+     * must not be changed
+     */
+
+    public <T> T readSharedObjectValue(String jsonPathExpression) {
+        return (T) read(jsonPathExpression);
+    }
+
+    private Object read(String jsonPathExpression) {
         PlainJavaJsonProvider provider = new PlainJavaJsonProvider();
         Configuration configuration = Configuration.builder().jsonProvider(provider).build();
-        JsonPath jsonPath = JsonPath.compile(jsonPathExpression);
+        JsonPath jsonPath = JsonPathExpressionCache.getCompiledPath(jsonPathExpression);
         return jsonPath.read(jsonObject, configuration);
     }
 
+    private static Object copyOf(Object value) {
+        if (value instanceof JSONObject || value instanceof JSONArray) {
+            return new JsonSlurper().parseText(value.toString());
+        } else if (value instanceof List) {
+            List<Object> copy = new ArrayList<Object>();
+            for (Object element : (List) value) {
+                copy.add(copyOf(element));
+            }
+            return copy;
+        } else if (value instanceof Map) {
+            Map<Object, Object> copy = new LinkedHashMap<Object, Object>();
+            for (Object entry : ((Map) value).entrySet()) {
+                copy.put(((Map.Entry) entry).getKey(), copyOf(((Map.Entry) entry).getValue()));
+            }
+            return copy;
+        } else {
+            return value;
+        }
+    }
+
     private class JsonWriteDecorator extends PathToken {
         private final PlainJavaJsonProvider provider;
         private final Object value;
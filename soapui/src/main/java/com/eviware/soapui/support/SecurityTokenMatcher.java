@@ -0,0 +1,273 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.support;
+
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled set of tokens searched for by the security assertions, matching the
+ * semantics of SecurityScanUtil.contains for each token.
+ * <p/>
+ * Literal tokens are compiled into an Aho-Corasick automaton over their upper
+ * case form, so that all of them are found in a single pass over the upper
+ * case content, ignoring case the same way as SecurityScanUtil.contains. Regular
+ * expressions are compiled once; those of the form (?s).*X.* are searched for
+ * X directly instead of matching the whole content, reporting the last
+ * occurrence like the grouped match of SecurityScanUtil.contains.
+ * <p/>
+ * Matchers are immutable and shared through getMatcher, so all assertions of
+ * a run checking the same tokens use the same compiled matcher.
+ */
+
+public class SecurityTokenMatcher {
+    private final static Logger log = Logger.getLogger(SecurityTokenMatcher.class);
+
+    private final static int MAX_CACHED_MATCHERS = 32;
+
+    private final static BoundedCache<List<List<String>>, SecurityTokenMatcher> matchers = BoundedCache
+            .create(MAX_CACHED_MATCHERS);
+
+    private final String[] literals;
+    private final Node root = new Node();
+    private final List<String> regexTokens = new ArrayList<String>();
+    private final List<Pattern> patterns = new ArrayList<Pattern>();
+    private final List<Boolean> grouped = new ArrayList<Boolean>();
+
+    public SecurityTokenMatcher(Collection<String> literalTokens, Collection<String> regexTokens) {
+        literals = literalTokens.toArray(new String[literalTokens.size()]);
+        for (int c = 0; c < literals.length; c++) {
+            if (literals[c] != null && literals[c].length() > 0) {
+                addLiteral(literals[c].toUpperCase(), c);
+            }
+        }
+        buildFailureLinks();
+
+        for (String token : regexTokens) {
+            addRegex(token);
+        }
+    }
+
+    /**
+     * Returns the shared matcher for the specified tokens, compiling it if no
+     * assertion has used the same tokens recently
+     */
+
+    public static SecurityTokenMatcher getMatcher(List<String> literalTokens, List<String> regexTokens) {
+        List<List<String>> key = Arrays.asList(literalTokens, regexTokens);
+
+        SecurityTokenMatcher matcher = matchers.get(key);
+        if (matcher == null) {
+            matcher = matchers.putIfAbsent(key, new SecurityTokenMatcher(literalTokens, regexTokens));
+        }
+
+        return matcher;
+    }
+
+    public static void clearCache() {
+        matchers.clear();
+    }
+
+    private void addLiteral(String token, int index) {
+        Node node = root;
+        for (int c = 0; c < token.length(); c++) {
+            char ch = token.charAt(c);
+            Node next = node.get(ch);
+            if (next == null) {
+                next = node.add(ch);
+            }
+            node = next;
+        }
+
+        node.addOutput(index);
+    }
+
+    private void buildFailureLinks() {
+        LinkedList<Node> queue = new LinkedList<Node>();
+        for (int c = 0; c < root.size; c++) {
+            root.children[c].failure = root;
+            queue.add(root.children[c]);
+        }
+
+        while (!queue.isEmpty()) {
+            Node node = queue.removeFirst();
+            for (int c = 0; c < node.size; c++) {
+                char ch = node.labels[c];
+                Node child = node.children[c];
+
+                Node failure = node.failure;
+                while (failure != root && failure.get(ch) == null) {
+                    failure = failure.failure;
+                }
+
+                Node target = failure.get(ch);
+                child.failure = target == null ? root : target;
+                for (int index : child.failure.outputs) {
+                    child.addOutput(index);
+                }
+
+                queue.add(child);
+            }
+        }
+    }
+
+    private void addRegex(String token) {
+        if (token == null || token.length() == 0) {
+            return;
+        }
+
+        boolean isGrouped = token.startsWith("(?s).*") && token.endsWith(".*");
+        String regex = isGrouped ? "(?s)" + token.substring(6, token.length() - 2) : token;
+
+        try {
+            patterns.add(Pattern.compile(regex));
+            regexTokens.add(token);
+            grouped.add(isGrouped);
+        } catch (Exception e) {
+            log.warn("Ignoring invalid token [" + token + "]: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the literal tokens contained in the specified content, ignoring
+     * case
+     */
+
+    public Set<String> findLiterals(String content) {
+        Set<String> result = new HashSet<String>();
+        if (content == null || root.size == 0) {
+            return result;
+        }
+
+        boolean[] found = new boolean[literals.length];
+        int remaining = literals.length;
+        Node state = root;
+
+        // fold the whole content like String.toUpperCase does, which may change its length
+        content = content.toUpperCase();
+        for (int c = 0; c < content.length() && remaining > 0; c++) {
+            char ch = content.charAt(c);
+
+            Node next = state.get(ch);
+            while (next == null && state != root) {
+                state = state.failure;
+                next = state.get(ch);
+            }
+            state = next == null ? root : next;
+
+            for (int index : state.outputs) {
+                if (!found[index]) {
+                    found[index] = true;
+                    result.add(literals[index]);
+                    remaining--;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the matched text for each regular expression token that matches
+     * the specified content, keyed by token
+     */
+
+    public Map<String, String> findRegexMatches(String content) {
+        Map<String, String> result = new LinkedHashMap<String, String>();
+        if (content == null) {
+            return result;
+        }
+
+        for (int c = 0; c < patterns.size(); c++) {
+            Matcher matcher = patterns.get(c).matcher(content);
+
+            if (grouped.get(c)) {
+                if (matcher.find()) {
+                    int start = matcher.start();
+                    int end = matcher.end();
+
+                    // like (?s)((.*)(X)(.*)) report the occurrence starting last
+                    while (start < content.length() && matcher.find(start + 1)) {
+                        start = matcher.start();
+                        end = matcher.end();
+                    }
+
+                    result.put(regexTokens.get(c), content.substring(start, end));
+                }
+            } else if (matcher.matches()) {
+                result.put(regexTokens.get(c), content);
+            }
+        }
+
+        return result;
+    }
+
+    private final static class Node {
+        private final static int[] NO_OUTPUTS = new int[0];
+
+        private char[] labels = new char[0];
+        private Node[] children = new Node[0];
+        private int size;
+        private Node failure;
+        private int[] outputs = NO_OUTPUTS;
+
+        private Node get(char ch) {
+            for (int c = 0; c < size; c++) {
+                if (labels[c] == ch) {
+                    return children[c];
+                }
+            }
+
+            return null;
+        }
+
+        private Node add(char ch) {
+            if (size == labels.length) {
+                int capacity = Math.max(2, size * 2);
+                labels = Arrays.copyOf(labels, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+
+            Node child = new Node();
+            labels[size] = ch;
+            children[size++] = child;
+            return child;
+        }
+
+        private void addOutput(int index) {
+            for (int existing : outputs) {
+                if (existing == index) {
+                    return;
+                }
+            }
+
+            outputs = Arrays.copyOf(outputs, outputs.length + 1);
+            outputs[outputs.length - 1] = index;
+        }
+    }
+}
@@ -0,0 +1,389 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.support.jdbc;
+
+import com.eviware.soapui.SoapUI;
+import com.eviware.soapui.model.project.Project;
+import com.eviware.soapui.model.settings.Settings;
+import com.eviware.soapui.settings.JdbcSettings;
+import org.apache.log4j.Logger;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of database connections for a driver and expanded connection string,
+ * shared by all JDBC requests in a project and closed when the project is
+ * released.
+ * <p/>
+ * Connections are validated when borrowed and idle connections above the
+ * minimum pool size are closed after the configured idle timeout, both when a
+ * connection is borrowed and by a reaper task running every half idle timeout
+ * (at most every 30 seconds) on a daemon timer shared by all pools.
+ * <p/>
+ * Pools are shared by the whole project rather than owned by a TestStep, so
+ * their active, idle, borrow and wait counts are not part of the LoadTest
+ * statistics and history, which are kept per TestStep. They are available
+ * from getPools and added to the LoadTest log when a LoadTest ends.
+ */
+
+public class JdbcConnectionPool {
+    final static Logger log = Logger.getLogger(JdbcConnectionPool.class);
+
+    private final static Map<Project, Map<String, JdbcConnectionPool>> pools = new HashMap<Project, Map<String, JdbcConnectionPool>>();
+    private final static long MAX_REAP_INTERVAL = 30000;
+    private final static long MIN_REAP_INTERVAL = 10;
+    private static Timer reaperTimer;
+
+    private final String connectionString;
+    private final String name;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeout;
+    private final long borrowTimeout;
+    private final int validationTimeout;
+    private final int statementCacheSize;
+
+    private final Deque<PooledJdbcConnection> idleConnections = new ArrayDeque<PooledJdbcConnection>();
+    private int activeCount;
+    private boolean closed;
+    private final TimerTask reaper;
+
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong createCount = new AtomicLong();
+    private final AtomicLong waitCount = new AtomicLong();
+    private final AtomicLong waitTime = new AtomicLong();
+    private final AtomicLong validationFailureCount = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+
+    JdbcConnectionPool(String connectionString, String name, Settings settings) {
+        this.connectionString = connectionString;
+        this.name = name;
+
+        maxSize = (int) Math.max(1, settings.getLong(JdbcSettings.POOL_MAX_SIZE, 20));
+        minSize = (int) Math.min(maxSize, Math.max(0, settings.getLong(JdbcSettings.POOL_MIN_SIZE, 0)));
+        idleTimeout = settings.getLong(JdbcSettings.POOL_IDLE_TIMEOUT, 60000);
+        borrowTimeout = settings.getLong(JdbcSettings.POOL_BORROW_TIMEOUT, 30000);
+        validationTimeout = (int) settings.getLong(JdbcSettings.POOL_VALIDATION_TIMEOUT, 5);
+        statementCacheSize = (int) settings.getLong(JdbcSettings.STATEMENT_CACHE_SIZE, 50);
+
+        reaper = new TimerTask() {
+            public void run() {
+                // an exception would stop the timer for all pools
+                try {
+                    closeConnections(removeExpiredConnections());
+                } catch (RuntimeException e) {
+                    log.warn("Failed to close idle connections to [" + JdbcConnectionPool.this.name + "]", e);
+                }
+            }
+        };
+
+        long interval = Math.max(MIN_REAP_INTERVAL, Math.min(MAX_REAP_INTERVAL, idleTimeout / 2));
+        getReaperTimer().schedule(reaper, interval, interval);
+    }
+
+    private static synchronized Timer getReaperTimer() {
+        if (reaperTimer == null) {
+            reaperTimer = new Timer("SoapUI JDBC Connection Reaper", true);
+        }
+
+        return reaperTimer;
+    }
+
+    /**
+     * Returns the existing pool for the specified project and connection, or
+     * null if none has been created yet
+     */
+
+    public static JdbcConnectionPool findPool(Project project, String driver, String connectionString) {
+        synchronized (pools) {
+            Map<String, JdbcConnectionPool> projectPools = pools.get(project);
+            return projectPools == null ? null : projectPools.get(createKey(driver, connectionString));
+        }
+    }
+
+    /**
+     * Returns the pool for the specified project and connection, creating it
+     * if needed
+     *
+     * @param name connection string with masked password, used for logging
+     */
+
+    public static JdbcConnectionPool getPool(Project project, String driver, String connectionString, String name) {
+        synchronized (pools) {
+            Map<String, JdbcConnectionPool> projectPools = pools.get(project);
+            if (projectPools == null) {
+                projectPools = new HashMap<String, JdbcConnectionPool>();
+                pools.put(project, projectPools);
+            }
+
+            String key = createKey(driver, connectionString);
+            JdbcConnectionPool pool = projectPools.get(key);
+            if (pool == null) {
+                pool = new JdbcConnectionPool(connectionString, name, SoapUI.getSettings());
+                projectPools.put(key, pool);
+            }
+
+            return pool;
+        }
+    }
+
+    public static List<JdbcConnectionPool> getPools(Project project) {
+        synchronized (pools) {
+            Map<String, JdbcConnectionPool> projectPools = pools.get(project);
+            return projectPools == null ? new ArrayList<JdbcConnectionPool>() : new ArrayList<JdbcConnectionPool>(
+                    projectPools.values());
+        }
+    }
+
+    /**
+     * Closes all pools created for the specified project
+     */
+
+    public static void closePools(Project project) {
+        Map<String, JdbcConnectionPool> projectPools;
+        synchronized (pools) {
+            projectPools = pools.remove(project);
+        }
+
+        if (projectPools != null) {
+            for (JdbcConnectionPool pool : projectPools.values()) {
+                pool.close();
+            }
+        }
+    }
+
+    private static String createKey(String driver, String connectionString) {
+        return driver + "\n" + connectionString;
+    }
+
+    /**
+     * Borrows a validated connection from the pool, opening a new connection if
+     * no idle connection is available and the pool is not exhausted; waits for a
+     * connection to be returned otherwise.
+     */
+
+    public PooledJdbcConnection borrowConnection() throws SQLException {
+        borrowCount.incrementAndGet();
+
+        closeConnections(removeExpiredConnections());
+
+        while (true) {
+            PooledJdbcConnection connection = null;
+
+            synchronized (this) {
+                long waitStart = System.currentTimeMillis();
+                while (idleConnections.isEmpty() && activeCount >= maxSize && !closed) {
+                    long remaining = waitStart + borrowTimeout - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        throw new SQLException("Timed out waiting for a connection to [" + name + "], pool size is "
+                                + maxSize);
+                    }
+
+                    waitCount.incrementAndGet();
+                    long waitTimestamp = System.currentTimeMillis();
+                    try {
+                        wait(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a connection to [" + name + "]");
+                    } finally {
+                        waitTime.addAndGet(System.currentTimeMillis() - waitTimestamp);
+                    }
+                }
+
+                if (closed) {
+                    throw new SQLException("Connection pool for [" + name + "] has been closed");
+                }
+
+                connection = idleConnections.pollFirst();
+                activeCount++;
+            }
+
+            if (connection == null) {
+                return openConnection();
+            }
+
+            if (connection.isValid(validationTimeout)) {
+                return connection;
+            }
+
+            validationFailureCount.incrementAndGet();
+            log.debug("Discarding invalid connection to [" + name + "]");
+            discardConnection(connection);
+        }
+    }
+
+    private PooledJdbcConnection openConnection() throws SQLException {
+        try {
+            PooledJdbcConnection connection = new PooledJdbcConnection(this, DriverManager.getConnection(connectionString),
+                    statementCacheSize);
+            createCount.incrementAndGet();
+            return connection;
+        } catch (SQLException e) {
+            synchronized (this) {
+                activeCount--;
+                notifyAll();
+            }
+
+            throw e;
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                activeCount--;
+                notifyAll();
+            }
+
+            throw e;
+        }
+    }
+
+    void returnConnection(PooledJdbcConnection connection) {
+        if (!connection.reset()) {
+            discardConnection(connection);
+            return;
+        }
+
+        connection.setLastUsed(System.currentTimeMillis());
+
+        synchronized (this) {
+            activeCount--;
+
+            if (!closed) {
+                idleConnections.addFirst(connection);
+                notifyAll();
+                return;
+            }
+        }
+
+        connection.close();
+    }
+
+    private void discardConnection(PooledJdbcConnection connection) {
+        connection.close();
+
+        synchronized (this) {
+            activeCount--;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Removes the least recently used idle connections that have been idle longer
+     * than the idle timeout, keeping at least the minimum pool size open
+     *
+     * @return the removed connections, to be closed without holding the lock
+     */
+
+    private synchronized List<PooledJdbcConnection> removeExpiredConnections() {
+        List<PooledJdbcConnection> connections = new ArrayList<PooledJdbcConnection>();
+        long expired = System.currentTimeMillis() - idleTimeout;
+
+        while (idleConnections.size() + activeCount > minSize && !idleConnections.isEmpty()
+                && idleConnections.peekLast().getLastUsed() < expired) {
+            connections.add(idleConnections.pollLast());
+        }
+
+        return connections;
+    }
+
+    private static void closeConnections(List<PooledJdbcConnection> connections) {
+        for (PooledJdbcConnection connection : connections) {
+            connection.close();
+        }
+    }
+
+    public void close() {
+        List<PooledJdbcConnection> connections;
+
+        synchronized (this) {
+            closed = true;
+            connections = new ArrayList<PooledJdbcConnection>(idleConnections);
+            idleConnections.clear();
+            notifyAll();
+        }
+
+        reaper.cancel();
+        getReaperTimer().purge();
+        closeConnections(connections);
+    }
+
+    void statementCacheHit() {
+        statementCacheHits.incrementAndGet();
+    }
+
+    void statementCacheMiss() {
+        statementCacheMisses.incrementAndGet();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized int getActiveCount() {
+        return activeCount;
+    }
+
+    public synchronized int getIdleCount() {
+        return idleConnections.size();
+    }
+
+    public long getBorrowCount() {
+        return borrowCount.get();
+    }
+
+    public long getCreateCount() {
+        return createCount.get();
+    }
+
+    public long getWaitCount() {
+        return waitCount.get();
+    }
+
+    public long getWaitTime() {
+        return waitTime.get();
+    }
+
+    public long getValidationFailureCount() {
+        return validationFailureCount.get();
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits.get();
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.get();
+    }
+
+    @Override
+    public String toString() {
+        return "JDBC connection pool [" + name + "]: borrowed " + getBorrowCount() + ", opened " + getCreateCount()
+                + ", active " + getActiveCount() + ", idle " + getIdleCount() + ", waits " + getWaitCount() + " ("
+                + getWaitTime() + "ms), invalid " + getValidationFailureCount() + ", statement cache hits "
+                + getStatementCacheHits() + ", misses " + getStatementCacheMisses();
+    }
+}
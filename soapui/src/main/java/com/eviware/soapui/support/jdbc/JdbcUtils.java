@@ -17,8 +17,11 @@
 package com.eviware.soapui.support.jdbc;
 
 import com.eviware.soapui.SoapUI;
+import com.eviware.soapui.model.project.Project;
 import com.eviware.soapui.model.propertyexpansion.PropertyExpander;
 import com.eviware.soapui.model.propertyexpansion.PropertyExpansionContext;
+import com.eviware.soapui.model.support.ModelSupport;
+import com.eviware.soapui.settings.JdbcSettings;
 import com.eviware.soapui.support.GroovyUtils;
 import com.eviware.soapui.support.SoapUIException;
 import com.eviware.soapui.support.StringUtils;
@@ -39,13 +42,56 @@ public class JdbcUtils {
         }
         String drvr = PropertyExpander.expandProperties(context, driver).trim();
         String connStr = PropertyExpander.expandProperties(context, connectionString).trim();
-        String pass = StringUtils.hasContent(password) ? PropertyExpander.expandProperties(context, password).trim()
-                : "";
         String masskedPass = connStr.replace(PASS_TEMPLATE, "#####");
+        connStr = insertPassword(context, connStr, password);
+        registerDriver(drvr, connStr, masskedPass);
+        return DriverManager.getConnection(connStr);
+
+    }
+
+    /**
+     * Borrows a connection from the pool of the project the context belongs to,
+     * creating the pool if needed. The returned connection must be released
+     * after use. Falls back to an unpooled connection when pooling is disabled
+     * in the JDBC settings.
+     */
+
+    public static PooledJdbcConnection initPooledConnection(PropertyExpansionContext context, String driver,
+                                                            String connectionString, String password) throws SQLException, SoapUIException {
+        if (JdbcUtils.missingConnSettings(driver, connectionString)) {
+            throw new SoapUIException("Some connections settings are missing");
+        }
+        String drvr = PropertyExpander.expandProperties(context, driver).trim();
+        String connStr = PropertyExpander.expandProperties(context, connectionString).trim();
+        String masskedPass = connStr.replace(PASS_TEMPLATE, "#####");
+        connStr = insertPassword(context, connStr, password);
+
+        Project project = ModelSupport.getModelItemProject(context.getModelItem());
+        if (project == null || SoapUI.getSettings().getBoolean(JdbcSettings.DISABLE_CONNECTION_POOL, false)) {
+            registerDriver(drvr, connStr, masskedPass);
+            return new PooledJdbcConnection(null, DriverManager.getConnection(connStr), 0);
+        }
+
+        JdbcConnectionPool pool = JdbcConnectionPool.findPool(project, drvr, connStr);
+        if (pool == null) {
+            registerDriver(drvr, connStr, masskedPass);
+            pool = JdbcConnectionPool.getPool(project, drvr, connStr, masskedPass);
+        }
+
+        return pool.borrowConnection();
+    }
+
+    private static String insertPassword(PropertyExpansionContext context, String connStr, String password) {
         if (connStr.contains(PASS_TEMPLATE)) {
+            String pass = StringUtils.hasContent(password) ? PropertyExpander.expandProperties(context, password).trim()
+                    : "";
             pass = Matcher.quoteReplacement(pass);
             connStr = connStr.replaceFirst(PASS_TEMPLATE, pass);
         }
+        return connStr;
+    }
+
+    private static void registerDriver(String drvr, String connStr, String masskedPass) throws SoapUIException {
         try {
             GroovyUtils.registerJdbcDriver(drvr);
             DriverManager.getDriver(connStr);
@@ -59,8 +105,6 @@ public class JdbcUtils {
                         + masskedPass + "]");
             }
         }
-        return DriverManager.getConnection(connStr);
-
     }
 
     public static boolean hasMasskedPass(String connStr) {
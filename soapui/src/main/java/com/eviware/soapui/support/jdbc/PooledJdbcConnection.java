@@ -0,0 +1,215 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.support.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A database connection borrowed from a JdbcConnectionPool, caching the
+ * statements prepared on it. Must be released back to its pool after use;
+ * connections created without a pool are closed when released.
+ * <p/>
+ * The auto-commit, read-only, catalog and transaction isolation settings the
+ * connection was opened with are restored when it is returned to its pool.
+ */
+
+public class PooledJdbcConnection {
+    private final JdbcConnectionPool pool;
+    private final Connection connection;
+    private final Map<String, PreparedStatement> statements;
+    private final int statementCacheSize;
+    private long lastUsed;
+    private boolean initialStateKnown;
+    private boolean initialReadOnly;
+    private String initialCatalog;
+    private int initialTransactionIsolation;
+
+    PooledJdbcConnection(JdbcConnectionPool pool, Connection connection, final int statementCacheSize) {
+        this.pool = pool;
+        this.connection = connection;
+        this.statementCacheSize = statementCacheSize;
+
+        try {
+            initialReadOnly = connection.isReadOnly();
+            initialCatalog = connection.getCatalog();
+            initialTransactionIsolation = connection.getTransactionIsolation();
+            initialStateKnown = true;
+        } catch (SQLException e) {
+            JdbcConnectionPool.log.debug("Failed to read initial connection state", e);
+        }
+
+        statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > statementCacheSize) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+
+                return false;
+            }
+        };
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Returns a prepared statement for the specified sql, reusing a statement
+     * prepared earlier on this connection if available. Statements must be
+     * released with releaseStatement instead of being closed.
+     */
+
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement != null) {
+            try {
+                statement.clearParameters();
+                statement.clearWarnings();
+                statement.setMaxRows(0);
+                statement.setQueryTimeout(0);
+                statement.setFetchSize(0);
+
+                if (pool != null) {
+                    pool.statementCacheHit();
+                }
+                return statement;
+            } catch (SQLException e) {
+                statements.remove(sql);
+                closeQuietly(statement);
+            }
+        }
+
+        if (pool != null) {
+            pool.statementCacheMiss();
+        }
+
+        statement = connection.prepareStatement(sql);
+        if (statementCacheSize > 0) {
+            statements.put(sql, statement);
+        }
+
+        return statement;
+    }
+
+    /**
+     * Closes the statement unless it is kept in the statement cache
+     */
+
+    public void releaseStatement(PreparedStatement statement) {
+        if (!statements.containsValue(statement)) {
+            closeQuietly(statement);
+        }
+    }
+
+    /**
+     * Returns this connection to its pool, or closes it if it is not pooled
+     */
+
+    public void release() {
+        if (pool != null) {
+            pool.returnConnection(this);
+        } else {
+            close();
+        }
+    }
+
+    boolean isValid(int timeout) {
+        try {
+            return connection.isValid(timeout);
+        } catch (SQLFeatureNotSupportedException e) {
+            return isOpen();
+        } catch (AbstractMethodError e) {
+            // pre-JDBC4 driver
+            return isOpen();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    boolean reset() {
+        try {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+
+            if (initialStateKnown) {
+                if (connection.isReadOnly() != initialReadOnly) {
+                    connection.setReadOnly(initialReadOnly);
+                }
+
+                if (initialCatalog != null && !initialCatalog.equals(connection.getCatalog())) {
+                    connection.setCatalog(initialCatalog);
+                }
+
+                if (connection.getTransactionIsolation() != initialTransactionIsolation) {
+                    connection.setTransactionIsolation(initialTransactionIsolation);
+                }
+            }
+
+            connection.clearWarnings();
+            return isOpen();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    long getLastUsed() {
+        return lastUsed;
+    }
+
+    void setLastUsed(long lastUsed) {
+        this.lastUsed = lastUsed;
+    }
+
+    void close() {
+        for (PreparedStatement statement : statements.values()) {
+            closeQuietly(statement);
+        }
+
+        statements.clear();
+
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            JdbcConnectionPool.log.debug("Failed to close connection", e);
+        }
+    }
+
+    private boolean isOpen() {
+        try {
+            return !connection.isClosed();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            JdbcConnectionPool.log.debug("Failed to close statement", e);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.support.scripting.groovy;
+
+import groovy.lang.Binding;
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.GroovyCodeSource;
+import groovy.lang.GroovyShell;
+import groovy.lang.Script;
+import org.apache.log4j.Logger;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.runtime.InvokerHelper;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide cache of compiled Groovy script classes, keyed by parent
+ * classloader and script text, so script engines borrowed from different
+ * ScriptEnginePools compile the same script only once and only create new
+ * Script instances with their own Binding.
+ * <p/>
+ * Entries are reference counted by the engines using them and evicted when the
+ * last engine releases its script, i.e. when the script text changes or the
+ * engine is released. Each entry is compiled by its own GroovyClassLoader so
+ * evicted classes can be unloaded. Hit, miss and eviction counts are logged
+ * when the cache is cleared and, at debug level, when a script is compiled.
+ */
+
+public final class GroovyScriptClassCache {
+    private final static Logger log = Logger.getLogger(GroovyScriptClassCache.class);
+    private final static int MAX_CACHED_SCRIPTS = 1000;
+
+    private final static Map<Key, CompiledScript> scripts = new HashMap<Key, CompiledScript>();
+    private final static AtomicInteger scriptCounter = new AtomicInteger();
+    private final static AtomicLong hitCount = new AtomicLong();
+    private final static AtomicLong missCount = new AtomicLong();
+    private final static AtomicLong evictionCount = new AtomicLong();
+
+    private GroovyScriptClassCache() {
+    }
+
+    /**
+     * Returns the compiled script for the specified text, compiling it if no
+     * other engine has done so; the result must be passed to release when the
+     * caller no longer uses it
+     */
+
+    public static CompiledScript acquire(ClassLoader parentClassLoader, String scriptText) {
+        Key key = new Key(parentClassLoader, scriptText);
+        CompiledScript compiledScript;
+
+        synchronized (scripts) {
+            compiledScript = scripts.get(key);
+            if (compiledScript == null) {
+                if (scripts.size() >= MAX_CACHED_SCRIPTS) {
+                    evictionCount.addAndGet(scripts.size());
+                    scripts.clear();
+                    log.info("Cleared full Groovy script class cache; " + getStatistics());
+                }
+
+                compiledScript = new CompiledScript(key);
+                scripts.put(key, compiledScript);
+            }
+
+            compiledScript.references++;
+        }
+
+        try {
+            compiledScript.compile();
+        } catch (RuntimeException e) {
+            release(compiledScript);
+            throw e;
+        }
+
+        return compiledScript;
+    }
+
+    public static void release(CompiledScript compiledScript) {
+        synchronized (scripts) {
+            if (--compiledScript.references == 0 && scripts.get(compiledScript.key) == compiledScript) {
+                scripts.remove(compiledScript.key);
+                evictionCount.incrementAndGet();
+            }
+        }
+    }
+
+    public static void clear() {
+        synchronized (scripts) {
+            evictionCount.addAndGet(scripts.size());
+            scripts.clear();
+        }
+
+        log.info("Cleared Groovy script class cache; " + getStatistics());
+    }
+
+    public static int getSize() {
+        synchronized (scripts) {
+            return scripts.size();
+        }
+    }
+
+    public static long getHitCount() {
+        return hitCount.get();
+    }
+
+    public static long getMissCount() {
+        return missCount.get();
+    }
+
+    public static long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    private static String getStatistics() {
+        return "hits " + getHitCount() + ", misses " + getMissCount() + ", evictions " + getEvictionCount();
+    }
+
+    public static class CompiledScript {
+        private final Key key;
+        private Class<?> scriptClass;
+        private GroovyClassLoader classLoader;
+        private int references;
+
+        private CompiledScript(Key key) {
+            this.key = key;
+        }
+
+        private synchronized void compile() {
+            if (scriptClass != null) {
+                hitCount.incrementAndGet();
+                return;
+            }
+
+            missCount.incrementAndGet();
+
+            CompilerConfiguration config = new CompilerConfiguration();
+            config.setDebug(true);
+            config.setVerbose(true);
+
+            GroovyClassLoader classLoader = new GroovyClassLoader(key.parentClassLoader, config);
+            GroovyCodeSource codeSource = new GroovyCodeSource(key.scriptText, "Script"
+                    + scriptCounter.incrementAndGet() + ".groovy", GroovyShell.DEFAULT_CODE_BASE);
+
+            long startTime = System.nanoTime();
+            scriptClass = classLoader.parseClass(codeSource, false);
+            this.classLoader = classLoader;
+
+            if (log.isDebugEnabled()) {
+                log.debug("Compiled Groovy script in " + (System.nanoTime() - startTime) / 1000000 + "ms; "
+                        + getStatistics());
+            }
+        }
+
+        public synchronized GroovyClassLoader getClassLoader() {
+            return classLoader;
+        }
+
+        public String getScriptText() {
+            return key.scriptText;
+        }
+
+        public Script createScript(Binding binding) {
+            return InvokerHelper.createScript(scriptClass, binding);
+        }
+    }
+
+    private static class Key {
+        private final ClassLoader parentClassLoader;
+        private final String scriptText;
+
+        private Key(ClassLoader parentClassLoader, String scriptText) {
+            this.parentClassLoader = parentClassLoader;
+            this.scriptText = scriptText;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) obj;
+            return parentClassLoader == other.parentClassLoader && scriptText.equals(other.scriptText);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(parentClassLoader) + scriptText.hashCode();
+        }
+    }
+}
@@ -20,6 +20,7 @@ import com.eviware.soapui.SoapUIExtensionClassLoader;
 import com.eviware.soapui.SoapUIExtensionClassLoader.SoapUIClassLoaderState;
 import com.eviware.soapui.support.StringUtils;
 import com.eviware.soapui.support.scripting.SoapUIScriptEngine;
+import com.eviware.soapui.support.scripting.groovy.GroovyScriptClassCache.CompiledScript;
 import groovy.lang.Binding;
 import groovy.lang.GroovyClassLoader;
 import groovy.lang.GroovyShell;
@@ -27,26 +28,25 @@ import groovy.lang.Script;
 import org.codehaus.groovy.control.CompilerConfiguration;
 
 /**
- * A Groovy ScriptEngine
+ * A Groovy ScriptEngine; compiled script classes are shared with other engines
+ * through the GroovyScriptClassCache
  *
  * @author ole.matzura
  */
 
 public class SoapUIGroovyScriptEngine implements SoapUIScriptEngine {
-    private GroovyClassLoader classLoader;
-    private GroovyShell shell;
+    private ClassLoader parentClassLoader;
+    private CompiledScript compiledScript;
     private Binding binding;
     private Script script;
     private String scriptText;
+    private GroovyClassLoader classLoader;
+    private GroovyShell shell;
     protected ScriptSaver saver = new ScriptSaver();
 
     public SoapUIGroovyScriptEngine(ClassLoader parentClassLoader) {
-        classLoader = new GroovyClassLoader(parentClassLoader);
+        this.parentClassLoader = parentClassLoader;
         binding = new Binding();
-        CompilerConfiguration config = new CompilerConfiguration();
-        config.setDebug(true);
-        config.setVerbose(true);
-        shell = new GroovyShell(classLoader, binding, config);
     }
 
     protected class ScriptSaver {
@@ -104,14 +104,10 @@ public class SoapUIGroovyScriptEngine implements SoapUIScriptEngine {
         if (script != null) {
             script.setBinding(null);
             script = null;
-
-            if (shell != null) {
-                shell.resetLoadedClasses();
-            }
-
-            classLoader.clearCache();
         }
 
+        releaseCompiledScript();
+
         this.scriptText = scriptText;
     }
 
@@ -133,8 +129,11 @@ public class SoapUIGroovyScriptEngine implements SoapUIScriptEngine {
         if (script == null) {
             SoapUIClassLoaderState state = SoapUIExtensionClassLoader.ensure();
             try {
-                script = shell.parse(scriptText);
-                script.setBinding(binding);
+                if (compiledScript == null) {
+                    compiledScript = GroovyScriptClassCache.acquire(parentClassLoader, scriptText);
+                }
+
+                script = compiledScript.createScript(binding);
             } finally {
                 state.restore();
             }
@@ -153,15 +152,21 @@ public class SoapUIGroovyScriptEngine implements SoapUIScriptEngine {
 
     public synchronized void release() {
         script = null;
+        shell = null;
+        classLoader = null;
 
         if (binding != null) {
             binding.getVariables().clear();
             binding = null;
         }
 
-        if (shell != null) {
-            shell.resetLoadedClasses();
-            shell = null;
+        releaseCompiledScript();
+    }
+
+    private void releaseCompiledScript() {
+        if (compiledScript != null) {
+            GroovyScriptClassCache.release(compiledScript);
+            compiledScript = null;
         }
     }
 
@@ -169,7 +174,28 @@ public class SoapUIGroovyScriptEngine implements SoapUIScriptEngine {
         return binding;
     }
 
-    protected GroovyClassLoader getClassLoader() {
+    protected ClassLoader getParentClassLoader() {
+        return parentClassLoader;
+    }
+
+    /**
+     * Returns the classloader that compiled the current script, or a
+     * classloader of this engine if the script has not been compiled
+     *
+     * @deprecated scripts are compiled by the GroovyScriptClassCache; use
+     *             getParentClassLoader instead
+     */
+
+    @Deprecated
+    protected synchronized GroovyClassLoader getClassLoader() {
+        if (compiledScript != null && compiledScript.getClassLoader() != null) {
+            return compiledScript.getClassLoader();
+        }
+
+        if (classLoader == null) {
+            classLoader = new GroovyClassLoader(parentClassLoader);
+        }
+
         return classLoader;
     }
 
@@ -181,7 +207,26 @@ public class SoapUIGroovyScriptEngine implements SoapUIScriptEngine {
         return scriptText;
     }
 
-    protected GroovyShell getShell() {
+    /**
+     * Returns a shell evaluating scripts with the binding of this engine
+     *
+     * @deprecated scripts are compiled by the GroovyScriptClassCache; the shell
+     *             compiles every script it evaluates again
+     */
+
+    @Deprecated
+    protected synchronized GroovyShell getShell() {
+        if (shell == null) {
+            if (classLoader == null) {
+                classLoader = new GroovyClassLoader(parentClassLoader);
+            }
+
+            CompilerConfiguration config = new CompilerConfiguration();
+            config.setDebug(true);
+            config.setVerbose(true);
+            shell = new GroovyShell(classLoader, binding, config);
+        }
+
         return shell;
     }
 }
@@ -0,0 +1,153 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.support.xml;
+
+import com.eviware.soapui.support.BoundedCache;
+import org.apache.xmlbeans.XmlException;
+import org.apache.xmlbeans.XmlObject;
+import org.apache.xmlbeans.XmlOptions;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Cache of parsed message contents, so that the assertions, validations and
+ * property transfers applied to the same response parse it only once.
+ * <p/>
+ * Entries are held in a concurrent map with weak keys compared by identity of
+ * the content string, so they are dropped together with the message exchange
+ * or property holding the content and threads of a LoadTest do not wait for
+ * each other when looking up their own responses.
+ * <p/>
+ * Returned objects are shared and must not be modified; callers that change
+ * the parsed document have to use XmlUtils.createXmlObject instead.
+ */
+
+public final class XmlObjectCache {
+    private final static int MAX_CACHED_CONTENTS = 1024;
+
+    private final static int DEFAULT = 0;
+    private final static int STRIP_COMMENTS = 1;
+    private final static int LINE_NUMBERS = 2;
+
+    private final static BoundedCache<String, CachedContent> contents = BoundedCache
+            .createWeakKeyed(MAX_CACHED_CONTENTS);
+
+    private final static AtomicLong hitCount = new AtomicLong();
+    private final static AtomicLong missCount = new AtomicLong();
+
+    private XmlObjectCache() {
+    }
+
+    public static XmlObject getXmlObject(String content) throws XmlException {
+        return getXmlObject(content, DEFAULT);
+    }
+
+    public static XmlObject getXmlObject(String content, boolean stripComments) throws XmlException {
+        return getXmlObject(content, stripComments ? STRIP_COMMENTS : DEFAULT);
+    }
+
+    /**
+     * Returns the content parsed with line numbers of start and end elements,
+     * as used when validating messages
+     */
+
+    public static XmlObject getXmlObjectWithLineNumbers(String content) throws XmlException {
+        return getXmlObject(content, LINE_NUMBERS);
+    }
+
+    private static XmlObject getXmlObject(String content, int options) throws XmlException {
+        if (content == null) {
+            return XmlUtils.createXmlObject(content, createXmlOptions(options));
+        }
+
+        CachedContent cachedContent = getCachedContent(content);
+        XmlObject xmlObject = cachedContent.documents.get(options);
+        if (xmlObject != null) {
+            hitCount.incrementAndGet();
+            return xmlObject;
+        }
+
+        missCount.incrementAndGet();
+        xmlObject = XmlUtils.createXmlObject(content, createXmlOptions(options));
+
+        // keep the document parsed first if another thread parsed the same content
+        if (!cachedContent.documents.compareAndSet(options, null, xmlObject)) {
+            xmlObject = cachedContent.documents.get(options);
+        }
+
+        return xmlObject;
+    }
+
+    /**
+     * Returns the XPath namespace declarations for all namespaces in the
+     * content, as created by XmlUtils.declareXPathNamespaces
+     */
+
+    public static String getXPathNamespaceDeclarations(String content) throws XmlException {
+        CachedContent cachedContent = getCachedContent(content);
+        String namespaces = cachedContent.namespaces;
+        if (namespaces == null) {
+            namespaces = XmlUtils.declareXPathNamespaces(getXmlObject(content));
+            cachedContent.namespaces = namespaces;
+        }
+
+        return namespaces;
+    }
+
+    private static CachedContent getCachedContent(String content) {
+        CachedContent cachedContent = contents.get(content);
+        if (cachedContent == null) {
+            cachedContent = contents.putIfAbsent(content, new CachedContent());
+        }
+
+        return cachedContent;
+    }
+
+    private static XmlOptions createXmlOptions(int options) {
+        XmlOptions xmlOptions = new XmlOptions();
+
+        if (options == STRIP_COMMENTS) {
+            xmlOptions.setLoadStripComments();
+        } else if (options == LINE_NUMBERS) {
+            xmlOptions.setLoadLineNumbers(XmlOptions.LOAD_LINE_NUMBERS_END_ELEMENT);
+        }
+
+        return xmlOptions;
+    }
+
+    public static void clear() {
+        contents.clear();
+    }
+
+    public static int getSize() {
+        return (int) contents.getSize();
+    }
+
+    public static long getHitCount() {
+        return hitCount.get();
+    }
+
+    public static long getMissCount() {
+        return missCount.get();
+    }
+
+    private final static class CachedContent {
+        private final AtomicReferenceArray<XmlObject> documents = new AtomicReferenceArray<XmlObject>(3);
+        private volatile String namespaces;
+    }
+}
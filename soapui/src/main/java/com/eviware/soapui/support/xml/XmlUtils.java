@@ -573,14 +573,28 @@ public final class XmlUtils {
         return declareXPathNamespaces(XmlObject.Factory.parse(xmlString));
     }
 
-    public static synchronized String prettyPrintXml(String xml) {
+    /**
+     * Pretty-prints the specified xml, returning it unchanged if it is not xml.
+     * The xml is only parsed once and no lock is held, so callers on different
+     * threads (for example XML views of REST responses in a load test) do not
+     * wait for each other.
+     */
+
+    public static String prettyPrintXml(String xml) {
+        if (StringUtils.isNullOrEmpty(xml)) {
+            return xml;
+        }
+
+        XmlObject xmlObject;
         try {
-            if (!XmlUtils.seemsToBeXml(xml)) {
-                return xml;
-            }
+            xmlObject = XmlObject.Factory.parse(xml);
+        } catch (Exception e) {
+            return xml;
+        }
 
+        try {
             StringWriter writer = new StringWriter();
-            XmlUtils.serializePretty(XmlObject.Factory.parse(xml), writer);
+            XmlUtils.serializePretty(xmlObject, writer);
             return writer.toString();
         } catch (Exception e) {
             log.warn("Failed to prettyPrint xml [" + xml + "]: " + e);
@@ -588,7 +602,7 @@ public final class XmlUtils {
         }
     }
 
-    public static synchronized String prettyPrintXml(XmlObject xml) {
+    public static String prettyPrintXml(XmlObject xml) {
         if (xml == null) {
             return null;
         }
@@ -48,6 +48,7 @@ import com.eviware.soapui.model.testsuite.TestStepResult;
 import com.eviware.soapui.model.testsuite.TestStepResult.TestStepStatus;
 import com.eviware.soapui.model.testsuite.TestSuite;
 import com.eviware.soapui.model.testsuite.TestSuiteRunner;
+import com.eviware.soapui.report.AsyncReportWriter;
 import com.eviware.soapui.report.JUnitReportCollector;
 import com.eviware.soapui.report.JUnitSecurityReportCollector;
 import com.eviware.soapui.report.TestCaseRunLogReport;
@@ -63,6 +64,7 @@ import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -102,6 +104,7 @@ public class SoapUITestCaseRunner extends AbstractSoapUITestRunner {
     private int exportCount;
     private int maxErrors = 5;
     private JUnitReportCollector reportCollector;
+    private AsyncReportWriter reportWriter;
     private String projectPassword;
     private boolean saveAfterRun;
     private TestCaseRunLogReport testCaseRunLogReport;
@@ -380,6 +383,11 @@ public class SoapUITestCaseRunner extends AbstractSoapUITestRunner {
             }
         }
 
+        reportWriter = new AsyncReportWriter();
+        if (junitReport) {
+            reportCollector.setReportWriter(reportWriter);
+        }
+
         try {
             // validate testSuite argument
             if (testCase != null && testCasesToRun.size() == 0) {
@@ -430,6 +438,9 @@ public class SoapUITestCaseRunner extends AbstractSoapUITestRunner {
 
             return true;
         } finally {
+            reportWriter.close();
+            reportWriter = null;
+
             for (int c = 0; c < project.getTestSuiteCount(); c++) {
                 TestSuite suite = project.getTestSuiteAt(c);
                 for (int i = 0; i < suite.getTestCaseCount(); i++) {
@@ -671,11 +682,14 @@ public class SoapUITestCaseRunner extends AbstractSoapUITestRunner {
                     log.error(currentStep.getName() + " failed, exporting to [" + fileName + "]");
                 }
 
-                new File(fileName).getParentFile().mkdirs();
+                // read the result here, since it may be discarded after this step
+                Map<String, byte[]> files = new LinkedHashMap<String, byte[]>();
 
-                PrintWriter writer = new PrintWriter(fileName);
+                StringWriter stringWriter = new StringWriter();
+                PrintWriter writer = new PrintWriter(stringWriter);
                 result.writeTo(writer);
-                writer.close();
+                writer.flush();
+                files.put(fileName, stringWriter.toString().getBytes());
 
                 // write attachments
                 if (result instanceof MessageExchange) {
@@ -694,14 +708,12 @@ public class SoapUITestCaseRunner extends AbstractSoapUITestRunner {
                             }
 
                             fileName = absoluteOutputFolder + File.separator + fileName;
-
-                            FileOutputStream outFile = new FileOutputStream(fileName);
-                            Tools.writeAll(outFile, attachment.getInputStream());
-                            outFile.close();
+                            files.put(fileName, Tools.readAll(attachment.getInputStream(), 0).toByteArray());
                         }
                     }
                 }
 
+                writeExportFiles(files);
                 exportCount++;
             } catch (Exception e) {
                 log.error("Error saving failed result: " + e, e);
@@ -712,6 +724,34 @@ public class SoapUITestCaseRunner extends AbstractSoapUITestRunner {
 
     }
 
+    /**
+     * Writes the specified exported files on the report writer thread, or
+     * directly if no tests are being run by this runner
+     */
+
+    private void writeExportFiles(final Map<String, byte[]> files) throws Exception {
+        AsyncReportWriter.Task task = new AsyncReportWriter.Task() {
+            public void write() throws Exception {
+                for (Map.Entry<String, byte[]> file : files.entrySet()) {
+                    new File(file.getKey()).getParentFile().mkdirs();
+
+                    FileOutputStream out = new FileOutputStream(file.getKey());
+                    try {
+                        out.write(file.getValue());
+                    } finally {
+                        out.close();
+                    }
+                }
+            }
+        };
+
+        if (reportWriter == null) {
+            task.write();
+        } else {
+            reportWriter.submit(task);
+        }
+    }
+
     @Override
     public void afterRun(TestCaseRunner testRunner, TestCaseRunContext runContext) {
         log.info("Finished running SoapUI testcase [" + testRunner.getTestCase().getName() + "], time taken: "
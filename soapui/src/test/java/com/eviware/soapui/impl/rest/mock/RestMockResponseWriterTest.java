@@ -29,6 +29,7 @@ import javax.servlet.http.HttpServletResponse;
 import static com.eviware.soapui.utils.MockedServlet.mockHttpServletRequest;
 import static com.eviware.soapui.utils.MockedServlet.mockHttpServletResponse;
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.anyString;
@@ -78,6 +79,24 @@ public class RestMockResponseWriterTest {
         verify(servletResponse).setStatus(HttpStatus.SC_CONFLICT);
     }
 
+    @Test
+    public void reusesRenderedDataForSameContent() throws Exception {
+        mockResponse.writeResponse(result, originalResponseContent);
+        MockResult otherResult = createMockResult();
+        mockResponse.writeResponse(otherResult, new String(originalResponseContent));
+
+        assertThat(otherResult.getRawResponseData(), is(sameInstance(result.getRawResponseData())));
+    }
+
+    @Test
+    public void rendersChangedContentAgain() throws Exception {
+        mockResponse.writeResponse(result, originalResponseContent);
+        MockResult otherResult = createMockResult();
+        mockResponse.writeResponse(otherResult, "<content>other content</content>");
+
+        assertThat(new String(otherResult.getRawResponseData()), is("<content>other content</content>"));
+    }
+
     public MockResult createMockResult() throws Exception {
         WsdlMockRunContext runContext = mock(WsdlMockRunContext.class);
         return new RestMockResult(createMockRequest(runContext));
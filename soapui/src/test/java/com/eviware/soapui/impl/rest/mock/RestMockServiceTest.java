@@ -176,6 +176,46 @@ public class RestMockServiceTest {
         assertThat(matchingAction, is(nullValue()));
     }
 
+    @Test
+    public void shouldFindOperationMatchingPathTemplate() throws SoapUIException {
+        RestMockAction restMockAction = restMockService.addEmptyMockAction(GET, PATH + "/{id}/items");
+
+        RestMockAction matchingAction = (RestMockAction) restMockService.findBestMatchedOperation(PATH + "/123/items", GET);
+
+        assertThat(matchingAction, is(restMockAction));
+    }
+
+    @Test
+    public void shouldPreferLiteralSegmentsOverPathTemplate() throws SoapUIException {
+        restMockService.addEmptyMockAction(GET, PATH + "/{id}");
+        RestMockAction restMockAction = restMockService.addEmptyMockAction(GET, PATH + "/latest");
+
+        RestMockAction matchingAction = (RestMockAction) restMockService.findBestMatchedOperation(PATH + "/latest", GET);
+
+        assertThat(matchingAction, is(restMockAction));
+    }
+
+    @Test
+    public void shouldFindPartiallyMatchingOperationWithPathTemplate() throws SoapUIException {
+        restMockService.addEmptyMockAction(GET, PATH);
+        RestMockAction restMockAction = restMockService.addEmptyMockAction(GET, PATH + "/{id}");
+
+        RestMockAction matchingAction = (RestMockAction) restMockService.findBestMatchedOperation(PATH + "/123/details", GET);
+
+        assertThat(matchingAction, is(restMockAction));
+    }
+
+    @Test
+    public void shouldFindOperationAfterResourcePathChanged() throws SoapUIException {
+        RestMockAction restMockAction = restMockService.addEmptyMockAction(GET, PATH);
+        restMockService.findBestMatchedOperation(PATH, GET);
+
+        restMockAction.setResourcePath("/anotherPath");
+
+        assertThat(restMockService.findBestMatchedOperation(PATH, GET), is(nullValue()));
+        assertThat((RestMockAction) restMockService.findBestMatchedOperation("/anotherPath", GET), is(restMockAction));
+    }
+
     @Test
     public void shouldSetPort() {
         restMockService.setPort(1234);
@@ -0,0 +1,63 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.impl.support.definition.support;
+
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class DefinitionLoadPoolTest {
+    @Test
+    public void runsTaskThatHasNotStartedOnCallingThread() throws Exception {
+        FutureTask<Thread> task = new FutureTask<Thread>(new Callable<Thread>() {
+            public Thread call() throws Exception {
+                return Thread.currentThread();
+            }
+        });
+
+        assertThat(DefinitionLoadPool.await(task), is(Thread.currentThread()));
+    }
+
+    @Test
+    public void returnsResultOfTaskStartedOnPool() throws Exception {
+        FutureTask<String> task = new FutureTask<String>(new Callable<String>() {
+            public String call() throws Exception {
+                return Thread.currentThread().getName();
+            }
+        });
+
+        DefinitionLoadPool.execute(task);
+        task.get();
+
+        assertThat(DefinitionLoadPool.await(task).startsWith("Definition Loader"), is(true));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rethrowsCauseOfFailedTask() throws Exception {
+        FutureTask<String> task = new FutureTask<String>(new Callable<String>() {
+            public String call() throws Exception {
+                throw new IllegalStateException("failed");
+            }
+        });
+
+        DefinitionLoadPool.await(task);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest;
+
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class LoadTestExecutorsTest {
+
+    @Test
+    public void threadPoolEngineUsesSharedPool() {
+        assertThat(LoadTestExecutors.createExecutor(LoadTestExecutors.THREAD_POOL, "test"), is(nullValue()));
+        assertThat(LoadTestExecutors.createExecutor(null, "test"), is(nullValue()));
+    }
+
+    @Test
+    public void lightweightEngineRunsMoreUsersThanSharedPoolSize() throws Exception {
+        ExecutorService executor = LoadTestExecutors.createExecutor(LoadTestExecutors.LIGHTWEIGHT_THREADS, "test");
+        try {
+            final int users = 500;
+            final CountDownLatch started = new CountDownLatch(users);
+            final CountDownLatch release = new CountDownLatch(1);
+
+            for (int c = 0; c < users; c++) {
+                executor.submit(new Callable<Object>() {
+                    public Object call() throws Exception {
+                        started.countDown();
+                        release.await();
+                        return null;
+                    }
+                });
+            }
+
+            assertTrue(started.await(30, TimeUnit.SECONDS));
+            release.countDown();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void lightweightThreadsAreNamedAfterLoadTest() throws Exception {
+        ExecutorService executor = LoadTestExecutors.createExecutor(LoadTestExecutors.LIGHTWEIGHT_THREADS, "LoadTest 1");
+        try {
+            Future<String> name = executor.submit(new Callable<String>() {
+                public String call() {
+                    return Thread.currentThread().getName();
+                }
+            });
+
+            assertTrue(name.get().startsWith("LoadTest 1 "));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest;
+
+import com.eviware.soapui.config.TestCaseConfig;
+import com.eviware.soapui.impl.wsdl.WsdlProject;
+import com.eviware.soapui.impl.wsdl.WsdlTestSuite;
+import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
+import com.eviware.soapui.impl.wsdl.teststeps.WsdlGroovyScriptTestStep;
+import com.eviware.soapui.impl.wsdl.teststeps.WsdlPropertiesTestStep;
+import com.eviware.soapui.impl.wsdl.teststeps.registry.GroovyScriptStepFactory;
+import com.eviware.soapui.impl.wsdl.teststeps.registry.PropertiesStepFactory;
+import com.eviware.soapui.model.testsuite.TestCaseRunContext;
+import com.eviware.soapui.model.testsuite.TestCaseRunner;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class TestCaseSnapshotTest {
+    private WsdlTestCase copy;
+
+    @Before
+    public void setUp() throws Exception {
+        WsdlProject project = new WsdlProject();
+        WsdlTestSuite testSuite = project.addNewTestSuite("TestSuite");
+        WsdlTestCase testCase = testSuite.addNewTestCase("TestCase");
+        testCase.addProperty("user").setValue("initial");
+
+        WsdlPropertiesTestStep testStep = (WsdlPropertiesTestStep) testCase.addTestStep(
+                PropertiesStepFactory.PROPERTIES_TYPE, "Properties");
+        testStep.addProperty("token").setValue("none");
+
+        WsdlGroovyScriptTestStep scriptStep = (WsdlGroovyScriptTestStep) testCase.addTestStep(
+                GroovyScriptStepFactory.GROOVY_TYPE, "Groovy");
+        scriptStep.setScript("@groovy.transform.Field int runs = 0\nruns++\nreturn runs");
+
+        copy = testSuite.buildTestCase((TestCaseConfig) testCase.getConfig().copy(), true);
+        copy.afterLoad();
+    }
+
+    @Test
+    public void recycledCopyStartsWithInitialValues() {
+        TestCaseSnapshot snapshot = new TestCaseSnapshot(copy);
+
+        // values left behind by a finished virtual user
+        copy.setPropertyValue("user", "virtual user 1");
+        copy.addProperty("added").setValue("by script");
+        WsdlPropertiesTestStep testStep = (WsdlPropertiesTestStep) copy.getTestStepByName("Properties");
+        testStep.setPropertyValue("token", "abc");
+        testStep.removeProperty("token");
+        testStep.addProperty("session").setValue("123");
+
+        snapshot.restore(copy);
+
+        assertThat(copy.getPropertyValue("user"), is("initial"));
+        assertFalse(copy.hasProperty("added"));
+        assertThat(testStep.getPropertyValue("token"), is("none"));
+        assertFalse(testStep.hasProperty("session"));
+    }
+
+    @Test
+    public void recycledCopyGetsNewGroovyScriptEngines() {
+        TestCaseSnapshot snapshot = new TestCaseSnapshot(copy);
+        WsdlGroovyScriptTestStep scriptStep = (WsdlGroovyScriptTestStep) copy.getTestStepByName("Groovy");
+        TestCaseRunner testRunner = mock(TestCaseRunner.class);
+        TestCaseRunContext context = mock(TestCaseRunContext.class);
+
+        scriptStep.run(testRunner, context);
+        scriptStep.run(testRunner, context);
+        assertThat(scriptStep.getPropertyValue("result"), is("2"));
+
+        snapshot.restore(copy);
+        scriptStep.run(testRunner, context);
+
+        assertThat(scriptStep.getPropertyValue("result"), is("1"));
+    }
+
+    @Test
+    public void restoreKeepsUnchangedValues() {
+        TestCaseSnapshot snapshot = new TestCaseSnapshot(copy);
+        snapshot.restore(copy);
+
+        assertThat(copy.getPropertyValue("user"), is("initial"));
+        assertThat(copy.getTestStepByName("Properties").getPropertyValue("token"), is("none"));
+    }
+}
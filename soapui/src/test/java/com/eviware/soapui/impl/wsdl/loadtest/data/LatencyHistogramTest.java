@@ -0,0 +1,144 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void returnsZeroWhenEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertThat(histogram.getTotalCount(), is(0L));
+        assertThat(histogram.getValueAtPercentile(99), is(0L));
+    }
+
+    @Test
+    public void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int c = 1; c <= 100; c++) {
+            histogram.record(c);
+        }
+
+        assertThat(histogram.getValueAtPercentile(50), is(50L));
+        assertThat(histogram.getValueAtPercentile(90), is(90L));
+        assertThat(histogram.getValueAtPercentile(100), is(100L));
+    }
+
+    @Test
+    public void largeValuesAreWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int c = 1; c <= 100000; c++) {
+            histogram.record(c);
+        }
+
+        long[] values = new long[4];
+        histogram.getValuesAtPercentiles(new double[]{50, 90, 99, 99.9}, values);
+
+        assertWithinPrecision(values[0], 50000);
+        assertWithinPrecision(values[1], 90000);
+        assertWithinPrecision(values[2], 99000);
+        assertWithinPrecision(values[3], 99900);
+        assertThat(histogram.getTotalCount(), is(100000L));
+    }
+
+    @Test
+    public void percentileIsCappedAtMaxValue() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1000);
+
+        assertThat(histogram.getValueAtPercentile(100), is(1000L));
+        assertThat(histogram.getMaxValue(), is(1000L));
+    }
+
+    @Test
+    public void resetClearsAllValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(5000);
+        histogram.reset();
+
+        assertThat(histogram.getTotalCount(), is(0L));
+        assertThat(histogram.getMaxValue(), is(0L));
+    }
+
+    @Test
+    public void mergesValuesRecordedByDifferentThreads() throws InterruptedException {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[8];
+        for (int c = 0; c < threads.length; c++) {
+            final long value = (c + 1) * 10;
+            threads[c] = new Thread(new Runnable() {
+                public void run() {
+                    for (int i = 0; i < 1000; i++) {
+                        histogram.record(value);
+                    }
+                }
+            });
+            threads[c].start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(histogram.getTotalCount(), is(8000L));
+        assertThat(histogram.getMaxValue(), is(80L));
+        assertThat(histogram.getValueAtPercentile(50), is(40L));
+    }
+
+    @Test
+    public void calculatesPercentilesOfCountDifference() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int c = 0; c < 100; c++) {
+            histogram.record(1000);
+        }
+
+        long[] before = histogram.getCounts();
+        for (int c = 0; c < 100; c++) {
+            histogram.record(10);
+        }
+
+        long[] counts = histogram.getCounts();
+        for (int c = 0; c < counts.length; c++) {
+            counts[c] -= before[c];
+        }
+
+        long[] values = new long[1];
+        LatencyHistogram.getValuesAtPercentiles(counts, histogram.getMaxValue(), new double[]{99}, values);
+
+        assertThat(values[0], is(10L));
+        assertThat(histogram.getValueAtPercentile(99), is(1000L));
+    }
+
+    @Test
+    public void bucketsCoverAllValues() {
+        for (long value = 0; value < 10000000; value += 13) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(LatencyHistogram.highestEquivalentValue(index) >= value);
+            assertTrue(index == 0 || LatencyHistogram.highestEquivalentValue(index - 1) < value);
+        }
+    }
+
+    private static void assertWithinPrecision(long actual, long expected) {
+        assertTrue("Expected " + expected + " but was " + actual, Math.abs(actual - expected) <= expected / 64);
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import com.eviware.soapui.impl.wsdl.WsdlProject;
+import com.eviware.soapui.impl.wsdl.loadtest.data.LoadTestStatistics.Statistic;
+import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
+import com.eviware.soapui.impl.wsdl.teststeps.registry.PropertiesStepFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class LoadTestStatisticsTest {
+    private LoadTestStatistics statistics;
+
+    @Before
+    public void setUp() throws Exception {
+        WsdlProject project = new WsdlProject();
+        WsdlTestCase testCase = project.addNewTestSuite("TestSuite").addNewTestCase("TestCase");
+        testCase.addTestStep(PropertiesStepFactory.PROPERTIES_TYPE, "Properties");
+
+        statistics = testCase.addNewLoadTest("LoadTest").getStatisticsModel();
+        statistics.start();
+    }
+
+    @After
+    public void tearDown() {
+        statistics.stop();
+    }
+
+    @Test
+    public void mergesStripesOfAllThreads() {
+        LoadTestStatisticsStripe stripe = statistics.createStripe();
+        LoadTestStatisticsStripe otherStripe = statistics.createStripe();
+
+        stripe.addStepSample(0, 100, 10, System.currentTimeMillis());
+        otherStripe.addStepSample(0, 300, 10, System.currentTimeMillis());
+        statistics.refresh();
+
+        assertThat(statistics.getStatistic(0, Statistic.COUNT), is(2L));
+        assertThat(statistics.getStatistic(0, Statistic.MININMUM), is(100L));
+        assertThat(statistics.getStatistic(0, Statistic.MAXIMUM), is(300L));
+        assertThat(statistics.getStatistic(0, Statistic.BYTES), is(20L));
+    }
+
+    @Test
+    public void keepsValuesOfReleasedStripes() {
+        LoadTestStatisticsStripe stripe = statistics.createStripe();
+        stripe.addStepSample(0, 100, 10, System.currentTimeMillis());
+
+        statistics.releaseStripe(stripe);
+        statistics.releaseStripe(stripe);
+        statistics.refresh();
+
+        assertThat(statistics.getStatistic(0, Statistic.COUNT), is(1L));
+        assertThat(statistics.getStatistic(0, Statistic.MAXIMUM), is(100L));
+    }
+
+    @Test
+    public void keepsRecordingIntoStripesAfterReset() {
+        LoadTestStatisticsStripe stripe = statistics.createStripe();
+        stripe.addStepSample(0, 500, 10, System.currentTimeMillis());
+        statistics.refresh();
+
+        statistics.reset();
+        statistics.refresh();
+        assertThat(statistics.getStatistic(0, Statistic.COUNT), is(0L));
+
+        // the stripe created before the reset is still merged
+        stripe.addStepSample(0, 100, 10, System.currentTimeMillis());
+        statistics.refresh();
+        assertThat(statistics.getStatistic(0, Statistic.COUNT), is(1L));
+        assertThat(statistics.getStatistic(0, Statistic.MAXIMUM), is(100L));
+
+        statistics.releaseStripe(stripe);
+        statistics.refresh();
+        assertThat(statistics.getStatistic(0, Statistic.COUNT), is(1L));
+    }
+
+    @Test
+    public void leavesOutStripesNotWrittenSinceReset() {
+        LoadTestStatisticsStripe stripe = statistics.createStripe();
+        stripe.addStepSample(0, 500, 10, System.currentTimeMillis());
+
+        statistics.reset();
+        statistics.releaseStripe(stripe);
+        statistics.refresh();
+
+        assertThat(statistics.getStatistic(0, Statistic.COUNT), is(0L));
+        assertThat(statistics.getStatistic(0, Statistic.MAXIMUM), is(0L));
+    }
+}
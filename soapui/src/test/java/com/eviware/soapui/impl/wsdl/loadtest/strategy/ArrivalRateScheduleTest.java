@@ -0,0 +1,66 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.strategy;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class ArrivalRateScheduleTest {
+
+    @Test
+    public void constantRateSpacesArrivalsEvenly() {
+        ArrivalRateSchedule schedule = new ArrivalRateSchedule(10, 10, 0);
+
+        assertThat(schedule.getArrivalTime(0), is(0L));
+        assertThat(schedule.getArrivalTime(1), is(100L));
+        assertThat(schedule.getArrivalTime(50), is(5000L));
+    }
+
+    @Test
+    public void rampIncreasesRateLinearly() {
+        ArrivalRateSchedule schedule = new ArrivalRateSchedule(0, 10, 10000);
+
+        // 50 arrivals during the ramp, then 10 per second
+        assertThat(schedule.getArrivalTime(50), is(10000L));
+        assertThat(schedule.getArrivalTime(60), is(11000L));
+        assertTrue(schedule.getArrivalTime(1) > 10 * (schedule.getArrivalTime(49) - schedule.getArrivalTime(48)));
+        assertThat(schedule.getRate(5000), is(5.0));
+    }
+
+    @Test
+    public void arrivalTimesNeverDecrease() {
+        ArrivalRateSchedule schedule = new ArrivalRateSchedule(20, 2, 5000);
+
+        long last = 0;
+        for (int c = 0; c < 200; c++) {
+            long time = schedule.getArrivalTime(c);
+            assertTrue(time >= last);
+            last = time;
+        }
+    }
+
+    @Test
+    public void zeroTargetRateStopsArrivalsAfterRamp() {
+        ArrivalRateSchedule schedule = new ArrivalRateSchedule(10, 0, 2000);
+
+        assertTrue(schedule.getArrivalTime(9) < 2000);
+        assertThat(schedule.getArrivalTime(10), is(ArrivalRateSchedule.NEVER));
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software 
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.impl.wsdl.mock;
+
+import com.eviware.soapui.impl.wsdl.WsdlInterface;
+import com.eviware.soapui.impl.wsdl.WsdlOperation;
+import com.eviware.soapui.model.iface.InterfaceListener;
+import com.eviware.soapui.model.mock.MockServiceListener;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import javax.xml.namespace.QName;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WsdlMockOperationIndexTest {
+    private static final QName REQUEST_A = new QName("urn:test", "requestA");
+    private static final QName REQUEST_B = new QName("urn:test", "requestB");
+
+    WsdlMockService mockService;
+    WsdlInterface iface;
+    WsdlOperation operationA;
+    WsdlOperation operationB;
+    WsdlMockOperation mockOperationA;
+    WsdlMockOperation mockOperationB;
+    WsdlMockOperationIndex index;
+
+    @Before
+    public void setUp() throws Exception {
+        mockService = mock(WsdlMockService.class);
+        iface = mock(WsdlInterface.class);
+        operationA = makeOperation(REQUEST_A);
+        operationB = makeOperation(REQUEST_B);
+        mockOperationA = makeMockOperation(operationA);
+        mockOperationB = makeMockOperation(operationB);
+        setMockOperations(mockOperationA, mockOperationB);
+
+        index = new WsdlMockOperationIndex(mockService);
+    }
+
+    @Test
+    public void indexesOperationsByRequestBodyElement() throws Exception {
+        assertThat(index.getOperations(REQUEST_A), is(Arrays.asList(operationA)));
+        assertThat(index.getOperations(REQUEST_B), is(Arrays.asList(operationB)));
+        assertThat(index.getOperations(), is(Arrays.asList(operationA, operationB)));
+        assertThat(index.getMockOperation(operationB), is(mockOperationB));
+    }
+
+    @Test
+    public void keepsIndexUntilInvalidated() throws Exception {
+        index.getOperations();
+        when(operationA.getRequestBodyElementQName()).thenReturn(REQUEST_B);
+
+        assertThat(index.getOperations(REQUEST_A), is(Arrays.asList(operationA)));
+
+        index.invalidate();
+
+        assertThat(index.getOperations(REQUEST_B), is(Arrays.asList(operationA, operationB)));
+    }
+
+    @Test
+    public void matchesUnindexedOperationsAgainstAllRequests() throws Exception {
+        WsdlOperation operationC = mock(WsdlOperation.class);
+        when(operationC.getInterface()).thenReturn(iface);
+        when(operationC.getRequestBodyElementQName()).thenThrow(new Exception("no body element"));
+        setMockOperations(mockOperationA, mockOperationB, makeMockOperation(operationC));
+
+        assertThat(index.getOperations(REQUEST_A), is(Arrays.asList(operationA, operationC)));
+        assertThat(index.getOperations(new QName("urn:test", "other")), is(Arrays.asList(operationC)));
+        assertThat(index.getOperations(), is(Arrays.asList(operationA, operationB, operationC)));
+    }
+
+    @Test
+    public void findsNoOperationsForUnknownBodyElementWhenAllAreIndexed() throws Exception {
+        assertThat(index.getOperations(new QName("urn:test", "other")), is(Collections.<WsdlOperation>emptyList()));
+    }
+
+    @Test
+    public void rebuildsWhenMockOperationIsRemoved() throws Exception {
+        index.getOperations();
+        ArgumentCaptor<MockServiceListener> listener = ArgumentCaptor.forClass(MockServiceListener.class);
+        verify(mockService).addMockServiceListener(listener.capture());
+
+        setMockOperations(mockOperationB);
+        listener.getValue().mockOperationRemoved(mockOperationA);
+
+        assertThat(index.getOperations(), is(Arrays.asList(operationB)));
+        assertThat(index.getMockOperation(operationA), is(nullValue()));
+    }
+
+    @Test
+    public void rebuildsWhenMockOperationIsPointedToAnotherOperation() throws Exception {
+        index.getOperations();
+        ArgumentCaptor<PropertyChangeListener> listener = ArgumentCaptor.forClass(PropertyChangeListener.class);
+        verify(mockOperationA).addPropertyChangeListener(eq(WsdlMockOperation.OPERATION_PROPERTY), listener.capture());
+
+        when(mockOperationA.getOperation()).thenReturn(operationB);
+        listener.getValue().propertyChange(
+                new PropertyChangeEvent(mockOperationA, WsdlMockOperation.OPERATION_PROPERTY, operationA, operationB));
+
+        assertThat(index.getOperations(REQUEST_A), is(Collections.<WsdlOperation>emptyList()));
+        assertThat(index.getMockOperation(operationB), is(mockOperationA));
+    }
+
+    @Test
+    public void rebuildsWhenOperationOfInterfaceIsUpdated() throws Exception {
+        index.getOperations();
+        ArgumentCaptor<InterfaceListener> listener = ArgumentCaptor.forClass(InterfaceListener.class);
+        verify(iface).addInterfaceListener(listener.capture());
+
+        when(operationA.getRequestBodyElementQName()).thenReturn(REQUEST_B);
+        listener.getValue().operationUpdated(operationA);
+
+        assertThat(index.getOperations(REQUEST_B), is(Arrays.asList(operationA, operationB)));
+    }
+
+    @Test
+    public void removesListenersWhenReleased() throws Exception {
+        index.getOperations();
+        index.release();
+
+        verify(mockService).removeMockServiceListener(any(MockServiceListener.class));
+        verify(iface).removeInterfaceListener(any(InterfaceListener.class));
+        verify(mockOperationA).removePropertyChangeListener(eq(WsdlMockOperation.OPERATION_PROPERTY),
+                any(PropertyChangeListener.class));
+    }
+
+    private WsdlOperation makeOperation(QName requestBodyElement) throws Exception {
+        WsdlOperation operation = mock(WsdlOperation.class);
+        when(operation.getInterface()).thenReturn(iface);
+        when(operation.getRequestBodyElementQName()).thenReturn(requestBodyElement);
+        return operation;
+    }
+
+    private WsdlMockOperation makeMockOperation(WsdlOperation operation) {
+        WsdlMockOperation mockOperation = mock(WsdlMockOperation.class);
+        when(mockOperation.getOperation()).thenReturn(operation);
+        return mockOperation;
+    }
+
+    private void setMockOperations(WsdlMockOperation... mockOperations) {
+        when(mockService.getMockOperationCount()).thenReturn(mockOperations.length);
+        for (int c = 0; c < mockOperations.length; c++) {
+            when(mockService.getMockOperationAt(c)).thenReturn(mockOperations[c]);
+        }
+    }
+}
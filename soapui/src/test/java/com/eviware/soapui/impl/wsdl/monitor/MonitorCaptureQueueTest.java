@@ -0,0 +1,152 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.impl.wsdl.monitor;
+
+import com.eviware.soapui.impl.wsdl.monitor.MonitorCaptureQueue.OverflowPolicy;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class MonitorCaptureQueueTest {
+    private final List<WsdlMonitorMessageExchange> handled = Collections
+            .synchronizedList(new ArrayList<WsdlMonitorMessageExchange>());
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<Integer>());
+    private final CountDownLatch release = new CountDownLatch(1);
+    private MonitorCaptureQueue queue;
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        if (queue != null) {
+            queue.stop();
+        }
+    }
+
+    @Test
+    public void handsExchangesToHandlerInCaptureOrder() throws Exception {
+        queue = new MonitorCaptureQueue(100, 10, OverflowPolicy.DROP_OLDEST, new RecordingHandler(false));
+        queue.start("test");
+
+        List<WsdlMonitorMessageExchange> exchanges = createExchanges(25);
+        for (WsdlMonitorMessageExchange exchange : exchanges) {
+            assertTrue(queue.add(exchange));
+        }
+
+        waitForHandled(25);
+        assertThat(handled, is(exchanges));
+        for (int size : batchSizes) {
+            assertTrue(size <= 10);
+        }
+    }
+
+    @Test
+    public void dropsOldestWaitingExchangeWhenFull() throws Exception {
+        queue = new MonitorCaptureQueue(2, 10, OverflowPolicy.DROP_OLDEST, new RecordingHandler(true));
+        List<WsdlMonitorMessageExchange> exchanges = createExchanges(4);
+
+        queue.start("test");
+        queue.add(exchanges.get(0));
+        waitForHandled(1);
+
+        queue.add(exchanges.get(1));
+        queue.add(exchanges.get(2));
+        assertTrue(queue.add(exchanges.get(3)));
+
+        assertThat(queue.getDroppedCount(), is(1L));
+        verify(exchanges.get(1)).discard();
+        verify(exchanges.get(3), never()).discard();
+    }
+
+    @Test
+    public void dropsNewExchangeWhenFull() throws Exception {
+        queue = new MonitorCaptureQueue(2, 10, OverflowPolicy.DROP_NEWEST, new RecordingHandler(true));
+        List<WsdlMonitorMessageExchange> exchanges = createExchanges(4);
+
+        queue.start("test");
+        queue.add(exchanges.get(0));
+        waitForHandled(1);
+
+        queue.add(exchanges.get(1));
+        queue.add(exchanges.get(2));
+        assertFalse(queue.add(exchanges.get(3)));
+
+        assertThat(queue.getDroppedCount(), is(1L));
+        verify(exchanges.get(3)).discard();
+        verify(exchanges.get(1), never()).discard();
+    }
+
+    @Test
+    public void discardsExchangesAddedWhenStopped() {
+        queue = new MonitorCaptureQueue(2, 10, OverflowPolicy.BLOCK, new RecordingHandler(false));
+        WsdlMonitorMessageExchange exchange = mock(WsdlMonitorMessageExchange.class);
+
+        assertFalse(queue.add(exchange));
+        verify(exchange).discard();
+    }
+
+    private void waitForHandled(int count) throws InterruptedException {
+        long end = System.currentTimeMillis() + 5000;
+        while (handled.size() < count && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+
+        assertThat(handled.size(), is(count));
+    }
+
+    private static List<WsdlMonitorMessageExchange> createExchanges(int count) {
+        List<WsdlMonitorMessageExchange> exchanges = new ArrayList<WsdlMonitorMessageExchange>();
+        for (int c = 0; c < count; c++) {
+            exchanges.add(mock(WsdlMonitorMessageExchange.class));
+        }
+
+        return exchanges;
+    }
+
+    private class RecordingHandler implements MonitorCaptureQueue.BatchHandler {
+        private final boolean block;
+
+        private RecordingHandler(boolean block) {
+            this.block = block;
+        }
+
+        public void handleBatch(List<WsdlMonitorMessageExchange> exchanges) {
+            batchSizes.add(exchanges.size());
+            handled.addAll(exchanges);
+
+            if (block) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
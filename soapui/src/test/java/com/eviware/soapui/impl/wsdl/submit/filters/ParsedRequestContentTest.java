@@ -0,0 +1,79 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.impl.wsdl.submit.filters;
+
+import com.eviware.soapui.impl.wsdl.WsdlSubmitContext;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.BaseHttpRequestTransport;
+import com.eviware.soapui.model.iface.SubmitContext;
+import com.eviware.soapui.utils.ModelItemFactory;
+import org.apache.xmlbeans.XmlObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.w3c.dom.Document;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class ParsedRequestContentTest {
+    private static final String REQUEST_CONTENT = "<test>\n  <testing>value</testing>\n</test>";
+
+    private SubmitContext context;
+
+    @Before
+    public void setUp() throws Exception {
+        context = new WsdlSubmitContext(ModelItemFactory.makeTestRequestStep());
+        context.setProperty(BaseHttpRequestTransport.REQUEST_CONTENT, REQUEST_CONTENT);
+    }
+
+    @Test
+    public void reusesXmlObjectWhileContentIsUnchanged() throws Exception {
+        XmlObject xmlObject = ParsedRequestContent.getXmlObject(context);
+
+        assertThat(ParsedRequestContent.getXmlObject(context), is(sameInstance(xmlObject)));
+    }
+
+    @Test
+    public void parsesContentAgainAfterItIsReplaced() throws Exception {
+        XmlObject xmlObject = ParsedRequestContent.getXmlObject(context);
+        context.setProperty(BaseHttpRequestTransport.REQUEST_CONTENT, new String(REQUEST_CONTENT));
+
+        assertThat(ParsedRequestContent.getXmlObject(context), is(not(sameInstance(xmlObject))));
+    }
+
+    @Test
+    public void publishesStrippedXmlObject() throws Exception {
+        XmlObject xmlObject = ParsedRequestContent.getXmlObject(context, true);
+        String content = ParsedRequestContent.setXmlObject(context, xmlObject, true);
+
+        assertThat(content, is("<test><testing>value</testing></test>"));
+        assertThat(ParsedRequestContent.isWhitespaceStripped(context), is(true));
+        assertThat(ParsedRequestContent.getXmlObject(context, true), is(sameInstance(xmlObject)));
+    }
+
+    @Test
+    public void reusesDocumentAfterItIsSerialized() throws Exception {
+        Document document = ParsedRequestContent.getDocument(context);
+        document.getDocumentElement().setAttribute("id", "1");
+        String content = ParsedRequestContent.setDocument(context, document);
+
+        assertThat(context.getProperty(BaseHttpRequestTransport.REQUEST_CONTENT), is((Object) content));
+        assertThat(ParsedRequestContent.getDocument(context), is(sameInstance(document)));
+        assertThat(ParsedRequestContent.isWhitespaceStripped(context), is(false));
+    }
+}
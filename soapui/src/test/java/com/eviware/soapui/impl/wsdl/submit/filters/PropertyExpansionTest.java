@@ -49,6 +49,7 @@ public class PropertyExpansionTest {
         assertEquals(" value ", PropertyExpander.expandProperties(context, " ${test} "));
         assertEquals("", PropertyExpander.expandProperties(context, "${testa}"));
         assertEquals("valuevalue", PropertyExpander.expandProperties(context, "${test}${test}"));
+        assertEquals("valuec${test", PropertyExpander.expandProperties(context, "${test}c${test"));
 
         context.setProperty("testa", "");
         assertEquals("", PropertyExpander.expandProperties(context, "${testa}"));
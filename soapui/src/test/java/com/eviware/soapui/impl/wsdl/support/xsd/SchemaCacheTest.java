@@ -0,0 +1,137 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.impl.wsdl.support.xsd;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.xmlbeans.SchemaTypeSystem;
+import org.apache.xmlbeans.XmlBeans;
+import org.apache.xmlbeans.XmlObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.xml.namespace.QName;
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class SchemaCacheTest {
+    private final static List<XmlObject> NO_SCHEMAS = Collections.emptyList();
+
+    private File directory;
+
+    @Before
+    public void setUp() {
+        directory = new File(System.getProperty("java.io.tmpdir"), "schemacachetest-" + System.nanoTime());
+    }
+
+    @After
+    public void tearDown() {
+        FileUtils.deleteQuietly(directory);
+    }
+
+    @Test
+    public void loadsSavedTypeSystem() throws Exception {
+        XmlObject schema = createSchema("urn:test", "order");
+        String key = SchemaCache.createKey(Arrays.asList(schema), NO_SCHEMAS, false);
+        SchemaCache cache = new SchemaCache(directory, SchemaCache.DEFAULT_MAX_SIZE, SchemaCache.DEFAULT_MAX_AGE);
+
+        assertThat(cache.load(key), is(nullValue()));
+
+        cache.save(key, compile(schema));
+        SchemaTypeSystem loaded = cache.load(key);
+
+        assertThat(loaded, is(notNullValue()));
+        assertThat(loaded.globalElements().length, is(1));
+        assertThat(loaded.globalElements()[0].getName(), is(new QName("urn:test", "order")));
+    }
+
+    @Test
+    public void createsSameKeyIndependentOfOrder() throws Exception {
+        XmlObject first = createSchema("urn:a", "a");
+        XmlObject second = createSchema("urn:b", "b");
+
+        String key = SchemaCache.createKey(Arrays.asList(first, second), NO_SCHEMAS, false);
+
+        assertThat(SchemaCache.createKey(Arrays.asList(second, first), NO_SCHEMAS, false), is(key));
+        assertThat(SchemaCache.createKey(Arrays.asList(first, second), NO_SCHEMAS, true), is(not(key)));
+        assertThat(SchemaCache.createKey(Arrays.asList(first, createSchema("urn:b", "c")), NO_SCHEMAS, false),
+                is(not(key)));
+    }
+
+    @Test
+    public void createsKeyFromSourceAndImportLocations() throws Exception {
+        String content = "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\" targetNamespace=\"urn:a\">"
+                + "<xs:import namespace=\"urn:b\" schemaLocation=\"b.xsd\"/></xs:schema>";
+        XmlObject first = XmlObject.Factory.parse(content);
+        first.documentProperties().setSourceName("http://first/a.xsd");
+        XmlObject second = XmlObject.Factory.parse(content);
+        second.documentProperties().setSourceName("http://second/a.xsd");
+
+        String key = SchemaCache.createKey(Arrays.asList(first), NO_SCHEMAS, false);
+
+        assertThat(SchemaCache.createKey(Arrays.asList(second), NO_SCHEMAS, false), is(not(key)));
+        assertThat(SchemaCache.createKey(Arrays.asList(first), NO_SCHEMAS, false), is(key));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedEntriesBeyondMaximumSize() throws Exception {
+        XmlObject first = createSchema("urn:a", "a");
+        XmlObject second = createSchema("urn:b", "b");
+        String firstKey = SchemaCache.createKey(Arrays.asList(first), NO_SCHEMAS, false);
+        String secondKey = SchemaCache.createKey(Arrays.asList(second), NO_SCHEMAS, false);
+
+        new SchemaCache(directory, Long.MAX_VALUE, SchemaCache.DEFAULT_MAX_AGE).save(firstKey, compile(first));
+        new File(new File(directory, firstKey), "entry.properties").setLastModified(System.currentTimeMillis() - 60000);
+        long entrySize = FileUtils.sizeOfDirectory(new File(directory, firstKey));
+
+        SchemaCache cache = new SchemaCache(directory, entrySize + entrySize / 2, SchemaCache.DEFAULT_MAX_AGE);
+        cache.save(secondKey, compile(second));
+
+        assertThat(new File(directory, firstKey).exists(), is(false));
+        assertThat(cache.load(secondKey), is(notNullValue()));
+    }
+
+    @Test
+    public void evictsEntriesOlderThanMaximumAge() throws Exception {
+        XmlObject schema = createSchema("urn:a", "a");
+        String key = SchemaCache.createKey(Arrays.asList(schema), NO_SCHEMAS, false);
+
+        new SchemaCache(directory, Long.MAX_VALUE, SchemaCache.DEFAULT_MAX_AGE).save(key, compile(schema));
+        new File(new File(directory, key), "entry.properties").setLastModified(System.currentTimeMillis() - 60000);
+
+        new SchemaCache(directory, Long.MAX_VALUE, 1000).evict();
+
+        assertThat(new File(directory, key).exists(), is(false));
+    }
+
+    private static XmlObject createSchema(String namespace, String element) throws Exception {
+        return XmlObject.Factory.parse("<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\" targetNamespace=\""
+                + namespace + "\"><xs:element name=\"" + element + "\" type=\"xs:string\"/></xs:schema>");
+    }
+
+    private static SchemaTypeSystem compile(XmlObject schema) throws Exception {
+        return XmlBeans.compileXsd(new XmlObject[]{schema}, XmlBeans.getBuiltinTypeSystem(), null);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.model.propertyexpansion;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class PropertyExpansionTemplateTest {
+
+    @Test
+    public void splitsContentIntoLiteralsAndProperties() {
+        PropertyExpansionTemplate template = PropertyExpansionTemplate.compile("a${#Project#x}b${=1+1}");
+
+        assertThat(template.isDynamic(), is(false));
+        assertThat(template.getPropertyCount(), is(2));
+        assertThat(template.getLiteral(0), is("a"));
+        assertThat(template.getPropertyName(0), is("#Project#x"));
+        assertThat(template.getLiteral(1), is("b"));
+        assertThat(template.getPropertyName(1), is("=1+1"));
+        assertThat(template.getLiteral(2), is(""));
+    }
+
+    @Test
+    public void keepsEscapedExpansionsAsLiterals() {
+        PropertyExpansionTemplate template = PropertyExpansionTemplate.compile("a$${b}c");
+
+        assertThat(template.getPropertyCount(), is(0));
+        assertThat(template.getLiteral(0), is("a${b}c"));
+    }
+
+    @Test
+    public void marksNestedExpansionsAsDynamic() {
+        assertThat(PropertyExpansionTemplate.compile("${${name}}").isDynamic(), is(true));
+    }
+
+    @Test
+    public void keepsUnterminatedExpansionAsLiteral() {
+        PropertyExpansionTemplate template = PropertyExpansionTemplate.compile("a${b}c${d");
+
+        assertThat(template.getPropertyCount(), is(1));
+        assertThat(template.getLiteral(1), is("c${d"));
+    }
+
+    @Test
+    public void cachesCompiledTemplates() {
+        PropertyExpansionTemplate.clearCache();
+        PropertyExpansionTemplate template = PropertyExpansionTemplate.getTemplate("${a}");
+
+        assertThat(PropertyExpansionTemplate.getTemplate("${a}"), sameInstance(template));
+    }
+
+    @Test
+    public void keepsRecentlyUsedTemplatesWhenFull() {
+        PropertyExpansionTemplate.clearCache();
+        PropertyExpansionTemplate template = PropertyExpansionTemplate.getTemplate("${a}");
+
+        for (int c = 0; c < 5000; c++) {
+            PropertyExpansionTemplate.getTemplate("${b" + c + "}");
+            assertThat(PropertyExpansionTemplate.getTemplate("${a}"), sameInstance(template));
+        }
+    }
+
+    @Test
+    public void compilesLargeContentEveryTime() {
+        PropertyExpansionTemplate.clearCache();
+        StringBuilder content = new StringBuilder();
+        while (content.length() <= 16 * 1024) {
+            content.append("${a}bc");
+        }
+
+        PropertyExpansionTemplate template = PropertyExpansionTemplate.getTemplate(content.toString());
+
+        assertThat(PropertyExpansionTemplate.getTemplate(content.toString()), not(sameInstance(template)));
+    }
+}
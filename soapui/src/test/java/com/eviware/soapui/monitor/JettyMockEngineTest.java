@@ -0,0 +1,152 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.monitor;
+
+import com.eviware.soapui.impl.wsdl.WsdlProject;
+import com.eviware.soapui.impl.wsdl.mock.WsdlMockOperation;
+import com.eviware.soapui.impl.wsdl.mock.WsdlMockResponse;
+import com.eviware.soapui.impl.wsdl.mock.WsdlMockRunner;
+import com.eviware.soapui.impl.wsdl.mock.WsdlMockService;
+import com.eviware.soapui.model.mock.MockResult;
+import com.eviware.soapui.model.support.MockRunListenerAdapter;
+import com.eviware.soapui.support.Tools;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class JettyMockEngineTest {
+    private static final long DELAY = 1000;
+    private static final int REQUEST_COUNT = 10;
+
+    private static final String REQUEST = "<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\" "
+            + "xmlns:web=\"http://www.webserviceX.NET/\"><soapenv:Body><web:ConversionRate>"
+            + "<web:FromCurrency>SEK</web:FromCurrency><web:ToCurrency>USD</web:ToCurrency>"
+            + "</web:ConversionRate></soapenv:Body></soapenv:Envelope>";
+
+    private WsdlMockService mockService;
+    private WsdlMockRunner mockRunner;
+    private final List<MockResult> results = new CopyOnWriteArrayList<MockResult>();
+
+    @Before
+    public void setUp() throws Exception {
+        File sampleProjectFile = new File(JettyMockEngineTest.class.getResource("/sample-soapui-project.xml").toURI());
+        WsdlProject project = new WsdlProject(sampleProjectFile.getAbsolutePath());
+
+        mockService = project.getMockServiceByName("CurrencyConvertorSoap MockService");
+        mockService.setPort(getFreePort());
+        WsdlMockOperation mockOperation = (WsdlMockOperation) mockService.getMockOperationByName("ConversionRate");
+        WsdlMockResponse mockResponse = mockOperation.getMockResponseByName("Response 1");
+        mockResponse.setResponseDelay(DELAY);
+
+        mockService.addMockRunListener(new MockRunListenerAdapter() {
+            @Override
+            public void onMockResult(MockResult result) {
+                results.add(result);
+            }
+        });
+        mockRunner = mockService.start();
+    }
+
+    @After
+    public void tearDown() {
+        if (mockRunner != null) {
+            mockRunner.stop();
+        }
+    }
+
+    @Test
+    public void sendsDelayedResponsesConcurrently() throws Exception {
+        final URL url = new URL("http://127.0.0.1:" + mockService.getPort() + mockService.getPath());
+        ExecutorService executor = Executors.newFixedThreadPool(REQUEST_COUNT);
+
+        try {
+            List<Future<String>> responses = new ArrayList<Future<String>>();
+            long startTime = System.currentTimeMillis();
+
+            for (int c = 0; c < REQUEST_COUNT; c++) {
+                responses.add(executor.submit(new Callable<String>() {
+                    public String call() throws Exception {
+                        long requestStartTime = System.currentTimeMillis();
+                        String response = post(url);
+                        assertThat(System.currentTimeMillis() - requestStartTime >= DELAY - 50, is(true));
+                        return response;
+                    }
+                }));
+            }
+
+            for (Future<String> response : responses) {
+                assertThat(response.get(30, TimeUnit.SECONDS), containsString("ConversionRateResponse"));
+            }
+
+            // the delays overlap instead of being waited for one after another
+            assertThat(System.currentTimeMillis() - startTime < DELAY * REQUEST_COUNT / 2, is(true));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(results.size(), is(REQUEST_COUNT));
+        for (MockResult result : results) {
+            assertThat(result.getTimeTaken() >= DELAY, is(true));
+        }
+    }
+
+    private static String post(URL url) throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        try {
+            connection.setDoOutput(true);
+            connection.setRequestMethod("POST");
+            connection.setRequestProperty("Content-Type", "text/xml; charset=UTF-8");
+            connection.setRequestProperty("SOAPAction", "\"http://www.webserviceX.NET/ConversionRate\"");
+
+            OutputStream out = connection.getOutputStream();
+            out.write(REQUEST.getBytes("UTF-8"));
+            out.close();
+
+            assertThat(connection.getResponseCode(), is(HttpURLConnection.HTTP_OK));
+            return Tools.readAll(connection.getInputStream(), 0).toString("UTF-8");
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static int getFreePort() throws Exception {
+        ServerSocket socket = new ServerSocket(0);
+        try {
+            return socket.getLocalPort();
+        } finally {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+
+package com.eviware.soapui.monitor;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class MockEngineThreadPoolTest {
+
+    @Test
+    public void runsDispatchedJobsOnOwnThreads() throws Exception {
+        MockEngineThreadPool threadPool = new MockEngineThreadPool(4);
+        final CountDownLatch latch = new CountDownLatch(1);
+        final String[] threadName = new String[1];
+
+        assertThat(threadPool.dispatch(new Runnable() {
+            public void run() {
+                threadName[0] = Thread.currentThread().getName();
+                latch.countDown();
+            }
+        }), is(true));
+
+        assertThat(latch.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(threadName[0].startsWith("SoapUI Mock "), is(true));
+        assertThat(threadPool.getMaxThreads(), is(4));
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+
+package com.eviware.soapui.monitor;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MockResponseDelayTest {
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+
+    @Before
+    public void setUp() {
+        final Map<String, Object> attributes = new HashMap<String, Object>();
+
+        request = mock(HttpServletRequest.class);
+        doAnswer(new Answer<Object>() {
+            public Object answer(InvocationOnMock invocation) {
+                attributes.put((String) invocation.getArguments()[0], invocation.getArguments()[1]);
+                return null;
+            }
+        }).when(request).setAttribute(anyString(), anyObject());
+        doAnswer(new Answer<Object>() {
+            public Object answer(InvocationOnMock invocation) {
+                return attributes.remove(invocation.getArguments()[0]);
+            }
+        }).when(request).removeAttribute(anyString());
+        when(request.getAttribute(anyString())).thenAnswer(new Answer<Object>() {
+            public Object answer(InvocationOnMock invocation) {
+                return attributes.get(invocation.getArguments()[0]);
+            }
+        });
+
+        response = mock(HttpServletResponse.class);
+    }
+
+    @Test
+    public void waitsForDelayOutsideMockEngine() {
+        assertThat(MockResponseDelay.defer(request, response, 1000), is(false));
+        assertThat(MockResponseDelay.getRemainingDelay(request), is(0L));
+        assertThat(MockResponseDelay.getDeferredDelay(request), is(0L));
+    }
+
+    @Test
+    public void defersDelayToMockEngine() {
+        MockResponseDelay.allowDeferral(request);
+
+        assertThat(MockResponseDelay.defer(request, response, 1000), is(true));
+
+        long remaining = MockResponseDelay.getRemainingDelay(request);
+        assertThat(remaining > 500 && remaining <= 1000, is(true));
+        assertThat(MockResponseDelay.getDeferredDelay(request), is(1000L));
+        verify(response).setBufferSize(MockResponseDelay.DELAYED_RESPONSE_BUFFER_SIZE);
+
+        MockResponseDelay.clear(request);
+        assertThat(MockResponseDelay.getRemainingDelay(request), is(0L));
+        assertThat(MockResponseDelay.getDeferredDelay(request), is(0L));
+    }
+
+    @Test
+    public void waitsForDelayWhenContentHasBeenWritten() {
+        MockResponseDelay.allowDeferral(request);
+        doThrow(new IllegalStateException()).when(response).setBufferSize(anyInt());
+
+        assertThat(MockResponseDelay.defer(request, response, 1000), is(false));
+        assertThat(MockResponseDelay.getRemainingDelay(request), is(0L));
+    }
+}
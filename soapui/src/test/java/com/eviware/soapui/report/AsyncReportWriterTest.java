@@ -0,0 +1,90 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.report;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class AsyncReportWriterTest {
+    private AsyncReportWriter reportWriter = new AsyncReportWriter(4);
+
+    @After
+    public void tearDown() {
+        reportWriter.close();
+    }
+
+    @Test
+    public void writesTasksInOrder() {
+        final List<Integer> written = Collections.synchronizedList(new ArrayList<Integer>());
+        List<Integer> expected = new ArrayList<Integer>();
+
+        for (int c = 0; c < 100; c++) {
+            final int number = c;
+            reportWriter.submit(new AsyncReportWriter.Task() {
+                public void write() throws Exception {
+                    written.add(number);
+                }
+            });
+            expected.add(c);
+        }
+
+        reportWriter.flush();
+
+        assertThat(written, is(expected));
+    }
+
+    @Test
+    public void continuesAfterFailingTask() {
+        final List<String> written = Collections.synchronizedList(new ArrayList<String>());
+
+        reportWriter.submit(new AsyncReportWriter.Task() {
+            public void write() throws Exception {
+                throw new Exception("Disk full");
+            }
+        });
+        reportWriter.submit(new AsyncReportWriter.Task() {
+            public void write() throws Exception {
+                written.add("written");
+            }
+        });
+
+        reportWriter.close();
+
+        assertThat(written.size(), is(1));
+    }
+
+    @Test
+    public void writesDirectlyAfterClose() {
+        final List<String> written = new ArrayList<String>();
+        reportWriter.close();
+
+        reportWriter.submit(new AsyncReportWriter.Task() {
+            public void write() throws Exception {
+                written.add("written");
+            }
+        });
+
+        assertThat(written.size(), is(1));
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.report;
+
+import com.eviware.soapui.support.Tools;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.HashMap;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class JUnitReportTest {
+    private AsyncReportWriter reportWriter;
+    private File directory;
+
+    @Before
+    public void setUp() {
+        reportWriter = new AsyncReportWriter(2);
+        directory = new File(System.getProperty("java.io.tmpdir"), "junitreporttest-" + System.nanoTime());
+        directory.mkdirs();
+    }
+
+    @After
+    public void tearDown() {
+        reportWriter.close();
+    }
+
+    @Test
+    public void streamedReportMatchesReportInMemory() throws Exception {
+        File inMemory = new File(directory, "memory.xml");
+        createReport(null).save(inMemory);
+
+        File streamed = new File(directory, "streamed.xml");
+        createReport(reportWriter).save(streamed);
+
+        assertThat(read(streamed), is(read(inMemory)));
+    }
+
+    private JUnitReport createReport(AsyncReportWriter writer) {
+        JUnitReport report = new JUnitReport();
+        report.setReportWriter(writer);
+        report.setTestSuiteName("Project.TestSuite");
+
+        HashMap<String, String> properties = new HashMap<String, String>();
+        for (int c = 0; c < 10; c++) {
+            report.addTestCase("TestCase " + c, c * 10, properties);
+        }
+
+        report.addTestCaseWithFailure("Failing TestCase", 5, "Failed", "<h3>Step Failed</h3>", properties);
+        report.addTestCaseWithError("Erroneous TestCase", 5, "Error", "stacktrace", properties)
+                .getError().setStringValue("changed stacktrace");
+
+        return report;
+    }
+
+    private static String read(File file) throws Exception {
+        FileInputStream in = new FileInputStream(file);
+        try {
+            return new String(Tools.readAll(in, 0).toByteArray(), "UTF-8");
+        } finally {
+            in.close();
+        }
+    }
+}
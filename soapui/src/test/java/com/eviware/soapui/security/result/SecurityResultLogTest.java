@@ -0,0 +1,101 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.security.result;
+
+import com.eviware.soapui.support.CaptureStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.StringWriter;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class SecurityResultLogTest {
+    private CaptureStore store;
+    private SecurityResultLog log;
+
+    @Before
+    public void setUp() {
+        File directory = new File(System.getProperty("java.io.tmpdir"), "securityresultlogtest-" + System.nanoTime());
+        store = new CaptureStore(directory, 1024, 64 * 1024);
+        log = new SecurityResultLog(store, 16);
+    }
+
+    @After
+    public void tearDown() {
+        store.close();
+    }
+
+    @Test
+    public void returnsTextAcrossChunks() {
+        StringBuilder expected = new StringBuilder();
+        for (int c = 0; c < 20; c++) {
+            String line = "SecurityScan " + c + " [FAILED]\n";
+            log.append(line);
+            expected.append(line);
+        }
+
+        assertThat(log.getText(), is(expected.toString()));
+        assertThat(log.length(), is((long) expected.length()));
+    }
+
+    @Test
+    public void keepsChunksInMemoryWithoutStore() {
+        SecurityResultLog memoryLog = new SecurityResultLog(null, 4);
+
+        memoryLog.append("first ").append("second");
+
+        assertThat(memoryLog.getText(), is("first second"));
+    }
+
+    @Test
+    public void readsLinkedLogsWithoutCopying() throws Exception {
+        SecurityResultLog scanLog = new SecurityResultLog(store, 16);
+        scanLog.append("request 1 [FAILED]\n");
+
+        log.append("Step [Request] ").append(scanLog).append("end");
+        scanLog.append("request 2 [OK]\n");
+
+        StringWriter writer = new StringWriter();
+        log.writeTo(writer);
+
+        String expected = "Step [Request] request 1 [FAILED]\nrequest 2 [OK]\nend";
+        assertThat(writer.toString(), is(expected));
+        assertThat(log.getText(), is(expected));
+        assertThat(log.length(), is((long) expected.length()));
+    }
+
+    @Test
+    public void marksDiscardedChunks() {
+        log.append("first chunk of the log\n").append("tail");
+        store.clear();
+
+        assertThat(log.getText(), is(CaptureStore.DISCARDED_CONTENT + "tail"));
+    }
+
+    @Test
+    public void isEmptyAfterClear() {
+        log.append("a line that is longer than one chunk\n").append("tail");
+        log.clear();
+
+        assertThat(log.getText(), is(""));
+        assertThat(log.length(), is(0L));
+    }
+}
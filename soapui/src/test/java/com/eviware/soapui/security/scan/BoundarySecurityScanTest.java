@@ -0,0 +1,91 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.security.scan;
+
+import com.eviware.soapui.SoapUI;
+import com.eviware.soapui.impl.wsdl.support.xsd.SchemaUtils;
+import com.eviware.soapui.security.boundary.BoundaryRestrictionUtill;
+import com.eviware.soapui.settings.WsdlSettings;
+import org.apache.commons.io.FileUtils;
+import org.apache.xmlbeans.SchemaType;
+import org.apache.xmlbeans.SchemaTypeSystem;
+import org.apache.xmlbeans.XmlObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.xml.namespace.QName;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.matchers.JUnitMatchers.hasItem;
+
+public class BoundarySecurityScanTest {
+    private final static String SCHEMA = "<xsd:schema xmlns:xsd=\"http://www.w3.org/2001/XMLSchema\" "
+            + "targetNamespace=\"urn:boundary\"><xsd:simpleType name=\"code\"><xsd:restriction base=\"xsd:string\">"
+            + "<xsd:maxLength value=\"5\"/></xsd:restriction></xsd:simpleType></xsd:schema>";
+
+    private File directory;
+    private boolean cacheSchemas;
+    private String cacheDirectory;
+
+    @Before
+    public void setUp() {
+        directory = new File(System.getProperty("java.io.tmpdir"), "boundaryscantest-" + System.nanoTime());
+
+        cacheSchemas = SoapUI.getSettings().getBoolean(WsdlSettings.CACHE_SCHEMAS);
+        cacheDirectory = SoapUI.getSettings().getString(WsdlSettings.SCHEMA_CACHE_DIRECTORY, "");
+        SoapUI.getSettings().setBoolean(WsdlSettings.CACHE_SCHEMAS, true);
+        SoapUI.getSettings().setString(WsdlSettings.SCHEMA_CACHE_DIRECTORY, directory.getAbsolutePath());
+    }
+
+    @After
+    public void tearDown() {
+        SoapUI.getSettings().setBoolean(WsdlSettings.CACHE_SCHEMAS, cacheSchemas);
+        SoapUI.getSettings().setString(WsdlSettings.SCHEMA_CACHE_DIRECTORY, cacheDirectory);
+        FileUtils.deleteQuietly(directory);
+    }
+
+    @Test
+    public void readsRestrictionsOfCachedSchemaTypes() throws Exception {
+        List<String> compiled = getRestrictions(buildSchemaTypes());
+
+        SchemaTypeSystem cached = buildSchemaTypes();
+        SchemaType type = cached.findType(new QName("urn:boundary", "code"));
+        assertThat(type.getParseObject(), is(nullValue()));
+
+        List<String> restrictions = getRestrictions(cached);
+        assertThat(restrictions, is(compiled));
+        assertThat(restrictions, hasItem("type = xsd:string"));
+    }
+
+    private static SchemaTypeSystem buildSchemaTypes() throws Exception {
+        List<XmlObject> schemas = new ArrayList<XmlObject>();
+        schemas.add(XmlObject.Factory.parse(SCHEMA));
+        return SchemaUtils.buildSchemaTypes(schemas);
+    }
+
+    private static List<String> getRestrictions(SchemaTypeSystem schemaTypes) {
+        SchemaType type = schemaTypes.findType(new QName("urn:boundary", "code"));
+        return BoundaryRestrictionUtill.getRestrictions(BoundarySecurityScan.createRestrictionModel(type)
+                .getRootNode(), new ArrayList<String>());
+    }
+}
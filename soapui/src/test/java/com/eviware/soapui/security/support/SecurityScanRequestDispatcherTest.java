@@ -0,0 +1,108 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.security.support;
+
+import com.eviware.soapui.model.testsuite.TestStep;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class SecurityScanRequestDispatcherTest {
+    private SecurityScanRequestDispatcher dispatcher;
+
+    @After
+    public void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    public void limitsRequestRatePerEndpoint() throws Exception {
+        dispatcher = new SecurityScanRequestDispatcher(4, 20, "test");
+
+        long start = System.nanoTime();
+        for (int c = 0; c < 5; c++) {
+            dispatcher.acquire("http://localhost/a");
+        }
+
+        // five starts at 20 per second are spread over at least 200ms
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 190);
+    }
+
+    @Test
+    public void doesNotLimitOtherHosts() throws Exception {
+        dispatcher = new SecurityScanRequestDispatcher(4, 1, "test");
+
+        long start = System.nanoTime();
+        dispatcher.acquire("http://localhost/a");
+        dispatcher.acquire("http://otherhost/a");
+        dispatcher.acquire("http://localhost:8080/a");
+        dispatcher.acquire(null);
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 500);
+    }
+
+    @Test
+    public void limitsRequestRatePerHost() throws Exception {
+        assertThat(SecurityScanRequestDispatcher.getHostKey("http://LocalHost/a?x=1"), is("http://localhost:80"));
+        assertThat(SecurityScanRequestDispatcher.getHostKey("https://localhost:8443/b"), is("https://localhost:8443"));
+        assertThat(SecurityScanRequestDispatcher.getHostKey("not a url"), is("not a url"));
+
+        dispatcher = new SecurityScanRequestDispatcher(4, 10, "test");
+
+        long start = System.nanoTime();
+        dispatcher.acquire("http://localhost/a");
+        dispatcher.acquire("http://localhost/b?id=1");
+        dispatcher.acquire("http://localhost:80/c");
+
+        // different paths on one host share the rate of 10 per second
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 190);
+    }
+
+    @Test
+    public void limitsRequestsSentOnCallingThread() throws Exception {
+        dispatcher = new SecurityScanRequestDispatcher(1, 10, "test");
+        TestStep testStep = mock(TestStep.class);
+
+        long start = System.nanoTime();
+        for (int c = 0; c < 3; c++) {
+            dispatcher.acquire(testStep, null);
+        }
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 190);
+    }
+
+    @Test
+    public void doesNotLimitWithoutMaximumRate() throws Exception {
+        dispatcher = new SecurityScanRequestDispatcher(0, 0, "test");
+
+        long start = System.nanoTime();
+        for (int c = 0; c < 100; c++) {
+            dispatcher.acquire("http://localhost/a");
+        }
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 500);
+        assertThat(dispatcher.getConcurrency(), is(1));
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.support;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class BoundedCacheTest {
+
+    @Test
+    public void evictsEntriesWhenFull() {
+        BoundedCache<String, String> cache = BoundedCache.create(10);
+        for (int c = 0; c < 100; c++) {
+            cache.put("key" + c, "value" + c);
+        }
+
+        assertTrue(cache.getSize() <= 10);
+        assertThat(cache.get("key99"), is("value99"));
+        assertTrue(cache.getEvictionCount() >= 90);
+    }
+
+    @Test
+    public void evictsEntriesWhenKeysExceedTotalLength() {
+        BoundedCache<String, String> cache = BoundedCache.createByKeyLength(1000);
+        for (int c = 0; c < 100; c++) {
+            cache.put(String.format("%0100d", c), "value" + c);
+        }
+
+        assertTrue(cache.getSize() <= 10);
+        assertTrue(cache.getEvictionCount() >= 90);
+    }
+
+    @Test
+    public void keepsFirstValueAddedForKey() {
+        BoundedCache<String, String> cache = BoundedCache.create(10);
+        String value = new String("first");
+
+        assertThat(cache.putIfAbsent("key", value), sameInstance(value));
+        assertThat(cache.putIfAbsent("key", "second"), sameInstance(value));
+    }
+
+    @Test
+    public void weakKeyedCacheComparesKeysByIdentity() {
+        BoundedCache<String, String> cache = BoundedCache.createWeakKeyed(10);
+        String key = new String("key");
+        cache.put(key, "value");
+
+        assertThat(cache.get(key), is("value"));
+        assertThat(cache.get(new String("key")), is(nullValue()));
+    }
+
+    @Test
+    public void countsHitsAndMisses() {
+        BoundedCache<String, String> cache = BoundedCache.create(10);
+        cache.get("key");
+        cache.put("key", "value");
+        cache.get("key");
+
+        assertThat(cache.getHitCount(), is(1L));
+        assertThat(cache.getMissCount(), is(1L));
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.support;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+
+public class CaptureStoreTest {
+    private File directory;
+    private CaptureStore store;
+
+    @Before
+    public void setUp() {
+        directory = new File(System.getProperty("java.io.tmpdir"), "capturestoretest-" + System.nanoTime());
+        store = new CaptureStore(directory, 1024, 4096);
+    }
+
+    @After
+    public void tearDown() {
+        store.close();
+    }
+
+    @Test
+    public void readsAppendedData() {
+        CaptureStore.Record first = store.append(new byte[]{1, 2, 3});
+        CaptureStore.Record second = store.append("<soap:Envelope>\u00e5\u00e4\u00f6</soap:Envelope>");
+
+        assertArrayEquals(new byte[]{1, 2, 3}, first.getData());
+        assertThat(first.getLength(), is(3));
+        assertThat(second.getString(), is("<soap:Envelope>\u00e5\u00e4\u00f6</soap:Envelope>"));
+    }
+
+    @Test
+    public void returnsNullForNullData() {
+        assertThat(store.append((byte[]) null), is(nullValue()));
+        assertThat(store.append((String) null), is(nullValue()));
+    }
+
+    @Test
+    public void storesDataLargerThanSegmentSize() {
+        byte[] data = new byte[3000];
+        data[2999] = 42;
+
+        CaptureStore.Record record = store.append(data);
+
+        assertArrayEquals(data, record.getData());
+    }
+
+    @Test
+    public void deletesOldestSegmentWhenFull() {
+        CaptureStore.Record oldest = store.append(new byte[1000]);
+        for (int c = 0; c < 4; c++) {
+            store.append(new byte[1000]);
+        }
+
+        CaptureStore.Record newest = store.append(new byte[1000]);
+
+        assertThat(oldest.isDiscarded(), is(true));
+        assertThat(oldest.getString(), is(CaptureStore.DISCARDED_CONTENT));
+        assertThat(newest.isDiscarded(), is(false));
+        assertArrayEquals(new byte[1000], newest.getData());
+        assertThat(store.getSize() <= 4096, is(true));
+    }
+
+    @Test
+    public void closeDeletesSegments() {
+        CaptureStore.Record record = store.append(new byte[10]);
+        store.close();
+
+        assertArrayEquals(CaptureStore.DISCARDED_CONTENT.getBytes(), record.getData());
+        assertThat(store.append(new byte[10]), is(nullValue()));
+        assertFalse(directory.exists());
+    }
+
+    @Test
+    public void keepsSeparateStoresPerName() {
+        CaptureStore monitorStore = CaptureStore.getStore(CaptureStore.MONITOR_STORE);
+
+        assertThat(CaptureStore.getStore(CaptureStore.MONITOR_STORE), is(sameInstance(monitorStore)));
+        assertThat(CaptureStore.getStore(CaptureStore.MOCK_LOG_STORE), is(not(sameInstance(monitorStore))));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+
+package com.eviware.soapui.support;
+
+import net.sf.json.JSON;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class JsonObjectCacheTest {
+    private static final String CONTENT = "{ name: 'value', items: [1, 2, 3] }";
+
+    @Before
+    public void setUp() {
+        JsonObjectCache.clear();
+    }
+
+    @Test
+    public void parsesSameContentOnlyOnce() throws Exception {
+        JSON json = JsonObjectCache.getJsonObject(CONTENT);
+
+        assertThat(JsonObjectCache.getJsonObject(CONTENT), sameInstance(json));
+    }
+
+    @Test
+    public void parsesEqualContentFromDifferentMessagesSeparately() throws Exception {
+        String otherContent = new String(CONTENT);
+        JSON json = JsonObjectCache.getJsonObject(CONTENT);
+
+        assertThat(JsonObjectCache.getJsonObject(otherContent), not(sameInstance(json)));
+    }
+
+    @Test
+    public void rejectsInvalidContentEveryTime() throws Exception {
+        String content = "not json";
+
+        for (int c = 0; c < 2; c++) {
+            try {
+                JsonObjectCache.getJsonObject(content);
+                fail("Expected IllegalArgumentException");
+            } catch (IllegalArgumentException e) {
+                assertThat(e.getMessage(), is("Invalid JSON: not json"));
+            }
+        }
+
+        assertThat(JsonObjectCache.getMissCount() > 0, is(true));
+        assertThat(JsonObjectCache.getSize(), is(1));
+    }
+
+    @Test
+    public void facadesShareParsedContent() throws Exception {
+        JsonPathFacade facade = new JsonPathFacade(CONTENT);
+
+        assertThat(new JsonPathFacade(CONTENT).getJSON(), sameInstance(facade.getJSON()));
+        assertThat(facade.readStringValue("$.name"), is("value"));
+    }
+
+    @Test
+    public void readsCopiesOfSharedContent() throws Exception {
+        List items = new JsonPathFacade(CONTENT).readObjectValue("$.items");
+        items.clear();
+
+        List itemsReadAgain = new JsonPathFacade(CONTENT).readObjectValue("$.items");
+        assertThat(itemsReadAgain.size(), is(3));
+    }
+
+    @Test
+    public void readsSharedContentWithoutCopying() throws Exception {
+        List items = new JsonPathFacade(CONTENT).readSharedObjectValue("$.items");
+
+        assertThat(new JsonPathFacade(CONTENT).readSharedObjectValue("$.items"), sameInstance((Object) items));
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+
+package com.eviware.soapui.support;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class JsonPathExpressionCacheTest {
+
+    @Before
+    public void setUp() {
+        JsonPathExpressionCache.clear();
+    }
+
+    @Test
+    public void compilesSameExpressionOnlyOnce() throws Exception {
+        JsonPath path = JsonPathExpressionCache.getCompiledPath("$.children[1].childProperty");
+
+        assertThat(JsonPathExpressionCache.getCompiledPath("$.children[1].childProperty"), sameInstance(path));
+        assertThat(JsonPathExpressionCache.getSize(), is(1));
+    }
+
+    @Test
+    public void compilesDifferentExpressionsSeparately() throws Exception {
+        JsonPath path = JsonPathExpressionCache.getCompiledPath("$.name");
+
+        assertThat(JsonPathExpressionCache.getCompiledPath("$.items"), not(sameInstance(path)));
+        assertThat(JsonPathExpressionCache.getSize(), is(2));
+    }
+
+    @Test
+    public void writingDoesNotChangeCachedPath() throws Exception {
+        String json = "{ name: 'value' }";
+        JsonPathFacade facade = new JsonPathFacade(json);
+        assertThat(facade.readStringValue("$.name"), is("value"));
+
+        facade.writeValue("$.name", "changed");
+
+        assertThat(new JsonPathFacade(json).readStringValue("$.name"), is("value"));
+        assertThat(new JsonPathFacade(facade.getCurrentJson()).readStringValue("$.name"), is("changed"));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.support;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class SecurityTokenMatcherTest {
+    private final static List<String> NO_TOKENS = Collections.emptyList();
+
+    @Test
+    public void findsAllLiteralTokensIgnoringCase() {
+        SecurityTokenMatcher matcher = new SecurityTokenMatcher(Arrays.asList("he", "she", "his", "hers", "Exception"),
+                NO_TOKENS);
+
+        Set<String> found = matcher.findLiterals("USHERS threw an exception");
+
+        assertThat(found.size(), is(4));
+        assertThat(found.contains("he"), is(true));
+        assertThat(found.contains("she"), is(true));
+        assertThat(found.contains("hers"), is(true));
+        assertThat(found.contains("Exception"), is(true));
+        assertThat(found.contains("his"), is(false));
+    }
+
+    @Test
+    public void foldsCaseOfWholeContent() {
+        SecurityTokenMatcher matcher = new SecurityTokenMatcher(Arrays.asList("stra\u00dfe", "SS"), NO_TOKENS);
+
+        Set<String> found = matcher.findLiterals("Hauptstra\u00dfe");
+
+        assertThat(found.contains("stra\u00dfe"), is(true));
+        assertThat(found.contains("SS"), is(true));
+    }
+
+    @Test
+    public void findsWhitespaceTokens() {
+        SecurityTokenMatcher matcher = new SecurityTokenMatcher(Arrays.asList(" "), NO_TOKENS);
+
+        assertThat(matcher.findLiterals("a b").contains(" "), is(true));
+    }
+
+    @Test
+    public void findsTokensThroughFailureLinks() {
+        SecurityTokenMatcher matcher = new SecurityTokenMatcher(Arrays.asList("abcd", "bce", "c"), NO_TOKENS);
+
+        Set<String> found = matcher.findLiterals("xabce");
+
+        assertThat(found.contains("bce"), is(true));
+        assertThat(found.contains("c"), is(true));
+        assertThat(found.contains("abcd"), is(false));
+    }
+
+    @Test
+    public void ignoresEmptyTokensAndContent() {
+        SecurityTokenMatcher matcher = new SecurityTokenMatcher(Arrays.asList("", "token"), Arrays.asList(""));
+
+        assertThat(matcher.findLiterals("").isEmpty(), is(true));
+        assertThat(matcher.findLiterals(null).isEmpty(), is(true));
+        assertThat(matcher.findRegexMatches("token").isEmpty(), is(true));
+    }
+
+    @Test
+    public void reportsLastOccurrenceOfGroupedRegex() {
+        String token = "(?s).*[0-9]{3}.*";
+        SecurityTokenMatcher matcher = new SecurityTokenMatcher(NO_TOKENS, Arrays.asList(token));
+
+        Map<String, String> matches = matcher.findRegexMatches("code 123\nand 4567");
+
+        assertThat(matches.get(token), is("567"));
+    }
+
+    @Test
+    public void matchesWholeContentForOtherRegex() {
+        SecurityTokenMatcher matcher = new SecurityTokenMatcher(NO_TOKENS, Arrays.asList("[a-z]+", "[0-9]+"));
+
+        Map<String, String> matches = matcher.findRegexMatches("abc");
+
+        assertThat(matches.get("[a-z]+"), is("abc"));
+        assertThat(matches.get("[0-9]+"), is(nullValue()));
+    }
+
+    @Test
+    public void ignoresInvalidRegex() {
+        SecurityTokenMatcher matcher = new SecurityTokenMatcher(NO_TOKENS, Arrays.asList("(?s).*[.*", "(?s).*b.*"));
+
+        Map<String, String> matches = matcher.findRegexMatches("abc");
+
+        assertThat(matches.size(), is(1));
+        assertThat(matches.get("(?s).*b.*"), is("b"));
+    }
+
+    @Test
+    public void sharesMatchersForSameTokens() {
+        SecurityTokenMatcher.clearCache();
+
+        SecurityTokenMatcher matcher = SecurityTokenMatcher.getMatcher(Arrays.asList("a", "b"), Arrays.asList("c"));
+
+        assertThat(SecurityTokenMatcher.getMatcher(Arrays.asList("a", "b"), Arrays.asList("c")),
+                is(sameInstance(matcher)));
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.support.jdbc;
+
+import com.eviware.soapui.impl.settings.SettingsImpl;
+import com.eviware.soapui.settings.JdbcSettings;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JdbcConnectionPoolTest {
+    private final static String URL = "jdbc:pooltest:db";
+
+    private final Driver driver = new TestDriver();
+    private SettingsImpl settings;
+    private JdbcConnectionPool pool;
+
+    @Before
+    public void setUp() throws SQLException {
+        DriverManager.registerDriver(driver);
+
+        settings = new SettingsImpl();
+        settings.setLong(JdbcSettings.POOL_MAX_SIZE, 2);
+        settings.setLong(JdbcSettings.POOL_BORROW_TIMEOUT, 100);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        if (pool != null) {
+            pool.close();
+        }
+
+        DriverManager.deregisterDriver(driver);
+    }
+
+    @Test
+    public void reusesReturnedConnection() throws SQLException {
+        pool = createPool();
+
+        PooledJdbcConnection connection = pool.borrowConnection();
+        Connection jdbcConnection = connection.getConnection();
+        connection.release();
+
+        assertThat(pool.borrowConnection().getConnection(), sameInstance(jdbcConnection));
+        assertThat(pool.getCreateCount(), is(1L));
+        assertThat(pool.getActiveCount(), is(1));
+    }
+
+    @Test
+    public void discardsConnectionsFailingValidation() throws SQLException {
+        pool = createPool();
+
+        PooledJdbcConnection connection = pool.borrowConnection();
+        Connection jdbcConnection = connection.getConnection();
+        connection.release();
+        when(jdbcConnection.isValid(anyInt())).thenReturn(false);
+
+        assertThat(pool.borrowConnection().getConnection(), not(sameInstance(jdbcConnection)));
+        verify(jdbcConnection).close();
+        assertThat(pool.getValidationFailureCount(), is(1L));
+        assertThat(pool.getActiveCount(), is(1));
+    }
+
+    @Test
+    public void restoresConnectionStateWhenReturned() throws SQLException {
+        pool = createPool();
+
+        PooledJdbcConnection connection = pool.borrowConnection();
+        Connection jdbcConnection = connection.getConnection();
+        when(jdbcConnection.getAutoCommit()).thenReturn(false);
+        when(jdbcConnection.isReadOnly()).thenReturn(true);
+        when(jdbcConnection.getCatalog()).thenReturn("other");
+        when(jdbcConnection.getTransactionIsolation()).thenReturn(Connection.TRANSACTION_SERIALIZABLE);
+        connection.release();
+
+        verify(jdbcConnection).rollback();
+        verify(jdbcConnection).setAutoCommit(true);
+        verify(jdbcConnection).setReadOnly(false);
+        verify(jdbcConnection).setCatalog("db");
+        verify(jdbcConnection).setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        assertThat(pool.getIdleCount(), is(1));
+    }
+
+    @Test(expected = SQLException.class)
+    public void failsWhenExhaustedForBorrowTimeout() throws SQLException {
+        pool = createPool();
+
+        pool.borrowConnection();
+        pool.borrowConnection();
+        pool.borrowConnection();
+    }
+
+    @Test
+    public void waitsForReturnedConnectionWhenExhausted() throws Exception {
+        settings.setLong(JdbcSettings.POOL_MAX_SIZE, 1);
+        settings.setLong(JdbcSettings.POOL_BORROW_TIMEOUT, 5000);
+        pool = createPool();
+
+        final PooledJdbcConnection connection = pool.borrowConnection();
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                connection.release();
+            }
+        });
+        thread.start();
+
+        assertThat(pool.borrowConnection().getConnection(), sameInstance(connection.getConnection()));
+        assertThat(pool.getWaitCount() > 0, is(true));
+        thread.join();
+    }
+
+    @Test
+    public void closesIdleConnectionsWithoutFurtherBorrowing() throws Exception {
+        settings.setLong(JdbcSettings.POOL_IDLE_TIMEOUT, 20);
+        pool = createPool();
+
+        PooledJdbcConnection first = pool.borrowConnection();
+        PooledJdbcConnection second = pool.borrowConnection();
+        first.release();
+        second.release();
+
+        waitForIdleCount(0);
+
+        assertThat(pool.getIdleCount(), is(0));
+        verify(first.getConnection()).close();
+        verify(second.getConnection()).close();
+    }
+
+    @Test
+    public void keepsMinimumPoolSizeOpen() throws Exception {
+        settings.setLong(JdbcSettings.POOL_IDLE_TIMEOUT, 20);
+        settings.setLong(JdbcSettings.POOL_MIN_SIZE, 1);
+        pool = createPool();
+
+        PooledJdbcConnection first = pool.borrowConnection();
+        PooledJdbcConnection second = pool.borrowConnection();
+        first.release();
+        second.release();
+
+        waitForIdleCount(1);
+        Thread.sleep(100);
+
+        assertThat(pool.getIdleCount(), is(1));
+    }
+
+    @Test
+    public void closesIdleConnectionsWhenClosed() throws SQLException {
+        pool = createPool();
+
+        PooledJdbcConnection connection = pool.borrowConnection();
+        connection.release();
+        pool.close();
+
+        verify(connection.getConnection()).close();
+        assertThat(pool.getIdleCount(), is(0));
+    }
+
+    private JdbcConnectionPool createPool() {
+        return new JdbcConnectionPool(URL, URL, settings);
+    }
+
+    private void waitForIdleCount(int count) throws InterruptedException {
+        for (int c = 0; c < 200 && pool.getIdleCount() != count; c++) {
+            Thread.sleep(10);
+        }
+    }
+
+    private class TestDriver implements Driver {
+        public Connection connect(String url, Properties info) throws SQLException {
+            if (!acceptsURL(url)) {
+                return null;
+            }
+
+            Connection connection = mock(Connection.class);
+            when(connection.isValid(anyInt())).thenReturn(true);
+            when(connection.getAutoCommit()).thenReturn(true);
+            when(connection.getCatalog()).thenReturn("db");
+            when(connection.getTransactionIsolation()).thenReturn(Connection.TRANSACTION_READ_COMMITTED);
+            return connection;
+        }
+
+        public boolean acceptsURL(String url) {
+            return url.startsWith("jdbc:pooltest:");
+        }
+
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+    }
+}
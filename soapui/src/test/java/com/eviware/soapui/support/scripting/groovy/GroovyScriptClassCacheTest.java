@@ -0,0 +1,82 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.support.scripting.groovy;
+
+import com.eviware.soapui.support.scripting.groovy.GroovyScriptClassCache.CompiledScript;
+import groovy.lang.Binding;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class GroovyScriptClassCacheTest {
+
+    private final ClassLoader classLoader = getClass().getClassLoader();
+
+    @Test
+    public void compilesSameScriptOnlyOnce() throws Exception {
+        long misses = GroovyScriptClassCache.getMissCount();
+        long hits = GroovyScriptClassCache.getHitCount();
+
+        CompiledScript first = GroovyScriptClassCache.acquire(classLoader, "return x * 2");
+        CompiledScript second = GroovyScriptClassCache.acquire(classLoader, "return x * 2");
+
+        assertThat(second, sameInstance(first));
+        assertThat(GroovyScriptClassCache.getMissCount(), is(misses + 1));
+        assertThat(GroovyScriptClassCache.getHitCount(), is(hits + 1));
+
+        Binding binding = new Binding();
+        binding.setVariable("x", 21);
+        assertThat(first.createScript(binding).run(), is((Object) 42));
+
+        GroovyScriptClassCache.release(first);
+        GroovyScriptClassCache.release(second);
+    }
+
+    @Test
+    public void evictsScriptWhenLastReferenceIsReleased() throws Exception {
+        CompiledScript first = GroovyScriptClassCache.acquire(classLoader, "return 1");
+        long evictions = GroovyScriptClassCache.getEvictionCount();
+
+        GroovyScriptClassCache.release(first);
+        assertThat(GroovyScriptClassCache.getEvictionCount(), is(evictions + 1));
+
+        CompiledScript second = GroovyScriptClassCache.acquire(classLoader, "return 1");
+        assertThat(second, not(sameInstance(first)));
+        GroovyScriptClassCache.release(second);
+    }
+
+    @Test
+    public void enginesShareCompiledScripts() throws Exception {
+        SoapUIGroovyScriptEngine first = new SoapUIGroovyScriptEngine(classLoader);
+        SoapUIGroovyScriptEngine second = new SoapUIGroovyScriptEngine(classLoader);
+        first.setScript("return value");
+        second.setScript("return value");
+        first.setVariable("value", "a");
+        second.setVariable("value", "b");
+
+        long misses = GroovyScriptClassCache.getMissCount();
+        assertThat(first.run(), is((Object) "a"));
+        assertThat(second.run(), is((Object) "b"));
+        assertThat(GroovyScriptClassCache.getMissCount(), is(misses + 1));
+
+        first.release();
+        second.release();
+    }
+}
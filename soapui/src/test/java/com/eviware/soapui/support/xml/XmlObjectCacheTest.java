@@ -0,0 +1,58 @@
+/*
+ * SoapUI, Copyright (C) 2004-2016 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.support.xml;
+
+import org.apache.xmlbeans.XmlObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class XmlObjectCacheTest {
+    private static final String CONTENT = "<root><!-- comment --><value>1</value></root>";
+
+    @Before
+    public void setUp() {
+        XmlObjectCache.clear();
+    }
+
+    @Test
+    public void parsesSameContentOnlyOnce() throws Exception {
+        XmlObject xmlObject = XmlObjectCache.getXmlObject(CONTENT);
+
+        assertThat(XmlObjectCache.getXmlObject(CONTENT), sameInstance(xmlObject));
+    }
+
+    @Test
+    public void parsesContentSeparatelyForDifferentOptions() throws Exception {
+        XmlObject xmlObject = XmlObjectCache.getXmlObject(CONTENT);
+        XmlObject strippedXmlObject = XmlObjectCache.getXmlObject(CONTENT, true);
+
+        assertThat(strippedXmlObject, not(sameInstance(xmlObject)));
+        assertThat(XmlObjectCache.getXmlObject(CONTENT, true), sameInstance(strippedXmlObject));
+    }
+
+    @Test
+    public void parsesEqualContentFromDifferentMessagesSeparately() throws Exception {
+        String otherContent = new String(CONTENT);
+        XmlObject xmlObject = XmlObjectCache.getXmlObject(CONTENT);
+
+        assertThat(XmlObjectCache.getXmlObject(otherContent), not(sameInstance(xmlObject)));
+    }
+}